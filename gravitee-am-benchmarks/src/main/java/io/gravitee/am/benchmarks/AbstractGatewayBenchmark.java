@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks;
+
+import io.gravitee.am.benchmarks.spring.BenchmarkConfiguration;
+import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
+import io.gravitee.am.model.Client;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the domain services once per benchmark trial, sub-classes pick their beans from the context.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractGatewayBenchmark {
+
+    protected AnnotationConfigApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUpContext() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties()));
+        context.register(BenchmarkConfiguration.class);
+        context.refresh();
+        setUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownContext() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * Configuration properties of the domain services, override to benchmark a specific setting.
+     */
+    protected Map<String, Object> properties() {
+        return new HashMap<>();
+    }
+
+    protected abstract void setUp();
+
+    protected <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    protected Client client() {
+        return getBean(ClientService.class).findByClientId(BenchmarkConfiguration.CLIENT_ID).blockingGet();
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.certificate;
+
+import io.gravitee.am.certificate.api.CertificateProvider;
+import io.gravitee.am.gateway.handler.oauth2.certificate.CertificateManager;
+import io.reactivex.Maybe;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Certificate manager stand-in, without any registered provider tokens are signed with the default HMAC key.
+ *
+ * @author GraviteeSource Team
+ */
+public class InMemoryCertificateManager implements CertificateManager {
+
+    private final Map<String, CertificateProvider> certificateProviders = new ConcurrentHashMap<>();
+
+    @Override
+    public Maybe<CertificateProvider> get(String id) {
+        CertificateProvider certificateProvider = id != null ? certificateProviders.get(id) : null;
+        return (certificateProvider != null) ? Maybe.just(certificateProvider) : Maybe.empty();
+    }
+
+    public void register(String id, CertificateProvider certificateProvider) {
+        certificateProviders.put(id, certificateProvider);
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.idp;
+
+import io.gravitee.am.gateway.handler.auth.idp.IdentityProviderManager;
+import io.gravitee.am.identityprovider.api.Authentication;
+import io.gravitee.am.identityprovider.api.AuthenticationProvider;
+import io.gravitee.am.identityprovider.api.DefaultUser;
+import io.gravitee.am.identityprovider.api.User;
+import io.gravitee.am.model.IdentityProvider;
+import io.reactivex.Maybe;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Identity provider stand-in accepting any credentials for the registered users.
+ *
+ * @author GraviteeSource Team
+ */
+public class InMemoryIdentityProviderManager implements IdentityProviderManager {
+
+    private final String identityProviderId;
+    private final Map<String, List<String>> users = new ConcurrentHashMap<>();
+
+    public InMemoryIdentityProviderManager(String identityProviderId) {
+        this.identityProviderId = identityProviderId;
+    }
+
+    public void addUser(String username, List<String> roles) {
+        users.put(username, roles);
+    }
+
+    @Override
+    public Maybe<AuthenticationProvider> get(String id) {
+        return identityProviderId.equals(id) ? Maybe.just(new InMemoryAuthenticationProvider()) : Maybe.empty();
+    }
+
+    @Override
+    public Maybe<IdentityProvider> getIdentityProvider(String id) {
+        if (!identityProviderId.equals(id)) {
+            return Maybe.empty();
+        }
+        IdentityProvider identityProvider = new IdentityProvider();
+        identityProvider.setId(id);
+        return Maybe.just(identityProvider);
+    }
+
+    private class InMemoryAuthenticationProvider implements AuthenticationProvider {
+
+        @Override
+        public Maybe<User> loadUserByUsername(Authentication authentication) {
+            return loadUserByUsername((String) authentication.getPrincipal());
+        }
+
+        @Override
+        public Maybe<User> loadUserByUsername(String username) {
+            List<String> roles = users.get(username);
+            if (roles == null) {
+                return Maybe.empty();
+            }
+            DefaultUser user = new DefaultUser(username);
+            user.setRoles(roles);
+            return Maybe.just(user);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.oauth2;
+
+import io.gravitee.am.benchmarks.AbstractGatewayBenchmark;
+import io.gravitee.am.benchmarks.spring.BenchmarkConfiguration;
+import io.gravitee.am.gateway.handler.oauth2.approval.ApprovalService;
+import io.gravitee.am.gateway.handler.oauth2.request.AuthorizationRequest;
+import io.gravitee.am.model.Client;
+import io.gravitee.am.model.oauth2.ScopeApproval;
+import io.gravitee.am.repository.oauth2.api.ScopeApprovalRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Approval check of an authorization request, either auto-approved by the client or approved by stored user consents.
+ *
+ * @author GraviteeSource Team
+ */
+public class ApprovalBenchmark extends AbstractGatewayBenchmark {
+
+    private static final Set<String> SCOPES = new HashSet<>(Arrays.asList("read", "write"));
+
+    @Param({"false", "true"})
+    public boolean autoApprove;
+
+    private ApprovalService approvalService;
+    private Client client;
+
+    @Override
+    protected void setUp() {
+        approvalService = getBean(ApprovalService.class);
+        client = client();
+        client.setAutoApproveScopes(autoApprove ? Collections.singletonList("true") : null);
+
+        ScopeApprovalRepository scopeApprovalRepository = getBean(ScopeApprovalRepository.class);
+        Date expiresAt = new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000L);
+        SCOPES.forEach(scope -> scopeApprovalRepository.upsert(new ScopeApproval(BenchmarkConfiguration.USERNAME,
+                BenchmarkConfiguration.CLIENT_ID, scope, ScopeApproval.ApprovalStatus.APPROVED, expiresAt, BenchmarkConfiguration.DOMAIN_ID)).blockingGet());
+    }
+
+    @Benchmark
+    public AuthorizationRequest checkApproval() {
+        // approval check updates the request in place
+        AuthorizationRequest authorizationRequest = new AuthorizationRequest();
+        authorizationRequest.setClientId(BenchmarkConfiguration.CLIENT_ID);
+        authorizationRequest.setScopes(new HashSet<>(SCOPES));
+
+        return approvalService.checkApproval(authorizationRequest, client, BenchmarkConfiguration.USERNAME).blockingGet();
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.oauth2;
+
+import io.gravitee.am.benchmarks.AbstractGatewayBenchmark;
+import io.gravitee.am.benchmarks.repository.InMemoryAuthorizationCodeRepository;
+import io.gravitee.am.benchmarks.spring.BenchmarkConfiguration;
+import io.gravitee.am.gateway.handler.oauth2.code.AuthorizationCodeService;
+import io.gravitee.am.gateway.handler.oauth2.request.AuthorizationRequest;
+import io.gravitee.am.model.Client;
+import io.gravitee.am.model.User;
+import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collections;
+
+/**
+ * Authorization code issuance, and issuance followed by its redemption.
+ *
+ * @author GraviteeSource Team
+ */
+public class AuthorizationCodeBenchmark extends AbstractGatewayBenchmark {
+
+    private AuthorizationCodeService authorizationCodeService;
+    private InMemoryAuthorizationCodeRepository authorizationCodeRepository;
+    private AuthorizationRequest authorizationRequest;
+    private Client client;
+    private User user;
+
+    @Override
+    protected void setUp() {
+        authorizationCodeService = getBean(AuthorizationCodeService.class);
+        authorizationCodeRepository = getBean(InMemoryAuthorizationCodeRepository.class);
+        client = client();
+
+        authorizationRequest = new AuthorizationRequest();
+        authorizationRequest.setClientId(BenchmarkConfiguration.CLIENT_ID);
+        authorizationRequest.setScopes(Collections.singleton("read"));
+
+        user = new User();
+        user.setId(BenchmarkConfiguration.USER_ID);
+        user.setUsername(BenchmarkConfiguration.USERNAME);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearCodes() {
+        authorizationCodeRepository.clear();
+    }
+
+    @Benchmark
+    public AuthorizationCode create() {
+        return authorizationCodeService.create(authorizationRequest, user).blockingGet();
+    }
+
+    @Benchmark
+    public AuthorizationCode createAndRemove() {
+        return authorizationCodeService.create(authorizationRequest, user)
+                .flatMapMaybe(authorizationCode -> authorizationCodeService.remove(authorizationCode.getCode(), client))
+                .blockingGet();
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.oauth2;
+
+import io.gravitee.am.benchmarks.AbstractGatewayBenchmark;
+import io.gravitee.am.benchmarks.spring.BenchmarkConfiguration;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionRequest;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionResponse;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionService;
+import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+import io.gravitee.common.utils.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Introspection of an active end-user access token, with and without the access token near-cache.
+ *
+ * @author GraviteeSource Team
+ */
+public class IntrospectionBenchmark extends AbstractGatewayBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private IntrospectionService introspectionService;
+    private IntrospectionRequest introspectionRequest;
+
+    @Override
+    protected Map<String, Object> properties() {
+        Map<String, Object> properties = super.properties();
+        properties.put("oauth2.tokens.cache.enabled", cacheEnabled);
+        return properties;
+    }
+
+    @Override
+    protected void setUp() {
+        introspectionService = getBean(IntrospectionService.class);
+
+        AccessToken accessToken = new AccessToken();
+        accessToken.setId(UUID.random().toString());
+        accessToken.setToken(UUID.random().toString());
+        accessToken.setClientId(BenchmarkConfiguration.CLIENT_ID);
+        accessToken.setSubject(BenchmarkConfiguration.USER_ID);
+        accessToken.setScopes(Collections.singleton("read"));
+        accessToken.setCreatedAt(new Date());
+        accessToken.setExpireAt(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000L));
+        getBean(AccessTokenRepository.class).create(accessToken).blockingGet();
+
+        introspectionRequest = new IntrospectionRequest(accessToken.getToken());
+    }
+
+    @Benchmark
+    public IntrospectionResponse introspect() {
+        return introspectionService.introspect(introspectionRequest).blockingGet();
+    }
+}
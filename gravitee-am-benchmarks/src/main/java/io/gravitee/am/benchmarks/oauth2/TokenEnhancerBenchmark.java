@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.oauth2;
+
+import io.gravitee.am.benchmarks.AbstractGatewayBenchmark;
+import io.gravitee.am.benchmarks.spring.BenchmarkConfiguration;
+import io.gravitee.am.gateway.handler.oauth2.request.OAuth2Request;
+import io.gravitee.am.gateway.handler.oauth2.token.TokenEnhancer;
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+import io.gravitee.common.util.LinkedMultiValueMap;
+import io.gravitee.common.utils.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Access token enhancement for an end-user, with scopes enhanced by user permissions and optionally an ID token.
+ *
+ * @author GraviteeSource Team
+ */
+public class TokenEnhancerBenchmark extends AbstractGatewayBenchmark {
+
+    @Param({"false", "true"})
+    public boolean openid;
+
+    private TokenEnhancer tokenEnhancer;
+    private OAuth2Request oAuth2Request;
+
+    @Override
+    protected void setUp() {
+        tokenEnhancer = getBean(TokenEnhancer.class);
+
+        Set<String> scopes = new HashSet<>();
+        scopes.add("read");
+        if (openid) {
+            scopes.add("openid");
+        }
+        LinkedMultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+        parameters.set("scope", String.join(" ", scopes));
+
+        oAuth2Request = new OAuth2Request();
+        oAuth2Request.setClientId(BenchmarkConfiguration.CLIENT_ID);
+        oAuth2Request.setSubject(BenchmarkConfiguration.USER_ID);
+        oAuth2Request.setGrantType("password");
+        oAuth2Request.setScopes(scopes);
+        oAuth2Request.setRequestParameters(parameters);
+    }
+
+    @Benchmark
+    public AccessToken enhance() {
+        // the enhancer updates the token in place
+        AccessToken accessToken = new AccessToken();
+        accessToken.setId(UUID.random().toString());
+        accessToken.setToken(UUID.random().toString());
+        accessToken.setClientId(BenchmarkConfiguration.CLIENT_ID);
+        accessToken.setSubject(BenchmarkConfiguration.USER_ID);
+        accessToken.setScopes(oAuth2Request.getScopes());
+        accessToken.setCreatedAt(new Date());
+        accessToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+
+        return tokenEnhancer.enhance(accessToken, oAuth2Request).blockingGet();
+    }
+}
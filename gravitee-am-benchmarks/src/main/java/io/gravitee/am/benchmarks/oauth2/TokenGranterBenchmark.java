@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.oauth2;
+
+import io.gravitee.am.benchmarks.AbstractGatewayBenchmark;
+import io.gravitee.am.benchmarks.repository.InMemoryAccessTokenRepository;
+import io.gravitee.am.benchmarks.repository.InMemoryAuthorizationCodeRepository;
+import io.gravitee.am.benchmarks.repository.InMemoryRefreshTokenRepository;
+import io.gravitee.am.benchmarks.spring.BenchmarkConfiguration;
+import io.gravitee.am.gateway.handler.oauth2.granter.TokenGranter;
+import io.gravitee.am.gateway.handler.oauth2.request.TokenRequest;
+import io.gravitee.am.gateway.handler.oauth2.token.AccessToken;
+import io.gravitee.am.model.Client;
+import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import io.gravitee.am.repository.oauth2.model.RefreshToken;
+import io.gravitee.common.util.LinkedMultiValueMap;
+import io.gravitee.common.utils.UUID;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Token endpoint grant, from the token request to the issued access token, per grant type.
+ * Authorization codes and refresh tokens are single-use, a fresh one is stored before each invocation.
+ *
+ * @author GraviteeSource Team
+ */
+public class TokenGranterBenchmark extends AbstractGatewayBenchmark {
+
+    @Param({"client_credentials", "password", "authorization_code", "refresh_token"})
+    public String grantType;
+
+    @Param({"false", "true"})
+    public boolean generateNewTokenPerRequest;
+
+    private TokenGranter tokenGranter;
+    private InMemoryAccessTokenRepository accessTokenRepository;
+    private InMemoryRefreshTokenRepository refreshTokenRepository;
+    private InMemoryAuthorizationCodeRepository authorizationCodeRepository;
+    private Client client;
+    private TokenRequest tokenRequest;
+
+    @Override
+    protected void setUp() {
+        tokenGranter = getBean(TokenGranter.class);
+        accessTokenRepository = getBean(InMemoryAccessTokenRepository.class);
+        refreshTokenRepository = getBean(InMemoryRefreshTokenRepository.class);
+        authorizationCodeRepository = getBean(InMemoryAuthorizationCodeRepository.class);
+        client = client();
+        client.setGenerateNewTokenPerRequest(generateNewTokenPerRequest);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareTokenRequest() {
+        LinkedMultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+        parameters.set("scope", "read");
+
+        switch (grantType) {
+            case "password":
+                parameters.set("username", BenchmarkConfiguration.USERNAME);
+                parameters.set("password", "password");
+                break;
+            case "authorization_code":
+                parameters.set("code", storeAuthorizationCode());
+                break;
+            case "refresh_token":
+                parameters.set("refresh_token", storeRefreshToken());
+                break;
+            default:
+                break;
+        }
+
+        tokenRequest = new TokenRequest();
+        tokenRequest.setClientId(BenchmarkConfiguration.CLIENT_ID);
+        tokenRequest.setGrantType(grantType);
+        tokenRequest.setScopes(Collections.singleton("read"));
+        tokenRequest.setRequestParameters(parameters);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTokens() {
+        accessTokenRepository.clear();
+        refreshTokenRepository.clear();
+        authorizationCodeRepository.clear();
+    }
+
+    @Benchmark
+    public AccessToken grant() {
+        return tokenGranter.grant(tokenRequest, client).blockingGet();
+    }
+
+    private String storeAuthorizationCode() {
+        AuthorizationCode authorizationCode = new AuthorizationCode();
+        authorizationCode.setCode(UUID.random().toString());
+        authorizationCode.setClientId(BenchmarkConfiguration.CLIENT_ID);
+        authorizationCode.setSubject(BenchmarkConfiguration.USER_ID);
+        authorizationCode.setScopes(Collections.singleton("read"));
+        authorizationCode.setCreatedAt(new Date());
+        authorizationCode.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+        return authorizationCodeRepository.create(authorizationCode).blockingGet().getCode();
+    }
+
+    private String storeRefreshToken() {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setId(UUID.random().toString());
+        refreshToken.setToken(UUID.random().toString());
+        refreshToken.setClientId(BenchmarkConfiguration.CLIENT_ID);
+        refreshToken.setSubject(BenchmarkConfiguration.USER_ID);
+        refreshToken.setCreatedAt(new Date());
+        refreshToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+        return refreshTokenRepository.create(refreshToken).blockingGet().getToken();
+    }
+}
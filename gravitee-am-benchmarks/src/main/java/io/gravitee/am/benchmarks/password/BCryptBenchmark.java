@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.password;
+
+import io.gravitee.am.service.authentication.crypto.password.bcrypt.BCrypt;
+import io.gravitee.am.service.authentication.crypto.password.bcrypt.FastBCrypt;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password verification with the vendored jBCrypt port and with its allocation-free counterpart.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+
+    @Param({"4", "10"})
+    public int logRounds;
+
+    private String password;
+    private String hashed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        password = "benchmark-password";
+        hashed = BCrypt.hashpw(password, BCrypt.gensalt(logRounds, new SecureRandom()));
+    }
+
+    @Benchmark
+    public boolean checkpw_bcrypt() {
+        return BCrypt.checkpw(password, hashed);
+    }
+
+    @Benchmark
+    public boolean checkpw_fastBCrypt() {
+        return FastBCrypt.checkpw(password, hashed);
+    }
+}
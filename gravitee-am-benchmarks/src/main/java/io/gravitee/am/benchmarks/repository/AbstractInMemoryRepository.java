@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.repository;
+
+import io.gravitee.am.model.common.Page;
+import io.gravitee.am.repository.common.CrudRepository;
+import io.gravitee.common.utils.UUID;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * @author GraviteeSource Team
+ */
+public abstract class AbstractInMemoryRepository<T> implements CrudRepository<T, String> {
+
+    protected final Map<String, T> items = new ConcurrentHashMap<>();
+
+    protected abstract String getId(T item);
+
+    protected abstract void setId(T item, String id);
+
+    @Override
+    public Maybe<T> findById(String id) {
+        T item = items.get(id);
+        return (item != null) ? Maybe.just(item) : Maybe.empty();
+    }
+
+    @Override
+    public Single<T> create(T item) {
+        if (getId(item) == null) {
+            setId(item, UUID.random().toString());
+        }
+        items.put(getId(item), item);
+        return Single.just(item);
+    }
+
+    @Override
+    public Single<T> update(T item) {
+        items.put(getId(item), item);
+        return Single.just(item);
+    }
+
+    @Override
+    public Completable delete(String id) {
+        items.remove(id);
+        return Completable.complete();
+    }
+
+    protected Set<T> filter(Predicate<T> predicate) {
+        return items.values().stream().filter(predicate).collect(Collectors.toSet());
+    }
+
+    protected Page<T> page(Set<T> data, int page, int size) {
+        List<T> content = data.stream().skip((long) page * size).limit(size).collect(Collectors.toList());
+        return new Page<>(content, page, data.size());
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.repository;
+
+import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+import io.gravitee.am.repository.oauth2.model.AccessTokenCriteria;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class InMemoryAccessTokenRepository implements AccessTokenRepository {
+
+    private final Map<String, AccessToken> tokens = new ConcurrentHashMap<>();
+
+    @Override
+    public Maybe<AccessToken> findByToken(String token) {
+        AccessToken accessToken = tokens.get(token);
+        return (accessToken != null) ? Maybe.just(accessToken) : Maybe.empty();
+    }
+
+    @Override
+    public Single<AccessToken> create(AccessToken accessToken) {
+        tokens.put(accessToken.getToken(), accessToken);
+        return Single.just(accessToken);
+    }
+
+    @Override
+    public Completable delete(String token) {
+        tokens.remove(token);
+        return Completable.complete();
+    }
+
+    @Override
+    public Observable<AccessToken> findByClientIdAndSubject(String clientId, String subject) {
+        return Observable.fromIterable(tokens.values())
+                .filter(accessToken -> Objects.equals(clientId, accessToken.getClientId()) && Objects.equals(subject, accessToken.getSubject()));
+    }
+
+    @Override
+    public Observable<AccessToken> findByClientId(String clientId) {
+        return Observable.fromIterable(tokens.values())
+                .filter(accessToken -> Objects.equals(clientId, accessToken.getClientId()));
+    }
+
+    @Override
+    public Single<Long> countByClientId(String clientId) {
+        return findByClientId(clientId).count();
+    }
+
+    @Override
+    public Maybe<AccessToken> findByCriteria(AccessTokenCriteria accessTokenCriteria) {
+        return Observable.fromIterable(tokens.values())
+                .filter(accessToken -> matches(accessToken, accessTokenCriteria))
+                .firstElement();
+    }
+
+    @Override
+    public synchronized Single<AccessToken> findOrCreate(AccessTokenCriteria accessTokenCriteria, Single<AccessToken> accessTokenCandidate) {
+        Date now = new Date();
+        return findByCriteria(accessTokenCriteria)
+                .filter(accessToken -> accessToken.getExpireAt() == null || accessToken.getExpireAt().after(now))
+                .switchIfEmpty(accessTokenCandidate.flatMap(this::create).toMaybe())
+                .toSingle();
+    }
+
+    @Override
+    public Single<Long> upgrade(int batchSize) {
+        return Single.just(0L);
+    }
+
+    public void clear() {
+        tokens.clear();
+    }
+
+    private boolean matches(AccessToken accessToken, AccessTokenCriteria accessTokenCriteria) {
+        return Objects.equals(accessTokenCriteria.getClientId(), accessToken.getClientId())
+                && Objects.equals(accessTokenCriteria.getSubject(), accessToken.getSubject())
+                && Objects.equals(accessTokenCriteria.getGrantType(), accessToken.getGrantType())
+                && Objects.equals(accessTokenCriteria.getScopes(), accessToken.getRequestedScopes());
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.repository;
+
+import io.gravitee.am.repository.oauth2.api.AuthorizationCodeRepository;
+import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import io.gravitee.common.utils.UUID;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class InMemoryAuthorizationCodeRepository implements AuthorizationCodeRepository {
+
+    private final Map<String, AuthorizationCode> codesById = new ConcurrentHashMap<>();
+    private final Map<String, AuthorizationCode> codesByCode = new ConcurrentHashMap<>();
+
+    @Override
+    public Single<AuthorizationCode> create(AuthorizationCode authorizationCode) {
+        if (authorizationCode.getId() == null) {
+            authorizationCode.setId(UUID.random().toString());
+        }
+        codesById.put(authorizationCode.getId(), authorizationCode);
+        codesByCode.put(authorizationCode.getCode(), authorizationCode);
+        return Single.just(authorizationCode);
+    }
+
+    @Override
+    public Maybe<AuthorizationCode> delete(String id) {
+        AuthorizationCode authorizationCode = codesById.remove(id);
+        if (authorizationCode == null) {
+            return Maybe.empty();
+        }
+        codesByCode.remove(authorizationCode.getCode());
+        return Maybe.just(authorizationCode);
+    }
+
+    @Override
+    public Maybe<AuthorizationCode> findByCode(String code) {
+        AuthorizationCode authorizationCode = codesByCode.get(code);
+        return (authorizationCode != null) ? Maybe.just(authorizationCode) : Maybe.empty();
+    }
+
+    public void clear() {
+        codesById.clear();
+        codesByCode.clear();
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.repository;
+
+import io.gravitee.am.model.Client;
+import io.gravitee.am.model.common.Page;
+import io.gravitee.am.repository.management.api.ClientRepository;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class InMemoryClientRepository extends AbstractInMemoryRepository<Client> implements ClientRepository {
+
+    @Override
+    protected String getId(Client client) {
+        return client.getId();
+    }
+
+    @Override
+    protected void setId(Client client, String id) {
+        client.setId(id);
+    }
+
+    @Override
+    public Single<Set<Client>> findByDomain(String domain) {
+        return Single.just(filter(client -> domain.equals(client.getDomain())));
+    }
+
+    @Override
+    public Single<Page<Client>> findByDomain(String domain, int page, int size) {
+        return findByDomain(domain).map(clients -> page(clients, page, size));
+    }
+
+    @Override
+    public Maybe<Client> findByClientIdAndDomain(String clientId, String domain) {
+        return Maybe.fromCallable(() -> filter(client -> clientId.equals(client.getClientId()) && domain.equals(client.getDomain()))
+                .stream().findFirst().orElse(null));
+    }
+
+    @Override
+    public Single<Set<Client>> findByIdentityProvider(String identityProvider) {
+        return Single.just(filter(client -> client.getIdentities() != null && client.getIdentities().contains(identityProvider)));
+    }
+
+    @Override
+    public Single<Set<Client>> findByCertificate(String certificate) {
+        return Single.just(filter(client -> certificate.equals(client.getCertificate())));
+    }
+
+    @Override
+    public Single<Set<Client>> findByExtensionGrant(String tokenGranter) {
+        return Single.just(filter(client -> client.getAuthorizedGrantTypes() != null && client.getAuthorizedGrantTypes().contains(tokenGranter)));
+    }
+
+    @Override
+    public Single<Set<Client>> findAll() {
+        return Single.just(new HashSet<>(items.values()));
+    }
+
+    @Override
+    public Single<Page<Client>> findAll(int page, int size) {
+        return findAll().map(clients -> page(clients, page, size));
+    }
+
+    @Override
+    public Single<Long> countByDomain(String domain) {
+        return findByDomain(domain).map(clients -> (long) clients.size());
+    }
+
+    @Override
+    public Single<Long> count() {
+        return Single.just((long) items.size());
+    }
+}
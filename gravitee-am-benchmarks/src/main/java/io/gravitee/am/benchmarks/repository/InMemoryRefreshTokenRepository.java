@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.repository;
+
+import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
+import io.gravitee.am.repository.oauth2.model.RefreshToken;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class InMemoryRefreshTokenRepository implements RefreshTokenRepository {
+
+    private final Map<String, RefreshToken> tokens = new ConcurrentHashMap<>();
+
+    @Override
+    public Maybe<RefreshToken> findByToken(String token) {
+        RefreshToken refreshToken = tokens.get(token);
+        return (refreshToken != null) ? Maybe.just(refreshToken) : Maybe.empty();
+    }
+
+    @Override
+    public Single<RefreshToken> create(RefreshToken refreshToken) {
+        tokens.put(refreshToken.getToken(), refreshToken);
+        return Single.just(refreshToken);
+    }
+
+    @Override
+    public Completable delete(String token) {
+        tokens.remove(token);
+        return Completable.complete();
+    }
+
+    public void clear() {
+        tokens.clear();
+    }
+}
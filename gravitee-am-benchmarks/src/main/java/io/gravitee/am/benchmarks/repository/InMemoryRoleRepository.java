@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.repository;
+
+import io.gravitee.am.model.Role;
+import io.gravitee.am.repository.management.api.RoleRepository;
+import io.reactivex.Single;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class InMemoryRoleRepository extends AbstractInMemoryRepository<Role> implements RoleRepository {
+
+    @Override
+    protected String getId(Role role) {
+        return role.getId();
+    }
+
+    @Override
+    protected void setId(Role role, String id) {
+        role.setId(id);
+    }
+
+    @Override
+    public Single<Set<Role>> findByDomain(String domain) {
+        return Single.just(filter(role -> domain.equals(role.getDomain())));
+    }
+
+    @Override
+    public Single<Set<Role>> findByIdIn(List<String> ids) {
+        return Single.just(filter(role -> ids.contains(role.getId())));
+    }
+}
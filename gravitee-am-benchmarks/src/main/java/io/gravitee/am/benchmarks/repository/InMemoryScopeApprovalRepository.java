@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.repository;
+
+import io.gravitee.am.model.oauth2.ScopeApproval;
+import io.gravitee.am.repository.oauth2.api.ScopeApprovalRepository;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Scope approvals have no technical identifier, they are keyed by domain, user, client and scope.
+ *
+ * @author GraviteeSource Team
+ */
+public class InMemoryScopeApprovalRepository implements ScopeApprovalRepository {
+
+    private final Map<String, ScopeApproval> approvals = new ConcurrentHashMap<>();
+
+    @Override
+    public Single<Set<ScopeApproval>> findByDomainAndUserAndClient(String domain, String userId, String clientId) {
+        return Single.just(approvals.values().stream()
+                .filter(approval -> domain.equals(approval.getDomain()) && userId.equals(approval.getUserId()) && clientId.equals(approval.getClientId()))
+                .collect(Collectors.toSet()));
+    }
+
+    @Override
+    public Single<ScopeApproval> upsert(ScopeApproval scopeApproval) {
+        approvals.put(key(scopeApproval), scopeApproval);
+        return Single.just(scopeApproval);
+    }
+
+    @Override
+    public Maybe<ScopeApproval> findById(String id) {
+        ScopeApproval scopeApproval = approvals.get(id);
+        return (scopeApproval != null) ? Maybe.just(scopeApproval) : Maybe.empty();
+    }
+
+    @Override
+    public Single<ScopeApproval> create(ScopeApproval item) {
+        return upsert(item);
+    }
+
+    @Override
+    public Single<ScopeApproval> update(ScopeApproval item) {
+        return upsert(item);
+    }
+
+    @Override
+    public Completable delete(String id) {
+        approvals.remove(id);
+        return Completable.complete();
+    }
+
+    private String key(ScopeApproval scopeApproval) {
+        return scopeApproval.getDomain() + ':' + scopeApproval.getUserId() + ':' + scopeApproval.getClientId() + ':' + scopeApproval.getScope();
+    }
+}
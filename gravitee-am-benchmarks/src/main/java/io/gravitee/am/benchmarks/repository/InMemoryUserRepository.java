@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.repository;
+
+import io.gravitee.am.model.User;
+import io.gravitee.am.model.common.Page;
+import io.gravitee.am.repository.management.api.UserRepository;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+
+import java.util.Set;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class InMemoryUserRepository extends AbstractInMemoryRepository<User> implements UserRepository {
+
+    @Override
+    protected String getId(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected void setId(User user, String id) {
+        user.setId(id);
+    }
+
+    @Override
+    public Single<Set<User>> findByDomain(String domain) {
+        return Single.just(filter(user -> domain.equals(user.getDomain())));
+    }
+
+    @Override
+    public Single<Page<User>> findByDomain(String domain, int page, int size) {
+        return findByDomain(domain).map(users -> page(users, page, size));
+    }
+
+    @Override
+    public Maybe<User> findByUsernameAndDomain(String domain, String username) {
+        return Maybe.fromCallable(() -> filter(user -> username.equals(user.getUsername()) && domain.equals(user.getDomain()))
+                .stream().findFirst().orElse(null));
+    }
+}
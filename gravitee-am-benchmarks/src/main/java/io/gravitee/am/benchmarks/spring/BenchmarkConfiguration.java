@@ -0,0 +1,235 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.benchmarks.spring;
+
+import io.gravitee.am.benchmarks.certificate.InMemoryCertificateManager;
+import io.gravitee.am.benchmarks.idp.InMemoryIdentityProviderManager;
+import io.gravitee.am.benchmarks.repository.*;
+import io.gravitee.am.gateway.handler.auth.UserAuthenticationManager;
+import io.gravitee.am.gateway.handler.auth.idp.IdentityProviderManager;
+import io.gravitee.am.gateway.handler.auth.impl.UserAuthenticationManagerImpl;
+import io.gravitee.am.gateway.handler.oauth2.approval.ApprovalService;
+import io.gravitee.am.gateway.handler.oauth2.approval.impl.ApprovalServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.certificate.CertificateManager;
+import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
+import io.gravitee.am.gateway.handler.oauth2.client.impl.ClientServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.code.AuthorizationCodeService;
+import io.gravitee.am.gateway.handler.oauth2.code.impl.AuthorizationCodeServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.granter.CompositeTokenGranter;
+import io.gravitee.am.gateway.handler.oauth2.granter.TokenGranter;
+import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionService;
+import io.gravitee.am.gateway.handler.oauth2.introspection.impl.IntrospectionServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.jwt.JwtService;
+import io.gravitee.am.gateway.handler.oauth2.jwt.impl.JwtServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.token.TokenEnhancer;
+import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
+import io.gravitee.am.gateway.handler.oauth2.token.cache.AccessTokenCache;
+import io.gravitee.am.gateway.handler.oauth2.token.cache.impl.AccessTokenCacheImpl;
+import io.gravitee.am.gateway.handler.oauth2.token.impl.TokenEnhancerImpl;
+import io.gravitee.am.gateway.handler.oauth2.token.impl.TokenServiceImpl;
+import io.gravitee.am.gateway.service.RoleService;
+import io.gravitee.am.gateway.service.UserService;
+import io.gravitee.am.gateway.service.impl.RoleServiceImpl;
+import io.gravitee.am.gateway.service.impl.UserServiceImpl;
+import io.gravitee.am.model.Client;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.Role;
+import io.gravitee.am.model.User;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.event.impl.EventManagerImpl;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Wires the gateway OAuth2 services of a single security domain against in-memory repositories,
+ * so that benchmarks only measure the service layer.
+ *
+ * @author GraviteeSource Team
+ */
+@Configuration
+public class BenchmarkConfiguration {
+
+    public static final String DOMAIN_ID = "benchmark-domain";
+    public static final String CLIENT_ID = "benchmark-client";
+    public static final String IDENTITY_PROVIDER_ID = "benchmark-idp";
+    public static final String USER_ID = "benchmark-user-id";
+    public static final String USERNAME = "benchmark-user";
+    public static final String ROLE_ID = "benchmark-role";
+
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+
+    @Bean
+    public Domain domain() {
+        Domain domain = new Domain();
+        domain.setId(DOMAIN_ID);
+        domain.setName(DOMAIN_ID);
+        return domain;
+    }
+
+    // Repositories
+
+    @Bean
+    public InMemoryClientRepository clientRepository() {
+        Client client = new Client();
+        client.setId(CLIENT_ID);
+        client.setClientId(CLIENT_ID);
+        client.setDomain(DOMAIN_ID);
+        client.setIdentities(Collections.singleton(IDENTITY_PROVIDER_ID));
+        client.setEnhanceScopesWithUserPermissions(true);
+
+        InMemoryClientRepository clientRepository = new InMemoryClientRepository();
+        clientRepository.create(client).blockingGet();
+        return clientRepository;
+    }
+
+    @Bean
+    public InMemoryUserRepository userRepository() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername(USERNAME);
+        user.setDomain(DOMAIN_ID);
+        user.setSource(IDENTITY_PROVIDER_ID);
+        user.setCreatedAt(new Date());
+        user.setLoginsCount(0L);
+        user.setRoles(Collections.singletonList(ROLE_ID));
+
+        InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        userRepository.create(user).blockingGet();
+        return userRepository;
+    }
+
+    @Bean
+    public InMemoryRoleRepository roleRepository() {
+        Role role = new Role();
+        role.setId(ROLE_ID);
+        role.setName(ROLE_ID);
+        role.setDomain(DOMAIN_ID);
+        role.setPermissions(Arrays.asList("read", "write", "admin"));
+
+        InMemoryRoleRepository roleRepository = new InMemoryRoleRepository();
+        roleRepository.create(role).blockingGet();
+        return roleRepository;
+    }
+
+    @Bean
+    public InMemoryAccessTokenRepository accessTokenRepository() {
+        return new InMemoryAccessTokenRepository();
+    }
+
+    @Bean
+    public InMemoryRefreshTokenRepository refreshTokenRepository() {
+        return new InMemoryRefreshTokenRepository();
+    }
+
+    @Bean
+    public InMemoryAuthorizationCodeRepository authorizationCodeRepository() {
+        return new InMemoryAuthorizationCodeRepository();
+    }
+
+    @Bean
+    public InMemoryScopeApprovalRepository scopeApprovalRepository() {
+        return new InMemoryScopeApprovalRepository();
+    }
+
+    // Plugins
+
+    @Bean
+    public IdentityProviderManager identityProviderManager() {
+        InMemoryIdentityProviderManager identityProviderManager = new InMemoryIdentityProviderManager(IDENTITY_PROVIDER_ID);
+        identityProviderManager.addUser(USERNAME, Collections.singletonList(ROLE_ID));
+        return identityProviderManager;
+    }
+
+    @Bean
+    public CertificateManager certificateManager() {
+        return new InMemoryCertificateManager();
+    }
+
+    // Services under benchmark, as declared by the gateway domain handler
+
+    @Bean
+    public UserService userService() {
+        return new UserServiceImpl();
+    }
+
+    @Bean
+    public RoleService roleService() {
+        return new RoleServiceImpl();
+    }
+
+    @Bean
+    public UserAuthenticationManager userAuthenticationManager() {
+        return new UserAuthenticationManagerImpl();
+    }
+
+    @Bean
+    public TokenGranter tokenGranter() {
+        return new CompositeTokenGranter();
+    }
+
+    @Bean
+    public ClientService clientService() {
+        return new ClientServiceImpl();
+    }
+
+    @Bean
+    public TokenService tokenService() {
+        return new TokenServiceImpl();
+    }
+
+    @Bean
+    public IntrospectionService introspectionService() {
+        return new IntrospectionServiceImpl();
+    }
+
+    @Bean
+    public AuthorizationCodeService authorizationCodeService() {
+        return new AuthorizationCodeServiceImpl();
+    }
+
+    @Bean
+    public ApprovalService approvalService() {
+        return new ApprovalServiceImpl();
+    }
+
+    @Bean
+    public TokenEnhancer tokenEnhancer() {
+        return new TokenEnhancerImpl();
+    }
+
+    @Bean
+    public AccessTokenCache accessTokenCache() {
+        return new AccessTokenCacheImpl();
+    }
+
+    @Bean
+    public JwtService jwtService() {
+        return new JwtServiceImpl();
+    }
+
+    @Bean
+    public EventManager eventManager() {
+        return new EventManagerImpl();
+    }
+}
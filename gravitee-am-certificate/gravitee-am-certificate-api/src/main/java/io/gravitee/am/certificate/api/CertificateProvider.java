@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.certificate.api;
 
+import java.util.Map;
+
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -23,5 +25,11 @@ public interface CertificateProvider {
 
     String sign(String payload);
 
+    /**
+     * Verify the signature of a token previously produced by {@link #sign(String)} and return its claims.
+     * An unchecked exception is thrown if the token is malformed, expired or not signed by this certificate.
+     */
+    Map<String, Object> verify(String token);
+
     String publicKey();
 }
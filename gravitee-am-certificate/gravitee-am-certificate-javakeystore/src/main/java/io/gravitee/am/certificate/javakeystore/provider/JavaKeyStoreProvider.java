@@ -27,10 +27,12 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.cert.Certificate;
 import java.security.interfaces.RSAPublicKey;
 import java.util.Base64;
+import java.util.Map;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -38,8 +40,17 @@ import java.util.Base64;
  */
 public class JavaKeyStoreProvider implements CertificateProvider, InitializingBean {
 
+    private static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final String JWS_HEADER = BASE64_URL_ENCODER.encodeToString(
+            ("{\"alg\":\"" + SignatureAlgorithm.RS512.getValue() + "\"}").getBytes(StandardCharsets.UTF_8));
+
     private KeyPair keyPair;
 
+    /**
+     * {@link Signature} instances are stateful, keep one initialized signer per (event-loop) thread
+     */
+    private ThreadLocal<Signature> signers;
+
     @Autowired
     private JavaKeyStoreConfiguration configuration;
 
@@ -59,11 +70,28 @@ public class JavaKeyStoreProvider implements CertificateProvider, InitializingBe
         } else {
             throw new IllegalArgumentException("A RSA Signer must be supplied");
         }
+
+        // fail fast if the key can not be used to sign
+        createSigner();
+        signers = ThreadLocal.withInitial(this::createSigner);
     }
 
     @Override
     public String sign(String payload) {
-        return Jwts.builder().setPayload(payload).signWith(SignatureAlgorithm.RS512, keyPair.getPrivate()).compact();
+        String signingInput = JWS_HEADER + '.' + BASE64_URL_ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        try {
+            Signature signer = signers.get();
+            signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            // sign() resets the signer for the next call
+            return signingInput + '.' + BASE64_URL_ENCODER.encodeToString(signer.sign());
+        } catch (SignatureException e) {
+            throw new IllegalStateException("Unable to sign payload", e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> verify(String token) {
+        return Jwts.parser().setSigningKey(keyPair.getPublic()).parseClaimsJws(token).getBody();
     }
 
     @Override
@@ -89,6 +117,16 @@ public class JavaKeyStoreProvider implements CertificateProvider, InitializingBe
         }
     }
 
+    private Signature createSigner() {
+        try {
+            Signature signer = Signature.getInstance(SignatureAlgorithm.RS512.getJcaName());
+            signer.initSign(keyPair.getPrivate());
+            return signer;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to create a RSA signer", e);
+        }
+    }
+
     private void encodeUInt32(int value, OutputStream out) throws IOException {
         byte[] tmp = new byte[4];
         tmp[0] = (byte)((value >>> 24) & 0xff);
@@ -0,0 +1,32 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler;
+
+import io.reactivex.Completable;
+
+/**
+ * Component of a security domain loading its data (clients, identity providers, certificates...) when the domain
+ * is deployed. The domain only serves traffic once all its components are loaded.
+ *
+ * @author GraviteeSource Team
+ */
+public interface DomainComponent {
+
+    /**
+     * Completes once the data of the component has been loaded.
+     */
+    Completable loaded();
+}
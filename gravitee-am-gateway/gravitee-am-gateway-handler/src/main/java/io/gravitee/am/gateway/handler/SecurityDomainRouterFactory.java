@@ -18,9 +18,11 @@ package io.gravitee.am.gateway.handler;
 import io.gravitee.am.gateway.handler.spring.HandlerConfiguration;
 import io.gravitee.am.gateway.handler.vertx.VertxSecurityDomainHandler;
 import io.gravitee.am.model.Domain;
+import io.reactivex.Completable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.support.AbstractApplicationContext;
@@ -29,6 +31,8 @@ import org.springframework.core.env.ConfigurableEnvironment;
 
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -41,10 +45,25 @@ public class SecurityDomainRouterFactory {
     @Autowired
     private ApplicationContext gatewayApplicationContext;
 
+    @Value("${handlers.initialization.timeout:30000}")
+    private long initializationTimeout;
+
+    /**
+     * Create the handler of the domain, once all its components are loaded.
+     *
+     * @return the domain handler, <code>null</code> if the domain is disabled or if its components could not be
+     * loaded within the initialization timeout
+     */
     public VertxSecurityDomainHandler create(Domain domain) {
         if (domain.isEnabled()) {
+            long startTime = System.currentTimeMillis();
             AbstractApplicationContext internalApplicationContext = createApplicationContext(domain);
             VertxSecurityDomainHandler handler = internalApplicationContext.getBean(VertxSecurityDomainHandler.class);
+            if (!awaitComponents(domain, handler, internalApplicationContext, startTime)) {
+                // a half-loaded handler is never mounted
+                internalApplicationContext.close();
+                return null;
+            }
             return handler;
         } else {
             logger.warn("Domain is disabled !");
@@ -52,6 +71,29 @@ public class SecurityDomainRouterFactory {
         }
     }
 
+    /**
+     * Wait for the components of the domain (clients, identity providers, certificates...) to be loaded
+     * before handing the handler over.
+     */
+    private boolean awaitComponents(Domain domain, VertxSecurityDomainHandler handler, ApplicationContext context, long startTime) {
+        Completable loaded = Completable.merge(context.getBeansOfType(DomainComponent.class).values()
+                .stream()
+                .map(DomainComponent::loaded)
+                .collect(Collectors.toList()));
+
+        try {
+            if (loaded.blockingAwait(initializationTimeout, TimeUnit.MILLISECONDS)) {
+                handler.ready(System.currentTimeMillis() - startTime);
+                logger.info("Domain {} loaded in {} ms", domain.getName(), handler.loadDuration());
+                return true;
+            }
+            logger.error("Domain {} not loaded after {} ms", domain.getName(), initializationTimeout);
+        } catch (Exception ex) {
+            logger.error("Unable to load domain {}", domain.getName(), ex);
+        }
+        return false;
+    }
+
     AbstractApplicationContext createApplicationContext(Domain domain) {
         AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
         context.setParent(gatewayApplicationContext);
@@ -15,27 +15,37 @@
  */
 package io.gravitee.am.gateway.handler.auth.idp.impl;
 
+import io.gravitee.am.gateway.core.event.IdentityProviderEvent;
+import io.gravitee.am.gateway.handler.DomainComponent;
 import io.gravitee.am.gateway.handler.auth.idp.IdentityProviderManager;
 import io.gravitee.am.identityprovider.api.AuthenticationProvider;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.IdentityProvider;
+import io.gravitee.am.model.common.event.Payload;
 import io.gravitee.am.plugins.idp.core.IdentityProviderPluginManager;
 import io.gravitee.am.repository.management.api.IdentityProviderRepository;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
+import io.vertx.reactivex.core.Vertx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class IdentityProviderManagerImpl implements IdentityProviderManager, InitializingBean {
+public class IdentityProviderManagerImpl implements IdentityProviderManager, DomainComponent, InitializingBean, DisposableBean, EventListener<IdentityProviderEvent, Payload> {
 
     private static final Logger logger = LoggerFactory.getLogger(IdentityProviderManagerImpl.class);
 
@@ -48,8 +58,19 @@ public class IdentityProviderManagerImpl implements IdentityProviderManager, Ini
     @Autowired
     private IdentityProviderRepository identityProviderRepository;
 
-    private Map<String, AuthenticationProvider> providers = new HashMap<>();
-    private Map<String, IdentityProvider> identities = new HashMap<>();
+    @Autowired
+    private EventManager eventManager;
+
+    @Autowired
+    private Vertx vertx;
+
+    @Value("${handlers.drain.timeout:30000}")
+    private long drainTimeout;
+
+    private volatile ConcurrentMap<String, AuthenticationProvider> providers = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<String, IdentityProvider> identities = new ConcurrentHashMap<>();
+    private final ConcurrentMap<AuthenticationProvider, Long> drainingProviders = new ConcurrentHashMap<>();
+    private Completable loaded;
 
     @Override
     public Maybe<AuthenticationProvider> get(String id) {
@@ -67,20 +88,131 @@ public class IdentityProviderManagerImpl implements IdentityProviderManager, Ini
     public void afterPropertiesSet() {
         logger.info("Initializing identity providers for domain {}", domain.getName());
 
-        identityProviderRepository.findByDomain(domain.getId())
+        loaded = identityProviderRepository.findByDomain(domain.getId())
                 .doOnSuccess(identityProviders -> {
+                    // publish the loaded identity providers at once
+                    ConcurrentMap<String, AuthenticationProvider> loadedProviders = new ConcurrentHashMap<>();
+                    ConcurrentMap<String, IdentityProvider> loadedIdentities = new ConcurrentHashMap<>();
                     identityProviders.forEach(identityProvider -> {
-                        logger.info("\tInitializing identity provider: {} [{}]", identityProvider.getName(), identityProvider.getType());
-                        AuthenticationProvider authenticationProvider =
-                                identityProviderPluginManager.create(identityProvider.getType(), identityProvider.getConfiguration(),
-                                        identityProvider.getMappers(), identityProvider.getRoleMapper());
-                        providers.put(identityProvider.getId(), authenticationProvider);
-                        identities.put(identityProvider.getId(), identityProvider);
+                        // a broken identity provider must not prevent the other ones from being loaded
+                        try {
+                            AuthenticationProvider authenticationProvider = createAuthenticationProvider(identityProvider);
+                            if (authenticationProvider != null) {
+                                loadedProviders.put(identityProvider.getId(), authenticationProvider);
+                            }
+                        } catch (Exception ex) {
+                            logger.error("Unable to initialize identity provider {} for domain {}", identityProvider.getId(), domain.getName(), ex);
+                        }
+                        loadedIdentities.put(identityProvider.getId(), identityProvider);
                     });
+                    providers = loadedProviders;
+                    identities = loadedIdentities;
+                    logger.info("Identity providers loaded for domain {}", domain.getName());
                 })
+                .doOnError(error -> logger.error("Unable to initialize identity providers for domain {}", domain.getName(), error))
+                .toCompletable()
+                .cache();
+        loaded.onErrorComplete().subscribe();
+
+        logger.info("Register event listener for identity provider events");
+        eventManager.subscribeForEvents(this, IdentityProviderEvent.class);
+    }
+
+    @Override
+    public Completable loaded() {
+        return loaded;
+    }
+
+    @Override
+    public void destroy() {
+        logger.info("Release identity providers for domain {}", domain.getName());
+        providers.values().forEach(identityProviderPluginManager::release);
+        providers.clear();
+        drainingProviders.forEach((authenticationProvider, timerId) -> {
+            if (drainingProviders.remove(authenticationProvider) != null) {
+                vertx.cancelTimer(timerId);
+                identityProviderPluginManager.release(authenticationProvider);
+            }
+        });
+    }
+
+    @Override
+    public void onEvent(Event<IdentityProviderEvent, Payload> event) {
+        if (domain.getId().equals(event.content().getDomain())) {
+            switch (event.type()) {
+                case DEPLOY:
+                case UPDATE:
+                    updateIdentityProvider(event.content().getId(), event.type());
+                    break;
+                case UNDEPLOY:
+                    removeIdentityProvider(event.content().getId());
+                    break;
+            }
+        }
+    }
+
+    private void updateIdentityProvider(String identityProviderId, IdentityProviderEvent identityProviderEvent) {
+        final String eventType = identityProviderEvent.toString().toLowerCase();
+        logger.info("Domain {} has received {} identity provider event for {}", domain.getName(), eventType, identityProviderId);
+        identityProviderRepository.findById(identityProviderId)
                 .subscribe(
-                        result -> logger.info("Identity providers loaded for domain {}", domain.getName()),
-                        error -> logger.error("Unable to initialize identity providers for domain {}", domain.getName(), error)
-                );
+                        identityProvider -> {
+                            updateAuthenticationProvider(identityProvider);
+                            logger.info("Identity provider {} loaded for domain {}", identityProviderId, domain.getName());
+                        },
+                        error -> logger.error("Unable to {} identity provider for domain {}", eventType, domain.getName(), error),
+                        () -> {
+                            logger.error("No identity provider found with id {}", identityProviderId);
+                            removeIdentityProvider(identityProviderId);
+                        });
+    }
+
+    private void updateAuthenticationProvider(IdentityProvider identityProvider) {
+        AuthenticationProvider authenticationProvider = null;
+        try {
+            authenticationProvider = createAuthenticationProvider(identityProvider);
+        } catch (Exception ex) {
+            logger.error("Unable to initialize identity provider {} for domain {}", identityProvider.getId(), domain.getName(), ex);
+        }
+        AuthenticationProvider previousAuthenticationProvider = (authenticationProvider != null) ?
+                providers.put(identityProvider.getId(), authenticationProvider) : providers.remove(identityProvider.getId());
+        identities.put(identityProvider.getId(), identityProvider);
+        // the previous provider is no longer reachable, close its plugin context (connection pools, worker threads, ...)
+        drain(previousAuthenticationProvider);
+    }
+
+    private AuthenticationProvider createAuthenticationProvider(IdentityProvider identityProvider) {
+        logger.info("\tInitializing identity provider: {} [{}]", identityProvider.getName(), identityProvider.getType());
+        return identityProviderPluginManager.create(identityProvider.getType(), identityProvider.getConfiguration(),
+                identityProvider.getMappers(), identityProvider.getRoleMapper());
+    }
+
+    private void removeIdentityProvider(String identityProviderId) {
+        logger.info("Remove identity provider {} from domain {}", identityProviderId, domain.getName());
+        identities.remove(identityProviderId);
+        drain(providers.remove(identityProviderId));
+    }
+
+    /**
+     * Release a provider no longer published once the drain timeout is reached, the logins which already hold it
+     * complete meanwhile.
+     */
+    private void drain(AuthenticationProvider authenticationProvider) {
+        if (authenticationProvider == null) {
+            return;
+        }
+        if (drainTimeout <= 0) {
+            identityProviderPluginManager.release(authenticationProvider);
+            return;
+        }
+
+        // registered before the timer is set, the timer may fire first
+        drainingProviders.put(authenticationProvider, -1L);
+        long timerId = vertx.setTimer(drainTimeout, id -> {
+            if (drainingProviders.remove(authenticationProvider) != null) {
+                identityProviderPluginManager.release(authenticationProvider);
+            }
+        });
+        drainingProviders.replace(authenticationProvider, -1L, timerId);
     }
 }
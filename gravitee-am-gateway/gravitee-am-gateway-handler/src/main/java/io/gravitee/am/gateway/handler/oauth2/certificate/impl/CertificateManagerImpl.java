@@ -16,24 +16,32 @@
 package io.gravitee.am.gateway.handler.oauth2.certificate.impl;
 
 import io.gravitee.am.certificate.api.CertificateProvider;
+import io.gravitee.am.gateway.core.event.CertificateEvent;
+import io.gravitee.am.gateway.handler.DomainComponent;
 import io.gravitee.am.gateway.handler.oauth2.certificate.CertificateManager;
+import io.gravitee.am.model.Certificate;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Payload;
 import io.gravitee.am.plugins.certificate.core.CertificatePluginManager;
 import io.gravitee.am.repository.management.api.CertificateRepository;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class CertificateManagerImpl implements CertificateManager, InitializingBean {
+public class CertificateManagerImpl implements CertificateManager, DomainComponent, InitializingBean, EventListener<CertificateEvent, Payload> {
 
     private static final Logger logger = LoggerFactory.getLogger(CertificateManagerImpl.class);
 
@@ -46,10 +54,18 @@ public class CertificateManagerImpl implements CertificateManager, InitializingB
     @Autowired
     private CertificatePluginManager certificatePluginManager;
 
-    private Map<String, CertificateProvider> certificateProviders = new HashMap<>();
+    @Autowired
+    private EventManager eventManager;
+
+    private volatile ConcurrentMap<String, CertificateProvider> certificateProviders = new ConcurrentHashMap<>();
+    private Completable loaded;
 
     @Override
     public Maybe<CertificateProvider> get(String id) {
+        if (id == null) {
+            // clients without certificate
+            return Maybe.empty();
+        }
         CertificateProvider certificateProvider = certificateProviders.get(id);
         return (certificateProvider != null) ? Maybe.just(certificateProvider) : Maybe.empty();
     }
@@ -58,16 +74,80 @@ public class CertificateManagerImpl implements CertificateManager, InitializingB
     public void afterPropertiesSet() {
         logger.info("Initializing certificates for domain {}", domain.getName());
 
-        certificateRepository.findByDomain(domain.getId())
-                .subscribe(certificates -> {
+        loaded = certificateRepository.findByDomain(domain.getId())
+                .doOnSuccess(certificates -> {
+                    // publish the loaded certificates at once
+                    ConcurrentMap<String, CertificateProvider> loadedCertificateProviders = new ConcurrentHashMap<>();
                     certificates.forEach(certificate -> {
-                        logger.info("\tInitializing certificate: {} [{}]", certificate.getName(), certificate.getType());
-
-                        CertificateProvider certificateProvider =
-                                certificatePluginManager.create(certificate.getType(), certificate.getConfiguration());
-                        certificateProviders.put(certificate.getId(), certificateProvider);
+                        CertificateProvider certificateProvider = createCertificateProvider(certificate);
+                        if (certificateProvider != null) {
+                            loadedCertificateProviders.put(certificate.getId(), certificateProvider);
+                        }
                     });
+                    certificateProviders = loadedCertificateProviders;
                     logger.info("Certificates loaded for domain {}", domain.getName());
-                }, error -> logger.error("Unable to initialize certificates for domain {}", domain.getName(), error));
+                })
+                .doOnError(error -> logger.error("Unable to initialize certificates for domain {}", domain.getName(), error))
+                .toCompletable()
+                .cache();
+        loaded.onErrorComplete().subscribe();
+
+        logger.info("Register event listener for certificate events");
+        eventManager.subscribeForEvents(this, CertificateEvent.class);
+    }
+
+    @Override
+    public Completable loaded() {
+        return loaded;
+    }
+
+    @Override
+    public void onEvent(Event<CertificateEvent, Payload> event) {
+        if (domain.getId().equals(event.content().getDomain())) {
+            switch (event.type()) {
+                case DEPLOY:
+                case UPDATE:
+                    updateCertificate(event.content().getId(), event.type());
+                    break;
+                case UNDEPLOY:
+                    removeCertificate(event.content().getId());
+                    break;
+            }
+        }
+    }
+
+    private void updateCertificate(String certificateId, CertificateEvent certificateEvent) {
+        final String eventType = certificateEvent.toString().toLowerCase();
+        logger.info("Domain {} has received {} certificate event for {}", domain.getName(), eventType, certificateId);
+        certificateRepository.findById(certificateId)
+                .subscribe(
+                        certificate -> {
+                            updateCertificateProvider(certificate);
+                            logger.info("Certificate {} loaded for domain {}", certificateId, domain.getName());
+                        },
+                        error -> logger.error("Unable to {} certificate for domain {}", eventType, domain.getName(), error),
+                        () -> {
+                            logger.error("No certificate found with id {}", certificateId);
+                            removeCertificate(certificateId);
+                        });
+    }
+
+    private void updateCertificateProvider(Certificate certificate) {
+        CertificateProvider certificateProvider = createCertificateProvider(certificate);
+        if (certificateProvider != null) {
+            certificateProviders.put(certificate.getId(), certificateProvider);
+        } else {
+            certificateProviders.remove(certificate.getId());
+        }
+    }
+
+    private CertificateProvider createCertificateProvider(Certificate certificate) {
+        logger.info("\tInitializing certificate: {} [{}]", certificate.getName(), certificate.getType());
+        return certificatePluginManager.create(certificate.getType(), certificate.getConfiguration());
+    }
+
+    private void removeCertificate(String certificateId) {
+        logger.info("Remove certificate {} from domain {}", certificateId, domain.getName());
+        certificateProviders.remove(certificateId);
     }
 }
@@ -15,28 +15,36 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.client.impl;
 
+import io.gravitee.am.gateway.core.event.ClientEvent;
+import io.gravitee.am.gateway.handler.DomainComponent;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Payload;
 import io.gravitee.am.repository.management.api.ClientRepository;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class ClientServiceImpl implements ClientService, InitializingBean {
+public class ClientServiceImpl implements ClientService, DomainComponent, InitializingBean, EventListener<ClientEvent, Payload> {
 
     private final Logger logger = LoggerFactory.getLogger(ClientServiceImpl.class);
-    private Map<String, Client> clients = new HashMap<>();
+    private volatile ConcurrentMap<String, Client> clients = new ConcurrentHashMap<>();
+    private Completable loaded;
 
     @Autowired
     private Domain domain;
@@ -44,6 +52,9 @@ public class ClientServiceImpl implements ClientService, InitializingBean {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private EventManager eventManager;
+
     @Override
     public Maybe<Client> findByClientId(String clientId) {
         Client client = clients.get(clientId);
@@ -53,12 +64,63 @@ public class ClientServiceImpl implements ClientService, InitializingBean {
     @Override
     public void afterPropertiesSet() {
         logger.info("Initializing clients for domain {}", domain.getName());
-        clientRepository.findByDomain(domain.getId())
-                .doOnSuccess(clients1 -> clients1.forEach(client -> clients.put(client.getClientId(), client)))
+        loaded = clientRepository.findByDomain(domain.getId())
+                .doOnSuccess(clients1 -> {
+                    // publish the loaded clients at once
+                    ConcurrentMap<String, Client> loadedClients = new ConcurrentHashMap<>();
+                    clients1.forEach(client -> loadedClients.put(client.getClientId(), client));
+                    clients = loadedClients;
+                    logger.info("Clients loaded for domain {}", domain.getName());
+                })
+                .doOnError(error -> logger.error("Unable to initialize clients for domain {}", domain.getName(), error))
+                .toCompletable()
+                .cache();
+        loaded.onErrorComplete().subscribe();
+
+        logger.info("Register event listener for client events");
+        eventManager.subscribeForEvents(this, ClientEvent.class);
+    }
+
+    @Override
+    public Completable loaded() {
+        return loaded;
+    }
+
+    @Override
+    public void onEvent(Event<ClientEvent, Payload> event) {
+        if (domain.getId().equals(event.content().getDomain())) {
+            switch (event.type()) {
+                case DEPLOY:
+                case UPDATE:
+                    updateClient(event.content().getId(), event.type());
+                    break;
+                case UNDEPLOY:
+                    removeClient(event.content().getId());
+                    break;
+            }
+        }
+    }
+
+    private void updateClient(String clientId, ClientEvent clientEvent) {
+        final String eventType = clientEvent.toString().toLowerCase();
+        logger.info("Domain {} has received {} client event for {}", domain.getName(), eventType, clientId);
+        clientRepository.findById(clientId)
                 .subscribe(
-                        result -> logger.info("Clients loaded for domain {}", domain.getName()),
-                        error -> logger.error("Unable to initialize clients for domain {}", domain.getName(), error)
-                );
+                        client -> {
+                            // the OAuth client_id may have changed, drop the previous entry once the new one is visible
+                            clients.put(client.getClientId(), client);
+                            clients.entrySet().removeIf(entry -> entry.getValue().getId().equals(clientId) && !entry.getKey().equals(client.getClientId()));
+                            logger.info("Client {} loaded for domain {}", clientId, domain.getName());
+                        },
+                        error -> logger.error("Unable to {} client for domain {}", eventType, domain.getName(), error),
+                        () -> {
+                            logger.error("No client found with id {}", clientId);
+                            removeClient(clientId);
+                        });
+    }
 
+    private void removeClient(String clientId) {
+        logger.info("Remove client {} from domain {}", clientId, domain.getName());
+        clients.values().removeIf(client -> client.getId().equals(clientId));
     }
 }
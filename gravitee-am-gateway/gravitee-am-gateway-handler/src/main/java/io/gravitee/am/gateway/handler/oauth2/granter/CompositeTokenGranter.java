@@ -32,9 +32,9 @@ import io.reactivex.Single;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -42,7 +42,7 @@ import java.util.Objects;
  */
 public class CompositeTokenGranter implements TokenGranter, InitializingBean {
 
-    private List<TokenGranter> tokenGranters = new ArrayList<>();
+    private List<TokenGranter> tokenGranters = new CopyOnWriteArrayList<>();
 
     @Autowired
     private TokenService tokenService;
@@ -56,7 +56,7 @@ public class CompositeTokenGranter implements TokenGranter, InitializingBean {
     public CompositeTokenGranter() { }
 
     public CompositeTokenGranter(List<TokenGranter> tokenGranters) {
-        this.tokenGranters = new ArrayList<>(tokenGranters);
+        this.tokenGranters = new CopyOnWriteArrayList<>(tokenGranters);
     }
 
     public Single<AccessToken> grant(TokenRequest tokenRequest, Client client) {
@@ -72,6 +72,23 @@ public class CompositeTokenGranter implements TokenGranter, InitializingBean {
         tokenGranters.add(tokenGranter);
     }
 
+    /**
+     * Swap a token granter in place, the grant type stays supported while the granter is replaced.
+     */
+    public synchronized void replaceTokenGranter(TokenGranter oldTokenGranter, TokenGranter tokenGranter) {
+        Objects.requireNonNull(tokenGranter);
+        int index = tokenGranters.indexOf(oldTokenGranter);
+        if (index < 0) {
+            tokenGranters.add(tokenGranter);
+        } else {
+            tokenGranters.set(index, tokenGranter);
+        }
+    }
+
+    public void removeTokenGranter(TokenGranter tokenGranter) {
+        tokenGranters.remove(tokenGranter);
+    }
+
     @Override
     public boolean handle(String grantType) {
         return true;
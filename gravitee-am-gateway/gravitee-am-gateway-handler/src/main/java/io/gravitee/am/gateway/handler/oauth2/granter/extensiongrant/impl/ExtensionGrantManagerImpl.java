@@ -16,6 +16,8 @@
 package io.gravitee.am.gateway.handler.oauth2.granter.extensiongrant.impl;
 
 import io.gravitee.am.extensiongrant.api.ExtensionGrantProvider;
+import io.gravitee.am.gateway.core.event.ExtensionGrantEvent;
+import io.gravitee.am.gateway.handler.DomainComponent;
 import io.gravitee.am.gateway.handler.auth.idp.IdentityProviderManager;
 import io.gravitee.am.gateway.handler.oauth2.granter.CompositeTokenGranter;
 import io.gravitee.am.gateway.handler.oauth2.granter.TokenGranter;
@@ -23,24 +25,32 @@ import io.gravitee.am.gateway.handler.oauth2.granter.extensiongrant.ExtensionGra
 import io.gravitee.am.gateway.handler.oauth2.granter.extensiongrant.ExtensionGrantManager;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
 import io.gravitee.am.gateway.service.UserService;
+import io.gravitee.am.identityprovider.api.Authentication;
+import io.gravitee.am.identityprovider.api.AuthenticationProvider;
+import io.gravitee.am.identityprovider.api.User;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.ExtensionGrant;
+import io.gravitee.am.model.common.event.Payload;
 import io.gravitee.am.plugins.extensiongrant.core.ExtensionGrantPluginManager;
 import io.gravitee.am.repository.management.api.ExtensionGrantRepository;
-import io.reactivex.Observable;
-import io.reactivex.Single;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class ExtensionGrantManagerImpl implements ExtensionGrantManager, InitializingBean {
+public class ExtensionGrantManagerImpl implements ExtensionGrantManager, DomainComponent, InitializingBean, EventListener<ExtensionGrantEvent, Payload> {
 
     private static final Logger logger = LoggerFactory.getLogger(ExtensionGrantManagerImpl.class);
 
@@ -65,62 +75,108 @@ public class ExtensionGrantManagerImpl implements ExtensionGrantManager, Initial
     @Autowired
     private IdentityProviderManager identityProviderManager;
 
+    @Autowired
+    private EventManager eventManager;
+
+    private ConcurrentMap<String, TokenGranter> extensionGrantGranters = new ConcurrentHashMap<>();
+    private Completable loaded;
+
     @Override
     public void afterPropertiesSet() {
         logger.info("Initializing extension grants for domain {}", domain.getName());
-        extensionGrantRepository.findByDomain(domain.getId())
-                .flatMapObservable(extensionGrants -> Observable.fromIterable(extensionGrants))
-                .flatMapSingle(extensionGrant -> {
-                    if (extensionGrant.getIdentityProvider() != null) {
-                        logger.info("\tLooking for extension grant identity provider: {}", extensionGrant.getIdentityProvider());
-                        return identityProviderManager.get(extensionGrant.getIdentityProvider())
-                                .map(authenticationProvider -> Optional.of(authenticationProvider))
-                                .defaultIfEmpty(Optional.empty())
-                                .toSingle()
-                                .map(optAuthenticationProvider -> {
-                                    if (optAuthenticationProvider.isPresent()) {
-                                        logger.info("\tExtension grant identity provider: {}, loaded", extensionGrant.getIdentityProvider());
-                                    }
-                                    ExtensionGrantProvider extensionGrantProvider = extensionGrantPluginManager.create(extensionGrant.getType(), extensionGrant.getConfiguration(), optAuthenticationProvider.get());
-                                    return new ExtensionGrantData(extensionGrant, extensionGrantProvider);
-                                });
-                    } else {
-                        ExtensionGrantProvider extensionGrantProvider = extensionGrantPluginManager.create(extensionGrant.getType(), extensionGrant.getConfiguration(), null);
-                        return Single.just(new ExtensionGrantData(extensionGrant, extensionGrantProvider));
-                    }
+        loaded = extensionGrantRepository.findByDomain(domain.getId())
+                .doOnSuccess(extensionGrants -> {
+                    extensionGrants.forEach(this::updateExtensionGrantProvider);
+                    logger.info("Extension grants loaded for domain {}", domain.getName());
                 })
-                .toList()
+                .doOnError(error -> logger.error("Unable to initialize extension grants for domain {}", domain.getName(), error))
+                .toCompletable()
+                .cache();
+        loaded.onErrorComplete().subscribe();
+
+        logger.info("Register event listener for extension grant events");
+        eventManager.subscribeForEvents(this, ExtensionGrantEvent.class);
+    }
+
+    @Override
+    public Completable loaded() {
+        return loaded;
+    }
+
+    @Override
+    public void onEvent(Event<ExtensionGrantEvent, Payload> event) {
+        if (domain.getId().equals(event.content().getDomain())) {
+            switch (event.type()) {
+                case DEPLOY:
+                case UPDATE:
+                    updateExtensionGrant(event.content().getId(), event.type());
+                    break;
+                case UNDEPLOY:
+                    removeExtensionGrant(event.content().getId());
+                    break;
+            }
+        }
+    }
+
+    private void updateExtensionGrant(String extensionGrantId, ExtensionGrantEvent extensionGrantEvent) {
+        final String eventType = extensionGrantEvent.toString().toLowerCase();
+        logger.info("Domain {} has received {} extension grant event for {}", domain.getName(), eventType, extensionGrantId);
+        extensionGrantRepository.findById(extensionGrantId)
                 .subscribe(
-                        extensionGrantsData -> {
-                                extensionGrantsData.forEach(extensionGrantData -> {
-                                    ExtensionGrant extensionGrant = extensionGrantData.getExtensionGrant();
-                                    ExtensionGrantProvider extensionGrantProvider = extensionGrantData.getExtensionGrantProvider();
-                                    logger.info("\tInitializing extension grant: {} [{}]", extensionGrant.getName(), extensionGrant.getType());
-                                    ExtensionGrantGranter extensionGrantGranter =
-                                            new ExtensionGrantGranter(extensionGrantProvider, extensionGrant, userService, tokenService);
-                                    ((CompositeTokenGranter) tokenGranter).addTokenGranter(extensionGrantGranter);
-                                });
-                                logger.info("Extension grants loaded for domain {}", domain.getName());
-                            },
-                        error -> logger.error("Unable to initialize extension grants for domain {}", domain.getName(), error)
-                );
+                        extensionGrant -> {
+                            updateExtensionGrantProvider(extensionGrant);
+                            logger.info("Extension grant {} loaded for domain {}", extensionGrantId, domain.getName());
+                        },
+                        error -> logger.error("Unable to {} extension grant for domain {}", eventType, domain.getName(), error),
+                        () -> {
+                            logger.error("No extension grant found with id {}", extensionGrantId);
+                            removeExtensionGrant(extensionGrantId);
+                        });
+    }
+
+    private void updateExtensionGrantProvider(ExtensionGrant extensionGrant) {
+        logger.info("\tInitializing extension grant: {} [{}]", extensionGrant.getName(), extensionGrant.getType());
+        AuthenticationProvider authenticationProvider = (extensionGrant.getIdentityProvider() != null) ?
+                new IdentityProviderManagerAuthenticationProvider(extensionGrant.getIdentityProvider()) : null;
+        ExtensionGrantProvider extensionGrantProvider =
+                extensionGrantPluginManager.create(extensionGrant.getType(), extensionGrant.getConfiguration(), authenticationProvider);
+        ExtensionGrantGranter extensionGrantGranter =
+                new ExtensionGrantGranter(extensionGrantProvider, extensionGrant, userService, tokenService);
+
+        TokenGranter oldExtensionGrantGranter = extensionGrantGranters.put(extensionGrant.getId(), extensionGrantGranter);
+        ((CompositeTokenGranter) tokenGranter).replaceTokenGranter(oldExtensionGrantGranter, extensionGrantGranter);
     }
 
-    private class ExtensionGrantData {
-        private ExtensionGrant extensionGrant;
-        private ExtensionGrantProvider extensionGrantProvider;
+    private void removeExtensionGrant(String extensionGrantId) {
+        logger.info("Remove extension grant {} from domain {}", extensionGrantId, domain.getName());
+        TokenGranter extensionGrantGranter = extensionGrantGranters.remove(extensionGrantId);
+        if (extensionGrantGranter != null) {
+            ((CompositeTokenGranter) tokenGranter).removeTokenGranter(extensionGrantGranter);
+        }
+    }
+
+    /**
+     * Resolve the identity provider of an extension grant on each call, so that identity provider changes
+     * applied by the {@link IdentityProviderManager} are seen without re-creating the extension grant.
+     */
+    private class IdentityProviderManagerAuthenticationProvider implements AuthenticationProvider {
+
+        private final String identityProvider;
 
-        public ExtensionGrantData(ExtensionGrant extensionGrant, ExtensionGrantProvider extensionGrantProvider) {
-            this.extensionGrant = extensionGrant;
-            this.extensionGrantProvider = extensionGrantProvider;
+        IdentityProviderManagerAuthenticationProvider(String identityProvider) {
+            this.identityProvider = identityProvider;
         }
 
-        public ExtensionGrant getExtensionGrant() {
-            return extensionGrant;
+        @Override
+        public Maybe<User> loadUserByUsername(Authentication authentication) {
+            return identityProviderManager.get(identityProvider)
+                    .flatMap(authenticationProvider -> authenticationProvider.loadUserByUsername(authentication));
         }
 
-        public ExtensionGrantProvider getExtensionGrantProvider() {
-            return extensionGrantProvider;
+        @Override
+        public Maybe<User> loadUserByUsername(String username) {
+            return identityProviderManager.get(identityProvider)
+                    .flatMap(authenticationProvider -> authenticationProvider.loadUserByUsername(username));
         }
     }
 }
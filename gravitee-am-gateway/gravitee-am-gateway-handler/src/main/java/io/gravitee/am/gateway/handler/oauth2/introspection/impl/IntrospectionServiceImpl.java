@@ -19,9 +19,9 @@ import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionRequest;
 import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionResponse;
 import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionService;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
+import io.gravitee.am.gateway.handler.oauth2.token.cache.AccessTokenCache;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.DefaultAccessToken;
 import io.gravitee.am.gateway.service.UserService;
-import io.gravitee.am.model.User;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +39,9 @@ public class IntrospectionServiceImpl implements IntrospectionService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AccessTokenCache accessTokenCache;
+
     @Override
     public Single<IntrospectionResponse> introspect(IntrospectionRequest introspectionRequest) {
             return tokenService.getAccessToken(introspectionRequest.getToken())
@@ -46,9 +49,16 @@ public class IntrospectionServiceImpl implements IntrospectionService {
                     .flatMap(token -> {
                         DefaultAccessToken accessToken = (DefaultAccessToken) token;
                         if (accessToken.getSubject() != null) {
+                            String username = accessTokenCache.getUsername(accessToken.getValue());
+                            if (username != null) {
+                                return Maybe.just(convert(accessToken, username));
+                            }
                             return userService
                                     .findById(accessToken.getSubject())
-                                    .map(user -> convert(accessToken, user))
+                                    .map(user -> {
+                                        accessTokenCache.putUsername(accessToken.getValue(), user.getUsername());
+                                        return convert(accessToken, user.getUsername());
+                                    })
                                     .defaultIfEmpty(convert(accessToken, null));
 
                         } else {
@@ -64,13 +74,13 @@ public class IntrospectionServiceImpl implements IntrospectionService {
         this.tokenService = tokenService;
     }
 
-    private IntrospectionResponse convert(DefaultAccessToken accessToken, User user) {
+    private IntrospectionResponse convert(DefaultAccessToken accessToken, String username) {
         IntrospectionResponse introspectionResponse = new IntrospectionResponse();
         introspectionResponse.setActive(true);
         introspectionResponse.setScope(accessToken.getScope());
         introspectionResponse.setClientId(accessToken.getClientId());
-        if (user != null) {
-            introspectionResponse.setUsername(user.getUsername());
+        if (username != null) {
+            introspectionResponse.setUsername(username);
         }
         introspectionResponse.setExpireAt(accessToken.getExpireAt().getTime() / 1000);
         introspectionResponse.setIssueAt(accessToken.getCreatedAt().getTime() / 1000);
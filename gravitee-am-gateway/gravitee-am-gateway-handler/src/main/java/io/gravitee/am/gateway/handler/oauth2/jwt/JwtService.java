@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.jwt;
+
+import io.gravitee.am.model.Client;
+import io.reactivex.Single;
+
+import java.util.Map;
+
+/**
+ * Sign and verify self-contained JWT using the certificate of a client.
+ *
+ * @author GraviteeSource Team
+ */
+public interface JwtService {
+
+    /**
+     * Sign the claims with the client certificate, or with the random HMAC key of the node if the client has no certificate.
+     */
+    Single<String> encode(Map<String, Object> claims, Client client);
+
+    /**
+     * Sign the claims with the client certificate only, for tokens verified later by {@link #decodeAndVerify(String, Client)}.
+     * Fails if the certificate of the client is not set or not loaded.
+     */
+    Single<String> encodeWithCertificate(Map<String, Object> claims, Client client);
+
+    /**
+     * Read the claims of a JWT <b>without</b> checking its signature.
+     * Only use it to find out which client the token has been issued to before calling {@link #decodeAndVerify(String, Client)}
+     */
+    Single<Map<String, Object>> decode(String jwt);
+
+    /**
+     * Verify a JWT with the client certificate. Fails if the certificate of the client is not set or not loaded.
+     */
+    Single<Map<String, Object>> decodeAndVerify(String jwt, Client client);
+}
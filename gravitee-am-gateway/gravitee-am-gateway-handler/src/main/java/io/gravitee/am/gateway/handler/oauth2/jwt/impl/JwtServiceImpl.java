@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.jwt.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.am.gateway.handler.oauth2.certificate.CertificateManager;
+import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
+import io.gravitee.am.gateway.handler.oauth2.exception.ServerErrorException;
+import io.gravitee.am.gateway.handler.oauth2.jwt.JwtService;
+import io.gravitee.am.model.Client;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class JwtServiceImpl implements JwtService, InitializingBean {
+
+    private static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final String DEFAULT_JWS_HEADER = BASE64_URL_ENCODER.encodeToString(
+            ("{\"alg\":\"" + SignatureAlgorithm.HS512.getValue() + "\"}").getBytes(StandardCharsets.UTF_8));
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private Key defaultKey;
+
+    /**
+     * {@link Mac} instances are stateful, keep one initialized signer per (event-loop) thread
+     */
+    private ThreadLocal<Mac> defaultSigners;
+
+    @Autowired
+    private CertificateManager certificateManager;
+
+    @Override
+    public void afterPropertiesSet() {
+        // random key of the node: the ID tokens of clients without certificate can not be forged, nor verified by anyone
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        defaultKey = new SecretKeySpec(secret, SignatureAlgorithm.HS512.getJcaName());
+        defaultSigners = ThreadLocal.withInitial(this::createDefaultSigner);
+    }
+
+    @Override
+    public Single<String> encode(Map<String, Object> claims, Client client) {
+        return certificateManager.get(client.getCertificate())
+                .map(certificateProvider -> certificateProvider.sign(objectMapper.writeValueAsString(claims)))
+                .switchIfEmpty(Maybe.fromCallable(() -> signWithDefaultKey(objectMapper.writeValueAsBytes(claims))))
+                .toSingle();
+    }
+
+    @Override
+    public Single<String> encodeWithCertificate(Map<String, Object> claims, Client client) {
+        return certificateManager.get(client.getCertificate())
+                .map(certificateProvider -> certificateProvider.sign(objectMapper.writeValueAsString(claims)))
+                .switchIfEmpty(Maybe.error(() -> new ServerErrorException("The certificate of client [" + client.getClientId() + "] is not available")))
+                .toSingle();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Single<Map<String, Object>> decode(String jwt) {
+        return Single.fromCallable(() -> {
+            String[] parts = jwt.split("\\.");
+            if (parts.length != 3) {
+                throw new InvalidTokenException("The access token is not a valid JWT");
+            }
+            return (Map<String, Object>) objectMapper.readValue(Base64.getUrlDecoder().decode(parts[1]), Map.class);
+        });
+    }
+
+    @Override
+    public Single<Map<String, Object>> decodeAndVerify(String jwt, Client client) {
+        return certificateManager.get(client.getCertificate())
+                .map(certificateProvider -> certificateProvider.verify(jwt))
+                .switchIfEmpty(Maybe.error(() -> new InvalidTokenException("The certificate of client [" + client.getClientId() + "] is not available")))
+                .toSingle();
+    }
+
+    private String signWithDefaultKey(byte[] payload) {
+        String signingInput = DEFAULT_JWS_HEADER + '.' + BASE64_URL_ENCODER.encodeToString(payload);
+        // doFinal() resets the signer for the next call
+        byte[] signature = defaultSigners.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + BASE64_URL_ENCODER.encodeToString(signature);
+    }
+
+    private Mac createDefaultSigner() {
+        try {
+            Mac mac = Mac.getInstance(SignatureAlgorithm.HS512.getJcaName());
+            mac.init(defaultKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to create the default HMAC signer", e);
+        }
+    }
+}
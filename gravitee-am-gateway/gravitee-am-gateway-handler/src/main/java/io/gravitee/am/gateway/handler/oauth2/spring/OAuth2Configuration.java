@@ -29,12 +29,16 @@ import io.gravitee.am.gateway.handler.oauth2.granter.extensiongrant.ExtensionGra
 import io.gravitee.am.gateway.handler.oauth2.granter.extensiongrant.impl.ExtensionGrantManagerImpl;
 import io.gravitee.am.gateway.handler.oauth2.introspection.IntrospectionService;
 import io.gravitee.am.gateway.handler.oauth2.introspection.impl.IntrospectionServiceImpl;
+import io.gravitee.am.gateway.handler.oauth2.jwt.JwtService;
+import io.gravitee.am.gateway.handler.oauth2.jwt.impl.JwtServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.revocation.RevocationTokenService;
 import io.gravitee.am.gateway.handler.oauth2.revocation.impl.RevocationTokenServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.scope.ScopeService;
 import io.gravitee.am.gateway.handler.oauth2.scope.impl.ScopeServiceImpl;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenEnhancer;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
+import io.gravitee.am.gateway.handler.oauth2.token.cache.AccessTokenCache;
+import io.gravitee.am.gateway.handler.oauth2.token.cache.impl.AccessTokenCacheImpl;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.TokenEnhancerImpl;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.TokenServiceImpl;
 import org.springframework.context.annotation.Bean;
@@ -99,4 +103,14 @@ public class OAuth2Configuration {
     public RevocationTokenService revocationTokenService() {
         return new RevocationTokenServiceImpl();
     }
+
+    @Bean
+    public AccessTokenCache accessTokenCache() {
+        return new AccessTokenCacheImpl();
+    }
+
+    @Bean
+    public JwtService jwtService() {
+        return new JwtServiceImpl();
+    }
 }
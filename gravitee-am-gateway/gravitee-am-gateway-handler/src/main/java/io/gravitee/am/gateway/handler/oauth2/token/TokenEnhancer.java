@@ -26,4 +26,9 @@ import io.reactivex.Single;
 public interface TokenEnhancer {
 
     Single<AccessToken> enhance(AccessToken accessToken, OAuth2Request oAuth2Request);
+
+    /**
+     * Add a new ID token to an access token re-used for an openid request, the ID token is not persisted with the access token.
+     */
+    Single<AccessToken> enhanceIDToken(AccessToken accessToken, OAuth2Request oAuth2Request);
 }
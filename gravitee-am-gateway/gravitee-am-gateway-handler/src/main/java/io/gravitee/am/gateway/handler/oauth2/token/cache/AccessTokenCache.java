@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.token.cache;
+
+import io.gravitee.am.gateway.handler.oauth2.token.AccessToken;
+
+import java.util.Map;
+
+/**
+ * Near-cache of the access tokens (and the username of their subject) of a security domain.
+ * Entries never outlive the expiration date of their token.
+ *
+ * @author GraviteeSource Team
+ */
+public interface AccessTokenCache {
+
+    /**
+     * @return the cached access token or <code>null</code> if the token is unknown or its entry expired
+     */
+    AccessToken get(String token);
+
+    void put(AccessToken accessToken);
+
+    /**
+     * @return the username of the token subject or <code>null</code> if it has not been resolved yet
+     */
+    String getUsername(String token);
+
+    void putUsername(String token, String username);
+
+    void evict(String token);
+
+    long getHitCount();
+
+    long getMissCount();
+
+    long getEvictionCount();
+
+    long size();
+
+    boolean isEnabled();
+
+    /**
+     * @return the size and the hit, miss and eviction counts of the cache
+     */
+    Map<String, Object> metrics();
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.token.cache.impl;
+
+import io.gravitee.am.gateway.handler.oauth2.token.AccessToken;
+import io.gravitee.am.gateway.handler.oauth2.token.cache.AccessTokenCache;
+import io.gravitee.am.gateway.handler.oauth2.token.impl.DefaultAccessToken;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.service.cache.ExpiringCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Map;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AccessTokenCacheImpl implements AccessTokenCache, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenCacheImpl.class);
+
+    @Value("${oauth2.tokens.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${oauth2.tokens.cache.maxSize:10000}")
+    private int maxSize;
+
+    @Value("${oauth2.tokens.cache.ttl:60}")
+    private int ttl;
+
+    @Autowired
+    private Domain domain;
+
+    private ExpiringCache<String, CacheEntry> entries;
+
+    @Override
+    public void afterPropertiesSet() {
+        entries = new ExpiringCache<>(maxSize);
+    }
+
+    @Override
+    public AccessToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+
+        CacheEntry entry = entries.get(token);
+        return entry != null ? copy(entry.accessToken) : null;
+    }
+
+    @Override
+    public void put(AccessToken accessToken) {
+        DefaultAccessToken defaultAccessToken = (DefaultAccessToken) accessToken;
+        if (!enabled || defaultAccessToken.getExpireAt() == null) {
+            return;
+        }
+
+        // never keep an entry beyond the expiration date of its token
+        long expireAt = Math.min(System.currentTimeMillis() + ttl * 1000L, defaultAccessToken.getExpireAt().getTime());
+        entries.put(accessToken.getValue(), new CacheEntry(copy(defaultAccessToken)), expireAt);
+    }
+
+    @Override
+    public String getUsername(String token) {
+        if (!enabled) {
+            return null;
+        }
+        CacheEntry entry = entries.peek(token);
+        return entry != null ? entry.username : null;
+    }
+
+    @Override
+    public void putUsername(String token, String username) {
+        if (!enabled) {
+            return;
+        }
+        CacheEntry entry = entries.peek(token);
+        if (entry != null) {
+            entry.username = username;
+        }
+    }
+
+    @Override
+    public void evict(String token) {
+        entries.evict(token);
+    }
+
+    @Override
+    public long getHitCount() {
+        return entries.getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return entries.getMissCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return entries.getEvictionCount();
+    }
+
+    @Override
+    public long size() {
+        return entries.size();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Map<String, Object> metrics() {
+        return entries.metrics();
+    }
+
+    @Override
+    public void destroy() {
+        if (enabled) {
+            logger.info("Access token cache for domain {}: {} hit(s), {} miss(es), {} eviction(s)",
+                    domain.getName(), getHitCount(), getMissCount(), getEvictionCount());
+        }
+        entries.clear();
+    }
+
+    private DefaultAccessToken copy(DefaultAccessToken accessToken) {
+        DefaultAccessToken token = new DefaultAccessToken(accessToken.getValue());
+        token.setTokenType(accessToken.getTokenType());
+        token.setScope(accessToken.getScope());
+        token.setRefreshToken(accessToken.getRefreshToken());
+        token.setClientId(accessToken.getClientId());
+        token.setSubject(accessToken.getSubject());
+        token.setCreatedAt(accessToken.getCreatedAt());
+        token.setExpireAt(accessToken.getExpireAt());
+        token.setExpiresIn(accessToken.getExpireAt() != null ? Long.valueOf((accessToken.getExpireAt().getTime() - System.currentTimeMillis()) / 1000L).intValue() : 0);
+        token.setAdditionalInformation(accessToken.getAdditionalInformation());
+        return token;
+    }
+
+    private static class CacheEntry {
+        private final DefaultAccessToken accessToken;
+        private volatile String username;
+
+        CacheEntry(DefaultAccessToken accessToken) {
+            this.accessToken = accessToken;
+        }
+    }
+}
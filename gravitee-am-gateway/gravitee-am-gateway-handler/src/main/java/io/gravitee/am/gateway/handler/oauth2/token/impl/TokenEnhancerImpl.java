@@ -15,9 +15,8 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.token.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.gravitee.am.gateway.handler.oauth2.certificate.CertificateManager;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
+import io.gravitee.am.gateway.handler.oauth2.jwt.JwtService;
 import io.gravitee.am.gateway.handler.oauth2.request.OAuth2Request;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenEnhancer;
 import io.gravitee.am.gateway.handler.oauth2.utils.OAuth2Constants;
@@ -29,19 +28,12 @@ import io.gravitee.am.model.User;
 import io.gravitee.am.repository.oauth2.model.AccessToken;
 import io.gravitee.am.service.exception.ClientNotFoundException;
 import io.gravitee.am.service.exception.UserNotFoundException;
-import io.jsonwebtoken.JwtBuilder;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.impl.crypto.MacProvider;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.reactivex.SingleSource;
-import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
-import java.security.Key;
-import java.security.SecureRandom;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -49,20 +41,15 @@ import java.util.stream.Collectors;
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class TokenEnhancerImpl implements TokenEnhancer, InitializingBean {
+public class TokenEnhancerImpl implements TokenEnhancer {
 
     private static final int defaultIDTokenExpireIn = 14400;
     private static final String OPEN_ID = "openid";
     private static final String ID_TOKEN = "id_token";
-    private ObjectMapper objectMapper = new ObjectMapper();
-    private JwtBuilder jwtBuilder;
 
     @Value("${oidc.iss:http://gravitee.am}")
     private String iss;
 
-    @Value("${oidc.signing.key.secret:s3cR3t4grAv1t33}")
-    private String signingKeySecret;
-
     @Autowired
     private ClientService clientService;
 
@@ -73,29 +60,11 @@ public class TokenEnhancerImpl implements TokenEnhancer, InitializingBean {
     private RoleService roleService;
 
     @Autowired
-    private CertificateManager certificateManager;
-
-    @Override
-    public void afterPropertiesSet() {
-        // create default signing HMAC key
-        Key key = MacProvider.generateKey(SignatureAlgorithm.HS512, new SecureRandom(signingKeySecret.getBytes()));
-        jwtBuilder = Jwts.builder().signWith(SignatureAlgorithm.HS512, key);
-    }
+    private JwtService jwtService;
 
     @Override
     public Single<AccessToken> enhance(AccessToken accessToken, OAuth2Request oAuth2Request) {
-        return clientService.findByClientId(oAuth2Request.getClientId())
-                .switchIfEmpty(Maybe.error(new ClientNotFoundException(oAuth2Request.getClientId())))
-                .flatMapSingle(client -> {
-                    if (!oAuth2Request.isClientOnly()) {
-                        return userService.findById(oAuth2Request.getSubject())
-                                .switchIfEmpty(Maybe.error(new UserNotFoundException(oAuth2Request.getSubject())))
-                                .toSingle()
-                                .map(user -> new TokenEnhancerData(client, user));
-                    } else {
-                        return Single.just(new TokenEnhancerData(client, null));
-                    }
-                })
+        return loadTokenEnhancerData(oAuth2Request)
                 .flatMap(tokenEnhancerData -> Single.just(tokenEnhancerData.getUser() == null)
                         .flatMap(isClientOnly -> {
                             if (!isClientOnly && tokenEnhancerData.getClient().isEnhanceScopesWithUserPermissions()) {
@@ -107,8 +76,8 @@ public class TokenEnhancerImpl implements TokenEnhancer, InitializingBean {
                         })
                         .flatMap(accessToken1 -> {
                             // enhance token with ID token
-                            if (oAuth2Request.getScopes() != null && oAuth2Request.getScopes().contains(OPEN_ID)) {
-                                return enhanceIDToken(accessToken1, tokenEnhancerData.getClient(), tokenEnhancerData.getUser(), oAuth2Request);
+                            if (isOpenIDRequest(oAuth2Request)) {
+                                return createIDToken(accessToken1, tokenEnhancerData.getClient(), tokenEnhancerData.getUser(), oAuth2Request);
                             } else {
                                 return Single.just(accessToken1);
                             }
@@ -116,6 +85,34 @@ public class TokenEnhancerImpl implements TokenEnhancer, InitializingBean {
 
     }
 
+    @Override
+    public Single<AccessToken> enhanceIDToken(AccessToken accessToken, OAuth2Request oAuth2Request) {
+        if (!isOpenIDRequest(oAuth2Request)) {
+            return Single.just(accessToken);
+        }
+        return loadTokenEnhancerData(oAuth2Request)
+                .flatMap(tokenEnhancerData -> createIDToken(accessToken, tokenEnhancerData.getClient(), tokenEnhancerData.getUser(), oAuth2Request));
+    }
+
+    private Single<TokenEnhancerData> loadTokenEnhancerData(OAuth2Request oAuth2Request) {
+        return clientService.findByClientId(oAuth2Request.getClientId())
+                .switchIfEmpty(Maybe.error(new ClientNotFoundException(oAuth2Request.getClientId())))
+                .flatMapSingle(client -> {
+                    if (!oAuth2Request.isClientOnly()) {
+                        return userService.findById(oAuth2Request.getSubject())
+                                .switchIfEmpty(Maybe.error(new UserNotFoundException(oAuth2Request.getSubject())))
+                                .toSingle()
+                                .map(user -> new TokenEnhancerData(client, user));
+                    } else {
+                        return Single.just(new TokenEnhancerData(client, null));
+                    }
+                });
+    }
+
+    private boolean isOpenIDRequest(OAuth2Request oAuth2Request) {
+        return oAuth2Request.getScopes() != null && oAuth2Request.getScopes().contains(OPEN_ID);
+    }
+
     private Single<AccessToken> enhanceScopes(AccessToken accessToken, User user, OAuth2Request oAuth2Request) {
         if (user.getRoles() != null && !user.getRoles().isEmpty()) {
             return roleService.findByIdIn(user.getRoles())
@@ -148,18 +145,17 @@ public class TokenEnhancerImpl implements TokenEnhancer, InitializingBean {
         }
     }
 
-    private Single<AccessToken> enhanceIDToken(AccessToken accessToken, Client client, User user, OAuth2Request oAuth2Request) {
+    private Single<AccessToken> createIDToken(AccessToken accessToken, Client client, User user, OAuth2Request oAuth2Request) {
         // create ID token
         Map<String, Object> IDToken = new HashMap<>();
-        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        long issuedAt = System.currentTimeMillis() / 1000l;
         IDToken.put(OIDCClaims.iss, iss);
         IDToken.put(OIDCClaims.sub, oAuth2Request.isClientOnly() ? oAuth2Request.getClientId() : user.getUsername());
         IDToken.put(OIDCClaims.aud, oAuth2Request.getClientId());
-        IDToken.put(OIDCClaims.iat, calendar.getTimeInMillis() / 1000l);
+        IDToken.put(OIDCClaims.iat, issuedAt);
 
         // set expiration time
-        calendar.add(Calendar.SECOND, client.getIdTokenValiditySeconds() > 0 ? client.getIdTokenValiditySeconds() : defaultIDTokenExpireIn);
-        IDToken.put(OIDCClaims.exp, calendar.getTimeInMillis() / 1000l);
+        IDToken.put(OIDCClaims.exp, issuedAt + (client.getIdTokenValiditySeconds() > 0 ? client.getIdTokenValiditySeconds() : defaultIDTokenExpireIn));
 
         // override claims for an end-user
         if (!oAuth2Request.isClientOnly() && client.getIdTokenCustomClaims() != null) {
@@ -174,21 +170,16 @@ public class TokenEnhancerImpl implements TokenEnhancer, InitializingBean {
         }
 
         // sign the ID Token and add id_token field to the access_token
-        return certificateManager.get(client.getCertificate())
-                .map(certificateProvider -> certificateProvider.sign(objectMapper.writeValueAsString(IDToken)))
-                .defaultIfEmpty(jwtBuilder.setClaims(IDToken).compact())
-                .flatMapSingle(payload -> {
-                    Map<String, Object> additionalInformation = new HashMap<>(accessToken.getAdditionalInformation());
+        return jwtService.encode(IDToken, client)
+                .flatMap(payload -> {
+                    Map<String, Object> additionalInformation = accessToken.getAdditionalInformation() != null ?
+                            new HashMap<>(accessToken.getAdditionalInformation()) : new HashMap<>();
                     additionalInformation.put(ID_TOKEN, payload);
                     accessToken.setAdditionalInformation(additionalInformation);
                     return Single.just(accessToken);
                 });
     }
 
-    public void setJwtBuilder(JwtBuilder jwtBuilder) {
-        this.jwtBuilder = jwtBuilder;
-    }
-
     private class TokenEnhancerData {
         private Client client;
         private User user;
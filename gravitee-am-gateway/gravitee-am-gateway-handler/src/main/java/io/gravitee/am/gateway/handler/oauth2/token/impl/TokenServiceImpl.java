@@ -16,11 +16,15 @@
 package io.gravitee.am.gateway.handler.oauth2.token.impl;
 
 import io.gravitee.am.gateway.handler.auth.UserAuthenticationManager;
+import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
+import io.gravitee.am.gateway.handler.oauth2.jwt.JwtService;
 import io.gravitee.am.gateway.handler.oauth2.request.OAuth2Request;
 import io.gravitee.am.gateway.handler.oauth2.token.AccessToken;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenEnhancer;
 import io.gravitee.am.gateway.handler.oauth2.token.TokenService;
+import io.gravitee.am.gateway.handler.oauth2.token.cache.AccessTokenCache;
+import io.gravitee.am.gateway.handler.oidc.utils.OIDCClaims;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
@@ -30,10 +34,13 @@ import io.gravitee.common.utils.UUID;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.Date;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -42,6 +49,9 @@ import java.util.Optional;
  */
 public class TokenServiceImpl implements TokenService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TokenServiceImpl.class);
+    private static final String JTI = "jti";
+    private static final String SCOPE = "scope";
     private int accessTokenValiditySeconds = 60 * 60 * 12; // default 12 hours.
     private int refreshTokenValiditySeconds = 60 * 60 * 24 * 30; // default 30 days.
 
@@ -57,9 +67,29 @@ public class TokenServiceImpl implements TokenService {
     @Autowired
     private UserAuthenticationManager userAuthenticationManager;
 
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private AccessTokenCache accessTokenCache;
+
+    @Value("${oidc.iss:http://gravitee.am}")
+    private String iss;
+
     @Override
     public Maybe<AccessToken> getAccessToken(String accessToken) {
-        return accessTokenRepository.findByToken(accessToken).map(this::convert);
+        AccessToken cachedAccessToken = accessTokenCache.get(accessToken);
+        if (cachedAccessToken != null) {
+            return Maybe.just(cachedAccessToken);
+        }
+
+        // self-contained access tokens are validated locally, they are never stored
+        Maybe<AccessToken> accessTokenSource = isJwt(accessToken) ?
+                getStatelessAccessToken(accessToken) : accessTokenRepository.findByToken(accessToken).map(this::convert);
+        return accessTokenSource.doOnSuccess(accessTokenCache::put);
     }
 
     @Override
@@ -69,38 +99,29 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public Single<AccessToken> create(OAuth2Request oAuth2Request, Client client) {
-        // new token per request option enable ? create new token
-        if (client.isGenerateNewTokenPerRequest()) {
+        // new token per request option enable or stateless access token ? create new token
+        if (client.isGenerateNewTokenPerRequest() || client.isStatelessAccessToken()) {
             return createAccessToken(oAuth2Request, client).map(this::convert);
         }
 
-        // try to find an existing token
-        // if exists and if it's not expired, re-use it
-        // if not, create a new access token
-        return accessTokenRepository.findByCriteria(convert(oAuth2Request))
-                .map(accessToken -> Optional.of(accessToken))
-                .defaultIfEmpty(Optional.empty()).toSingle()
-                .flatMap(optionalAccessToken -> {
-                    if (!optionalAccessToken.isPresent()) {
-                        return createAccessToken(oAuth2Request, client);
-                    } else {
-                        io.gravitee.am.repository.oauth2.model.AccessToken accessToken = optionalAccessToken.get();
-                        // check if the access token is expired
-                        if (accessToken.getExpireAt().before(new Date())) {
-                            // remove the refresh token of the access token
-                            Completable deleteAccessTokenAction = accessTokenRepository.delete(accessToken.getToken());
-                            if (accessToken.getRefreshToken() != null) {
-                                deleteAccessTokenAction.andThen(refreshTokenRepository.delete(accessToken.getRefreshToken()));
-                            }
-                            // the access token (and its refresh token) have been removed
-                            // re-new them
-                            return deleteAccessTokenAction.andThen(createAccessToken(oAuth2Request, client));
-                        } else {
-                            // do we need to update something ?
-                            return Single.just(accessToken);
+        // atomically re-use the current token matching the request criteria or store a candidate one
+        // the candidate may not be prepared (enhanced, ID token signed...) if there is a token to re-use
+        // and its refresh token is only persisted if it has been stored
+        return Single.defer(() -> {
+            final AtomicReference<io.gravitee.am.repository.oauth2.model.AccessToken> preparedCandidate = new AtomicReference<>();
+            return accessTokenRepository.findOrCreate(convert(oAuth2Request), prepareAccessToken(oAuth2Request, client).doOnSuccess(preparedCandidate::set))
+                    .flatMap(accessToken -> {
+                        io.gravitee.am.repository.oauth2.model.AccessToken candidate = preparedCandidate.get();
+                        if (candidate == null) {
+                            // the ID token is not persisted with the re-used token, issue one for this request
+                            return tokenEnhancer.enhanceIDToken(accessToken, oAuth2Request);
                         }
-                    }
-                }).map(this::convert);
+                        // the response-only information (id_token) issued for this request is not persisted, keep the candidate one
+                        withAdditionalInformation(accessToken, candidate);
+                        return Objects.equals(candidate.getToken(), accessToken.getToken()) ?
+                                createRefreshToken(accessToken, oAuth2Request, client) : Single.just(accessToken);
+                    });
+        }).map(this::convert);
     }
 
     @Override
@@ -135,7 +156,10 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public Completable deleteAccessToken(String accessToken) {
-        return accessTokenRepository.delete(accessToken);
+        // evict again once deleted, a concurrent read may have cached the token before the delete
+        return Completable.fromAction(() -> accessTokenCache.evict(accessToken))
+                .andThen(accessTokenRepository.delete(accessToken))
+                .doOnComplete(() -> accessTokenCache.evict(accessToken));
     }
 
     @Override
@@ -144,33 +168,85 @@ public class TokenServiceImpl implements TokenService {
     }
 
     private Single<io.gravitee.am.repository.oauth2.model.AccessToken> createAccessToken(OAuth2Request oAuth2Request, Client client) {
+        return prepareAccessToken(oAuth2Request, client)
+                .flatMap(accessToken -> client.isStatelessAccessToken() ? sign(accessToken, client) :
+                        accessTokenRepository.create(accessToken).map(stored -> withAdditionalInformation(stored, accessToken)))
+                .flatMap(accessToken -> createRefreshToken(accessToken, oAuth2Request, client));
+    }
+
+    private Single<io.gravitee.am.repository.oauth2.model.AccessToken> prepareAccessToken(OAuth2Request oAuth2Request, Client client) {
         io.gravitee.am.repository.oauth2.model.AccessToken accessToken = convert(oAuth2Request, client);
-        return Single.just(oAuth2Request.isSupportRefreshToken())
-            .flatMap(supportRefreshToken -> {
-                if (supportRefreshToken) {
-                    return createRefreshToken(oAuth2Request, client)
-                            .flatMap(refreshToken -> {
-                                accessToken.setRefreshToken(refreshToken.getToken());
-                                return Single.just(accessToken);
-                            });
-                } else {
-                    return Single.just(accessToken);
-                }
-            })
-            .flatMap(accessToken1 -> tokenEnhancer.enhance(accessToken1, oAuth2Request))
-            .flatMap(accessTokenRepository::create);
-    }
-
-    private Single<RefreshToken> createRefreshToken(OAuth2Request oAuth2Request, Client client) {
+        if (oAuth2Request.isSupportRefreshToken()) {
+            accessToken.setRefreshToken(UUID.random().toString());
+        }
+        return tokenEnhancer.enhance(accessToken, oAuth2Request);
+    }
+
+    private Single<io.gravitee.am.repository.oauth2.model.AccessToken> sign(io.gravitee.am.repository.oauth2.model.AccessToken accessToken, Client client) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JTI, accessToken.getId());
+        claims.put(OIDCClaims.iss, iss);
+        claims.put(OIDCClaims.aud, accessToken.getClientId());
+        claims.put(OIDCClaims.iat, accessToken.getCreatedAt().getTime() / 1000L);
+        claims.put(OIDCClaims.exp, accessToken.getExpireAt().getTime() / 1000L);
+        if (accessToken.getSubject() != null) {
+            claims.put(OIDCClaims.sub, accessToken.getSubject());
+        }
+        if (accessToken.getScopes() != null && !accessToken.getScopes().isEmpty()) {
+            claims.put(SCOPE, String.join(" ", accessToken.getScopes()));
+        }
+
+        return jwtService.encodeWithCertificate(claims, client)
+                .map(jwt -> {
+                    accessToken.setToken(jwt);
+                    return accessToken;
+                });
+    }
+
+    private Maybe<AccessToken> getStatelessAccessToken(String accessToken) {
+        // find the client the token has been issued to, then check the token has been signed with its certificate
+        return jwtService.decode(accessToken)
+                .flatMapMaybe(claims -> clientService.findByClientId((String) claims.get(OIDCClaims.aud)))
+                .filter(Client::isStatelessAccessToken)
+                .flatMapSingleElement(client -> jwtService.decodeAndVerify(accessToken, client))
+                .map(claims -> convert(accessToken, claims))
+                .onErrorResumeNext(ex -> {
+                    logger.debug("Invalid stateless access token", ex);
+                    return Maybe.empty();
+                });
+    }
+
+    private io.gravitee.am.repository.oauth2.model.AccessToken withAdditionalInformation(io.gravitee.am.repository.oauth2.model.AccessToken accessToken,
+                                                                                         io.gravitee.am.repository.oauth2.model.AccessToken candidate) {
+        if (accessToken != candidate && candidate.getAdditionalInformation() != null && !candidate.getAdditionalInformation().isEmpty()) {
+            Map<String, Object> additionalInformation = new HashMap<>();
+            if (accessToken.getAdditionalInformation() != null) {
+                additionalInformation.putAll(accessToken.getAdditionalInformation());
+            }
+            additionalInformation.putAll(candidate.getAdditionalInformation());
+            accessToken.setAdditionalInformation(additionalInformation);
+        }
+        return accessToken;
+    }
+
+    private boolean isJwt(String accessToken) {
+        return accessToken != null && accessToken.indexOf('.') != accessToken.lastIndexOf('.');
+    }
+
+    private Single<io.gravitee.am.repository.oauth2.model.AccessToken> createRefreshToken(io.gravitee.am.repository.oauth2.model.AccessToken accessToken, OAuth2Request oAuth2Request, Client client) {
+        if (accessToken.getRefreshToken() == null) {
+            return Single.just(accessToken);
+        }
+
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setId(UUID.random().toString());
-        refreshToken.setToken(UUID.random().toString());
+        refreshToken.setToken(accessToken.getRefreshToken());
         refreshToken.setClientId(oAuth2Request.getClientId());
         refreshToken.setSubject(oAuth2Request.getSubject());
         refreshToken.setCreatedAt(new Date());
         refreshToken.setExpireAt(new Date(System.currentTimeMillis() + (getRefreshTokenValiditySeconds(client) * 1000L)));
 
-        return refreshTokenRepository.create(refreshToken);
+        return refreshTokenRepository.create(refreshToken).map(refreshToken1 -> accessToken);
     }
 
     private Integer getAccessTokenValiditySeconds(Client client) {
@@ -215,6 +291,18 @@ public class TokenServiceImpl implements TokenService {
         return token;
     }
 
+    private AccessToken convert(String jwt, Map<String, Object> claims) {
+        DefaultAccessToken token = new DefaultAccessToken(jwt);
+        Date expireAt = new Date(((Number) claims.get(OIDCClaims.exp)).longValue() * 1000L);
+        token.setScope((String) claims.get(SCOPE));
+        token.setExpiresIn(Long.valueOf((expireAt.getTime() - System.currentTimeMillis()) / 1000L).intValue());
+        token.setClientId((String) claims.get(OIDCClaims.aud));
+        token.setSubject((String) claims.get(OIDCClaims.sub));
+        token.setExpireAt(expireAt);
+        token.setCreatedAt(new Date(((Number) claims.get(OIDCClaims.iat)).longValue() * 1000L));
+        return token;
+    }
+
     private AccessTokenCriteria convert(OAuth2Request oAuth2Request) {
         AccessTokenCriteria.Builder builder = new AccessTokenCriteria.Builder();
         builder.clientId(oAuth2Request.getClientId());
@@ -23,9 +23,12 @@ import io.gravitee.am.gateway.handler.oauth2.spring.OAuth2Configuration;
 import io.gravitee.am.gateway.handler.oidc.spring.OpenIDConfiguration;
 import io.gravitee.am.gateway.handler.vertx.spring.SecurityDomainRouterConfiguration;
 import io.gravitee.am.gateway.service.spring.ServiceConfiguration;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.event.impl.EventManagerImpl;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -49,4 +52,14 @@ public class HandlerConfiguration {
     public UserAuthenticationManager userAuthenticationManager() {
         return new UserAuthenticationManagerImpl();
     }
+
+    /**
+     * Domain scoped event manager, the domain components listen to it for their changes and their subscriptions
+     * go away with the domain context.
+     */
+    @Bean
+    @Primary
+    public EventManager domainEventManager() {
+        return new EventManagerImpl();
+    }
 }
@@ -17,22 +17,33 @@ package io.gravitee.am.gateway.handler.vertx;
 
 import io.gravitee.am.gateway.handler.auth.UserAuthenticationManager;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
+import io.gravitee.am.gateway.handler.oauth2.token.cache.AccessTokenCache;
 import io.gravitee.am.gateway.handler.vertx.auth.provider.UserAuthenticationProvider;
 import io.gravitee.am.gateway.handler.vertx.handler.ExceptionHandler;
 import io.gravitee.am.gateway.handler.vertx.handler.login.LoginRouter;
 import io.gravitee.am.gateway.handler.vertx.handler.oauth2.OAuth2Router;
 import io.gravitee.am.gateway.handler.vertx.handler.oauth2.endpoint.authorization.AuthorizationEndpointFailureHandler;
 import io.gravitee.am.gateway.handler.vertx.handler.oidc.OIDCRouter;
+import io.gravitee.am.gateway.handler.vertx.utils.ResponseCompletion;
 import io.gravitee.am.model.Domain;
-import io.gravitee.common.utils.UUID;
+import io.gravitee.common.event.EventManager;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.ext.auth.AuthProvider;
+import io.vertx.reactivex.ext.web.Cookie;
 import io.vertx.reactivex.ext.web.Router;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import io.vertx.reactivex.ext.web.Session;
 import io.vertx.reactivex.ext.web.handler.*;
-import io.vertx.reactivex.ext.web.sstore.LocalSessionStore;
+import io.vertx.reactivex.ext.web.sstore.SessionStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.env.Environment;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -42,6 +53,7 @@ public class VertxSecurityDomainHandler {
 
     private static final String DEFAULT_SESSION_COOKIE_NAME = "GRAVITEE_IO_AM_SESSION";
     private static final long DEFAULT_SESSION_TIMEOUT = 30 * 60 * 1000; // 30 minutes
+    private static final String SESSION_DOMAIN_KEY = "securityDomain";
 
     @Autowired
     private UserAuthenticationManager userAuthenticationManager;
@@ -67,10 +79,45 @@ public class VertxSecurityDomainHandler {
     @Autowired
     private Environment environment;
 
+    @Autowired
+    private EventManager eventManager;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    // node-level instances shared by all the domains
+    @Autowired
+    private SessionStore sessionStore;
+
+    @Autowired
+    private StaticHandler staticHandler;
+
+    @Autowired
+    private BodyHandler bodyHandler;
+
+    @Autowired
+    private CSRFHandler csrfHandler;
+
+    @Autowired
+    private AccessTokenCache accessTokenCache;
+
+    private final AtomicInteger inflightRequests = new AtomicInteger();
+
+    private volatile long lastRequestAt = System.currentTimeMillis();
+
+    private volatile long loadDuration = -1;
+
+    private String sessionCookieName;
+
+    private long sessionTimeout;
+
     public Router create() {
         // Create the security domain router
         final Router router = Router.router(vertx);
 
+        // in-flight requests tracking, the handler is drained before being stopped
+        router.route().handler(this::trackRequest);
+
         // failure handler
         router.route("/oauth/authorize").failureHandler(new AuthorizationEndpointFailureHandler(domain, clientService));
         router.route().failureHandler(new ExceptionHandler());
@@ -79,7 +126,7 @@ public class VertxSecurityDomainHandler {
         final AuthProvider userAuthProvider = new AuthProvider(new UserAuthenticationProvider(userAuthenticationManager));
 
         // body handler
-        router.route().handler(BodyHandler.create());
+        router.route().handler(bodyHandler);
 
         // static handler
         staticHandler(router);
@@ -106,6 +153,65 @@ public class VertxSecurityDomainHandler {
         return '/' + domain.getPath();
     }
 
+    public Domain domain() {
+        return domain;
+    }
+
+    public int inflightRequests() {
+        return inflightRequests.get();
+    }
+
+    public long lastRequestAt() {
+        return lastRequestAt;
+    }
+
+    /**
+     * Mark the domain as ready to serve traffic, once all its components are loaded.
+     */
+    public void ready(long loadDuration) {
+        this.loadDuration = loadDuration;
+    }
+
+    public boolean isReady() {
+        return loadDuration >= 0;
+    }
+
+    /**
+     * Time spent to load the domain (in milliseconds), -1 if it is not loaded yet.
+     */
+    public long loadDuration() {
+        return loadDuration;
+    }
+
+    /**
+     * Size and hit, miss and eviction counts of the enabled caches of the domain, by cache name.
+     */
+    public Map<String, Map<String, Object>> cacheMetrics() {
+        Map<String, Map<String, Object>> caches = new LinkedHashMap<>();
+        if (accessTokenCache != null && accessTokenCache.isEnabled()) {
+            caches.put("accessTokens", accessTokenCache.metrics());
+        }
+        return caches;
+    }
+
+    /**
+     * Release the resources of the domain (domain context, clients, identity providers, certificates...).
+     * Must only be called once the handler is no longer mounted and has been drained.
+     */
+    public void stop() {
+        if (applicationContext instanceof ConfigurableApplicationContext) {
+            ((ConfigurableApplicationContext) applicationContext).close();
+        }
+    }
+
+    /**
+     * Apply a change of one of the domain components (client, identity provider, certificate...) in place,
+     * without re-creating the domain handler.
+     */
+    public void publishEvent(Enum type, Object content) {
+        eventManager.publishEvent(type, content);
+    }
+
     public void setVertx(Vertx vertx) {
         this.vertx = vertx;
     }
@@ -115,18 +221,19 @@ public class VertxSecurityDomainHandler {
     }
 
     private void staticHandler(Router router) {
-        StaticHandler staticHandler = StaticHandler.create();
         router.route().handler(staticHandler);
         router.route("/oauth/*").handler(staticHandler);
     }
 
     private void sessionAndCookieHandler(Router router, AuthProvider userAuthProvider) {
+        sessionCookieName = environment.getProperty("http.cookie.session.name", String.class, DEFAULT_SESSION_COOKIE_NAME);
+        sessionTimeout = environment.getProperty("http.cookie.session.timeout", Long.class, DEFAULT_SESSION_TIMEOUT);
         CookieHandler cookieHandler = CookieHandler.create();
         SessionHandler sessionHandler = SessionHandler
-                .create(LocalSessionStore.create(vertx))
+                .create(sessionStore)
                 .setCookieHttpOnlyFlag(true)
-                .setSessionCookieName(environment.getProperty("http.cookie.session.name", String.class, DEFAULT_SESSION_COOKIE_NAME))
-                .setSessionTimeout(environment.getProperty("http.cookie.session.timeout", Long.class, DEFAULT_SESSION_TIMEOUT))
+                .setSessionCookieName(sessionCookieName)
+                .setSessionTimeout(sessionTimeout)
                 .setCookieSecureFlag(environment.getProperty("http.cookie.secure", Boolean.class, false));
         UserSessionHandler userSessionHandler = UserSessionHandler.create(userAuthProvider);
 
@@ -134,11 +241,13 @@ public class VertxSecurityDomainHandler {
         router.route("/login")
                 .handler(cookieHandler)
                 .handler(sessionHandler)
+                .handler(this::bindSessionToDomain)
                 .handler(userSessionHandler);
         router
                 .route("/login/callback")
                 .handler(cookieHandler)
                 .handler(sessionHandler)
+                .handler(this::bindSessionToDomain)
                 .handler(userSessionHandler);
 
         // Logout endpoint
@@ -146,6 +255,7 @@ public class VertxSecurityDomainHandler {
                 .route("/logout")
                 .handler(cookieHandler)
                 .handler(sessionHandler)
+                .handler(this::bindSessionToDomain)
                 .handler(userSessionHandler);
 
         // OAuth 2.0 Authorize endpoint
@@ -153,16 +263,55 @@ public class VertxSecurityDomainHandler {
                 .route("/oauth/authorize")
                 .handler(cookieHandler)
                 .handler(sessionHandler)
+                .handler(this::bindSessionToDomain)
                 .handler(userSessionHandler);
         router
                 .route("/oauth/confirm_access")
                 .handler(cookieHandler)
                 .handler(sessionHandler)
+                .handler(this::bindSessionToDomain)
                 .handler(userSessionHandler);
     }
 
+    /**
+     * Count the request as in-flight until its response is sent or its connection is closed by the client,
+     * whichever comes first.
+     */
+    void trackRequest(RoutingContext context) {
+        lastRequestAt = System.currentTimeMillis();
+        inflightRequests.incrementAndGet();
+        ResponseCompletion.onComplete(context.response(), closed -> inflightRequests.decrementAndGet());
+        context.next();
+    }
+
+    /**
+     * The session store is shared by the domains, a session can only be used by the domain which has created it.
+     * The session of another domain is replaced by a new one, the current request keeps a usable session
+     * (authorization request saved before the redirection to the login page...).
+     */
+    void bindSessionToDomain(RoutingContext context) {
+        Session session = context.session();
+        if (session != null) {
+            String sessionDomain = session.get(SESSION_DOMAIN_KEY);
+            if (sessionDomain == null) {
+                session.put(SESSION_DOMAIN_KEY, domain.getId());
+            } else if (!sessionDomain.equals(domain.getId())) {
+                context.clearUser();
+                Session domainSession = sessionStore.createSession(sessionTimeout);
+                domainSession.put(SESSION_DOMAIN_KEY, domain.getId());
+                context.setSession(domainSession);
+
+                // the session cookie is sent back with the new session identifier
+                Cookie sessionCookie = context.getCookie(sessionCookieName);
+                if (sessionCookie != null) {
+                    sessionCookie.setValue(domainSession.id());
+                }
+            }
+        }
+        context.next();
+    }
+
     private void csrfHandler(Router router) {
-        CSRFHandler csrfHandler = CSRFHandler.create(UUID.random().toString());
         io.gravitee.am.gateway.handler.vertx.handler.CSRFHandler csrfHandler1 = io.gravitee.am.gateway.handler.vertx.handler.CSRFHandler.create();
         router.route("/login").handler(csrfHandler).handler(csrfHandler1);
         router.route("/oauth/confirm_access").handler(csrfHandler).handler(csrfHandler1);
@@ -23,6 +23,7 @@ import io.gravitee.am.gateway.handler.vertx.auth.provider.OAuth2ClientAuthentica
 import io.gravitee.am.gateway.handler.vertx.handler.login.endpoint.LoginCallbackEndpointHandler;
 import io.gravitee.am.gateway.handler.vertx.handler.login.endpoint.LoginEndpointHandler;
 import io.gravitee.am.gateway.handler.vertx.handler.login.endpoint.LogoutEndpointHandler;
+import io.gravitee.am.gateway.handler.vertx.view.DomainTemplates;
 import io.gravitee.am.gateway.service.UserService;
 import io.gravitee.am.model.Domain;
 import io.vertx.reactivex.core.Vertx;
@@ -49,6 +50,9 @@ public class LoginRouter {
     @Autowired
     private Domain domain;
 
+    @Autowired
+    private DomainTemplates domainTemplates;
+
     @Autowired
     private Vertx vertx;
 
@@ -63,7 +67,7 @@ public class LoginRouter {
         final AuthProvider identityProviderAuthProvider = new AuthProvider(new OAuth2ClientAuthenticationProvider(identityProviderManager, userService));
 
         // login handler
-        router.get("/login").handler(new LoginEndpointHandler(thymeleafTemplateEngine, domain, clientService, identityProviderManager));
+        router.get("/login").handler(new LoginEndpointHandler(thymeleafTemplateEngine, domainTemplates.get(DomainTemplates.LOGIN_TEMPLATE), domain, clientService, identityProviderManager));
         router.post("/login").handler(FormLoginHandler.create(userAuthProvider.getDelegate()));
 
         // oauth 2.0 login callback handler
@@ -51,6 +51,7 @@ public class LoginEndpointHandler implements Handler<RoutingContext> {
     private static final Logger logger = LoggerFactory.getLogger(LoginEndpointHandler.class);
     private final static List<String> socialProviders = Arrays.asList("github", "google", "twitter", "facebook", "bitbucket");
     private ThymeleafTemplateEngine engine;
+    private String template = "login";
     private Domain domain;
     private ClientService clientService;
     private IdentityProviderManager identityProviderManager;
@@ -58,10 +59,12 @@ public class LoginEndpointHandler implements Handler<RoutingContext> {
     public LoginEndpointHandler() {}
 
     public LoginEndpointHandler(ThymeleafTemplateEngine thymeleafTemplateEngine,
+                                String template,
                                 Domain domain,
                                 ClientService clientService,
                                 IdentityProviderManager identityProviderManager) {
         this.engine = thymeleafTemplateEngine;
+        this.template = template;
         this.domain = domain;
         this.clientService = clientService;
         this.identityProviderManager = identityProviderManager;
@@ -105,7 +108,7 @@ public class LoginEndpointHandler implements Handler<RoutingContext> {
                     routingContext.put("param", params);
 
                     // render the login page
-                    engine.render(routingContext, "login", res -> {
+                    engine.render(routingContext, template, res -> {
                         if (res.succeeded()) {
                             routingContext.response().putHeader(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_HTML);
                             routingContext.response().end(res.result());
@@ -19,16 +19,14 @@ import io.gravitee.am.gateway.handler.vertx.VertxSecurityDomainHandler;
 import io.gravitee.am.gateway.handler.vertx.handler.login.LoginRouter;
 import io.gravitee.am.gateway.handler.vertx.handler.oauth2.OAuth2Router;
 import io.gravitee.am.gateway.handler.vertx.handler.oidc.OIDCRouter;
-import io.gravitee.am.gateway.handler.vertx.view.ThymeleafConfiguration;
+import io.gravitee.am.gateway.handler.vertx.view.DomainTemplates;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Import;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-@Import(ThymeleafConfiguration.class)
 @Configuration
 public class SecurityDomainRouterConfiguration {
 
@@ -37,6 +35,11 @@ public class SecurityDomainRouterConfiguration {
         return new VertxSecurityDomainHandler();
     }
 
+    @Bean
+    public DomainTemplates domainTemplates() {
+        return new DomainTemplates();
+    }
+
     @Bean
     public LoginRouter loginRouter() {
         return new LoginRouter();
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.vertx.spring;
+
+import io.gravitee.am.gateway.handler.vertx.view.ThymeleafConfiguration;
+import io.gravitee.common.utils.UUID;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.ext.web.handler.BodyHandler;
+import io.vertx.reactivex.ext.web.handler.CSRFHandler;
+import io.vertx.reactivex.ext.web.handler.StaticHandler;
+import io.vertx.reactivex.ext.web.sstore.LocalSessionStore;
+import io.vertx.reactivex.ext.web.sstore.SessionStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Infrastructure shared by all the security domains of the node, the domain contexts only hold their own configuration.
+ *
+ * @author GraviteeSource Team
+ */
+@Import(ThymeleafConfiguration.class)
+@Configuration
+public class SharedHandlerConfiguration {
+
+    @Autowired
+    private Vertx vertx;
+
+    @Bean
+    public SessionStore sessionStore() {
+        return LocalSessionStore.create(vertx);
+    }
+
+    @Bean
+    public StaticHandler staticHandler() {
+        return StaticHandler.create();
+    }
+
+    @Bean
+    public BodyHandler bodyHandler() {
+        return BodyHandler.create();
+    }
+
+    @Bean
+    public CSRFHandler csrfHandler() {
+        return CSRFHandler.create(UUID.random().toString());
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.vertx.utils;
+
+import io.vertx.core.Handler;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Notify several listeners of the completion of a response, whether it has been sent or its connection closed by the client.
+ * The end and close handlers of a response hold a single handler, they must not be set directly by the components
+ * sharing the response (admission control, in-flight requests tracking...).
+ *
+ * @author GraviteeSource Team
+ */
+public final class ResponseCompletion {
+
+    private static final ConcurrentMap<io.vertx.core.http.HttpServerResponse, List<Handler<Boolean>>> LISTENERS = new ConcurrentHashMap<>();
+
+    private ResponseCompletion() {
+    }
+
+    /**
+     * Call the handler once, with <code>true</code> if the connection has been closed before the response was sent.
+     * The handler is called immediately if the response is already completed.
+     */
+    public static void onComplete(HttpServerResponse response, Handler<Boolean> handler) {
+        if (response.closed() || response.ended()) {
+            handler.handle(response.closed() && !response.ended());
+            return;
+        }
+
+        LISTENERS.computeIfAbsent(response.getDelegate(), key -> {
+            response.endHandler(v -> complete(key, false));
+            response.closeHandler(v -> complete(key, true));
+            return new CopyOnWriteArrayList<>();
+        }).add(handler);
+    }
+
+    private static void complete(io.vertx.core.http.HttpServerResponse response, boolean closed) {
+        List<Handler<Boolean>> listeners = LISTENERS.remove(response);
+        if (listeners != null) {
+            listeners.forEach(listener -> listener.handle(closed));
+        }
+    }
+}
@@ -16,46 +16,64 @@
 package io.gravitee.am.gateway.handler.vertx.view;
 
 import io.gravitee.am.model.Domain;
-import org.springframework.beans.factory.InitializingBean;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.thymeleaf.IEngineConfiguration;
-import org.thymeleaf.cache.ICacheEntryValidity;
-import org.thymeleaf.templatemode.TemplateMode;
 import org.thymeleaf.templateresolver.AbstractConfigurableTemplateResolver;
-import org.thymeleaf.templateresolver.AbstractTemplateResolver;
-import org.thymeleaf.templateresolver.StringTemplateResolver;
 import org.thymeleaf.templateresource.ITemplateResource;
 import org.thymeleaf.templateresource.StringTemplateResource;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Resolve the templates customized by the security domains, each of them being registered under a name
+ * specific to its domain.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class DomainBasedTemplateResolver extends AbstractConfigurableTemplateResolver implements InitializingBean {
-
-    private Map<String, String> templates = new HashMap<>();
-
-    @Autowired
-    private Domain domain;
+public class DomainBasedTemplateResolver extends AbstractConfigurableTemplateResolver {
 
+    private final ConcurrentMap<String, DomainTemplate> templates = new ConcurrentHashMap<>();
 
     @Override
     protected ITemplateResource computeTemplateResource(IEngineConfiguration configuration, String ownerTemplate, String template, String resourceName, String characterEncoding, Map<String, Object> templateResolutionAttributes) {
-        if (templates.containsKey(resourceName)) {
-            return new StringTemplateResource(templates.get(resourceName));
+        DomainTemplate domainTemplate = templates.get(resourceName);
+        if (domainTemplate != null) {
+            return new StringTemplateResource(domainTemplate.getContent());
         }
 
         return null;
     }
 
-    @Override
-    public void afterPropertiesSet() {
-        if (domain.getLoginForm() != null && domain.getLoginForm().getContent() != null && domain.getLoginForm().isEnabled()) {
-            templates.put("login", domain.getLoginForm().getContent());
+    public DomainTemplate register(Domain domain, String template, String content) {
+        DomainTemplate domainTemplate = new DomainTemplate(domain.getId() + '/' + template, content);
+        templates.put(domainTemplate.getName(), domainTemplate);
+        return domainTemplate;
+    }
+
+    public void unregister(DomainTemplate domainTemplate) {
+        // the template may already have been replaced by the one of a redeployed domain
+        templates.remove(domainTemplate.getName(), domainTemplate);
+    }
+
+    public static class DomainTemplate {
+
+        private final String name;
+        private final String content;
+
+        DomainTemplate(String name, String content) {
+            this.name = name;
+            this.content = content;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getContent() {
+            return content;
         }
     }
-}
\ No newline at end of file
+}
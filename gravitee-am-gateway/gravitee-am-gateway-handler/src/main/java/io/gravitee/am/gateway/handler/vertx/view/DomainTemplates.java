@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.vertx.view;
+
+import io.gravitee.am.model.Domain;
+import io.vertx.reactivex.ext.web.templ.ThymeleafTemplateEngine;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Templates customized by the security domain, registered in the template engine shared by the domains.
+ *
+ * @author GraviteeSource Team
+ */
+public class DomainTemplates implements InitializingBean, DisposableBean {
+
+    public static final String LOGIN_TEMPLATE = "login";
+
+    private final Map<String, DomainBasedTemplateResolver.DomainTemplate> domainTemplates = new HashMap<>();
+
+    @Autowired
+    private Domain domain;
+
+    @Autowired
+    private DomainBasedTemplateResolver templateResolver;
+
+    @Autowired
+    private ThymeleafTemplateEngine templateEngine;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (domain.getLoginForm() != null && domain.getLoginForm().getContent() != null && domain.getLoginForm().isEnabled()) {
+            register(LOGIN_TEMPLATE, domain.getLoginForm().getContent());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        domainTemplates.values().forEach(domainTemplate -> {
+            templateResolver.unregister(domainTemplate);
+            clearCache(domainTemplate.getName());
+        });
+        domainTemplates.clear();
+    }
+
+    /**
+     * Name of the template to render for the domain, the customized one if any.
+     */
+    public String get(String template) {
+        DomainBasedTemplateResolver.DomainTemplate domainTemplate = domainTemplates.get(template);
+        return (domainTemplate != null) ? domainTemplate.getName() : template;
+    }
+
+    private void register(String template, String content) {
+        DomainBasedTemplateResolver.DomainTemplate domainTemplate = templateResolver.register(domain, template, content);
+        domainTemplates.put(template, domainTemplate);
+        // the previous version of the template may have been cached
+        clearCache(domainTemplate.getName());
+    }
+
+    private void clearCache(String templateName) {
+        templateEngine.getDelegate().getThymeleafTemplateEngine().clearTemplateCacheFor(templateName);
+    }
+}
@@ -15,9 +15,7 @@
  */
 package io.gravitee.am.gateway.handler.vertx.view;
 
-import io.gravitee.am.model.Domain;
 import io.vertx.reactivex.ext.web.templ.ThymeleafTemplateEngine;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.thymeleaf.TemplateEngine;
@@ -25,6 +23,8 @@ import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 import org.thymeleaf.templateresolver.ITemplateResolver;
 
 /**
+ * Template engine shared by all the security domains of the node.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -32,34 +32,32 @@ import org.thymeleaf.templateresolver.ITemplateResolver;
 @Configuration
 public class ThymeleafConfiguration {
 
-    @Autowired
-    private Domain domain;
-
     @Bean
     public ThymeleafTemplateEngine getTemplateEngine() {
         ThymeleafTemplateEngine thymeleafTemplateEngine = ThymeleafTemplateEngine.create();
         TemplateEngine templateEngine = thymeleafTemplateEngine.getDelegate().getThymeleafTemplateEngine();
-        if (domain.getLoginForm() != null && domain.getLoginForm().getContent() != null && domain.getLoginForm().isEnabled()) {
-            templateEngine.setTemplateResolver(overrideTemplateResolver());
-            templateEngine.addTemplateResolver(defaultTemplateResolver());
-        } else {
-            templateEngine.setTemplateResolver(defaultTemplateResolver());
-        }
+        // default templates first, the templates customized by the domains have their own names
+        templateEngine.setTemplateResolver(defaultTemplateResolver());
+        templateEngine.addTemplateResolver(overrideTemplateResolver());
 
         return thymeleafTemplateEngine;
     }
 
     @Bean
-    public ITemplateResolver overrideTemplateResolver() {
-        return new DomainBasedTemplateResolver();
-
+    public DomainBasedTemplateResolver overrideTemplateResolver() {
+        DomainBasedTemplateResolver templateResolver = new DomainBasedTemplateResolver();
+        templateResolver.setOrder(2);
+        return templateResolver;
     }
+
     private ITemplateResolver defaultTemplateResolver() {
         ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
         templateResolver.setPrefix("/webroot/views/");
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode("HTML");
+        templateResolver.setCheckExistence(true);
+        templateResolver.setOrder(1);
         return templateResolver;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.auth.idp;
+
+import io.gravitee.am.gateway.core.event.IdentityProviderEvent;
+import io.gravitee.am.gateway.handler.auth.idp.impl.IdentityProviderManagerImpl;
+import io.gravitee.am.identityprovider.api.AuthenticationProvider;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.IdentityProvider;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.plugins.idp.core.IdentityProviderPluginManager;
+import io.gravitee.am.repository.management.api.IdentityProviderRepository;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.event.impl.EventManagerImpl;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.vertx.core.Handler;
+import io.vertx.reactivex.core.Vertx;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class IdentityProviderManagerTest {
+
+    private static final String DOMAIN = "my-domain";
+
+    @InjectMocks
+    private IdentityProviderManagerImpl identityProviderManager = new IdentityProviderManagerImpl();
+
+    @Mock
+    private IdentityProviderPluginManager identityProviderPluginManager;
+
+    @Mock
+    private IdentityProviderRepository identityProviderRepository;
+
+    @Mock
+    private Domain domain;
+
+    @Spy
+    private EventManager eventManager = new EventManagerImpl();
+
+    @Mock
+    private Vertx vertx;
+
+    private AuthenticationProvider authenticationProvider = Mockito.mock(AuthenticationProvider.class);
+
+    @Before
+    public void setUp() {
+        when(domain.getId()).thenReturn(DOMAIN);
+        when(identityProviderRepository.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.singleton(identityProvider("my-idp", "ldap"))));
+        when(identityProviderPluginManager.create(eq("ldap"), any(), any(), any())).thenReturn(authenticationProvider);
+
+        identityProviderManager.afterPropertiesSet();
+        identityProviderManager.loaded().test().awaitTerminalEvent();
+    }
+
+    @Test
+    public void shouldLoadIdentityProviders() {
+        identityProviderManager.get("my-idp").test().assertValue(authenticationProvider);
+        identityProviderManager.getIdentityProvider("my-idp").test().assertValueCount(1);
+    }
+
+    @Test
+    public void shouldLoadIdentityProviders_skipBrokenOne() {
+        when(identityProviderRepository.findByDomain(DOMAIN)).thenReturn(Single.just(new HashSet<>(Arrays.asList(
+                identityProvider("my-idp", "ldap"), identityProvider("broken-idp", "broken")))));
+        when(identityProviderPluginManager.create(eq("broken"), any(), any(), any())).thenThrow(new IllegalStateException("No identity provider is registered for type broken"));
+
+        identityProviderManager.afterPropertiesSet();
+        TestObserver testObserver = identityProviderManager.loaded().test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        identityProviderManager.get("my-idp").test().assertValue(authenticationProvider);
+        identityProviderManager.get("broken-idp").test().assertNoValues();
+    }
+
+    @Test
+    public void shouldUpdateIdentityProvider_onEvent() {
+        AuthenticationProvider newAuthenticationProvider = Mockito.mock(AuthenticationProvider.class);
+        when(identityProviderRepository.findById("my-idp")).thenReturn(Maybe.just(identityProvider("my-idp", "inline")));
+        when(identityProviderPluginManager.create(eq("inline"), any(), any(), any())).thenReturn(newAuthenticationProvider);
+
+        eventManager.publishEvent(IdentityProviderEvent.UPDATE, new Payload("my-idp", DOMAIN, Action.UPDATE));
+
+        identityProviderManager.get("my-idp").test().assertValue(newAuthenticationProvider);
+        // the previous provider context must be closed
+        verify(identityProviderPluginManager, times(1)).release(authenticationProvider);
+        verify(identityProviderPluginManager, never()).release(newAuthenticationProvider);
+    }
+
+    @Test
+    public void shouldUpdateIdentityProvider_drainPreviousProvider() {
+        Whitebox.setInternalState(identityProviderManager, "drainTimeout", 30000L);
+        when(vertx.setTimer(eq(30000L), any())).thenReturn(1L);
+        AuthenticationProvider newAuthenticationProvider = Mockito.mock(AuthenticationProvider.class);
+        when(identityProviderRepository.findById("my-idp")).thenReturn(Maybe.just(identityProvider("my-idp", "inline")));
+        when(identityProviderPluginManager.create(eq("inline"), any(), any(), any())).thenReturn(newAuthenticationProvider);
+
+        eventManager.publishEvent(IdentityProviderEvent.UPDATE, new Payload("my-idp", DOMAIN, Action.UPDATE));
+
+        // the new provider is published, the previous one is kept for the logins in progress
+        identityProviderManager.get("my-idp").test().assertValue(newAuthenticationProvider);
+        verify(identityProviderPluginManager, never()).release(any(AuthenticationProvider.class));
+
+        ArgumentCaptor<Handler> timerHandler = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx, times(1)).setTimer(eq(30000L), timerHandler.capture());
+        timerHandler.getValue().handle(1L);
+
+        verify(identityProviderPluginManager, times(1)).release(authenticationProvider);
+        verify(identityProviderPluginManager, never()).release(newAuthenticationProvider);
+    }
+
+    @Test
+    public void shouldReleaseDrainingProviders_onDestroy() {
+        Whitebox.setInternalState(identityProviderManager, "drainTimeout", 30000L);
+        when(vertx.setTimer(eq(30000L), any())).thenReturn(1L);
+
+        eventManager.publishEvent(IdentityProviderEvent.UNDEPLOY, new Payload("my-idp", DOMAIN, Action.DELETE));
+        verify(identityProviderPluginManager, never()).release(any(AuthenticationProvider.class));
+
+        identityProviderManager.destroy();
+
+        verify(vertx, times(1)).cancelTimer(1L);
+        verify(identityProviderPluginManager, times(1)).release(authenticationProvider);
+    }
+
+    @Test
+    public void shouldRemoveIdentityProvider_onEvent() {
+        eventManager.publishEvent(IdentityProviderEvent.UNDEPLOY, new Payload("my-idp", DOMAIN, Action.DELETE));
+
+        identityProviderManager.get("my-idp").test().assertNoValues();
+        identityProviderManager.getIdentityProvider("my-idp").test().assertNoValues();
+        verify(identityProviderPluginManager, times(1)).release(authenticationProvider);
+    }
+
+    @Test
+    public void shouldIgnoreEvent_otherDomain() {
+        eventManager.publishEvent(IdentityProviderEvent.UNDEPLOY, new Payload("my-idp", "other-domain", Action.DELETE));
+
+        identityProviderManager.get("my-idp").test().assertValue(authenticationProvider);
+        verify(identityProviderPluginManager, never()).release(any(AuthenticationProvider.class));
+    }
+
+    @Test
+    public void shouldReleaseIdentityProviders_onDestroy() {
+        identityProviderManager.destroy();
+
+        identityProviderManager.get("my-idp").test().assertNoValues();
+        verify(identityProviderPluginManager, times(1)).release(authenticationProvider);
+    }
+
+    private IdentityProvider identityProvider(String id, String type) {
+        IdentityProvider identityProvider = new IdentityProvider();
+        identityProvider.setId(id);
+        identityProvider.setType(type);
+        identityProvider.setDomain(DOMAIN);
+        return identityProvider;
+    }
+}
@@ -15,9 +15,118 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.client;
 
+import io.gravitee.am.gateway.core.event.ClientEvent;
+import io.gravitee.am.gateway.handler.oauth2.client.impl.ClientServiceImpl;
+import io.gravitee.am.model.Client;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.repository.management.api.ClientRepository;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.event.impl.EventManagerImpl;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.*;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
+@RunWith(MockitoJUnitRunner.class)
 public class ClientServiceTest {
+
+    private static final String DOMAIN = "my-domain";
+
+    @InjectMocks
+    private ClientServiceImpl clientService = new ClientServiceImpl();
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private Domain domain;
+
+    @Spy
+    private EventManager eventManager = new EventManagerImpl();
+
+    @Before
+    public void setUp() {
+        when(domain.getId()).thenReturn(DOMAIN);
+        when(clientRepository.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.singleton(client("my-client-id", "my-client"))));
+
+        clientService.afterPropertiesSet();
+        clientService.loaded().test().awaitTerminalEvent();
+    }
+
+    @Test
+    public void shouldLoadClients() {
+        TestObserver<Client> testObserver = clientService.findByClientId("my-client").test();
+
+        testObserver.assertComplete();
+        testObserver.assertValue(client -> "my-client-id".equals(client.getId()));
+    }
+
+    @Test
+    public void shouldDeployClient_onEvent() {
+        when(clientRepository.findById("other-client-id")).thenReturn(Maybe.just(client("other-client-id", "other-client")));
+
+        eventManager.publishEvent(ClientEvent.DEPLOY, new Payload("other-client-id", DOMAIN, Action.CREATE));
+
+        clientService.findByClientId("other-client").test().assertValueCount(1);
+        clientService.findByClientId("my-client").test().assertValueCount(1);
+    }
+
+    @Test
+    public void shouldUpdateClient_onEvent() {
+        // the OAuth client_id of the client has been changed
+        when(clientRepository.findById("my-client-id")).thenReturn(Maybe.just(client("my-client-id", "my-new-client")));
+
+        eventManager.publishEvent(ClientEvent.UPDATE, new Payload("my-client-id", DOMAIN, Action.UPDATE));
+
+        clientService.findByClientId("my-new-client").test().assertValueCount(1);
+        clientService.findByClientId("my-client").test().assertNoValues();
+    }
+
+    @Test
+    public void shouldRemoveClient_onEvent() {
+        eventManager.publishEvent(ClientEvent.UNDEPLOY, new Payload("my-client-id", DOMAIN, Action.DELETE));
+
+        clientService.findByClientId("my-client").test().assertNoValues();
+        verify(clientRepository, never()).findById("my-client-id");
+    }
+
+    @Test
+    public void shouldRemoveClient_notFound() {
+        when(clientRepository.findById("my-client-id")).thenReturn(Maybe.empty());
+
+        eventManager.publishEvent(ClientEvent.UPDATE, new Payload("my-client-id", DOMAIN, Action.UPDATE));
+
+        clientService.findByClientId("my-client").test().assertNoValues();
+    }
+
+    @Test
+    public void shouldIgnoreEvent_otherDomain() {
+        eventManager.publishEvent(ClientEvent.UNDEPLOY, new Payload("my-client-id", "other-domain", Action.DELETE));
+
+        clientService.findByClientId("my-client").test().assertValueCount(1);
+        verify(clientRepository, never()).findById(anyString());
+    }
+
+    private Client client(String id, String clientId) {
+        Client client = new Client();
+        client.setId(id);
+        client.setClientId(clientId);
+        return client;
+    }
 }
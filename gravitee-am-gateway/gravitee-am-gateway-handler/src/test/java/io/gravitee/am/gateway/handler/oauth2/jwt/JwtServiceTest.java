@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.oauth2.jwt;
+
+import io.gravitee.am.certificate.api.CertificateProvider;
+import io.gravitee.am.gateway.handler.oauth2.certificate.CertificateManager;
+import io.gravitee.am.gateway.handler.oauth2.exception.InvalidTokenException;
+import io.gravitee.am.gateway.handler.oauth2.exception.ServerErrorException;
+import io.gravitee.am.gateway.handler.oauth2.jwt.impl.JwtServiceImpl;
+import io.gravitee.am.model.Client;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class JwtServiceTest {
+
+    private static final String SECRET = "s3cR3t4grAv1t33s3cR3t4grAv1t33s3cR3t4grAv1t33s3cR3t4grAv1t33s3cR3t4grAv1t33";
+
+    @InjectMocks
+    private JwtServiceImpl jwtService = new JwtServiceImpl();
+
+    @Mock
+    private CertificateManager certificateManager;
+
+    @Before
+    public void init() {
+        jwtService.afterPropertiesSet();
+        when(certificateManager.get(anyString())).thenReturn(Maybe.empty());
+    }
+
+    @Test
+    public void shouldEncode_defaultKey() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "subject");
+        claims.put("exp", System.currentTimeMillis() / 1000 + 60);
+
+        TestObserver<String> testObserver = jwtService.encode(claims, new Client()).test();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        String jwt = testObserver.values().get(0);
+        assertEquals("subject", jwtService.decode(jwt).blockingGet().get("sub"));
+
+        // the signature must not be reproducible with a known secret
+        try {
+            Jwts.parser()
+                    .setSigningKey(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS512.getJcaName()))
+                    .parseClaimsJws(jwt);
+            fail("The default key must not be derived from a known secret");
+        } catch (SignatureException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void shouldEncode_defaultKeyPerNode() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "subject");
+
+        JwtServiceImpl otherNode = new JwtServiceImpl();
+        Whitebox.setInternalState(otherNode, "certificateManager", certificateManager);
+        otherNode.afterPropertiesSet();
+
+        String jwt = jwtService.encode(claims, new Client()).blockingGet();
+        String otherJwt = otherNode.encode(claims, new Client()).blockingGet();
+        assertNotEquals(jwt, otherJwt);
+    }
+
+    @Test
+    public void shouldEncodeWithCertificate() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "subject");
+
+        Client client = new Client();
+        client.setCertificate("certificate-id");
+        CertificateProvider certificateProvider = mock(CertificateProvider.class);
+        when(certificateProvider.sign(anyString())).thenReturn("header.payload.signature");
+        when(certificateManager.get("certificate-id")).thenReturn(Maybe.just(certificateProvider));
+
+        TestObserver<String> testObserver = jwtService.encodeWithCertificate(claims, client).test();
+        testObserver.assertComplete();
+        testObserver.assertValue("header.payload.signature");
+    }
+
+    @Test
+    public void shouldNotEncodeWithCertificate_noCertificate() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "subject");
+
+        TestObserver<String> testObserver = jwtService.encodeWithCertificate(claims, new Client()).test();
+        testObserver.assertError(ServerErrorException.class);
+    }
+
+    @Test
+    public void shouldNotVerify_noCertificate() {
+        // a token signed with a shared secret must never be accepted in place of a certificate signature
+        String jwt = Jwts.builder()
+                .setSubject("subject")
+                .signWith(SignatureAlgorithm.HS512, new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS512.getJcaName()))
+                .compact();
+
+        TestObserver<Map<String, Object>> testObserver = jwtService.decodeAndVerify(jwt, new Client()).test();
+        testObserver.assertError(InvalidTokenException.class);
+    }
+}
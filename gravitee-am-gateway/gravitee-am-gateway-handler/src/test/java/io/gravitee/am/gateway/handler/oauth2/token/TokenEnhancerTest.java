@@ -15,9 +15,8 @@
  */
 package io.gravitee.am.gateway.handler.oauth2.token;
 
-import io.gravitee.am.certificate.api.CertificateProvider;
-import io.gravitee.am.gateway.handler.oauth2.certificate.CertificateManager;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
+import io.gravitee.am.gateway.handler.oauth2.jwt.JwtService;
 import io.gravitee.am.gateway.handler.oauth2.request.OAuth2Request;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.TokenEnhancerImpl;
 import io.gravitee.am.gateway.service.RoleService;
@@ -28,10 +27,6 @@ import io.gravitee.am.model.User;
 import io.gravitee.am.repository.oauth2.model.AccessToken;
 import io.gravitee.am.service.exception.ClientNotFoundException;
 import io.gravitee.am.service.exception.UserNotFoundException;
-import io.jsonwebtoken.JwtBuilder;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.impl.crypto.MacSigner;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
@@ -41,9 +36,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import java.security.Key;
 import java.util.Collections;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -67,12 +62,7 @@ public class TokenEnhancerTest {
     private RoleService roleService;
 
     @Mock
-    private CertificateManager certificateManager;
-
-    @Mock
-    private CertificateProvider certificateProvider;
-
-    private JwtBuilder jwtBuilder;
+    private JwtService jwtService;
 
     @Test
     public void shouldEnhanceToken_withoutIDToken() {
@@ -95,6 +85,49 @@ public class TokenEnhancerTest {
         testObserver.assertValue(accessToken1 -> accessToken1.getAdditionalInformation().isEmpty());
     }
 
+    @Test
+    public void shouldEnhanceIDToken_reusedToken() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setClientId("client-id");
+        oAuth2Request.setScopes(Collections.singleton("openid"));
+
+        Client client = new Client();
+
+        // the ID token is not persisted with the stored token
+        AccessToken accessToken = new AccessToken();
+        accessToken.setId("token-id");
+        accessToken.setToken("token-id");
+        accessToken.setAdditionalInformation(null);
+
+        when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
+        when(jwtService.encode(any(), any())).thenReturn(Single.just("payload"));
+
+        TestObserver<AccessToken> testObserver = tokenEnhancer.enhanceIDToken(accessToken, oAuth2Request).test();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(accessToken1 -> "payload".equals(accessToken1.getAdditionalInformation().get("id_token")));
+        verify(roleService, never()).findByIdIn(anyList());
+    }
+
+    @Test
+    public void shouldNotEnhanceIDToken_noOpenIDScope() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setClientId("client-id");
+        oAuth2Request.setScopes(Collections.singleton("read"));
+
+        AccessToken accessToken = new AccessToken();
+        accessToken.setId("token-id");
+        accessToken.setToken("token-id");
+
+        TestObserver<AccessToken> testObserver = tokenEnhancer.enhanceIDToken(accessToken, oAuth2Request).test();
+
+        testObserver.assertComplete();
+        testObserver.assertValue(accessToken1 -> accessToken1.getAdditionalInformation().isEmpty());
+        verify(clientService, never()).findByClientId(anyString());
+        verify(jwtService, never()).encode(any(), any());
+    }
+
     @Test
     public void shouldEnhanceToken_clientNotFound() {
         OAuth2Request oAuth2Request = new OAuth2Request();
@@ -128,13 +161,8 @@ public class TokenEnhancerTest {
 
         String idTokenPayload = "payload";
 
-        Key key = MacSigner.generateKey();
-        jwtBuilder = Jwts.builder().signWith(SignatureAlgorithm.HS512, key);
-        ((TokenEnhancerImpl) tokenEnhancer).setJwtBuilder(jwtBuilder);
-
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
-        when(certificateProvider.sign(anyString())).thenReturn(idTokenPayload);
-        when(certificateManager.get(anyString())).thenReturn(Maybe.just(certificateProvider));
+        when(jwtService.encode(any(), any())).thenReturn(Single.just(idTokenPayload));
 
         TestObserver<AccessToken> testObserver = tokenEnhancer.enhance(accessToken, oAuth2Request).test();
 
@@ -143,8 +171,7 @@ public class TokenEnhancerTest {
         testObserver.assertValue(accessToken1 -> accessToken1.getAdditionalInformation().containsKey("id_token"));
 
         verify(clientService, times(1)).findByClientId(anyString());
-        verify(certificateProvider, times(1)).sign(anyString());
-        verify(certificateManager, times(1)).get(anyString());
+        verify(jwtService, times(1)).encode(any(), any());
         verify(userService, never()).findById(anyString());
         verify(roleService, never()).findByIdIn(anyList());
     }
@@ -161,12 +188,8 @@ public class TokenEnhancerTest {
         accessToken.setId("token-id");
         accessToken.setToken("token-id");
 
-        Key key = MacSigner.generateKey();
-        jwtBuilder = Jwts.builder().signWith(SignatureAlgorithm.HS512, key);
-        ((TokenEnhancerImpl) tokenEnhancer).setJwtBuilder(jwtBuilder);
-
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
-        when(certificateManager.get(anyString())).thenReturn(Maybe.empty());
+        when(jwtService.encode(any(), any())).thenReturn(Single.just("payload"));
 
         TestObserver<AccessToken> testObserver = tokenEnhancer.enhance(accessToken, oAuth2Request).test();
 
@@ -175,8 +198,7 @@ public class TokenEnhancerTest {
         testObserver.assertValue(accessToken1 -> accessToken1.getAdditionalInformation().containsKey("id_token"));
 
         verify(clientService, times(1)).findByClientId(anyString());
-        verify(certificateManager, times(1)).get(anyString());
-        verify(certificateProvider, never()).sign(anyString());
+        verify(jwtService, times(1)).encode(any(), any());
         verify(userService, never()).findById(anyString());
         verify(roleService, never()).findByIdIn(anyList());
     }
@@ -203,14 +225,10 @@ public class TokenEnhancerTest {
         accessToken.setToken("token-id");
         accessToken.setScopes(Collections.singleton("openid"));
 
-        Key key = MacSigner.generateKey();
-        jwtBuilder = Jwts.builder().signWith(SignatureAlgorithm.HS512, key);
-        ((TokenEnhancerImpl) tokenEnhancer).setJwtBuilder(jwtBuilder);
-
         when(userService.findById(anyString())).thenReturn(Maybe.just(user));
         when(roleService.findByIdIn(anyList())).thenReturn(Single.just(Collections.singleton(role)));
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
-        when(certificateManager.get(anyString())).thenReturn(Maybe.empty());
+        when(jwtService.encode(any(), any())).thenReturn(Single.just("payload"));
 
         TestObserver<AccessToken> testObserver = tokenEnhancer.enhance(accessToken, oAuth2Request).test();
 
@@ -219,8 +237,7 @@ public class TokenEnhancerTest {
         testObserver.assertValue(accessToken1 -> accessToken1.getAdditionalInformation().containsKey("id_token") && accessToken1.getScopes().contains("write"));
 
         verify(clientService, times(1)).findByClientId(anyString());
-        verify(certificateManager, times(1)).get(anyString());
-        verify(certificateProvider, never()).sign(anyString());
+        verify(jwtService, times(1)).encode(any(), any());
         verify(userService, times(1)).findById(anyString());
         verify(roleService, times(1)).findByIdIn(anyList());
     }
@@ -272,10 +289,6 @@ public class TokenEnhancerTest {
         accessToken.setToken("token-id");
         accessToken.setScopes(Collections.singleton("openid"));
 
-        Key key = MacSigner.generateKey();
-        jwtBuilder = Jwts.builder().signWith(SignatureAlgorithm.HS512, key);
-        ((TokenEnhancerImpl) tokenEnhancer).setJwtBuilder(jwtBuilder);
-
         when(userService.findById(anyString())).thenReturn(Maybe.empty());
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
 
@@ -286,8 +299,7 @@ public class TokenEnhancerTest {
 
         verify(clientService, times(1)).findByClientId(anyString());
         verify(userService, times(1)).findById(anyString());
-        verify(certificateManager, never()).get(anyString());
-        verify(certificateProvider, never()).sign(anyString());
+        verify(jwtService, never()).encode(any(), any());
         verify(roleService, never()).findByIdIn(anyList());
     }
 
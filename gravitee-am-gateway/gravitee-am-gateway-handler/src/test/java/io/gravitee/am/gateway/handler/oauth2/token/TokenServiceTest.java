@@ -18,7 +18,11 @@ package io.gravitee.am.gateway.handler.oauth2.token;
 import io.gravitee.am.gateway.handler.auth.UserAuthenticationManager;
 import io.gravitee.am.gateway.handler.oauth2.client.ClientService;
 import io.gravitee.am.gateway.handler.oauth2.exception.InvalidGrantException;
+import io.gravitee.am.gateway.handler.oauth2.exception.ServerErrorException;
+import io.gravitee.am.gateway.handler.oauth2.jwt.JwtService;
 import io.gravitee.am.gateway.handler.oauth2.request.OAuth2Request;
+import io.gravitee.am.gateway.handler.oauth2.token.cache.AccessTokenCache;
+import io.gravitee.am.gateway.handler.oauth2.token.impl.DefaultAccessToken;
 import io.gravitee.am.gateway.handler.oauth2.token.impl.TokenServiceImpl;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.User;
@@ -35,7 +39,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
@@ -65,6 +72,12 @@ public class TokenServiceTest {
     @Mock
     private UserAuthenticationManager userAuthenticationManager;
 
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private AccessTokenCache accessTokenCache;
+
     @Test
     public void shouldCreate_noExistingToken() {
         OAuth2Request oAuth2Request = new OAuth2Request();
@@ -72,96 +85,135 @@ public class TokenServiceTest {
         Client client = new Client();
         client.setClientId("my-client-id");
 
-        when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
-        when(accessTokenRepository.findByCriteria(any())).thenReturn(Maybe.empty());
-        when(accessTokenRepository.create(any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
-        when(tokenEnhancer.enhance(any(), any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
+        when(accessTokenRepository.findOrCreate(any(), any())).thenAnswer(invocation -> invocation.getArguments()[1]);
+        when(tokenEnhancer.enhance(any(), any())).thenAnswer(invocation -> Single.just(invocation.getArguments()[0]));
 
         TestObserver<AccessToken> testObserver = tokenService.create(oAuth2Request, client).test();
         testObserver.assertComplete();
         testObserver.assertNoErrors();
 
-        verify(accessTokenRepository, times(1)).findByCriteria(any());
-        verify(accessTokenRepository, times(1)).create(any());
-        verify(accessTokenRepository, never()).delete(anyString());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(accessTokenRepository, times(1)).findOrCreate(any(), any());
+        verify(accessTokenRepository, never()).findByCriteria(any());
+        verify(accessTokenRepository, never()).create(any());
+        verify(refreshTokenRepository, never()).create(any());
+    }
+
+    @Test
+    public void shouldCreate_noExistingToken_withRefreshToken() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setSupportRefreshToken(true);
+
+        Client client = new Client();
+        client.setClientId("my-client-id");
+
+        when(accessTokenRepository.findOrCreate(any(), any())).thenAnswer(invocation -> invocation.getArguments()[1]);
+        when(refreshTokenRepository.create(any())).thenAnswer(invocation -> Single.just(invocation.getArguments()[0]));
+        when(tokenEnhancer.enhance(any(), any())).thenAnswer(invocation -> Single.just(invocation.getArguments()[0]));
+
+        TestObserver<AccessToken> testObserver = tokenService.create(oAuth2Request, client).test();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(accessToken -> accessToken.getRefreshToken() != null);
+
+        verify(accessTokenRepository, times(1)).findOrCreate(any(), any());
+        verify(refreshTokenRepository, times(1)).create(any());
     }
 
     @Test
     public void shouldCreate_existingNoExpiredToken() {
         OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setSupportRefreshToken(true);
 
         Client client = new Client();
         client.setClientId("my-client-id");
 
         io.gravitee.am.repository.oauth2.model.AccessToken existingToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
+        existingToken.setId("existing-token-id");
+        existingToken.setToken("existing-token");
+        existingToken.setRefreshToken("existing-refresh-token");
         existingToken.setExpireAt(new Date(System.currentTimeMillis() + (60 * 1000)));
 
-        when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
-        when(accessTokenRepository.findByCriteria(any())).thenReturn(Maybe.just(existingToken));
+        when(accessTokenRepository.findOrCreate(any(), any())).thenReturn(Single.just(existingToken));
+        when(tokenEnhancer.enhance(any(), any())).thenAnswer(invocation -> Single.just(invocation.getArguments()[0]));
+        when(tokenEnhancer.enhanceIDToken(any(), any())).thenAnswer(invocation -> Single.just(invocation.getArguments()[0]));
 
         TestObserver<AccessToken> testObserver = tokenService.create(oAuth2Request, client).test();
         testObserver.assertComplete();
         testObserver.assertNoErrors();
+        testObserver.assertValue(accessToken -> "existing-token".equals(accessToken.getValue()) && "existing-refresh-token".equals(accessToken.getRefreshToken()));
 
-        verify(accessTokenRepository, times(1)).findByCriteria(any());
+        verify(accessTokenRepository, times(1)).findOrCreate(any(), any());
         verify(accessTokenRepository, never()).create(any());
-        verify(accessTokenRepository, never()).delete(anyString());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(refreshTokenRepository, never()).create(any());
+        // no candidate is prepared for a re-used token
+        verify(tokenEnhancer, never()).enhance(any(), any());
     }
 
     @Test
-    public void shouldCreate_existingExpiredToken_noRefreshToken() {
+    public void shouldCreate_existingNoExpiredToken_openid() {
         OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setScopes(Collections.singleton("openid"));
 
         Client client = new Client();
         client.setClientId("my-client-id");
 
+        // the stored token does not hold the ID token issued with it
         io.gravitee.am.repository.oauth2.model.AccessToken existingToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
-        existingToken.setExpireAt(new Date(System.currentTimeMillis() - (60 * 1000)));
+        existingToken.setId("existing-token-id");
+        existingToken.setToken("existing-token");
+        existingToken.setExpireAt(new Date(System.currentTimeMillis() + (60 * 1000)));
 
-        when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
-        when(accessTokenRepository.findByCriteria(any())).thenReturn(Maybe.just(existingToken));
-        when(accessTokenRepository.create(any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
-        when(accessTokenRepository.delete(anyString())).thenReturn(Completable.fromSingle(Single.just(new Object())));
-        when(tokenEnhancer.enhance(any(), any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
+        when(accessTokenRepository.findOrCreate(any(), any())).thenReturn(Single.just(existingToken));
+        when(tokenEnhancer.enhance(any(), any())).thenAnswer(invocation -> Single.just(invocation.getArguments()[0]));
+        when(tokenEnhancer.enhanceIDToken(existingToken, oAuth2Request)).thenAnswer(invocation -> {
+            io.gravitee.am.repository.oauth2.model.AccessToken accessToken = (io.gravitee.am.repository.oauth2.model.AccessToken) invocation.getArguments()[0];
+            accessToken.setAdditionalInformation(Collections.singletonMap("id_token", "new-id-token"));
+            return Single.just(accessToken);
+        });
 
         TestObserver<AccessToken> testObserver = tokenService.create(oAuth2Request, client).test();
         testObserver.assertComplete();
         testObserver.assertNoErrors();
+        testObserver.assertValue(accessToken -> "existing-token".equals(accessToken.getValue())
+                && "new-id-token".equals(accessToken.getAdditionalInformation().get("id_token")));
 
-        verify(accessTokenRepository, times(1)).findByCriteria(any());
-        verify(accessTokenRepository, times(1)).create(any());
-        verify(accessTokenRepository, times(1)).delete(anyString());
-        verify(refreshTokenRepository, never()).delete(anyString());
+        verify(tokenEnhancer, times(1)).enhanceIDToken(existingToken, oAuth2Request);
+        verify(tokenEnhancer, never()).enhance(any(), any());
+        verify(refreshTokenRepository, never()).create(any());
     }
 
     @Test
-    public void shouldCreate_existingExpiredToken_withRefreshToken() {
+    public void shouldCreate_concurrentTokenStored() {
         OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setSupportRefreshToken(true);
 
         Client client = new Client();
         client.setClientId("my-client-id");
 
-        io.gravitee.am.repository.oauth2.model.AccessToken existingToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
-        existingToken.setExpireAt(new Date(System.currentTimeMillis() - (60 * 1000)));
-        existingToken.setRefreshToken("refresh-token");
+        io.gravitee.am.repository.oauth2.model.AccessToken concurrentToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
+        concurrentToken.setToken("concurrent-token");
+        concurrentToken.setRefreshToken("concurrent-refresh-token");
+        concurrentToken.setExpireAt(new Date(System.currentTimeMillis() + (60 * 1000)));
 
-        when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
-        when(accessTokenRepository.findByCriteria(any())).thenReturn(Maybe.just(existingToken));
-        when(accessTokenRepository.create(any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
-        when(accessTokenRepository.delete(anyString())).thenReturn(Completable.fromSingle(Single.just(new Object())));
-        when(refreshTokenRepository.delete(anyString())).thenReturn(Completable.fromSingle(Single.just(new Object())));
-        when(tokenEnhancer.enhance(any(), any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
+        // the candidate has been prepared but another request has stored its token first
+        when(accessTokenRepository.findOrCreate(any(), any())).thenAnswer(invocation ->
+                ((Single<io.gravitee.am.repository.oauth2.model.AccessToken>) invocation.getArguments()[1]).map(candidate -> concurrentToken));
+        when(tokenEnhancer.enhance(any(), any())).thenAnswer(invocation -> {
+            io.gravitee.am.repository.oauth2.model.AccessToken candidate = (io.gravitee.am.repository.oauth2.model.AccessToken) invocation.getArguments()[0];
+            candidate.setAdditionalInformation(Collections.singletonMap("id_token", "my-id-token"));
+            return Single.just(candidate);
+        });
 
         TestObserver<AccessToken> testObserver = tokenService.create(oAuth2Request, client).test();
         testObserver.assertComplete();
         testObserver.assertNoErrors();
+        testObserver.assertValue(accessToken -> "concurrent-token".equals(accessToken.getValue())
+                && "my-id-token".equals(accessToken.getAdditionalInformation().get("id_token")));
 
-        verify(accessTokenRepository, times(1)).findByCriteria(any());
-        verify(accessTokenRepository, times(1)).create(any());
-        verify(accessTokenRepository, times(1)).delete(anyString());
-        verify(refreshTokenRepository, times(1)).delete(anyString());
+        verify(tokenEnhancer, times(1)).enhance(any(), any());
+        // the ID token of the prepared candidate is returned with the stored token
+        verify(tokenEnhancer, never()).enhanceIDToken(any(), any());
+        verify(refreshTokenRepository, never()).create(any());
     }
 
     @Test
@@ -181,11 +233,161 @@ public class TokenServiceTest {
         testObserver.assertNoErrors();
 
         verify(accessTokenRepository, times(1)).create(any());
-        verify(accessTokenRepository, never()).findByCriteria(any());
+        verify(accessTokenRepository, never()).findOrCreate(any(), any());
         verify(accessTokenRepository, never()).delete(anyString());
         verify(refreshTokenRepository, never()).delete(anyString());
     }
 
+    @Test
+    public void shouldCreate_statelessAccessToken() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setClientId("client-id");
+
+        Client client = new Client();
+        client.setClientId("client-id");
+        client.setStatelessAccessToken(true);
+
+        when(tokenEnhancer.enhance(any(), any())).thenAnswer(invocation -> Single.just(invocation.getArguments()[0]));
+        when(jwtService.encodeWithCertificate(any(), any())).thenReturn(Single.just("header.payload.signature"));
+
+        TestObserver<AccessToken> testObserver = tokenService.create(oAuth2Request, client).test();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(accessToken -> "header.payload.signature".equals(accessToken.getValue()));
+
+        verify(accessTokenRepository, never()).findOrCreate(any(), any());
+        verify(accessTokenRepository, never()).create(any());
+    }
+
+    @Test
+    public void shouldNotCreate_statelessAccessTokenWithoutCertificate() {
+        OAuth2Request oAuth2Request = new OAuth2Request();
+        oAuth2Request.setClientId("client-id");
+
+        Client client = new Client();
+        client.setClientId("client-id");
+        client.setStatelessAccessToken(true);
+
+        when(tokenEnhancer.enhance(any(), any())).thenAnswer(invocation -> Single.just(invocation.getArguments()[0]));
+        when(jwtService.encodeWithCertificate(any(), any())).thenReturn(Single.error(new ServerErrorException("The certificate of client [client-id] is not available")));
+
+        TestObserver<AccessToken> testObserver = tokenService.create(oAuth2Request, client).test();
+        testObserver.assertError(ServerErrorException.class);
+
+        verify(accessTokenRepository, never()).create(any());
+    }
+
+    @Test
+    public void shouldGetStatelessAccessToken() {
+        String token = "header.payload.signature";
+
+        Client client = new Client();
+        client.setClientId("client-id");
+        client.setStatelessAccessToken(true);
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("aud", "client-id");
+        claims.put("sub", "subject");
+        claims.put("scope", "read write");
+        claims.put("iat", System.currentTimeMillis() / 1000L);
+        claims.put("exp", System.currentTimeMillis() / 1000L + 60);
+
+        when(jwtService.decode(token)).thenReturn(Single.just(claims));
+        when(jwtService.decodeAndVerify(token, client)).thenReturn(Single.just(claims));
+        when(clientService.findByClientId("client-id")).thenReturn(Maybe.just(client));
+
+        TestObserver<AccessToken> testObserver = tokenService.getAccessToken(token).test();
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(accessToken -> accessToken.getExpiresIn() > 0 && "read write".equals(accessToken.getScope()));
+
+        verify(accessTokenRepository, never()).findByToken(anyString());
+    }
+
+    @Test
+    public void shouldNotGetStatelessAccessToken_invalidSignature() {
+        String token = "header.payload.signature";
+
+        Client client = new Client();
+        client.setClientId("client-id");
+        client.setStatelessAccessToken(true);
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("aud", "client-id");
+
+        when(jwtService.decode(token)).thenReturn(Single.just(claims));
+        when(jwtService.decodeAndVerify(token, client)).thenReturn(Single.error(new IllegalStateException("Invalid signature")));
+        when(clientService.findByClientId("client-id")).thenReturn(Maybe.just(client));
+
+        TestObserver<AccessToken> testObserver = tokenService.getAccessToken(token).test();
+        testObserver.assertComplete();
+        testObserver.assertNoValues();
+
+        verify(accessTokenRepository, never()).findByToken(anyString());
+    }
+
+    @Test
+    public void shouldGetAccessToken_fromCache() {
+        DefaultAccessToken cachedAccessToken = new DefaultAccessToken("token");
+        cachedAccessToken.setExpiresIn(60);
+
+        when(accessTokenCache.get("token")).thenReturn(cachedAccessToken);
+
+        TestObserver<AccessToken> testObserver = tokenService.getAccessToken("token").test();
+        testObserver.assertComplete();
+        testObserver.assertValue(cachedAccessToken);
+
+        verify(accessTokenRepository, never()).findByToken(anyString());
+    }
+
+    @Test
+    public void shouldGetAccessToken_cacheMiss() {
+        io.gravitee.am.repository.oauth2.model.AccessToken accessToken = new io.gravitee.am.repository.oauth2.model.AccessToken();
+        accessToken.setToken("token");
+        accessToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+
+        when(accessTokenRepository.findByToken("token")).thenReturn(Maybe.just(accessToken));
+
+        TestObserver<AccessToken> testObserver = tokenService.getAccessToken("token").test();
+        testObserver.assertComplete();
+        testObserver.assertValue(accessToken1 -> "token".equals(accessToken1.getValue()));
+
+        verify(accessTokenRepository, times(1)).findByToken("token");
+        verify(accessTokenCache, times(1)).put(any());
+    }
+
+    @Test
+    public void shouldDeleteAccessToken_evictCache() {
+        when(accessTokenRepository.delete("token")).thenReturn(Completable.complete());
+
+        TestObserver testObserver = tokenService.deleteAccessToken("token").test();
+        testObserver.assertComplete();
+
+        // before and after the delete
+        verify(accessTokenCache, times(2)).evict("token");
+        verify(accessTokenRepository, times(1)).delete("token");
+    }
+
+    @Test
+    public void shouldNotEvictCache_notSubscribed() {
+        when(accessTokenRepository.delete("token")).thenReturn(Completable.complete());
+
+        tokenService.deleteAccessToken("token");
+
+        verify(accessTokenCache, never()).evict("token");
+    }
+
+    @Test
+    public void shouldNotEvictCache_deleteFailed() {
+        when(accessTokenRepository.delete("token")).thenReturn(Completable.error(new IllegalStateException()));
+
+        TestObserver testObserver = tokenService.deleteAccessToken("token").test();
+        testObserver.assertError(IllegalStateException.class);
+
+        // only the eager eviction
+        verify(accessTokenCache, times(1)).evict("token");
+    }
+
     @Test
     public void shouldRefresh_withUser() {
         String clientId = "client-id";
@@ -206,8 +408,7 @@ public class TokenServiceTest {
         when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.just(refreshToken));
         when(refreshTokenRepository.delete(anyString())).thenReturn(Completable.complete());
         when(userAuthenticationManager.loadUserByUsername(anyString())).thenReturn(Maybe.just(new User()));
-        when(accessTokenRepository.findByCriteria(any())).thenReturn(Maybe.empty());
-        when(accessTokenRepository.create(any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
+        when(accessTokenRepository.findOrCreate(any(), any())).thenAnswer(invocation -> invocation.getArguments()[1]);
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
         when(tokenEnhancer.enhance(any(), any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
 
@@ -238,8 +439,7 @@ public class TokenServiceTest {
 
         when(refreshTokenRepository.findByToken(any())).thenReturn(Maybe.just(refreshToken));
         when(refreshTokenRepository.delete(anyString())).thenReturn(Completable.complete());
-        when(accessTokenRepository.findByCriteria(any())).thenReturn(Maybe.empty());
-        when(accessTokenRepository.create(any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
+        when(accessTokenRepository.findOrCreate(any(), any())).thenAnswer(invocation -> invocation.getArguments()[1]);
         when(clientService.findByClientId(anyString())).thenReturn(Maybe.just(client));
         when(tokenEnhancer.enhance(any(), any())).thenReturn(Single.just(new io.gravitee.am.repository.oauth2.model.AccessToken()));
 
@@ -276,7 +476,7 @@ public class TokenServiceTest {
 
         verify(refreshTokenRepository, times(1)).findByToken(any());
         verify(refreshTokenRepository, never()).delete(anyString());
-        verify(accessTokenRepository, never()).findByCriteria(any());
+        verify(accessTokenRepository, never()).findOrCreate(any(), any());
         verify(accessTokenRepository, never()).create(any());
     }
 
@@ -304,7 +504,7 @@ public class TokenServiceTest {
 
         verify(refreshTokenRepository, times(1)).findByToken(any());
         verify(refreshTokenRepository, never()).delete(anyString());
-        verify(accessTokenRepository, never()).findByCriteria(any());
+        verify(accessTokenRepository, never()).findOrCreate(any(), any());
         verify(accessTokenRepository, never()).create(any());
     }
 
@@ -333,7 +533,7 @@ public class TokenServiceTest {
 
         verify(refreshTokenRepository, times(1)).findByToken(any());
         verify(refreshTokenRepository, never()).delete(anyString());
-        verify(accessTokenRepository, never()).findByCriteria(any());
+        verify(accessTokenRepository, never()).findOrCreate(any(), any());
         verify(accessTokenRepository, never()).create(any());
     }
 
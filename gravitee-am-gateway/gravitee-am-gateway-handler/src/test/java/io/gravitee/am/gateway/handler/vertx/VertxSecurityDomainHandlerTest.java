@@ -0,0 +1,192 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.handler.vertx;
+
+import io.gravitee.am.gateway.handler.oauth2.token.cache.AccessTokenCache;
+import io.gravitee.am.model.Domain;
+import io.vertx.core.Handler;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.Cookie;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import io.vertx.reactivex.ext.web.Session;
+import io.vertx.reactivex.ext.web.sstore.SessionStore;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class VertxSecurityDomainHandlerTest {
+
+    private static final String SESSION_DOMAIN_KEY = "securityDomain";
+    private static final String SESSION_COOKIE_NAME = "GRAVITEE_IO_AM_SESSION";
+    private static final long SESSION_TIMEOUT = 1800000;
+
+    @InjectMocks
+    private VertxSecurityDomainHandler handler = new VertxSecurityDomainHandler();
+
+    @Mock
+    private SessionStore sessionStore;
+
+    @Mock
+    private RoutingContext context;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private AccessTokenCache accessTokenCache;
+
+    @Before
+    public void setUp() {
+        Domain domain = new Domain();
+        domain.setId("my-domain");
+        handler.setDomain(domain);
+        Whitebox.setInternalState(handler, "sessionCookieName", SESSION_COOKIE_NAME);
+        Whitebox.setInternalState(handler, "sessionTimeout", SESSION_TIMEOUT);
+
+        when(context.session()).thenReturn(session);
+    }
+
+    @Test
+    public void shouldBindNewSession() {
+        handler.bindSessionToDomain(context);
+
+        verify(session, times(1)).put(SESSION_DOMAIN_KEY, "my-domain");
+        verify(context, never()).setSession(any(Session.class));
+        verify(context, times(1)).next();
+    }
+
+    @Test
+    public void shouldKeepSession_sameDomain() {
+        when(session.get(SESSION_DOMAIN_KEY)).thenReturn("my-domain");
+
+        handler.bindSessionToDomain(context);
+
+        verify(session, never()).put(anyString(), any());
+        verify(sessionStore, never()).createSession(anyLong());
+        verify(context, never()).setSession(any(Session.class));
+        verify(context, times(1)).next();
+    }
+
+    @Test
+    public void shouldReplaceSession_otherDomain() {
+        Session domainSession = mock(Session.class);
+        Cookie sessionCookie = mock(Cookie.class);
+        when(session.get(SESSION_DOMAIN_KEY)).thenReturn("other-domain");
+        when(sessionStore.createSession(SESSION_TIMEOUT)).thenReturn(domainSession);
+        when(domainSession.id()).thenReturn("new-session-id");
+        when(context.getCookie(SESSION_COOKIE_NAME)).thenReturn(sessionCookie);
+
+        handler.bindSessionToDomain(context);
+
+        // the request goes on with a live session bound to the current domain
+        verify(session, never()).destroy();
+        verify(context, times(1)).clearUser();
+        verify(domainSession, times(1)).put(SESSION_DOMAIN_KEY, "my-domain");
+        verify(context, times(1)).setSession(domainSession);
+        verify(sessionCookie, times(1)).setValue("new-session-id");
+        verify(context, times(1)).next();
+    }
+
+    @Test
+    public void shouldTrackRequest_responseSent() {
+        ArgumentCaptor<Handler> endHandler = ArgumentCaptor.forClass(Handler.class);
+        response(endHandler, ArgumentCaptor.forClass(Handler.class));
+
+        handler.trackRequest(context);
+        Assert.assertEquals(1, handler.inflightRequests());
+        verify(context, times(1)).next();
+
+        endHandler.getValue().handle(null);
+        Assert.assertEquals(0, handler.inflightRequests());
+    }
+
+    @Test
+    public void shouldTrackRequest_connectionClosed() {
+        ArgumentCaptor<Handler> endHandler = ArgumentCaptor.forClass(Handler.class);
+        ArgumentCaptor<Handler> closeHandler = ArgumentCaptor.forClass(Handler.class);
+        response(endHandler, closeHandler);
+
+        handler.trackRequest(context);
+        Assert.assertEquals(1, handler.inflightRequests());
+
+        // the client has gone away, the response will never be sent
+        closeHandler.getValue().handle(null);
+        Assert.assertEquals(0, handler.inflightRequests());
+
+        // counted once, whatever the completion events received
+        endHandler.getValue().handle(null);
+        Assert.assertEquals(0, handler.inflightRequests());
+    }
+
+    @Test
+    public void shouldNotTrackRequest_alreadyClosed() {
+        HttpServerResponse response = mock(HttpServerResponse.class);
+        when(response.closed()).thenReturn(true);
+        when(context.response()).thenReturn(response);
+
+        handler.trackRequest(context);
+
+        Assert.assertEquals(0, handler.inflightRequests());
+        verify(response, never()).closeHandler(any(Handler.class));
+        verify(context, times(1)).next();
+    }
+
+    @Test
+    public void shouldExposeCacheMetrics() {
+        Map<String, Object> metrics = Collections.singletonMap("hits", 1L);
+        when(accessTokenCache.isEnabled()).thenReturn(true);
+        when(accessTokenCache.metrics()).thenReturn(metrics);
+
+        Map<String, Map<String, Object>> caches = handler.cacheMetrics();
+
+        Assert.assertEquals(1, caches.size());
+        Assert.assertEquals(metrics, caches.get("accessTokens"));
+    }
+
+    @Test
+    public void shouldNotExposeCacheMetrics_disabled() {
+        when(accessTokenCache.isEnabled()).thenReturn(false);
+
+        Assert.assertTrue(handler.cacheMetrics().isEmpty());
+        verify(accessTokenCache, never()).metrics();
+    }
+
+    private HttpServerResponse response(ArgumentCaptor<Handler> endHandler, ArgumentCaptor<Handler> closeHandler) {
+        HttpServerResponse response = mock(HttpServerResponse.class);
+        when(response.getDelegate()).thenReturn(mock(io.vertx.core.http.HttpServerResponse.class));
+        when(response.endHandler(endHandler.capture())).thenReturn(response);
+        when(response.closeHandler(closeHandler.capture())).thenReturn(response);
+        when(context.response()).thenReturn(response);
+        return response;
+    }
+}
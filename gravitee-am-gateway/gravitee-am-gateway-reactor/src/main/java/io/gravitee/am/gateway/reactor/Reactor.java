@@ -16,6 +16,8 @@
 package io.gravitee.am.gateway.reactor;
 
 import io.gravitee.common.service.Service;
+import io.vertx.core.Handler;
+import io.vertx.reactivex.core.http.HttpServerRequest;
 import io.vertx.reactivex.ext.web.Router;
 
 /**
@@ -26,7 +28,22 @@ public interface Reactor extends Service {
 
     Router route();
 
+    /**
+     * Dispatch the request to the security domain matching its path, or to the default router.
+     */
+    void handle(HttpServerRequest request);
+
+    /**
+     * Dispatch a request already admitted, i.e. held while its domain was deployed.
+     */
+    void forward(HttpServerRequest request);
+
     Router mountSubRouter(String contextPath, Router child);
 
+    /**
+     * Mount a raw request handler on the context path, replacing the one previously mounted.
+     */
+    void mount(String contextPath, Handler<HttpServerRequest> handler);
+
     Router unMountSubRouter(String contextPath);
 }
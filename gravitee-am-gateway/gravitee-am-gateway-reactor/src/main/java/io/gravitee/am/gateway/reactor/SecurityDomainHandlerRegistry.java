@@ -34,5 +34,15 @@ public interface SecurityDomainHandlerRegistry {
 
     void clear();
 
+    /**
+     * Forward a change of a domain component to the handler of this domain, if deployed.
+     */
+    void dispatch(String domainId, Enum type, Object content);
+
     Collection<VertxSecurityDomainHandler> getSecurityDomainHandlers();
+
+    /**
+     * Number of domain deployments and changes not applied yet.
+     */
+    int getPendingTasks();
 }
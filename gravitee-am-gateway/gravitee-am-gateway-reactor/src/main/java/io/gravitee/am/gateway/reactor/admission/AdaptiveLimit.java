@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.reactor.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit adjusted with an AIMD (additive increase, multiplicative decrease) strategy: the limit grows by
+ * one every <code>limit</code> fast responses while it is used, and is multiplied by the backoff ratio on a slow or
+ * failed response. The limit is decreased at most once per round-trip: the responses of the requests which were in
+ * flight when it was decreased do not decrease it again, so a burst of slow responses only backs off once.
+ *
+ * @author GraviteeSource Team
+ */
+public class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThreshold;
+    private final double backoffRatio;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+    private int releasesBeforeNextDecrease;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, long latencyThreshold, double backoffRatio) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold;
+        this.backoffRatio = backoffRatio;
+    }
+
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latency time spent to process the request (in milliseconds)
+     * @param failed <code>true</code> if the request has failed because of the node or of its backends
+     */
+    public void release(long latency, boolean failed) {
+        int current = inflight.getAndDecrement();
+        synchronized (this) {
+            boolean recovering = releasesBeforeNextDecrease > 0;
+            if (recovering) {
+                releasesBeforeNextDecrease--;
+            }
+            if (failed || latency > latencyThreshold) {
+                if (!recovering) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    // wait for the other requests sent under the previous limit
+                    releasesBeforeNextDecrease = current - 1;
+                }
+            } else if (current * 2 >= limit) {
+                // only grow a limit which is actually used
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
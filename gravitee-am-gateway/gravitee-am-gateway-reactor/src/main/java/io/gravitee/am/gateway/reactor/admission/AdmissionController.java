@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.reactor.admission;
+
+import io.vertx.reactivex.core.http.HttpServerRequest;
+
+import java.util.Map;
+
+/**
+ * Admission control of the requests handled by the security domains, protects the node (event loops, memory,
+ * repositories) from piling up work when the backends slow down.
+ *
+ * @author GraviteeSource Team
+ */
+public interface AdmissionController {
+
+    /**
+     * Admit the request, or reject it with a <code>503 Service Unavailable</code> response.
+     *
+     * @param contextPath context path of the security domain handling the request
+     * @return <code>true</code> if the request can be processed
+     */
+    boolean admit(String contextPath, HttpServerRequest request);
+
+    /**
+     * Current limits by security domain and endpoint type.
+     */
+    Map<String, AdaptiveLimit> getLimits();
+}
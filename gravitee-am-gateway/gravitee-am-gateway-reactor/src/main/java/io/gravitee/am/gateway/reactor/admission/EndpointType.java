@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.reactor.admission;
+
+/**
+ * Endpoint types limited separately, so that a slow endpoint (i.e. token issuance) does not starve the others.
+ *
+ * @author GraviteeSource Team
+ */
+public enum EndpointType {
+
+    TOKEN,
+    AUTHORIZE,
+    INTROSPECT,
+    USERINFO,
+    LOGIN,
+    OTHER;
+
+    /**
+     * @param path request path, relative to the context path of the security domain
+     */
+    public static EndpointType of(String path) {
+        if (path.startsWith("/oauth/token")) {
+            return TOKEN;
+        } else if (path.startsWith("/oauth/authorize") || path.startsWith("/oauth/confirm_access")) {
+            return AUTHORIZE;
+        } else if (path.startsWith("/oauth/check_token") || path.startsWith("/oauth/introspect")) {
+            return INTROSPECT;
+        } else if (path.startsWith("/oidc/userinfo")) {
+            return USERINFO;
+        } else if (path.startsWith("/login") || path.startsWith("/logout")) {
+            return LOGIN;
+        }
+        return OTHER;
+    }
+}
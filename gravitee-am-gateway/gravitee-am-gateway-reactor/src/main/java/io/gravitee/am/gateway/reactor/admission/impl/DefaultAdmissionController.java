@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.reactor.admission.impl;
+
+import io.gravitee.am.gateway.handler.vertx.utils.ResponseCompletion;
+import io.gravitee.am.gateway.reactor.admission.AdaptiveLimit;
+import io.gravitee.am.gateway.reactor.admission.AdmissionController;
+import io.gravitee.am.gateway.reactor.admission.EndpointType;
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.HttpStatusCode;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Limit the in-flight requests of each security domain and endpoint type with an {@link AdaptiveLimit}.
+ *
+ * @author GraviteeSource Team
+ */
+public class DefaultAdmissionController implements AdmissionController {
+
+    private static final String RETRY_AFTER = "Retry-After";
+    private final ConcurrentMap<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+
+    @Value("${http.admission.enabled:false}")
+    private boolean enabled;
+
+    @Value("${http.admission.initialLimit:100}")
+    private int initialLimit;
+
+    @Value("${http.admission.minLimit:10}")
+    private int minLimit;
+
+    @Value("${http.admission.maxLimit:1000}")
+    private int maxLimit;
+
+    @Value("${http.admission.latencyThreshold:1000}")
+    private long latencyThreshold;
+
+    @Value("${http.admission.backoffRatio:0.9}")
+    private double backoffRatio;
+
+    @Value("${http.admission.retryAfter:1}")
+    private int retryAfter;
+
+    @Override
+    public boolean admit(String contextPath, HttpServerRequest request) {
+        if (!enabled) {
+            return true;
+        }
+
+        EndpointType endpointType = EndpointType.of(request.path().substring(contextPath.length()));
+        AdaptiveLimit limit = limits.computeIfAbsent(contextPath + ':' + endpointType.name().toLowerCase(),
+                key -> new AdaptiveLimit(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio));
+
+        if (!limit.tryAcquire()) {
+            HttpServerResponse response = request.response();
+            response.setStatusCode(HttpStatusCode.SERVICE_UNAVAILABLE_503);
+            response.putHeader(RETRY_AFTER, Integer.toString(retryAfter));
+            response.putHeader(HttpHeaders.CONTENT_LENGTH, "0");
+            response.end();
+            return false;
+        }
+
+        // release the permit once the response has been sent or the connection closed
+        final long startTime = System.currentTimeMillis();
+        final HttpServerResponse response = request.response();
+        ResponseCompletion.onComplete(response, closed ->
+                limit.release(System.currentTimeMillis() - startTime, closed || response.getStatusCode() >= HttpStatusCode.INTERNAL_SERVER_ERROR_500));
+        return true;
+    }
+
+    @Override
+    public Map<String, AdaptiveLimit> getLimits() {
+        return Collections.unmodifiableMap(limits);
+    }
+}
@@ -15,10 +15,12 @@
  */
 package io.gravitee.am.gateway.reactor.impl;
 
-import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.core.event.*;
 import io.gravitee.am.gateway.reactor.Reactor;
 import io.gravitee.am.gateway.reactor.SecurityDomainHandlerRegistry;
+import io.gravitee.am.gateway.reactor.admission.AdmissionController;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Payload;
 import io.gravitee.common.event.Event;
 import io.gravitee.common.event.EventListener;
 import io.gravitee.common.event.EventManager;
@@ -26,14 +28,19 @@ import io.gravitee.common.http.HttpHeaders;
 import io.gravitee.common.http.HttpHeadersValues;
 import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.common.service.AbstractService;
+import io.vertx.core.Handler;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpServerRequest;
 import io.vertx.reactivex.core.http.HttpServerResponse;
 import io.vertx.reactivex.ext.web.Router;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -53,13 +60,35 @@ public class DefaultReactor extends AbstractService implements Reactor, EventLis
     @Autowired
     private Vertx vertx;
 
+    @Autowired
+    private AdmissionController admissionController;
+
     private Router router;
 
+    /**
+     * Domain request handlers by context path, resolved from the first segment of the request path.
+     */
+    private final ConcurrentMap<String, Handler<HttpServerRequest>> subRouters = new ConcurrentHashMap<>();
+
+    /**
+     * Domain request handlers whose context path is made of several segments, only looked up when no domain matches
+     * the first segment of the request path.
+     */
+    private final ConcurrentMap<String, Handler<HttpServerRequest>> nestedSubRouters = new ConcurrentHashMap<>();
+
     @Override
     public void doStart() throws Exception {
         super.doStart();
 
         eventManager.subscribeForEvents(this, DomainEvent.class);
+
+        // changes of the domain components are applied in place by the domain handlers
+        eventManager.subscribeForEvents(this::dispatch, ClientEvent.class);
+        eventManager.subscribeForEvents(this::dispatch, IdentityProviderEvent.class);
+        eventManager.subscribeForEvents(this::dispatch, CertificateEvent.class);
+        eventManager.subscribeForEvents(this::dispatch, ExtensionGrantEvent.class);
+        eventManager.subscribeForEvents(this::dispatch, RoleEvent.class);
+        eventManager.subscribeForEvents(this::dispatch, ScopeEvent.class);
     }
 
     @Override
@@ -84,27 +113,97 @@ public class DefaultReactor extends AbstractService implements Reactor, EventLis
         }
     }
 
+    private void dispatch(Event<? extends Enum, ?> event) {
+        Payload payload = (Payload) event.content();
+        securityDomainHandlerRegistry.dispatch(payload.getDomain(), event.type(), payload);
+    }
+
     @Override
     public Router route() {
         return router;
     }
 
+    @Override
+    public void handle(HttpServerRequest request) {
+        String contextPath = resolve(request.path());
+        Handler<HttpServerRequest> domainHandler = (contextPath != null) ? getHandler(contextPath) : null;
+        if (domainHandler == null) {
+            router.accept(request);
+        } else if (admissionController.admit(contextPath, request)) {
+            domainHandler.handle(request);
+        }
+    }
+
+    @Override
+    public void forward(HttpServerRequest request) {
+        String contextPath = resolve(request.path());
+        Handler<HttpServerRequest> domainHandler = (contextPath != null) ? getHandler(contextPath) : null;
+        if (domainHandler != null) {
+            domainHandler.handle(request);
+        } else {
+            router.accept(request);
+        }
+    }
+
     @Override
     public Router mountSubRouter(String contextPath, Router child) {
-        router.mountSubRouter(contextPath, child);
+        // each domain gets its own router so the routes of the other domains are never evaluated,
+        // mounting a context path again atomically swaps the domain router (redeployment)
+        Router domainRouter = Router.router(vertx);
+        domainRouter.mountSubRouter(contextPath, child);
+        domainRouter.route().last().handler(context -> sendNotFound(context.response()));
+        mount(contextPath, domainRouter::accept);
 
         return router;
     }
 
+    @Override
+    public void mount(String contextPath, Handler<HttpServerRequest> handler) {
+        if (contextPath.indexOf('/', 1) == -1) {
+            subRouters.put(contextPath, handler);
+        } else {
+            nestedSubRouters.put(contextPath, handler);
+        }
+    }
+
     @Override
     public Router unMountSubRouter(String contextPath) {
-        router.getRoutes().stream()
-                .filter(route -> route.getPath() != null && route.getPath().startsWith(contextPath))
-                .forEach(route -> route.remove());
+        subRouters.remove(contextPath);
+        nestedSubRouters.remove(contextPath);
 
         return router;
     }
 
+    /**
+     * @return the context path of the domain matching the request path, <code>null</code> if none
+     */
+    private String resolve(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+
+        int end = path.indexOf('/', 1);
+        String contextPath = (end == -1) ? path : path.substring(0, end);
+        if (subRouters.containsKey(contextPath)) {
+            return contextPath;
+        }
+
+        if (!nestedSubRouters.isEmpty()) {
+            for (String nestedContextPath : nestedSubRouters.keySet()) {
+                if (path.startsWith(nestedContextPath)
+                        && (path.length() == nestedContextPath.length() || path.charAt(nestedContextPath.length()) == '/')) {
+                    return nestedContextPath;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Handler<HttpServerRequest> getHandler(String contextPath) {
+        Handler<HttpServerRequest> handler = subRouters.get(contextPath);
+        return (handler != null) ? handler : nestedSubRouters.get(contextPath);
+    }
+
     @Override
     public void afterPropertiesSet() {
         router = Router.router(vertx);
@@ -20,23 +20,38 @@ import io.gravitee.am.gateway.handler.vertx.VertxSecurityDomainHandler;
 import io.gravitee.am.gateway.reactor.Reactor;
 import io.gravitee.am.gateway.reactor.SecurityDomainHandlerRegistry;
 import io.gravitee.am.model.Domain;
+import io.gravitee.common.http.HttpStatusCode;
+import io.vertx.core.Handler;
+import io.vertx.reactivex.core.Context;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.http.HttpServerRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.util.Collection;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class DefaultSecurityDomainHandlerRegistry implements SecurityDomainHandlerRegistry {
+public class DefaultSecurityDomainHandlerRegistry implements SecurityDomainHandlerRegistry, InitializingBean {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultSecurityDomainHandlerRegistry.class);
+    private static final long DRAIN_CHECK_INTERVAL = 100;
+    private static final long MAX_EVICTION_CHECK_INTERVAL = 60000;
     private final ConcurrentMap<String, VertxSecurityDomainHandler> handlers = new ConcurrentHashMap<>();
     private final ConcurrentMap<Object, String> contextPaths = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, VertxSecurityDomainHandler> domainHandlers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LazySecurityDomain> lazyDomains = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Void>> domainTasks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Domain> failedDomains = new ConcurrentHashMap<>();
 
     @Autowired
     private SecurityDomainRouterFactory securityDomainRouterFactory;
@@ -44,76 +59,490 @@ public class DefaultSecurityDomainHandlerRegistry implements SecurityDomainHandl
     @Autowired
     private Reactor reactor;
 
+    @Autowired
+    private Vertx vertx;
+
+    @Value("${handlers.drain.timeout:30000}")
+    private long drainTimeout;
+
+    @Value("${handlers.deployment.mode:sequential}")
+    private String deploymentMode;
+
+    @Value("${handlers.deployment.parallelism:0}")
+    private int parallelism;
+
+    @Value("${handlers.deployment.lazy.queueSize:100}")
+    private int lazyQueueSize;
+
+    @Value("${handlers.deployment.lazy.queueTimeout:30000}")
+    private long lazyQueueTimeout;
+
+    @Value("${handlers.deployment.lazy.idleTimeout:1800}")
+    private long idleTimeout;
+
+    @Value("${handlers.deployment.retryDelay:10000}")
+    private long retryDelay;
+
+    private DeploymentMode mode;
+
+    private ExecutorService executor;
+
+    private ScheduledExecutorService retryScheduler;
+
+    private long evictionTimerId = -1;
+
+    @Override
+    public void afterPropertiesSet() {
+        mode = DeploymentMode.valueOf(deploymentMode.toUpperCase());
+        if (mode != DeploymentMode.SEQUENTIAL) {
+            int threads = (parallelism > 0) ? parallelism : Runtime.getRuntime().availableProcessors();
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "gio.am-domain-deployer-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            logger.info("Security domains are deployed in {} mode with {} thread(s)", mode.name().toLowerCase(), threads);
+        }
+
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gio.am-domain-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (mode == DeploymentMode.LAZY && idleTimeout > 0) {
+            evictionTimerId = vertx.setPeriodic(Math.min(idleTimeout * 1000, MAX_EVICTION_CHECK_INTERVAL), timerId -> evictIdleDomains());
+        }
+    }
+
     @Override
     public void create(Domain domain) {
-        logger.info("Register a new domain for {} on path {}", domain.getId(), domain.getPath());
+        execute(domain.getId(), () -> {
+            if (mode == DeploymentMode.LAZY) {
+                register(domain);
+            } else if (!deploy(domain)) {
+                retry(domain);
+            }
+        });
+    }
 
-        VertxSecurityDomainHandler handler = create0(domain);
-        if (handler != null) {
+    @Override
+    public void update(Domain domain) {
+        execute(domain.getId(), () -> {
+            failedDomains.remove(domain.getId());
+            if (mode == DeploymentMode.LAZY && !domainHandlers.containsKey(domain.getId())) {
+                // not requested yet, only the placeholder has to be refreshed
+                register(domain);
+            } else {
+                if (mode == DeploymentMode.LAZY) {
+                    lazyDomains.put(domain.getId(), new LazySecurityDomain(domain));
+                }
+                redeploy(domain);
+            }
+        });
+    }
+
+    @Override
+    public void remove(Domain domain) {
+        execute(domain.getId(), () -> {
+            failedDomains.remove(domain.getId());
+            LazySecurityDomain lazyDomain = lazyDomains.remove(domain.getId());
+            if (lazyDomain != null && !domainHandlers.containsKey(domain.getId())) {
+                reactor.unMountSubRouter(lazyDomain.contextPath);
+            }
+            undeploy(domain);
+        });
+    }
+
+    @Override
+    public void clear() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+        if (evictionTimerId != -1) {
+            vertx.cancelTimer(evictionTimerId);
+        }
+
+        handlers.forEach((s, handler) -> {
             try {
-                //handler.start();
-                handlers.putIfAbsent(handler.contextPath(), handler);
-                contextPaths.putIfAbsent(domain, handler.contextPath());
-                reactor.mountSubRouter(handler.contextPath(), handler.create());
+                handler.stop();
+                handlers.remove(handler.contextPath());
+            } catch (Exception e) {
+                logger.error("Unable to un-register handler", e);
+            }
+        });
+        contextPaths.clear();
+        domainHandlers.clear();
+        lazyDomains.clear();
+        failedDomains.clear();
+    }
+
+    @Override
+    public void dispatch(String domainId, Enum type, Object content) {
+        // applied after the pending deployment of the domain, if any
+        execute(domainId, () -> {
+            VertxSecurityDomainHandler handler = domainHandlers.get(domainId);
+            if (handler != null) {
+                handler.publishEvent(type, content);
+            } else {
+                logger.debug("No handler deployed for domain {}, skipping {} event", domainId, type);
+            }
+        });
+    }
+
+    @Override
+    public Collection<VertxSecurityDomainHandler> getSecurityDomainHandlers() {
+        return handlers.values();
+    }
+
+    @Override
+    public int getPendingTasks() {
+        return domainTasks.size() + failedDomains.size();
+    }
+
+    /**
+     * Run the task on the deployment executor, after the tasks previously submitted for the same domain.
+     * Tasks run in the caller thread in sequential mode, one at a time.
+     */
+    private void execute(String domainId, Runnable task) {
+        Runnable safeTask = () -> {
+            try {
+                task.run();
             } catch (Exception ex) {
-                logger.error("Unable to register handler", ex);
+                logger.error("Unable to apply the changes of domain {}", domainId, ex);
+            }
+        };
+
+        if (executor == null) {
+            // deployment retries run concurrently with the synchronization process
+            synchronized (this) {
+                safeTask.run();
             }
+            return;
         }
+
+        CompletableFuture<Void> next = domainTasks.compute(domainId, (id, previous) ->
+                ((previous != null) ? previous : CompletableFuture.<Void>completedFuture(null)).thenRunAsync(safeTask, executor));
+        next.whenComplete((result, error) -> domainTasks.remove(domainId, next));
     }
 
-    @Override
-    public void update(Domain domain) {
+    /**
+     * @return <code>false</code> if the domain handler could not be created
+     */
+    private boolean deploy(Domain domain) {
+        logger.info("Register a new domain for {} on path {}", domain.getId(), domain.getPath());
+
+        VertxSecurityDomainHandler handler = create0(domain);
+        if (handler == null) {
+            return false;
+        }
+
+        try {
+            handlers.putIfAbsent(handler.contextPath(), handler);
+            contextPaths.putIfAbsent(domain, handler.contextPath());
+            domainHandlers.put(domain.getId(), handler);
+            reactor.mountSubRouter(handler.contextPath(), handler.create());
+        } catch (Exception ex) {
+            logger.error("Unable to register handler", ex);
+        }
+        return true;
+    }
+
+    private void redeploy(Domain domain) {
         String contextPath = contextPaths.get(domain);
-        if (contextPath != null) {
-            VertxSecurityDomainHandler handler = handlers.get(contextPath);
-            if (handler != null) {
-                remove(domain);
-                create(domain);
+        VertxSecurityDomainHandler previousHandler = (contextPath != null) ? handlers.get(contextPath) : null;
+        if (previousHandler == null) {
+            deploy(domain);
+            return;
+        }
+
+        logger.info("Redeploy domain {} on path {}", domain.getId(), domain.getPath());
+
+        // the new handler is fully initialized (clients, identity providers, certificates...) before being swapped in,
+        // the previous one keeps serving the requests until then
+        VertxSecurityDomainHandler handler = create0(domain);
+        if (handler == null) {
+            if (!domain.isEnabled()) {
+                undeploy(domain);
+            } else {
+                logger.warn("Unable to redeploy domain {}, the previous handler is kept", domain.getId());
+                retry(domain);
             }
-        } else {
-            create(domain);
+            return;
         }
+
+        try {
+            reactor.mountSubRouter(handler.contextPath(), handler.create());
+            handlers.put(handler.contextPath(), handler);
+            contextPaths.put(domain, handler.contextPath());
+            domainHandlers.put(domain.getId(), handler);
+
+            // the domain path has changed
+            if (!contextPath.equals(handler.contextPath())) {
+                handlers.remove(contextPath, previousHandler);
+                reactor.unMountSubRouter(contextPath);
+            }
+            logger.info("Security Domain has been redeployed");
+        } catch (Exception ex) {
+            logger.error("Unable to redeploy handler", ex);
+            handler.stop();
+            return;
+        }
+
+        drain(previousHandler);
     }
 
-    @Override
-    public void remove(Domain domain) {
+    private void undeploy(Domain domain) {
+        domainHandlers.remove(domain.getId());
         String contextPath = contextPaths.remove(domain);
         if (contextPath != null) {
             VertxSecurityDomainHandler handler = handlers.remove(contextPath);
 
             if (handler != null) {
                 try {
-                    //handler.stop();
                     handlers.remove(handler.contextPath());
                     reactor.unMountSubRouter(handler.contextPath());
                     logger.info("Security Domain has been unregistered");
                 } catch (Exception e) {
                     logger.error("Unable to un-register handler", e);
                 }
+                drain(handler);
             }
         }
     }
 
-    @Override
-    public void clear() {
-        handlers.forEach((s, handler) -> {
-            try {
-               // handler.stop();
-                handlers.remove(handler.contextPath());
-            } catch (Exception e) {
-                logger.error("Unable to un-register handler", e);
+    /**
+     * Deploy the domain again later, until its components can be loaded or the domain is changed or removed.
+     * The domain is reported as pending meanwhile.
+     */
+    private void retry(Domain domain) {
+        if (!domain.isEnabled() || retryScheduler.isShutdown()) {
+            return;
+        }
+
+        final String domainId = domain.getId();
+        logger.info("Domain {} will be deployed again in {} ms", domainId, retryDelay);
+        failedDomains.put(domainId, domain);
+        retryScheduler.schedule(() -> execute(domainId, () -> {
+            // skip the retry if the domain has been changed or removed meanwhile
+            if (failedDomains.get(domainId) != domain || !failedDomains.remove(domainId, domain)) {
+                return;
+            }
+            if (domainHandlers.containsKey(domainId)) {
+                redeploy(domain);
+            } else if (mode != DeploymentMode.LAZY && !deploy(domain)) {
+                retry(domain);
+            }
+        }), retryDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Mount a placeholder for the domain, its handler is only created on the first request.
+     */
+    private void register(Domain domain) {
+        logger.info("Register domain {} on path {}, it will be deployed on its first request", domain.getId(), domain.getPath());
+
+        LazySecurityDomain lazyDomain = new LazySecurityDomain(domain);
+        LazySecurityDomain previous = lazyDomains.put(domain.getId(), lazyDomain);
+        reactor.mount(lazyDomain.contextPath, lazyDomain);
+
+        // the domain path has changed
+        if (previous != null && !previous.contextPath.equals(lazyDomain.contextPath)) {
+            reactor.unMountSubRouter(previous.contextPath);
+        }
+    }
+
+    private void activate(LazySecurityDomain lazyDomain) {
+        String domainId = lazyDomain.domain.getId();
+        boolean superseded = lazyDomains.get(domainId) != lazyDomain;
+        if (!superseded && !domainHandlers.containsKey(domainId)) {
+            deploy(lazyDomain.domain);
+        }
+
+        // a superseded placeholder hands its requests over to whatever is now mounted on the path
+        lazyDomain.release(superseded || domainHandlers.containsKey(domainId));
+    }
+
+    private void evictIdleDomains() {
+        domainHandlers.forEach((domainId, handler) -> {
+            if (isIdle(handler)) {
+                execute(domainId, () -> evict(domainId));
             }
         });
-        contextPaths.clear();
     }
 
-    @Override
-    public Collection<VertxSecurityDomainHandler> getSecurityDomainHandlers() {
-        return handlers.values();
+    private void evict(String domainId) {
+        VertxSecurityDomainHandler handler = domainHandlers.get(domainId);
+        LazySecurityDomain lazyDomain = lazyDomains.get(domainId);
+        if (handler == null || lazyDomain == null || !isIdle(handler)) {
+            return;
+        }
+
+        logger.info("Domain {} has not been requested for {} second(s), evicting it", domainId, idleTimeout);
+        domainHandlers.remove(domainId);
+        handlers.remove(handler.contextPath(), handler);
+        contextPaths.remove(lazyDomain.domain);
+
+        // swap the handler for a placeholder, the domain is deployed again on its next request
+        register(lazyDomain.domain);
+        drain(handler);
     }
 
+    private boolean isIdle(VertxSecurityDomainHandler handler) {
+        return handler.inflightRequests() == 0 && System.currentTimeMillis() - handler.lastRequestAt() >= idleTimeout * 1000;
+    }
+
+    /**
+     * @return <code>null</code> if the domain handler could not be created, its deployment is then retried
+     */
     private VertxSecurityDomainHandler create0(Domain domain) {
-        return securityDomainRouterFactory.create(domain);
+        try {
+            return securityDomainRouterFactory.create(domain);
+        } catch (Exception ex) {
+            // ie. a bean of the domain context can not be created
+            logger.error("Unable to create the handler of domain {}", domain.getId(), ex);
+            return null;
+        }
     }
 
+    /**
+     * Stop an unmounted handler once its in-flight requests are done, or when the drain timeout is reached.
+     */
+    private void drain(VertxSecurityDomainHandler handler) {
+        final long deadline = System.currentTimeMillis() + drainTimeout;
+        if (handler.inflightRequests() == 0) {
+            stop(handler);
+            return;
+        }
+
+        vertx.setPeriodic(DRAIN_CHECK_INTERVAL, timerId -> {
+            if (handler.inflightRequests() == 0 || System.currentTimeMillis() >= deadline) {
+                vertx.cancelTimer(timerId);
+                if (handler.inflightRequests() > 0) {
+                    logger.warn("Drain timeout reached, {} request(s) still in progress for the previous handler of domain {}",
+                            handler.inflightRequests(), handler.domain().getId());
+                }
+                stop(handler);
+            }
+        });
+    }
+
+    private void stop(VertxSecurityDomainHandler handler) {
+        try {
+            handler.stop();
+        } catch (Exception ex) {
+            logger.error("Unable to stop handler of domain {}", handler.domain().getId(), ex);
+        }
+    }
+
+    private enum DeploymentMode {
+        /**
+         * Domains are deployed one by one by the synchronization process.
+         */
+        SEQUENTIAL,
+
+        /**
+         * Domains are deployed concurrently by a bounded pool of threads.
+         */
+        PARALLEL,
+
+        /**
+         * Domains are deployed on their first request and evicted once idle.
+         */
+        LAZY
+    }
+
+    /**
+     * Placeholder mounted for a domain not deployed yet. The first request triggers the deployment, the requests
+     * received meanwhile are paused and queued, then dispatched to the domain handler once mounted.
+     * A request still queued after <code>handlers.deployment.lazy.queueTimeout</code> is rejected with a 503.
+     */
+    private class LazySecurityDomain implements Handler<HttpServerRequest> {
+
+        private final Domain domain;
+        private final String contextPath;
+        private final Queue<PendingRequest> pendingRequests = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean activating = new AtomicBoolean();
+        private volatile boolean released;
+
+        LazySecurityDomain(Domain domain) {
+            this.domain = domain;
+            this.contextPath = '/' + domain.getPath();
+        }
+
+        @Override
+        public void handle(HttpServerRequest request) {
+            if (pendingCount.incrementAndGet() > lazyQueueSize) {
+                pendingCount.decrementAndGet();
+                sendServiceUnavailable(request);
+                return;
+            }
+
+            request.pause();
+            PendingRequest pendingRequest = new PendingRequest(request, vertx.getOrCreateContext());
+            pendingRequests.add(pendingRequest);
+            pendingRequest.timerId = vertx.setTimer(lazyQueueTimeout, timerId -> expire(pendingRequest));
+
+            if (activating.compareAndSet(false, true)) {
+                logger.info("First request received for domain {}, deploying it", domain.getId());
+                execute(domain.getId(), () -> activate(this));
+            } else if (released) {
+                // the request reached the placeholder while it was being replaced
+                release(true);
+            }
+        }
+
+        void release(boolean deployed) {
+            released = deployed;
+            if (!deployed) {
+                // let the next request retry the deployment
+                activating.set(false);
+            }
+
+            PendingRequest pendingRequest;
+            while ((pendingRequest = pendingRequests.poll()) != null) {
+                pendingCount.decrementAndGet();
+                vertx.cancelTimer(pendingRequest.timerId);
+                final HttpServerRequest request = pendingRequest.request;
+                pendingRequest.context.runOnContext(v -> {
+                    if (deployed) {
+                        reactor.forward(request);
+                        request.resume();
+                    } else {
+                        sendServiceUnavailable(request);
+                    }
+                });
+            }
+        }
+
+        private void expire(PendingRequest pendingRequest) {
+            // the request may have been released meanwhile
+            if (pendingRequests.remove(pendingRequest)) {
+                pendingCount.decrementAndGet();
+                logger.warn("Domain {} not deployed after {} ms, rejecting a queued request", domain.getId(), lazyQueueTimeout);
+                sendServiceUnavailable(pendingRequest.request);
+            }
+        }
+
+        private void sendServiceUnavailable(HttpServerRequest request) {
+            request.response().setStatusCode(HttpStatusCode.SERVICE_UNAVAILABLE_503).end();
+        }
+    }
+
+    private static class PendingRequest {
+
+        private final HttpServerRequest request;
+        private final Context context;
+        private volatile long timerId;
+
+        PendingRequest(HttpServerRequest request, Context context) {
+            this.request = request;
+            this.context = context;
+        }
+    }
 }
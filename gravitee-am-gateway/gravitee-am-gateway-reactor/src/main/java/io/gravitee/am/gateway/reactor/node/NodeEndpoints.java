@@ -0,0 +1,206 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.reactor.node;
+
+import io.gravitee.am.gateway.handler.vertx.VertxSecurityDomainHandler;
+import io.gravitee.am.gateway.reactor.SecurityDomainHandlerRegistry;
+import io.gravitee.am.gateway.reactor.admission.AdaptiveLimit;
+import io.gravitee.am.gateway.reactor.admission.AdmissionController;
+import io.gravitee.am.repository.metrics.RepositoryMetrics;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderWorker;
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.HttpStatusCode;
+import io.gravitee.common.http.MediaType;
+import io.gravitee.common.service.AbstractService;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.http.HttpServer;
+import io.vertx.reactivex.ext.web.Router;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Map;
+
+/**
+ * Endpoints of the node (readiness, admission limits and metrics), served by a dedicated HTTP listener bound to the
+ * loopback interface by default, never by the gateway port. They are not authenticated.
+ *
+ * @author GraviteeSource Team
+ */
+public class NodeEndpoints extends AbstractService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NodeEndpoints.class);
+
+    static final String HEALTH_PATH = "/_node/health";
+    static final String ADMISSION_PATH = "/_node/admission";
+    static final String REPOSITORY_METRICS_PATH = "/_node/metrics/repositories";
+    static final String CACHE_METRICS_PATH = "/_node/metrics/caches";
+    static final String PASSWORD_ENCODER_METRICS_PATH = "/_node/metrics/password-encoder";
+
+    @Value("${node.http.enabled:false}")
+    private boolean enabled;
+
+    @Value("${node.http.host:localhost}")
+    private String host;
+
+    @Value("${node.http.port:18092}")
+    private int port;
+
+    @Autowired
+    private Vertx vertx;
+
+    @Autowired
+    private SecurityDomainHandlerRegistry securityDomainHandlerRegistry;
+
+    @Autowired
+    private AdmissionController admissionController;
+
+    @Autowired
+    private PasswordEncoderWorker passwordEncoderWorker;
+
+    private HttpServer httpServer;
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+
+        if (!enabled) {
+            return;
+        }
+
+        httpServer = vertx.createHttpServer(new HttpServerOptions().setHost(host).setPort(port));
+        httpServer
+                .requestHandler(router()::accept)
+                .listen(result -> {
+                    if (result.succeeded()) {
+                        logger.info("Node endpoints listening on {}:{}", host, result.result().actualPort());
+                    } else {
+                        logger.error("Unable to start the node endpoints on {}:{}", host, port, result.cause());
+                    }
+                });
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        if (httpServer != null) {
+            httpServer.close();
+            httpServer = null;
+        }
+    }
+
+    Router router() {
+        Router router = Router.router(vertx);
+        router.get(HEALTH_PATH).handler(this::health);
+        router.get(ADMISSION_PATH).handler(this::admission);
+        router.get(REPOSITORY_METRICS_PATH).handler(this::repositoryMetrics);
+        router.get(CACHE_METRICS_PATH).handler(this::cacheMetrics);
+        router.get(PASSWORD_ENCODER_METRICS_PATH).handler(this::passwordEncoderMetrics);
+        router.route().last().handler(context -> context.response().setStatusCode(HttpStatusCode.NOT_FOUND_404).end());
+        return router;
+    }
+
+    /**
+     * Readiness of the node, for load balancers: the node is ready once all its deployed domains are loaded
+     * and no deployment is pending.
+     */
+    void health(RoutingContext context) {
+        int pendingTasks = securityDomainHandlerRegistry.getPendingTasks();
+        boolean ready = pendingTasks == 0;
+        JsonObject domains = new JsonObject();
+        for (VertxSecurityDomainHandler handler : securityDomainHandlerRegistry.getSecurityDomainHandlers()) {
+            ready &= handler.isReady();
+            domains.put(handler.domain().getId(), new JsonObject()
+                    .put("path", handler.contextPath())
+                    .put("ready", handler.isReady())
+                    .put("loadDuration", handler.loadDuration()));
+        }
+
+        JsonObject health = new JsonObject()
+                .put("ready", ready)
+                .put("pendingTasks", pendingTasks)
+                .put("domains", domains);
+
+        context.response()
+                .setStatusCode(ready ? HttpStatusCode.OK_200 : HttpStatusCode.SERVICE_UNAVAILABLE_503)
+                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .end(health.encode());
+    }
+
+    /**
+     * Current limit, in-flight and rejected requests by security domain and endpoint type.
+     */
+    void admission(RoutingContext context) {
+        JsonObject limits = new JsonObject();
+        for (Map.Entry<String, AdaptiveLimit> entry : admissionController.getLimits().entrySet()) {
+            AdaptiveLimit limit = entry.getValue();
+            limits.put(entry.getKey(), new JsonObject()
+                    .put("limit", limit.getLimit())
+                    .put("inflight", limit.getInflight())
+                    .put("rejected", limit.getRejected()));
+        }
+
+        context.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .end(limits.encode());
+    }
+
+    /**
+     * Commands latency and connection pools usage of the repositories, collected if enabled for their scope.
+     */
+    void repositoryMetrics(RoutingContext context) {
+        JsonArray repositories = new JsonArray();
+        BeanFactoryUtils.beansOfTypeIncludingAncestors(applicationContext, RepositoryMetrics.class)
+                .values()
+                .forEach(metrics -> repositories.add(new JsonObject(metrics.snapshot())));
+
+        context.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .end(repositories.encode());
+    }
+
+    /**
+     * Size and hit, miss and eviction counts of the enabled caches, by security domain.
+     */
+    void cacheMetrics(RoutingContext context) {
+        JsonObject domains = new JsonObject();
+        for (VertxSecurityDomainHandler handler : securityDomainHandlerRegistry.getSecurityDomainHandlers()) {
+            JsonObject caches = new JsonObject();
+            handler.cacheMetrics().forEach((name, metrics) -> caches.put(name, new JsonObject(metrics)));
+            domains.put(handler.domain().getId(), caches);
+        }
+
+        context.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .end(domains.encode());
+    }
+
+    /**
+     * Pool size, active and queued tasks, completed and rejected counts of the password encoder worker.
+     */
+    void passwordEncoderMetrics(RoutingContext context) {
+        context.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .end(new JsonObject(passwordEncoderWorker.metrics()).encode());
+    }
+}
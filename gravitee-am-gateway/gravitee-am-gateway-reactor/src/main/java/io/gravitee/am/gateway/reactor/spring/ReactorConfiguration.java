@@ -16,18 +16,24 @@
 package io.gravitee.am.gateway.reactor.spring;
 
 import io.gravitee.am.gateway.handler.SecurityDomainRouterFactory;
+import io.gravitee.am.gateway.handler.vertx.spring.SharedHandlerConfiguration;
 import io.gravitee.am.gateway.reactor.Reactor;
 import io.gravitee.am.gateway.reactor.SecurityDomainHandlerRegistry;
+import io.gravitee.am.gateway.reactor.admission.AdmissionController;
+import io.gravitee.am.gateway.reactor.admission.impl.DefaultAdmissionController;
 import io.gravitee.am.gateway.reactor.impl.DefaultReactor;
 import io.gravitee.am.gateway.reactor.impl.DefaultSecurityDomainHandlerRegistry;
+import io.gravitee.am.gateway.reactor.node.NodeEndpoints;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Configuration
+@Import(SharedHandlerConfiguration.class)
 public class ReactorConfiguration {
 
     @Bean
@@ -40,6 +46,16 @@ public class ReactorConfiguration {
         return new DefaultSecurityDomainHandlerRegistry();
     }
 
+    @Bean
+    public AdmissionController admissionController() {
+        return new DefaultAdmissionController();
+    }
+
+    @Bean
+    public NodeEndpoints nodeEndpoints() {
+        return new NodeEndpoints();
+    }
+
     @Bean
     public SecurityDomainRouterFactory securityDomainRouterFactory() {
         return new SecurityDomainRouterFactory();
@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.reactor.admission;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AdaptiveLimitTest {
+
+    @Test
+    public void shouldRejectAboveLimit() {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 1, 10, 100, 0.5);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInflight());
+        assertEquals(1, limit.getRejected());
+
+        limit.release(1, false);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    public void shouldIncreaseLimit_fastResponsesUnderLoad() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 1, 10, 100, 0.5);
+
+        // the limit grows by one every limit responses
+        for (int i = 0; i < 5; i++) {
+            saturate(limit, 1, false);
+        }
+
+        assertTrue(limit.getLimit() > 4);
+        assertEquals(0, limit.getInflight());
+    }
+
+    @Test
+    public void shouldNotIncreaseLimit_aboveMaxLimit() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 1, 5, 100, 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            saturate(limit, 1, false);
+        }
+
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    public void shouldNotIncreaseLimit_unused() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 100, 100, 0.5);
+
+        // a single request at a time never uses half of the limit
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(1, false);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void shouldDecreaseLimit_slowResponse() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 10, 1000, 100, 0.5);
+
+        assertTrue(limit.tryAcquire());
+        limit.release(101, false);
+
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    public void shouldDecreaseLimit_failedResponse() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 10, 1000, 100, 0.5);
+
+        assertTrue(limit.tryAcquire());
+        limit.release(1, true);
+
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    public void shouldDecreaseLimitOnce_burstOfSlowResponses() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 10, 1000, 100, 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        for (int i = 0; i < 20; i++) {
+            limit.release(1000, i % 2 == 0);
+        }
+
+        assertEquals(50, limit.getLimit());
+
+        // once the burst is over, a new slow response decreases the limit again
+        assertTrue(limit.tryAcquire());
+        limit.release(1000, false);
+
+        assertEquals(25, limit.getLimit());
+    }
+
+    @Test
+    public void shouldNotDecreaseLimit_belowMinLimit() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 10, 1000, 100, 0.5);
+
+        for (int i = 0; i < 10; i++) {
+            saturate(limit, 1000, false);
+        }
+
+        assertEquals(10, limit.getLimit());
+        // the limit still admits requests
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    public void shouldRecoverLimit_afterBackoff() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 2, 10, 100, 0.5);
+        saturate(limit, 1000, false);
+        int reducedLimit = limit.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            saturate(limit, 1, false);
+        }
+
+        assertTrue(reducedLimit < 10);
+        assertEquals(10, limit.getLimit());
+    }
+
+    /**
+     * Acquire all the permits, then release them with the given latency.
+     */
+    private void saturate(AdaptiveLimit limit, long latency, boolean failed) {
+        int acquired = 0;
+        while (limit.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limit.release(latency, failed);
+        }
+    }
+}
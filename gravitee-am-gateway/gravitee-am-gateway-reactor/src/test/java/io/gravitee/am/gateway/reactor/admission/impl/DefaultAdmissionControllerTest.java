@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.reactor.admission.impl;
+
+import io.gravitee.am.gateway.reactor.admission.AdaptiveLimit;
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.HttpStatusCode;
+import io.vertx.core.Handler;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.internal.util.reflection.Whitebox;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class DefaultAdmissionControllerTest {
+
+    private static final String CONTEXT_PATH = "/my-domain";
+
+    private DefaultAdmissionController admissionController = new DefaultAdmissionController();
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(admissionController, "enabled", true);
+        Whitebox.setInternalState(admissionController, "initialLimit", 2);
+        Whitebox.setInternalState(admissionController, "minLimit", 1);
+        Whitebox.setInternalState(admissionController, "maxLimit", 10);
+        Whitebox.setInternalState(admissionController, "latencyThreshold", 1000L);
+        Whitebox.setInternalState(admissionController, "backoffRatio", 0.5);
+        Whitebox.setInternalState(admissionController, "retryAfter", 1);
+    }
+
+    @Test
+    public void shouldAdmit_disabled() {
+        Whitebox.setInternalState(admissionController, "enabled", false);
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+        }
+        Assert.assertTrue(admissionController.getLimits().isEmpty());
+    }
+
+    @Test
+    public void shouldReject_limitReached() {
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+
+        HttpServerRequest rejectedRequest = request("/oauth/token");
+        Assert.assertFalse(admissionController.admit(CONTEXT_PATH, rejectedRequest));
+
+        HttpServerResponse response = rejectedRequest.response();
+        verify(response, times(1)).setStatusCode(HttpStatusCode.SERVICE_UNAVAILABLE_503);
+        verify(response, times(1)).putHeader("Retry-After", "1");
+        verify(response, times(1)).putHeader(HttpHeaders.CONTENT_LENGTH, "0");
+        verify(response, times(1)).end();
+
+        AdaptiveLimit limit = admissionController.getLimits().get(CONTEXT_PATH + ":token");
+        Assert.assertEquals(2, limit.getInflight());
+        Assert.assertEquals(1, limit.getRejected());
+    }
+
+    @Test
+    public void shouldLimitEndpointTypesSeparately() {
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+        Assert.assertFalse(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+
+        // a saturated token endpoint does not starve the others, nor the other domains
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/authorize")));
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/introspect")));
+        Assert.assertTrue(admissionController.admit("/other-domain", request("/other-domain", "/oauth/token")));
+
+        Assert.assertEquals(4, admissionController.getLimits().size());
+        Assert.assertEquals(1, admissionController.getLimits().get(CONTEXT_PATH + ":authorize").getInflight());
+        Assert.assertEquals(1, admissionController.getLimits().get(CONTEXT_PATH + ":introspect").getInflight());
+    }
+
+    @Test
+    public void shouldReleasePermit_responseSent() {
+        HttpServerRequest request = request("/oauth/token");
+        ArgumentCaptor<Handler> endHandler = ArgumentCaptor.forClass(Handler.class);
+        when(request.response().endHandler(endHandler.capture())).thenReturn(request.response());
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request));
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+
+        when(request.response().getStatusCode()).thenReturn(HttpStatusCode.OK_200);
+        endHandler.getValue().handle(null);
+
+        AdaptiveLimit limit = admissionController.getLimits().get(CONTEXT_PATH + ":token");
+        Assert.assertEquals(1, limit.getInflight());
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+    }
+
+    @Test
+    public void shouldDecreaseLimit_serverError() {
+        Whitebox.setInternalState(admissionController, "initialLimit", 8);
+        HttpServerRequest request = request("/oauth/token");
+        ArgumentCaptor<Handler> endHandler = ArgumentCaptor.forClass(Handler.class);
+        when(request.response().endHandler(endHandler.capture())).thenReturn(request.response());
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request));
+
+        when(request.response().getStatusCode()).thenReturn(HttpStatusCode.INTERNAL_SERVER_ERROR_500);
+        endHandler.getValue().handle(null);
+
+        AdaptiveLimit limit = admissionController.getLimits().get(CONTEXT_PATH + ":token");
+        Assert.assertEquals(0, limit.getInflight());
+        Assert.assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void shouldReleasePermitOnce_connectionClosed() {
+        Whitebox.setInternalState(admissionController, "initialLimit", 8);
+        HttpServerRequest request = request("/oauth/token");
+        ArgumentCaptor<Handler> endHandler = ArgumentCaptor.forClass(Handler.class);
+        ArgumentCaptor<Handler> closeHandler = ArgumentCaptor.forClass(Handler.class);
+        when(request.response().endHandler(endHandler.capture())).thenReturn(request.response());
+        when(request.response().closeHandler(closeHandler.capture())).thenReturn(request.response());
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request));
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+
+        // the client has gone away, the request is counted as failed
+        closeHandler.getValue().handle(null);
+        endHandler.getValue().handle(null);
+
+        AdaptiveLimit limit = admissionController.getLimits().get(CONTEXT_PATH + ":token");
+        Assert.assertEquals(1, limit.getInflight());
+        Assert.assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void shouldRejectUnderLoad_slowResponses() {
+        Whitebox.setInternalState(admissionController, "initialLimit", 4);
+        Whitebox.setInternalState(admissionController, "latencyThreshold", -1L);
+
+        // every response is too slow, the limit is halved on each response
+        for (int i = 0; i < 4; i++) {
+            HttpServerRequest request = request("/oauth/token");
+            ArgumentCaptor<Handler> endHandler = ArgumentCaptor.forClass(Handler.class);
+            when(request.response().endHandler(endHandler.capture())).thenReturn(request.response());
+            Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request));
+            endHandler.getValue().handle(null);
+        }
+
+        AdaptiveLimit limit = admissionController.getLimits().get(CONTEXT_PATH + ":token");
+        Assert.assertEquals(1, limit.getLimit());
+        Assert.assertTrue(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+        Assert.assertFalse(admissionController.admit(CONTEXT_PATH, request("/oauth/token")));
+        Assert.assertEquals(1, limit.getRejected());
+    }
+
+    private HttpServerRequest request(String path) {
+        return request(CONTEXT_PATH, path);
+    }
+
+    private HttpServerRequest request(String contextPath, String path) {
+        HttpServerRequest request = mock(HttpServerRequest.class);
+        HttpServerResponse response = mock(HttpServerResponse.class);
+        when(request.path()).thenReturn(contextPath + path);
+        when(request.response()).thenReturn(response);
+        when(response.getDelegate()).thenReturn(mock(io.vertx.core.http.HttpServerResponse.class));
+        when(response.setStatusCode(anyInt())).thenReturn(response);
+        return request;
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.reactor.impl;
+
+import io.gravitee.am.gateway.core.event.CertificateEvent;
+import io.gravitee.am.gateway.core.event.ClientEvent;
+import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.core.event.IdentityProviderEvent;
+import io.gravitee.am.gateway.reactor.SecurityDomainHandlerRegistry;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.event.impl.EventManagerImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultReactorTest {
+
+    private static final String DOMAIN = "my-domain";
+
+    @InjectMocks
+    private DefaultReactor reactor = new DefaultReactor();
+
+    @Mock
+    private SecurityDomainHandlerRegistry securityDomainHandlerRegistry;
+
+    @Spy
+    private EventManager eventManager = new EventManagerImpl();
+
+    @Before
+    public void setUp() throws Exception {
+        reactor.doStart();
+    }
+
+    @Test
+    public void shouldDeployDomain() {
+        Domain domain = new Domain();
+        domain.setId(DOMAIN);
+
+        eventManager.publishEvent(DomainEvent.DEPLOY, domain);
+        eventManager.publishEvent(DomainEvent.UPDATE, domain);
+        eventManager.publishEvent(DomainEvent.UNDEPLOY, domain);
+
+        verify(securityDomainHandlerRegistry, times(1)).create(domain);
+        verify(securityDomainHandlerRegistry, times(1)).update(domain);
+        verify(securityDomainHandlerRegistry, times(1)).remove(domain);
+    }
+
+    @Test
+    public void shouldDispatchComponentEvents() {
+        Payload clientPayload = new Payload("my-client", DOMAIN, Action.UPDATE);
+        Payload identityProviderPayload = new Payload("my-idp", DOMAIN, Action.CREATE);
+        Payload certificatePayload = new Payload("my-certificate", DOMAIN, Action.DELETE);
+
+        eventManager.publishEvent(ClientEvent.UPDATE, clientPayload);
+        eventManager.publishEvent(IdentityProviderEvent.DEPLOY, identityProviderPayload);
+        eventManager.publishEvent(CertificateEvent.UNDEPLOY, certificatePayload);
+
+        verify(securityDomainHandlerRegistry, times(1)).dispatch(DOMAIN, ClientEvent.UPDATE, clientPayload);
+        verify(securityDomainHandlerRegistry, times(1)).dispatch(DOMAIN, IdentityProviderEvent.DEPLOY, identityProviderPayload);
+        verify(securityDomainHandlerRegistry, times(1)).dispatch(DOMAIN, CertificateEvent.UNDEPLOY, certificatePayload);
+        // component changes never redeploy the domain
+        verify(securityDomainHandlerRegistry, never()).update(any(Domain.class));
+    }
+
+    @Test
+    public void shouldNotDispatchDomainEvents() {
+        Domain domain = new Domain();
+        domain.setId(DOMAIN);
+
+        eventManager.publishEvent(DomainEvent.UPDATE, domain);
+
+        verify(securityDomainHandlerRegistry, never()).dispatch(anyString(), any(Enum.class), any());
+    }
+}
@@ -0,0 +1,423 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.reactor.impl;
+
+import io.gravitee.am.gateway.core.event.ClientEvent;
+import io.gravitee.am.gateway.handler.SecurityDomainRouterFactory;
+import io.gravitee.am.gateway.handler.vertx.VertxSecurityDomainHandler;
+import io.gravitee.am.gateway.reactor.Reactor;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.common.http.HttpStatusCode;
+import io.vertx.core.Handler;
+import io.vertx.reactivex.core.Context;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.Router;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultSecurityDomainHandlerRegistryTest {
+
+    private static final String DOMAIN = "my-domain";
+
+    @InjectMocks
+    private DefaultSecurityDomainHandlerRegistry registry = new DefaultSecurityDomainHandlerRegistry();
+
+    @Mock
+    private SecurityDomainRouterFactory securityDomainRouterFactory;
+
+    @Mock
+    private Reactor reactor;
+
+    @Mock
+    private Vertx vertx;
+
+    private Domain domain;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(registry, "deploymentMode", "sequential");
+        Whitebox.setInternalState(registry, "retryDelay", 50L);
+        registry.afterPropertiesSet();
+
+        domain = domain(DOMAIN, "my-path");
+    }
+
+    @After
+    public void tearDown() {
+        registry.clear();
+    }
+
+    @Test
+    public void shouldDispatchEvent_toDomainHandler() {
+        VertxSecurityDomainHandler handler = handler(domain);
+        registry.create(domain);
+
+        Payload payload = new Payload("my-client", DOMAIN, Action.UPDATE);
+        registry.dispatch(DOMAIN, ClientEvent.UPDATE, payload);
+
+        verify(handler, times(1)).publishEvent(ClientEvent.UPDATE, payload);
+        // the component is updated in place, the domain is not redeployed
+        verify(securityDomainRouterFactory, times(1)).create(domain);
+    }
+
+    @Test
+    public void shouldNotDispatchEvent_unknownDomain() {
+        VertxSecurityDomainHandler handler = handler(domain);
+        registry.create(domain);
+
+        registry.dispatch("other-domain", ClientEvent.UPDATE, new Payload("my-client", "other-domain", Action.UPDATE));
+
+        verify(handler, never()).publishEvent(any(Enum.class), any());
+    }
+
+    @Test
+    public void shouldNotDispatchEvent_undeployedDomain() {
+        VertxSecurityDomainHandler handler = handler(domain);
+        registry.create(domain);
+        registry.remove(domain);
+
+        registry.dispatch(DOMAIN, ClientEvent.UPDATE, new Payload("my-client", DOMAIN, Action.UPDATE));
+
+        verify(handler, never()).publishEvent(any(Enum.class), any());
+        verify(handler, times(1)).stop();
+    }
+
+    @Test
+    public void shouldKeepPreviousHandler_redeployFailure() {
+        VertxSecurityDomainHandler handler = handler(domain);
+        registry.create(domain);
+
+        // the components of the domain can not be loaded
+        when(securityDomainRouterFactory.create(domain)).thenReturn(null);
+        registry.update(domain);
+
+        Assert.assertEquals(1, registry.getSecurityDomainHandlers().size());
+        Assert.assertSame(handler, registry.getSecurityDomainHandlers().iterator().next());
+        Assert.assertEquals(1, registry.getPendingTasks());
+        verify(handler, never()).stop();
+        verify(reactor, never()).unMountSubRouter(anyString());
+    }
+
+    @Test
+    public void shouldRetryDeployment_failure() throws Exception {
+        when(securityDomainRouterFactory.create(domain)).thenReturn(null);
+        registry.create(domain);
+
+        Assert.assertTrue(registry.getSecurityDomainHandlers().isEmpty());
+        Assert.assertEquals(1, registry.getPendingTasks());
+        verify(reactor, never()).mountSubRouter(anyString(), any(Router.class));
+
+        // the domain can be loaded on the next attempt
+        handler(domain);
+        verify(securityDomainRouterFactory, timeout(5000).times(2)).create(domain);
+        verify(reactor, timeout(5000)).mountSubRouter(eq("/my-path"), any(Router.class));
+        Assert.assertEquals(0, registry.getPendingTasks());
+    }
+
+    @Test
+    public void shouldRetryDeployment_contextFailure() throws Exception {
+        VertxSecurityDomainHandler handler = mock(VertxSecurityDomainHandler.class);
+        when(handler.contextPath()).thenReturn("/my-path");
+        // the domain context can not be created on the first attempt
+        when(securityDomainRouterFactory.create(domain))
+                .thenThrow(new IllegalStateException("Error creating bean"))
+                .thenReturn(handler);
+        registry.create(domain);
+
+        Assert.assertTrue(registry.getSecurityDomainHandlers().isEmpty());
+        Assert.assertEquals(1, registry.getPendingTasks());
+
+        verify(securityDomainRouterFactory, timeout(5000).times(2)).create(domain);
+        verify(reactor, timeout(5000)).mountSubRouter(eq("/my-path"), any(Router.class));
+        Assert.assertEquals(0, registry.getPendingTasks());
+    }
+
+    @Test
+    public void shouldNotRetryDeployment_removedDomain() throws Exception {
+        when(securityDomainRouterFactory.create(domain)).thenReturn(null);
+        registry.create(domain);
+        registry.remove(domain);
+
+        Thread.sleep(200);
+
+        verify(securityDomainRouterFactory, times(1)).create(domain);
+        Assert.assertEquals(0, registry.getPendingTasks());
+    }
+
+    @Test
+    public void shouldRedeploy_stopPreviousHandler() {
+        VertxSecurityDomainHandler previousHandler = handler(domain);
+        registry.create(domain);
+
+        VertxSecurityDomainHandler handler = handler(domain);
+        registry.update(domain);
+
+        verify(reactor, times(2)).mountSubRouter(eq("/my-path"), any(Router.class));
+        Assert.assertSame(handler, registry.getSecurityDomainHandlers().iterator().next());
+        // no request in progress, the previous handler is stopped at once
+        verify(previousHandler, times(1)).stop();
+        verify(handler, never()).stop();
+        verify(vertx, never()).setPeriodic(anyLong(), any(Handler.class));
+    }
+
+    @Test
+    public void shouldRedeploy_drainPreviousHandler() {
+        VertxSecurityDomainHandler previousHandler = handler(domain);
+        registry.create(domain);
+        when(previousHandler.inflightRequests()).thenReturn(1);
+
+        VertxSecurityDomainHandler handler = handler(domain);
+        registry.update(domain);
+
+        // the new handler serves the new requests while the previous one completes its requests
+        Assert.assertSame(handler, registry.getSecurityDomainHandlers().iterator().next());
+        ArgumentCaptor<Handler> drainCheck = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx, times(1)).setPeriodic(anyLong(), drainCheck.capture());
+
+        drainCheck.getValue().handle(1L);
+        verify(previousHandler, never()).stop();
+        verify(vertx, never()).cancelTimer(1L);
+
+        when(previousHandler.inflightRequests()).thenReturn(0);
+        drainCheck.getValue().handle(1L);
+        verify(previousHandler, times(1)).stop();
+        verify(vertx, times(1)).cancelTimer(1L);
+    }
+
+    @Test
+    public void shouldRedeploy_drainTimeout() {
+        Whitebox.setInternalState(registry, "drainTimeout", 0L);
+        VertxSecurityDomainHandler previousHandler = handler(domain);
+        registry.create(domain);
+        when(previousHandler.inflightRequests()).thenReturn(1);
+
+        handler(domain);
+        registry.update(domain);
+
+        ArgumentCaptor<Handler> drainCheck = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx, times(1)).setPeriodic(anyLong(), drainCheck.capture());
+
+        // the request never completes, the handler is stopped anyway
+        drainCheck.getValue().handle(1L);
+        verify(previousHandler, times(1)).stop();
+        verify(vertx, times(1)).cancelTimer(1L);
+    }
+
+    @Test
+    public void shouldRedeploy_pathChanged() {
+        VertxSecurityDomainHandler previousHandler = handler(domain);
+        registry.create(domain);
+
+        Domain movedDomain = domain(DOMAIN, "new-path");
+        handler(movedDomain);
+        registry.update(movedDomain);
+
+        verify(reactor, times(1)).mountSubRouter(eq("/new-path"), any(Router.class));
+        verify(reactor, times(1)).unMountSubRouter("/my-path");
+        Assert.assertEquals(1, registry.getSecurityDomainHandlers().size());
+        verify(previousHandler, times(1)).stop();
+    }
+
+    @Test
+    public void shouldDeployInParallel() {
+        configure("parallel", 0L);
+        Domain otherDomain = domain("other-domain", "other-path");
+        VertxSecurityDomainHandler otherHandler = mock(VertxSecurityDomainHandler.class);
+        when(otherHandler.contextPath()).thenReturn("/other-path");
+
+        // the first domain is only loaded once the second one has been loaded
+        CountDownLatch otherDomainLoaded = new CountDownLatch(1);
+        AtomicBoolean loadedConcurrently = new AtomicBoolean();
+        VertxSecurityDomainHandler handler = mock(VertxSecurityDomainHandler.class);
+        when(handler.contextPath()).thenReturn("/my-path");
+        when(securityDomainRouterFactory.create(domain)).thenAnswer(invocation -> {
+            loadedConcurrently.set(otherDomainLoaded.await(5, TimeUnit.SECONDS));
+            return handler;
+        });
+        when(securityDomainRouterFactory.create(otherDomain)).thenAnswer(invocation -> {
+            otherDomainLoaded.countDown();
+            return otherHandler;
+        });
+
+        registry.create(domain);
+        registry.create(otherDomain);
+
+        verify(reactor, timeout(5000)).mountSubRouter(eq("/other-path"), any(Router.class));
+        verify(reactor, timeout(5000)).mountSubRouter(eq("/my-path"), any(Router.class));
+        Assert.assertTrue(loadedConcurrently.get());
+    }
+
+    @Test
+    public void shouldDeployLazily_firstRequest() {
+        configure("lazy", 0L);
+        VertxSecurityDomainHandler handler = handler(domain);
+        registry.create(domain);
+
+        Handler<HttpServerRequest> lazyDomain = mountedPlaceholder(1);
+        verify(securityDomainRouterFactory, never()).create(domain);
+
+        HttpServerRequest request = request();
+        lazyDomain.handle(request);
+
+        verify(request, times(1)).pause();
+        verify(reactor, timeout(5000)).mountSubRouter(eq("/my-path"), any(Router.class));
+        verify(reactor, timeout(5000)).forward(request);
+        verify(request, timeout(5000)).resume();
+        Assert.assertSame(handler, registry.getSecurityDomainHandlers().iterator().next());
+    }
+
+    @Test
+    public void shouldRejectQueuedRequest_timeout() throws Exception {
+        configure("lazy", 0L);
+        Whitebox.setInternalState(registry, "lazyQueueTimeout", 100L);
+        VertxSecurityDomainHandler handler = handler(domain);
+        CountDownLatch loading = new CountDownLatch(1);
+        when(securityDomainRouterFactory.create(domain)).thenAnswer(invocation -> {
+            loading.await(5, TimeUnit.SECONDS);
+            return handler;
+        });
+        registry.create(domain);
+
+        HttpServerRequest request = request();
+        mountedPlaceholder(1).handle(request);
+
+        // the domain is still loading when the request times out
+        ArgumentCaptor<Handler> queueTimeout = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx, times(1)).setTimer(eq(100L), queueTimeout.capture());
+        queueTimeout.getValue().handle(1L);
+        verify(request.response(), times(1)).setStatusCode(HttpStatusCode.SERVICE_UNAVAILABLE_503);
+        verify(request.response(), times(1)).end();
+
+        // the rejected request is not dispatched once the domain is deployed
+        loading.countDown();
+        verify(reactor, timeout(5000)).mountSubRouter(eq("/my-path"), any(Router.class));
+        Thread.sleep(100);
+        verify(reactor, never()).forward(request);
+    }
+
+    @Test
+    public void shouldEvictIdleDomain() {
+        configure("lazy", 1L);
+        ArgumentCaptor<Handler> evictionCheck = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx, times(1)).setPeriodic(eq(1000L), evictionCheck.capture());
+
+        VertxSecurityDomainHandler handler = handler(domain);
+        registry.create(domain);
+        mountedPlaceholder(1).handle(request());
+        verify(reactor, timeout(5000)).mountSubRouter(eq("/my-path"), any(Router.class));
+
+        // no request for more than the idle timeout
+        when(handler.lastRequestAt()).thenReturn(System.currentTimeMillis() - 2000);
+        evictionCheck.getValue().handle(1L);
+
+        verify(handler, timeout(5000)).stop();
+        // a placeholder deploys the domain again on its next request
+        verify(reactor, timeout(5000).times(2)).mount(eq("/my-path"), any(Handler.class));
+        Assert.assertTrue(registry.getSecurityDomainHandlers().isEmpty());
+    }
+
+    @Test
+    public void shouldNotEvictDomain_inflightRequests() throws Exception {
+        configure("lazy", 1L);
+        ArgumentCaptor<Handler> evictionCheck = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx, times(1)).setPeriodic(eq(1000L), evictionCheck.capture());
+
+        VertxSecurityDomainHandler handler = handler(domain);
+        registry.create(domain);
+        mountedPlaceholder(1).handle(request());
+        verify(reactor, timeout(5000)).mountSubRouter(eq("/my-path"), any(Router.class));
+
+        when(handler.lastRequestAt()).thenReturn(System.currentTimeMillis() - 2000);
+        when(handler.inflightRequests()).thenReturn(1);
+        evictionCheck.getValue().handle(1L);
+
+        Thread.sleep(100);
+        verify(handler, never()).stop();
+        Assert.assertEquals(1, registry.getSecurityDomainHandlers().size());
+    }
+
+    private void configure(String deploymentMode, long idleTimeout) {
+        registry.clear();
+        Whitebox.setInternalState(registry, "deploymentMode", deploymentMode);
+        Whitebox.setInternalState(registry, "parallelism", 2);
+        Whitebox.setInternalState(registry, "idleTimeout", idleTimeout);
+        registry.afterPropertiesSet();
+    }
+
+    private Handler<HttpServerRequest> mountedPlaceholder(int times) {
+        ArgumentCaptor<Handler> placeholder = ArgumentCaptor.forClass(Handler.class);
+        verify(reactor, timeout(5000).times(times)).mount(eq("/my-path"), placeholder.capture());
+        return placeholder.getValue();
+    }
+
+    private HttpServerRequest request() {
+        Context context = mock(Context.class);
+        doAnswer(invocation -> {
+            ((Handler) invocation.getArguments()[0]).handle(null);
+            return null;
+        }).when(context).runOnContext(any(Handler.class));
+        when(vertx.getOrCreateContext()).thenReturn(context);
+
+        HttpServerRequest request = mock(HttpServerRequest.class);
+        HttpServerResponse response = mock(HttpServerResponse.class);
+        when(response.setStatusCode(anyInt())).thenReturn(response);
+        when(request.response()).thenReturn(response);
+        return request;
+    }
+
+    private VertxSecurityDomainHandler handler(Domain domain) {
+        VertxSecurityDomainHandler handler = mock(VertxSecurityDomainHandler.class);
+        when(handler.domain()).thenReturn(domain);
+        when(handler.contextPath()).thenReturn('/' + domain.getPath());
+        when(securityDomainRouterFactory.create(domain)).thenReturn(handler);
+        return handler;
+    }
+
+    private Domain domain(String id, String path) {
+        Domain domain = new Domain();
+        domain.setId(id);
+        domain.setPath(path);
+        domain.setEnabled(true);
+        return domain;
+    }
+}
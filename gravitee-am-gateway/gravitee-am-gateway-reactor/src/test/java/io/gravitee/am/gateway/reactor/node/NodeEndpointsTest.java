@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.reactor.node;
+
+import io.gravitee.am.gateway.handler.vertx.VertxSecurityDomainHandler;
+import io.gravitee.am.gateway.reactor.SecurityDomainHandlerRegistry;
+import io.gravitee.am.gateway.reactor.admission.AdaptiveLimit;
+import io.gravitee.am.gateway.reactor.admission.AdmissionController;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderWorker;
+import io.gravitee.common.http.HttpStatusCode;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class NodeEndpointsTest {
+
+    @InjectMocks
+    private NodeEndpoints nodeEndpoints = new NodeEndpoints();
+
+    @Mock
+    private Vertx vertx;
+
+    @Mock
+    private SecurityDomainHandlerRegistry securityDomainHandlerRegistry;
+
+    @Mock
+    private AdmissionController admissionController;
+
+    @Mock
+    private RoutingContext context;
+
+    @Mock
+    private HttpServerResponse response;
+
+    @Before
+    public void setUp() {
+        when(context.response()).thenReturn(response);
+        when(response.setStatusCode(anyInt())).thenReturn(response);
+        when(response.putHeader(anyString(), anyString())).thenReturn(response);
+    }
+
+    @Test
+    public void shouldNotListen_disabled() throws Exception {
+        nodeEndpoints.doStart();
+
+        verify(vertx, never()).createHttpServer(any(HttpServerOptions.class));
+    }
+
+    @Test
+    public void shouldReportReady_domainsLoaded() {
+        VertxSecurityDomainHandler handler = handler("my-domain", true);
+        when(securityDomainHandlerRegistry.getSecurityDomainHandlers()).thenReturn(Collections.singletonList(handler));
+
+        nodeEndpoints.health(context);
+
+        verify(response).setStatusCode(HttpStatusCode.OK_200);
+        JsonObject health = body();
+        Assert.assertTrue(health.getBoolean("ready"));
+        Assert.assertTrue(health.getJsonObject("domains").getJsonObject("my-domain").getBoolean("ready"));
+    }
+
+    @Test
+    public void shouldReportNotReady_pendingTasks() {
+        when(securityDomainHandlerRegistry.getPendingTasks()).thenReturn(1);
+        when(securityDomainHandlerRegistry.getSecurityDomainHandlers()).thenReturn(Collections.emptyList());
+
+        nodeEndpoints.health(context);
+
+        verify(response).setStatusCode(HttpStatusCode.SERVICE_UNAVAILABLE_503);
+        JsonObject health = body();
+        Assert.assertFalse(health.getBoolean("ready"));
+        Assert.assertEquals(1, (int) health.getInteger("pendingTasks"));
+    }
+
+    @Test
+    public void shouldExpose_admissionLimits() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 10, 1000, 1000, 0.9);
+        limit.tryAcquire();
+        when(admissionController.getLimits()).thenReturn(Collections.singletonMap("/my-domain:token", limit));
+
+        nodeEndpoints.admission(context);
+
+        JsonObject tokenLimit = body().getJsonObject("/my-domain:token");
+        Assert.assertEquals(100, (int) tokenLimit.getInteger("limit"));
+        Assert.assertEquals(1, (int) tokenLimit.getInteger("inflight"));
+    }
+
+    @Test
+    public void shouldExpose_passwordEncoderMetrics() {
+        PasswordEncoderWorker passwordEncoderWorker = new PasswordEncoderWorker(4, -1);
+        Whitebox.setInternalState(nodeEndpoints, "passwordEncoderWorker", passwordEncoderWorker);
+
+        try {
+            nodeEndpoints.passwordEncoderMetrics(context);
+        } finally {
+            passwordEncoderWorker.destroy();
+        }
+
+        JsonObject metrics = body();
+        Assert.assertEquals(4, (int) metrics.getInteger("poolSize"));
+        Assert.assertEquals(0L, (long) metrics.getLong("rejected"));
+    }
+
+    private JsonObject body() {
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(response).end(body.capture());
+        return new JsonObject(body.getValue());
+    }
+
+    private VertxSecurityDomainHandler handler(String domainId, boolean ready) {
+        Domain domain = new Domain();
+        domain.setId(domainId);
+        VertxSecurityDomainHandler handler = mock(VertxSecurityDomainHandler.class);
+        when(handler.domain()).thenReturn(domain);
+        when(handler.contextPath()).thenReturn("/" + domainId);
+        when(handler.isReady()).thenReturn(ready);
+        return handler;
+    }
+}
@@ -17,6 +17,7 @@ package io.gravitee.am.gateway.repository.plugins;
 
 import io.gravitee.am.repository.Repository;
 import io.gravitee.am.repository.Scope;
+import io.gravitee.am.repository.metrics.RepositoryMetrics;
 import io.gravitee.plugin.core.api.*;
 import io.gravitee.plugin.core.internal.AnnotationBasedPluginContextConfigurer;
 import org.slf4j.Logger;
@@ -26,7 +27,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
 import org.springframework.util.Assert;
 
 import java.util.Collections;
@@ -59,6 +62,10 @@ public class RepositoryPluginHandler implements PluginHandler, InitializingBean
 
     @Override
     public void afterPropertiesSet() throws Exception {
+        // Indexes are created by the management API, gateways only check them unless configured otherwise
+        ((ConfigurableEnvironment) environment).getPropertySources().addLast(new MapPropertySource("repositoryDefaults",
+                Collections.singletonMap("repository.indexes.mode", "verify")));
+
         // The gateway need 2 repositories :
         // 1_ Management
         lookForRepositoryType(Scope.MANAGEMENT);
@@ -100,7 +107,7 @@ public class RepositoryPluginHandler implements PluginHandler, InitializingBean
                                         }
                                     });
 
-                            registerRepositoryDefinitions(repository, repoApplicationContext);
+                            registerRepositoryDefinitions(scope, repository, repoApplicationContext);
                             repositories.put(scope, repository);
                         } catch (Exception iae) {
                             LOGGER.error("Unexpected error while creating context for repository instance", iae);
@@ -120,7 +127,7 @@ public class RepositoryPluginHandler implements PluginHandler, InitializingBean
         }
     }
 
-    private void registerRepositoryDefinitions(Repository repository, ApplicationContext repoApplicationContext) {
+    private void registerRepositoryDefinitions(Scope scope, Repository repository, ApplicationContext repoApplicationContext) {
         DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory)
                 ((ConfigurableApplicationContext) applicationContext).getBeanFactory();
 
@@ -135,6 +142,11 @@ public class RepositoryPluginHandler implements PluginHandler, InitializingBean
                     beanFactory.registerSingleton(repositoryItfClass.getName(),
                             repositoryClassInstance);
                 }
+            } else if (repositoryClassInstance instanceof RepositoryMetrics) {
+                // one metrics bean per scope, registered by scope to not collide with the other scopes
+                LOGGER.debug("Register {} metrics [{}] in gateway context", scope, beanName);
+                beanFactory.registerSingleton(scope.getName() + RepositoryMetrics.class.getSimpleName(),
+                        repositoryClassInstance);
             }
         }
     }
@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.repository.plugins;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RepositoryPluginHandlerTest {
+
+    private RepositoryPluginHandler repositoryPluginHandler;
+    private Map<String, Object> configuration;
+    private StandardEnvironment environment;
+
+    @Before
+    public void setUp() {
+        configuration = new HashMap<>();
+        configuration.put("management.type", "mongodb");
+        configuration.put("oauth2.type", "mongodb");
+        environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("configuration", configuration));
+
+        repositoryPluginHandler = new RepositoryPluginHandler();
+        Whitebox.setInternalState(repositoryPluginHandler, "environment", environment);
+    }
+
+    @Test
+    public void shouldVerifyIndexes_byDefault() throws Exception {
+        repositoryPluginHandler.afterPropertiesSet();
+
+        Assert.assertEquals("verify", environment.getProperty("repository.indexes.mode"));
+    }
+
+    @Test
+    public void shouldKeepConfiguredIndexesMode() throws Exception {
+        configuration.put("repository.indexes.mode", "create");
+
+        repositoryPluginHandler.afterPropertiesSet();
+
+        Assert.assertEquals("create", environment.getProperty("repository.indexes.mode"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireRepositoryType() throws Exception {
+        configuration.remove("oauth2.type");
+
+        repositoryPluginHandler.afterPropertiesSet();
+    }
+}
@@ -56,6 +56,12 @@ public class ScheduledSyncService extends AbstractService implements Runnable {
         if (enabled) {
             super.doStart();
             logger.info("Sync service has been initialized with cron [{}]", cronTrigger);
+            // the domains are deployed before the node starts to serve requests
+            try {
+                doSync();
+            } catch (Exception ex) {
+                logger.error("Initial synchronization has failed, it will be retried by the scheduled synchronization", ex);
+            }
             // Sync must start only when doStart() is invoked, that's the reason why we are not
             // using @Scheduled annotation on doSync() method.
             scheduler.schedule(this, new CronTrigger(cronTrigger));
@@ -15,18 +15,20 @@
  */
 package io.gravitee.am.gateway.services.sync;
 
-import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.core.event.*;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
 import io.gravitee.am.repository.management.api.DomainRepository;
+import io.gravitee.am.repository.management.api.EventRepository;
 import io.gravitee.common.event.EventManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -40,58 +42,154 @@ public class SyncManager {
     @Autowired
     private DomainRepository domainRepository;
 
+    @Autowired
+    private EventRepository eventRepository;
+
     @Autowired
     private EventManager eventManager;
 
+    @Value("${services.sync.incremental.enabled:true}")
+    private boolean incremental;
+
+    @Value("${services.sync.incremental.fullSyncInterval:300}")
+    private long fullSyncInterval;
+
+    @Value("${services.sync.incremental.overlap:10}")
+    private long overlap;
+
     private Map<String, Domain> deployedDomains = new HashMap<>();
 
+    private long lastRefreshAt = -1;
+
+    private long lastFullRefreshAt = -1;
+
+    private Set<String> processedEvents = Collections.emptySet();
+
     public void refresh() {
         logger.debug("Refreshing sync state...");
 
+        // read the clock before the repository, changes made while querying are caught by the next refresh
+        long now = System.currentTimeMillis();
+        if (!incremental || lastRefreshAt < 0 || now - lastFullRefreshAt >= fullSyncInterval * 1000) {
+            fullRefresh();
+            lastFullRefreshAt = now;
+        } else {
+            incrementalRefresh(new Date(lastRefreshAt - overlap * 1000));
+        }
+
+        // clients, identity providers, certificates... are applied in place on the deployed domains
+        if (lastRefreshAt >= 0) {
+            synchronizeEvents(lastRefreshAt - overlap * 1000, now);
+        }
+        lastRefreshAt = now;
+    }
+
+    private void fullRefresh() {
         // Registered domains
         Set<Domain> domains = domainRepository.findAll().blockingGet();
 
         // Look for deleted domains
-        if (deployedDomains.size() > domains.size()) {
-            Set<String> domainIds = domains.stream().map(domain -> domain.getId()).collect(Collectors.toSet());
-            Set<String> deployedDomainIds = new HashSet<>(deployedDomains.keySet());
-            deployedDomainIds.forEach(domainId -> {
-                if (!domainIds.contains(domainId)) {
-                    Domain deployedDomain = deployedDomains.get(domainId);
-                    if (deployedDomain != null) {
-                        deployedDomains.remove(domainId);
-                        eventManager.publishEvent(DomainEvent.UNDEPLOY, deployedDomain);
-                    }
-                }
-            });
+        Set<String> domainIds = domains.stream().map(domain -> domain.getId()).collect(Collectors.toSet());
+        Set<String> deployedDomainIds = new HashSet<>(deployedDomains.keySet());
+        deployedDomainIds.forEach(domainId -> {
+            if (!domainIds.contains(domainId)) {
+                undeploy(domainId);
+            }
+        });
+
+        domains.forEach(this::sync);
+    }
+
+    private void incrementalRefresh(Date since) {
+        Set<Domain> domains = domainRepository.findUpdatedSince(since).blockingGet();
+        Set<String> deletedDomainIds = domainRepository.findDeletedSince(since).blockingGet();
+        logger.debug("{} domain(s) updated and {} domain(s) deleted since {}", domains.size(), deletedDomainIds.size(), since);
+
+        // a domain re-created with the same identifier wins over its deletion
+        Set<String> domainIds = domains.stream().map(domain -> domain.getId()).collect(Collectors.toSet());
+        deletedDomainIds.stream()
+                .filter(domainId -> !domainIds.contains(domainId))
+                .forEach(this::undeploy);
+
+        domains.forEach(this::sync);
+    }
+
+    private void synchronizeEvents(long from, long to) {
+        List<Event> events = eventRepository.findByTimeFrame(from, to).blockingGet();
+        logger.debug("{} event(s) found between {} and {}", events.size(), from, to);
+
+        // skip the events already applied during the previous overlapping window
+        // and only keep the latest change of each component
+        Map<String, Event> latestEvents = new LinkedHashMap<>();
+        events.stream()
+                .filter(event -> !processedEvents.contains(event.getId()))
+                .forEach(event -> {
+                    String key = event.getType() + "-" + event.getPayload().getId();
+                    latestEvents.remove(key);
+                    latestEvents.put(key, event);
+                });
+        processedEvents = events.stream().map(Event::getId).collect(Collectors.toSet());
+
+        latestEvents.values().stream()
+                .filter(event -> deployedDomains.containsKey(event.getPayload().getDomain()))
+                .forEach(this::publish);
+    }
+
+    private void publish(Event event) {
+        Payload payload = event.getPayload();
+        String eventType = payload.getAction() == Action.CREATE ? "DEPLOY" : payload.getAction() == Action.DELETE ? "UNDEPLOY" : "UPDATE";
+        logger.debug("Publish {} {} event for {}", event.getType(), eventType, payload);
+
+        switch (event.getType()) {
+            case CLIENT:
+                eventManager.publishEvent(ClientEvent.valueOf(eventType), payload);
+                break;
+            case IDENTITY_PROVIDER:
+                eventManager.publishEvent(IdentityProviderEvent.valueOf(eventType), payload);
+                break;
+            case CERTIFICATE:
+                eventManager.publishEvent(CertificateEvent.valueOf(eventType), payload);
+                break;
+            case EXTENSION_GRANT:
+                eventManager.publishEvent(ExtensionGrantEvent.valueOf(eventType), payload);
+                break;
+            case ROLE:
+                eventManager.publishEvent(RoleEvent.valueOf(eventType), payload);
+                break;
+            case SCOPE:
+                eventManager.publishEvent(ScopeEvent.valueOf(eventType), payload);
+                break;
         }
+    }
+
+    private void sync(Domain domain) {
+        Domain deployedDomain = deployedDomains.get(domain.getId());
 
         // Look for disabled domains
-        domains.stream()
-                .filter(domain -> !domain.isEnabled())
-                .forEach(domain -> {
-                    Domain deployedDomain = deployedDomains.get(domain.getId());
-                    if (deployedDomain != null) {
-                        deployedDomains.remove(domain.getId());
-                        eventManager.publishEvent(DomainEvent.UNDEPLOY, deployedDomain);
-                    }
-                });
+        if (!domain.isEnabled()) {
+            if (deployedDomain != null) {
+                undeploy(domain.getId());
+            }
+            return;
+        }
 
         // Deploy domains
-        domains.stream()
-                .filter(Domain::isEnabled)
-                .forEach(domain -> {
-                    Domain deployedDomain = deployedDomains.get(domain.getId());
-                    if (deployedDomain == null) {
-                        eventManager.publishEvent(DomainEvent.DEPLOY, domain);
-                        deployedDomains.put(domain.getId(), domain);
-                    } else {
-                        // Check last update date
-                        if (domain.getUpdatedAt().after(deployedDomain.getUpdatedAt())) {
-                            eventManager.publishEvent(DomainEvent.UPDATE, domain);
-                            deployedDomains.put(domain.getId(), domain);
-                        }
-                    }
-                });
+        if (deployedDomain == null) {
+            eventManager.publishEvent(DomainEvent.DEPLOY, domain);
+            deployedDomains.put(domain.getId(), domain);
+        } else {
+            // Check last update date
+            if (domain.getUpdatedAt().after(deployedDomain.getUpdatedAt())) {
+                eventManager.publishEvent(DomainEvent.UPDATE, domain);
+                deployedDomains.put(domain.getId(), domain);
+            }
+        }
+    }
+
+    private void undeploy(String domainId) {
+        Domain deployedDomain = deployedDomains.remove(domainId);
+        if (deployedDomain != null) {
+            eventManager.publishEvent(DomainEvent.UNDEPLOY, deployedDomain);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.gateway.services.sync;
+
+import io.gravitee.am.gateway.core.event.ClientEvent;
+import io.gravitee.am.gateway.core.event.DomainEvent;
+import io.gravitee.am.gateway.core.event.IdentityProviderEvent;
+import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.common.event.Type;
+import io.gravitee.am.repository.management.api.DomainRepository;
+import io.gravitee.am.repository.management.api.EventRepository;
+import io.gravitee.common.event.EventManager;
+import io.reactivex.Single;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SyncManagerTest {
+
+    private static final String DOMAIN = "my-domain";
+
+    @InjectMocks
+    private SyncManager syncManager = new SyncManager();
+
+    @Mock
+    private DomainRepository domainRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventManager eventManager;
+
+    @Before
+    public void setUp() {
+        Domain domain = new Domain();
+        domain.setId(DOMAIN);
+        domain.setEnabled(true);
+        domain.setUpdatedAt(new Date());
+        when(domainRepository.findAll()).thenReturn(Single.just(Collections.singleton(domain)));
+    }
+
+    @Test
+    public void shouldDeployDomain_noEventOnFirstRefresh() {
+        syncManager.refresh();
+
+        verify(eventManager, times(1)).publishEvent(eq(DomainEvent.DEPLOY), any(Domain.class));
+        verify(eventRepository, never()).findByTimeFrame(anyLong(), anyLong());
+    }
+
+    @Test
+    public void shouldPublishComponentEvents() {
+        Event clientEvent = event("event-1", Type.CLIENT, "my-client", DOMAIN, Action.UPDATE);
+        Event identityProviderEvent = event("event-2", Type.IDENTITY_PROVIDER, "my-idp", DOMAIN, Action.CREATE);
+        when(eventRepository.findByTimeFrame(anyLong(), anyLong())).thenReturn(Single.just(Arrays.asList(clientEvent, identityProviderEvent)));
+
+        syncManager.refresh();
+        syncManager.refresh();
+
+        verify(eventManager, times(1)).publishEvent(ClientEvent.UPDATE, clientEvent.getPayload());
+        verify(eventManager, times(1)).publishEvent(IdentityProviderEvent.DEPLOY, identityProviderEvent.getPayload());
+    }
+
+    @Test
+    public void shouldPublishLatestEventOnly() {
+        Event createEvent = event("event-1", Type.CLIENT, "my-client", DOMAIN, Action.CREATE);
+        Event deleteEvent = event("event-2", Type.CLIENT, "my-client", DOMAIN, Action.DELETE);
+        when(eventRepository.findByTimeFrame(anyLong(), anyLong())).thenReturn(Single.just(Arrays.asList(createEvent, deleteEvent)));
+
+        syncManager.refresh();
+        syncManager.refresh();
+
+        verify(eventManager, never()).publishEvent(eq(ClientEvent.DEPLOY), any());
+        verify(eventManager, times(1)).publishEvent(ClientEvent.UNDEPLOY, deleteEvent.getPayload());
+    }
+
+    @Test
+    public void shouldNotPublishProcessedEventsAgain() {
+        Event clientEvent = event("event-1", Type.CLIENT, "my-client", DOMAIN, Action.UPDATE);
+        // the synchronization windows overlap, the same event is read twice
+        when(eventRepository.findByTimeFrame(anyLong(), anyLong())).thenReturn(Single.just(Collections.singletonList(clientEvent)));
+
+        syncManager.refresh();
+        syncManager.refresh();
+        syncManager.refresh();
+
+        verify(eventRepository, times(2)).findByTimeFrame(anyLong(), anyLong());
+        verify(eventManager, times(1)).publishEvent(ClientEvent.UPDATE, clientEvent.getPayload());
+    }
+
+    @Test
+    public void shouldNotPublishEventsOfUndeployedDomains() {
+        Event clientEvent = event("event-1", Type.CLIENT, "my-client", "other-domain", Action.UPDATE);
+        when(eventRepository.findByTimeFrame(anyLong(), anyLong())).thenReturn(Single.just(Collections.singletonList(clientEvent)));
+
+        syncManager.refresh();
+        syncManager.refresh();
+
+        verify(eventManager, never()).publishEvent(eq(ClientEvent.UPDATE), any());
+    }
+
+    private Event event(String id, Type type, String componentId, String domain, Action action) {
+        Event event = new Event(type, new Payload(componentId, domain, action));
+        event.setId(id);
+        return event;
+    }
+}
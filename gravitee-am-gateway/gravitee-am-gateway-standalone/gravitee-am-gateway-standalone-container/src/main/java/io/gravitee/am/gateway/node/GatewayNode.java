@@ -16,6 +16,7 @@
 package io.gravitee.am.gateway.node;
 
 import io.gravitee.am.gateway.reactor.Reactor;
+import io.gravitee.am.gateway.reactor.node.NodeEndpoints;
 import io.gravitee.am.gateway.services.core.ServiceManager;
 import io.gravitee.am.gateway.vertx.VertxEmbeddedContainer;
 import io.gravitee.common.component.LifecycleComponent;
@@ -41,6 +42,7 @@ public class GatewayNode extends AbstractNode {
         LIFECYCLE_COMPONENTS.add(Reactor.class);
         LIFECYCLE_COMPONENTS.add(ServiceManager.class);
         LIFECYCLE_COMPONENTS.add(VertxEmbeddedContainer.class);
+        LIFECYCLE_COMPONENTS.add(NodeEndpoints.class);
     }
 
     @Override
@@ -28,6 +28,8 @@ public class InlineIdentityProviderConfiguration implements IdentityProviderConf
 
     private List<User> users;
 
+    private String passwordEncoder;
+
     public List<User> getUsers() {
         return users;
     }
@@ -35,4 +37,12 @@ public class InlineIdentityProviderConfiguration implements IdentityProviderConf
     public void setUsers(List<User> users) {
         this.users = users;
     }
+
+    public String getPasswordEncoder() {
+        return passwordEncoder;
+    }
+
+    public void setPasswordEncoder(String passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
+    }
 }
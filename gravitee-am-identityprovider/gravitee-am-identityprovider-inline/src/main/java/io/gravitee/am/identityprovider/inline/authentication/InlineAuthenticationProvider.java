@@ -67,13 +67,16 @@ public class InlineAuthenticationProvider implements AuthenticationProvider, Ini
     @Override
     public Maybe<User> loadUserByUsername(Authentication authentication) {
         return userDetailsService.loadUserByUsername((String) authentication.getPrincipal())
-                .map(user -> {
+                .flatMap(user -> {
                     String presentedPassword = authentication.getCredentials().toString();
-                    if (!passwordEncoder.matches(presentedPassword, user.getPassword())) {
-                        LOGGER.debug("Authentication failed: password does not match stored value");
-                        throw new BadCredentialsException("Bad credentials");
-                    }
-                    return createUser(user);
+                    return passwordEncoder.matchesAsync(presentedPassword, user.getPassword())
+                            .flatMapMaybe(matches -> {
+                                if (!matches) {
+                                    LOGGER.debug("Authentication failed: password does not match stored value");
+                                    return Maybe.error(new BadCredentialsException("Bad credentials"));
+                                }
+                                return Maybe.just(createUser(user));
+                            });
                 });
     }
 
@@ -15,9 +15,13 @@
  */
 package io.gravitee.am.identityprovider.inline.authentication;
 
+import io.gravitee.am.identityprovider.inline.InlineIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.inline.authentication.provisioning.InlineInMemoryUserDetailsManager;
 import io.gravitee.am.service.authentication.crypto.password.NoOpPasswordEncoder;
 import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderWorker;
+import io.gravitee.am.service.authentication.crypto.password.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -28,9 +32,17 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class InlineAuthenticationProviderConfiguration {
 
+    @Autowired
+    private InlineIdentityProviderConfiguration configuration;
+
+    @Autowired
+    private PasswordEncoderWorker passwordEncoderWorker;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return NoOpPasswordEncoder.getInstance();
+        // BCrypt hashes are checked on the password encoder worker, out of the event loop
+        return "BCrypt".equalsIgnoreCase(configuration.getPasswordEncoder()) ?
+                new BCryptPasswordEncoder(passwordEncoderWorker) : NoOpPasswordEncoder.getInstance();
     }
 
     @Bean
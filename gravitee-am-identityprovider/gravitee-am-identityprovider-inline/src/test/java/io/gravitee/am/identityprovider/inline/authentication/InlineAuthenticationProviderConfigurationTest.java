@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.inline.authentication;
+
+import io.gravitee.am.identityprovider.inline.InlineIdentityProviderConfiguration;
+import io.gravitee.am.service.authentication.crypto.password.NoOpPasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderWorker;
+import io.gravitee.am.service.authentication.crypto.password.bcrypt.BCryptPasswordEncoder;
+import io.reactivex.observers.TestObserver;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class InlineAuthenticationProviderConfigurationTest {
+
+    private InlineAuthenticationProviderConfiguration providerConfiguration;
+    private InlineIdentityProviderConfiguration configuration;
+    private PasswordEncoderWorker passwordEncoderWorker;
+
+    @Before
+    public void setUp() {
+        configuration = new InlineIdentityProviderConfiguration();
+        passwordEncoderWorker = new PasswordEncoderWorker(1, -1);
+        providerConfiguration = new InlineAuthenticationProviderConfiguration();
+        Whitebox.setInternalState(providerConfiguration, "configuration", configuration);
+        Whitebox.setInternalState(providerConfiguration, "passwordEncoderWorker", passwordEncoderWorker);
+    }
+
+    @After
+    public void tearDown() {
+        passwordEncoderWorker.destroy();
+    }
+
+    @Test
+    public void shouldUseNoOpPasswordEncoder_byDefault() {
+        Assert.assertSame(NoOpPasswordEncoder.getInstance(), providerConfiguration.passwordEncoder());
+    }
+
+    @Test
+    public void shouldUseBCryptPasswordEncoder() {
+        configuration.setPasswordEncoder("BCrypt");
+
+        PasswordEncoder passwordEncoder = providerConfiguration.passwordEncoder();
+
+        Assert.assertTrue(passwordEncoder instanceof BCryptPasswordEncoder);
+        Assert.assertSame(passwordEncoderWorker, Whitebox.getInternalState(passwordEncoder, "worker"));
+        TestObserver<Boolean> testObserver = passwordEncoder.matchesAsync("password", new BCryptPasswordEncoder(4).encode("password")).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertValue(true);
+    }
+}
@@ -22,6 +22,7 @@ import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
 import io.gravitee.am.service.exception.authentication.BadCredentialsException;
 import io.gravitee.am.service.exception.authentication.UsernameNotFoundException;
 import io.reactivex.Maybe;
+import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -59,7 +60,7 @@ public class InlineAuthenticationProviderTest {
         when(user.getUsername()).thenReturn("username");
 
         when(userDetailsService.loadUserByUsername("username")).thenReturn(Maybe.just(user));
-        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.matchesAsync(anyString(), anyString())).thenReturn(Single.just(true));
 
         TestObserver<User> testObserver = inlineAuthenticationProvider.loadUserByUsername(authentication).test();
         testObserver.awaitTerminalEvent();
@@ -79,7 +80,7 @@ public class InlineAuthenticationProviderTest {
         when(user.getUsername()).thenReturn("username");
 
         when(userDetailsService.loadUserByUsername("username")).thenReturn(Maybe.just(user));
-        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+        when(passwordEncoder.matchesAsync(anyString(), anyString())).thenReturn(Single.just(false));
 
         TestObserver<User> testObserver = inlineAuthenticationProvider.loadUserByUsername(authentication).test();
         testObserver.assertError(BadCredentialsException.class);
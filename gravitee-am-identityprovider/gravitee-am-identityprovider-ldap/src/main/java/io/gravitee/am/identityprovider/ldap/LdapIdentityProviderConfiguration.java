@@ -45,6 +45,34 @@ public class LdapIdentityProviderConfiguration implements IdentityProviderConfig
 
     private Long responseTimeout = 5000l;
 
+    private Boolean connectionPoolEnabled = true;
+
+    private Integer minPoolSize = 3;
+
+    private Integer maxPoolSize = 10;
+
+    private Boolean validateOnCheckOut = false;
+
+    private Boolean validatePeriodically = true;
+
+    private Long validatePeriod = 300000l;
+
+    private Long prunePeriod = 300000l;
+
+    private Long idleTime = 600000l;
+
+    private Boolean groupCacheEnabled = false;
+
+    private Integer groupCacheMaxSize = 1000;
+
+    private Long groupCacheTtl = 60000l;
+
+    private Integer workerPoolSize = 10;
+
+    private Integer workerQueueCapacity = 100;
+
+    private Long workerTimeout = 10000l;
+
     public String getContextSourceUrl() {
         return contextSourceUrl;
     }
@@ -132,4 +160,116 @@ public class LdapIdentityProviderConfiguration implements IdentityProviderConfig
     public void setResponseTimeout(Long responseTimeout) {
         this.responseTimeout = responseTimeout;
     }
+
+    public Boolean getConnectionPoolEnabled() {
+        return connectionPoolEnabled;
+    }
+
+    public void setConnectionPoolEnabled(Boolean connectionPoolEnabled) {
+        this.connectionPoolEnabled = connectionPoolEnabled;
+    }
+
+    public Integer getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public void setMinPoolSize(Integer minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    public Integer getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(Integer maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public Boolean getValidateOnCheckOut() {
+        return validateOnCheckOut;
+    }
+
+    public void setValidateOnCheckOut(Boolean validateOnCheckOut) {
+        this.validateOnCheckOut = validateOnCheckOut;
+    }
+
+    public Boolean getValidatePeriodically() {
+        return validatePeriodically;
+    }
+
+    public void setValidatePeriodically(Boolean validatePeriodically) {
+        this.validatePeriodically = validatePeriodically;
+    }
+
+    public Long getValidatePeriod() {
+        return validatePeriod;
+    }
+
+    public void setValidatePeriod(Long validatePeriod) {
+        this.validatePeriod = validatePeriod;
+    }
+
+    public Long getPrunePeriod() {
+        return prunePeriod;
+    }
+
+    public void setPrunePeriod(Long prunePeriod) {
+        this.prunePeriod = prunePeriod;
+    }
+
+    public Long getIdleTime() {
+        return idleTime;
+    }
+
+    public void setIdleTime(Long idleTime) {
+        this.idleTime = idleTime;
+    }
+
+    public Boolean getGroupCacheEnabled() {
+        return groupCacheEnabled;
+    }
+
+    public void setGroupCacheEnabled(Boolean groupCacheEnabled) {
+        this.groupCacheEnabled = groupCacheEnabled;
+    }
+
+    public Integer getGroupCacheMaxSize() {
+        return groupCacheMaxSize;
+    }
+
+    public void setGroupCacheMaxSize(Integer groupCacheMaxSize) {
+        this.groupCacheMaxSize = groupCacheMaxSize;
+    }
+
+    public Long getGroupCacheTtl() {
+        return groupCacheTtl;
+    }
+
+    public void setGroupCacheTtl(Long groupCacheTtl) {
+        this.groupCacheTtl = groupCacheTtl;
+    }
+
+    public Integer getWorkerPoolSize() {
+        return workerPoolSize;
+    }
+
+    public void setWorkerPoolSize(Integer workerPoolSize) {
+        this.workerPoolSize = workerPoolSize;
+    }
+
+    public Integer getWorkerQueueCapacity() {
+        return workerQueueCapacity;
+    }
+
+    public void setWorkerQueueCapacity(Integer workerQueueCapacity) {
+        this.workerQueueCapacity = workerQueueCapacity;
+    }
+
+    public Long getWorkerTimeout() {
+        return workerTimeout;
+    }
+
+    public void setWorkerTimeout(Long workerTimeout) {
+        this.workerTimeout = workerTimeout;
+    }
 }
@@ -17,8 +17,7 @@ package io.gravitee.am.identityprovider.ldap;
 
 import io.gravitee.am.identityprovider.api.IdentityProviderRoleMapper;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -28,6 +27,12 @@ public class LdapIdentityProviderRoleMapper implements IdentityProviderRoleMappe
 
     private Map<String, String[]> roles;
 
+    /**
+     * Role mappings indexed by LDAP attribute then by attribute value, compiled once from the {@link #roles} entries
+     * which have the following syntax : attribute=value
+     */
+    private Map<String, Map<String, Set<String>>> rules = Collections.emptyMap();
+
     @Override
     public Map<String, String[]> getRoles() {
         return roles;
@@ -36,5 +41,33 @@ public class LdapIdentityProviderRoleMapper implements IdentityProviderRoleMappe
     @Override
     public void setRoles(Map<String, String[]> roles) {
         this.roles = roles;
+        this.rules = compile(roles);
+    }
+
+    public Map<String, Map<String, Set<String>>> getRules() {
+        return rules;
+    }
+
+    private static Map<String, Map<String, Set<String>>> compile(Map<String, String[]> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Map<String, Set<String>>> rules = new HashMap<>();
+        roles.forEach((role, users) -> {
+            if (users == null) {
+                return;
+            }
+            for (String user : users) {
+                String[] attributes = user.split("=", 2);
+                if (attributes.length != 2) {
+                    continue;
+                }
+                rules.computeIfAbsent(attributes[0], k -> new HashMap<>())
+                        .computeIfAbsent(attributes[1], k -> new HashSet<>())
+                        .add(role);
+            }
+        });
+        return rules;
     }
 }
@@ -22,6 +22,8 @@ import io.gravitee.am.identityprovider.api.User;
 import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderConfiguration;
 import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderMapper;
 import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderRoleMapper;
+import io.gravitee.am.identityprovider.ldap.authentication.cache.LdapGroupCache;
+import io.gravitee.am.identityprovider.ldap.authentication.executor.LdapWorkerExecutor;
 import io.gravitee.am.identityprovider.ldap.authentication.spring.LdapAuthenticationProviderConfiguration;
 import io.gravitee.am.service.exception.authentication.BadCredentialsException;
 import io.gravitee.am.service.exception.authentication.InternalAuthenticationServiceException;
@@ -31,7 +33,6 @@ import org.ldaptive.*;
 import org.ldaptive.auth.AuthenticationRequest;
 import org.ldaptive.auth.AuthenticationResponse;
 import org.ldaptive.auth.Authenticator;
-import org.ldaptive.auth.SearchDnResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
@@ -79,6 +80,12 @@ public class LdapAuthenticationProvider implements AuthenticationProvider, Initi
     @Qualifier("userSearchExecutor")
     private SearchExecutor userSearchExecutor;
 
+    @Autowired
+    private LdapWorkerExecutor workerExecutor;
+
+    @Autowired
+    private LdapGroupCache groupCache;
+
     @Override
     public void afterPropertiesSet() {
         String searchFilter = configuration.getUserSearchFilter();
@@ -103,28 +110,12 @@ public class LdapAuthenticationProvider implements AuthenticationProvider, Initi
                 String username = (String) authentication.getPrincipal();
                 String password = (String) authentication.getCredentials();
                 // authenticate user
-                // unable *={0} authentication filter (ldaptive use *={user})
-                ((SearchDnResolver) authenticator.getDnResolver()).setUserFilterParameters(Collections.singleton(username).toArray());
                 AuthenticationResponse response = authenticator.authenticate(
                         new AuthenticationRequest(username, new Credential(password), ReturnAttributes.ALL_USER.value()));
                 if (response.getResult()) { // authentication succeeded
                     LdapEntry userEntry = response.getLdapEntry();
                     // fetch user groups
-                    try {
-                        groupSearchExecutor.getSearchFilter().setParameter(0, userEntry.getDn());
-                        SearchResult searchResult = groupSearchExecutor.search(connectionFactory).getResult();
-                        Collection<LdapEntry> groupEntries = searchResult.getEntries();
-                        String[] groups = groupEntries.stream()
-                                .map(groupEntry -> groupEntry.getAttributes()
-                                        .stream()
-                                        .map(ldapAttribute -> ldapAttribute.getStringValue())
-                                        .collect(Collectors.toList()))
-                                .flatMap(List::stream)
-                                .toArray(size -> new String[size]);
-                        userEntry.addAttribute(new LdapAttribute(MEMBEROF_ATTRIBUTE, groups));
-                    } catch (Exception e) {
-                        LOGGER.warn("No group found for user {}", userEntry.getDn(), e);
-                    }
+                    fetchGroups(userEntry);
                     // return user
                     emitter.onSuccess(createUser(userEntry));
                 } else { // authentication failed
@@ -137,7 +128,8 @@ public class LdapAuthenticationProvider implements AuthenticationProvider, Initi
             }
         });
 
-        return userSource;
+        // ldaptive calls are blocking, keep them out of the event loop
+        return workerExecutor.execute(userSource);
     }
 
     @Override
@@ -145,26 +137,11 @@ public class LdapAuthenticationProvider implements AuthenticationProvider, Initi
         Maybe<User> userSource = Maybe.create(emitter -> {
             try {
                 // find user
-                userSearchExecutor.getSearchFilter().setParameter(0, username);
-                SearchResult userSearchResult = userSearchExecutor.search(connectionFactory).getResult();
+                SearchResult userSearchResult = userSearchExecutor.search(connectionFactory, searchFilter(userSearchExecutor, username)).getResult();
                 LdapEntry userEntry = userSearchResult.getEntry();
                 if (userEntry != null) {
                     // fetch user groups
-                    try {
-                        groupSearchExecutor.getSearchFilter().setParameter(0, userEntry.getDn());
-                        SearchResult searchResult = groupSearchExecutor.search(connectionFactory).getResult();
-                        Collection<LdapEntry> groupEntries = searchResult.getEntries();
-                        String[] groups = groupEntries.stream()
-                                .map(groupEntry -> groupEntry.getAttributes()
-                                        .stream()
-                                        .map(ldapAttribute -> ldapAttribute.getStringValue())
-                                        .collect(Collectors.toList()))
-                                .flatMap(List::stream)
-                                .toArray(size -> new String[size]);
-                        userEntry.addAttribute(new LdapAttribute(MEMBEROF_ATTRIBUTE, groups));
-                    } catch (Exception e) {
-                        LOGGER.warn("No group found for user {}", userEntry.getDn(), e);
-                    }
+                    fetchGroups(userEntry);
                     // return user
                     emitter.onSuccess(createUser(userEntry));
                 } else { // failed to find user
@@ -176,7 +153,40 @@ public class LdapAuthenticationProvider implements AuthenticationProvider, Initi
             }
         });
 
-        return userSource;
+        // ldaptive calls are blocking, keep them out of the event loop
+        return workerExecutor.execute(userSource);
+    }
+
+    private void fetchGroups(LdapEntry userEntry) {
+        String[] cachedGroups = groupCache.get(userEntry.getDn());
+        if (cachedGroups != null) {
+            userEntry.addAttribute(new LdapAttribute(MEMBEROF_ATTRIBUTE, cachedGroups));
+            return;
+        }
+
+        try {
+            SearchResult searchResult = groupSearchExecutor.search(connectionFactory, searchFilter(groupSearchExecutor, userEntry.getDn())).getResult();
+            Collection<LdapEntry> groupEntries = searchResult.getEntries();
+            String[] groups = groupEntries.stream()
+                    .map(groupEntry -> groupEntry.getAttributes()
+                            .stream()
+                            .map(ldapAttribute -> ldapAttribute.getStringValue())
+                            .collect(Collectors.toList()))
+                    .flatMap(List::stream)
+                    .toArray(size -> new String[size]);
+            groupCache.put(userEntry.getDn(), groups);
+            userEntry.addAttribute(new LdapAttribute(MEMBEROF_ATTRIBUTE, groups));
+        } catch (Exception e) {
+            LOGGER.warn("No group found for user {}", userEntry.getDn(), e);
+        }
+    }
+
+    /**
+     * Search executors are shared by concurrent authentications, each search gets its own filter instance
+     * instead of setting parameters on the executor one.
+     */
+    private SearchFilter searchFilter(SearchExecutor searchExecutor, Object parameter) {
+        return new SearchFilter(searchExecutor.getSearchFilter().getFilter(), new Object[] { parameter });
     }
 
     private User createUser(LdapEntry ldapEntry) {
@@ -223,27 +233,27 @@ public class LdapAuthenticationProvider implements AuthenticationProvider, Initi
 
     private List<String> getUserRoles(LdapEntry ldapEntry) {
         Set<String> roles = new HashSet();
-        if (roleMapper != null && roleMapper.getRoles() != null) {
-            roleMapper.getRoles().forEach((role, users) -> {
-                Arrays.asList(users).forEach(u -> {
-                    // user/group have the following syntax userAttribute=userValue
-                    String[] attributes = u.split("=");
-                    String userAttribute = attributes[0];
-                    String userValue = attributes[1];
-
-                    // group
-                    if (MEMBEROF_ATTRIBUTE.equals(userAttribute) && ldapEntry.getAttribute(MEMBEROF_ATTRIBUTE) != null) {
-                        if (ldapEntry.getAttribute(MEMBEROF_ATTRIBUTE).getStringValues().contains(userValue)) {
-                            roles.add(role);
-                        }
-                    // user
-                    } else {
-                        if (ldapEntry.getAttribute(userAttribute) != null &&
-                                ldapEntry.getAttribute(userAttribute).getStringValue().equals(userValue)) {
-                            roles.add(role);
+        if (roleMapper != null) {
+            roleMapper.getRules().forEach((userAttribute, valueRoles) -> {
+                LdapAttribute ldapAttribute = ldapEntry.getAttribute(userAttribute);
+                if (ldapAttribute == null) {
+                    return;
+                }
+                // group
+                if (MEMBEROF_ATTRIBUTE.equals(userAttribute)) {
+                    ldapAttribute.getStringValues().forEach(group -> {
+                        Set<String> groupRoles = valueRoles.get(group);
+                        if (groupRoles != null) {
+                            roles.addAll(groupRoles);
                         }
+                    });
+                // user
+                } else {
+                    Set<String> userRoles = valueRoles.get(ldapAttribute.getStringValue());
+                    if (userRoles != null) {
+                        roles.addAll(userRoles);
                     }
-                });
+                }
             });
         }
         return new ArrayList<>(roles);
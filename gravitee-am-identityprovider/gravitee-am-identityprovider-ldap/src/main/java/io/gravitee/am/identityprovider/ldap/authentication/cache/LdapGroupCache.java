@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.ldap.authentication.cache;
+
+import io.gravitee.am.service.cache.ExpiringCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Map;
+
+/**
+ * Keeps the groups of a user, by user DN, to avoid running the same group search on every login or token refresh.
+ *
+ * @author GraviteeSource Team
+ */
+public class LdapGroupCache implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LdapGroupCache.class);
+
+    private final boolean enabled;
+    private final long ttl;
+
+    private final ExpiringCache<String, String[]> entries;
+
+    public LdapGroupCache(boolean enabled, int maxSize, long ttl) {
+        this.enabled = enabled && maxSize > 0 && ttl > 0;
+        this.ttl = ttl;
+        this.entries = new ExpiringCache<>(maxSize);
+    }
+
+    public String[] get(String userDn) {
+        if (!enabled) {
+            return null;
+        }
+
+        String[] groups = entries.get(userDn);
+        return groups != null ? groups.clone() : null;
+    }
+
+    public void put(String userDn, String[] groups) {
+        if (!enabled) {
+            return;
+        }
+        entries.put(userDn, groups.clone(), System.currentTimeMillis() + ttl);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHitCount() {
+        return entries.getHitCount();
+    }
+
+    public long getMissCount() {
+        return entries.getMissCount();
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the size and the hit, miss and eviction counts of the cache
+     */
+    public Map<String, Object> metrics() {
+        return entries.metrics();
+    }
+
+    @Override
+    public void destroy() {
+        if (enabled) {
+            LOGGER.info("LDAP group cache: {} hit(s), {} miss(es)", getHitCount(), getMissCount());
+        }
+        entries.clear();
+    }
+}
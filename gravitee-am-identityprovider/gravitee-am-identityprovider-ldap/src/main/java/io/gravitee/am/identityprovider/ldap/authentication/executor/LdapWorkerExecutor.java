@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.ldap.authentication.executor;
+
+import io.gravitee.am.service.exception.authentication.InternalAuthenticationServiceException;
+import io.reactivex.Maybe;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded worker pool running the blocking LDAP operations of an identity provider,
+ * so that a slow directory never blocks the gateway event loop.
+ *
+ * @author GraviteeSource Team
+ */
+public class LdapWorkerExecutor implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LdapWorkerExecutor.class);
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+    private final ThreadPoolExecutor executor;
+    private final long timeout;
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    public LdapWorkerExecutor(int poolSize, int queueCapacity, long timeout) {
+        final int poolId = POOL_COUNTER.incrementAndGet();
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "gio.am-ldap-" + poolId + "-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Subscribe to the given (blocking) source on a worker thread.
+     * The resulting {@link Maybe} fails with an {@link InternalAuthenticationServiceException} if the pool is exhausted
+     * or if the source does not complete within the configured timeout.
+     */
+    public <T> Maybe<T> execute(Maybe<T> source) {
+        Maybe<T> workerSource = Maybe.create(emitter -> {
+            CompositeDisposable resources = new CompositeDisposable();
+            emitter.setDisposable(resources);
+            try {
+                Future<?> task = executor.submit(() -> {
+                    if (!resources.isDisposed()) {
+                        resources.add(source.subscribe(emitter::onSuccess, emitter::onError, emitter::onComplete));
+                    }
+                });
+                // the task is skipped if the subscriber goes away before a worker picks it up
+                resources.add(Disposables.fromFuture(task, false));
+            } catch (RejectedExecutionException ex) {
+                rejectedCount.increment();
+                LOGGER.warn("LDAP worker pool is exhausted (active: {}, queued: {}), rejecting operation",
+                        executor.getActiveCount(), executor.getQueue().size());
+                emitter.onError(new InternalAuthenticationServiceException("LDAP worker pool is exhausted", ex));
+            }
+        });
+
+        if (timeout <= 0) {
+            return workerSource;
+        }
+
+        return workerSource
+                .timeout(timeout, TimeUnit.MILLISECONDS)
+                .onErrorResumeNext(ex -> {
+                    if (ex instanceof TimeoutException) {
+                        timeoutCount.increment();
+                        LOGGER.warn("LDAP operation did not complete within {} ms", timeout);
+                        return Maybe.error(new InternalAuthenticationServiceException("LDAP operation timed out", ex));
+                    }
+                    return Maybe.error(ex);
+                });
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public void destroy() {
+        LOGGER.info("Stopping LDAP worker pool (rejected: {}, timed out: {})", getRejectedCount(), getTimeoutCount());
+        executor.shutdownNow();
+    }
+}
@@ -16,17 +16,23 @@
 package io.gravitee.am.identityprovider.ldap.authentication.spring;
 
 import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderConfiguration;
+import io.gravitee.am.identityprovider.ldap.authentication.cache.LdapGroupCache;
+import io.gravitee.am.identityprovider.ldap.authentication.executor.LdapWorkerExecutor;
 import org.ldaptive.*;
-import org.ldaptive.auth.Authenticator;
-import org.ldaptive.auth.BindAuthenticationHandler;
-import org.ldaptive.auth.SearchDnResolver;
+import org.ldaptive.auth.*;
 import org.ldaptive.auth.ext.PasswordPolicyAuthenticationResponseHandler;
 import org.ldaptive.control.PasswordPolicyControl;
+import org.ldaptive.pool.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -34,24 +40,31 @@ import java.time.Duration;
  * @author GraviteeSource Team
  */
 @Configuration
-public class LdapAuthenticationProviderConfiguration {
+public class LdapAuthenticationProviderConfiguration implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LdapAuthenticationProviderConfiguration.class);
 
     private static final String LDAP_SEPARATOR = ",";
 
     @Autowired
     private LdapIdentityProviderConfiguration configuration;
 
+    private final List<LazyPooledConnectionFactory> connectionFactories = new ArrayList<>();
+
+    /**
+     * Connections bound with the context source credentials, used to search for users and groups.
+     */
     @Bean
     public ConnectionFactory connectionFactory() {
+        if (isConnectionPoolEnabled()) {
+            return pooledConnectionFactory("search", connectionConfig());
+        }
         return new DefaultConnectionFactory(connectionConfig());
     }
 
     @Bean
     public ConnectionConfig connectionConfig() {
-        ConnectionConfig connectionConfig = new ConnectionConfig();
-        connectionConfig.setConnectTimeout(Duration.ofMillis(configuration.getConnectTimeout()));
-        connectionConfig.setResponseTimeout(Duration.ofMillis(configuration.getResponseTimeout()));
-        connectionConfig.setLdapUrl(configuration.getContextSourceUrl());
+        ConnectionConfig connectionConfig = newConnectionConfig();
         BindConnectionInitializer connectionInitializer =
                 new BindConnectionInitializer(configuration.getContextSourceUsername(), new Credential(configuration.getContextSourcePassword()));
         connectionConfig.setConnectionInitializer(connectionInitializer);
@@ -86,15 +99,122 @@ public class LdapAuthenticationProviderConfiguration {
 
     @Bean
     public Authenticator authenticator() {
-        SearchDnResolver dnResolver = new SearchDnResolver(connectionFactory());
+        AbstractSearchDnResolver dnResolver;
+        AbstractBindAuthenticationHandler authHandler;
+        if (isConnectionPoolEnabled()) {
+            dnResolver = new PooledSearchDnResolver((PooledConnectionFactory) connectionFactory());
+            // user binds change the identity of a connection, they must not share the search pool
+            authHandler = new PooledBindAuthenticationHandler(pooledConnectionFactory("bind", newConnectionConfig()));
+        } else {
+            dnResolver = new SearchDnResolver(connectionFactory());
+            authHandler = new BindAuthenticationHandler(connectionFactory());
+        }
         dnResolver.setBaseDn(configuration.getContextSourceBase());
-        dnResolver.setUserFilter(configuration.getUserSearchFilter());
+        // ldaptive resolves the user identifier with the {user} parameter, keep the filter free of per-request state
+        String userSearchFilter = configuration.getUserSearchFilter();
+        dnResolver.setUserFilter(userSearchFilter == null ? null : userSearchFilter.replace("{0}", "{user}"));
         dnResolver.setSubtreeSearch(true);
-        BindAuthenticationHandler authHandler = new BindAuthenticationHandler(connectionFactory());
         authHandler.setAuthenticationControls(new PasswordPolicyControl());
 
         Authenticator auth = new Authenticator(dnResolver, authHandler);
         auth.setAuthenticationResponseHandlers(new PasswordPolicyAuthenticationResponseHandler());
         return auth;
     }
+
+    @Bean
+    public LdapWorkerExecutor workerExecutor() {
+        return new LdapWorkerExecutor(configuration.getWorkerPoolSize(), configuration.getWorkerQueueCapacity(), configuration.getWorkerTimeout());
+    }
+
+    @Bean
+    public LdapGroupCache groupCache() {
+        return new LdapGroupCache(
+                Boolean.TRUE.equals(configuration.getGroupCacheEnabled()), configuration.getGroupCacheMaxSize(), configuration.getGroupCacheTtl());
+    }
+
+    @Override
+    public void destroy() {
+        connectionFactories.forEach(LazyPooledConnectionFactory::close);
+        connectionFactories.clear();
+    }
+
+    private boolean isConnectionPoolEnabled() {
+        return configuration.getConnectionPoolEnabled() == null || configuration.getConnectionPoolEnabled();
+    }
+
+    private ConnectionConfig newConnectionConfig() {
+        ConnectionConfig connectionConfig = new ConnectionConfig();
+        connectionConfig.setConnectTimeout(Duration.ofMillis(configuration.getConnectTimeout()));
+        connectionConfig.setResponseTimeout(Duration.ofMillis(configuration.getResponseTimeout()));
+        connectionConfig.setLdapUrl(configuration.getContextSourceUrl());
+        return connectionConfig;
+    }
+
+    private PooledConnectionFactory pooledConnectionFactory(String name, ConnectionConfig connectionConfig) {
+        PoolConfig poolConfig = new PoolConfig();
+        poolConfig.setMinPoolSize(configuration.getMinPoolSize());
+        poolConfig.setMaxPoolSize(configuration.getMaxPoolSize());
+        poolConfig.setValidateOnCheckOut(configuration.getValidateOnCheckOut());
+        poolConfig.setValidatePeriodically(configuration.getValidatePeriodically());
+        poolConfig.setValidatePeriod(Duration.ofMillis(configuration.getValidatePeriod()));
+
+        BlockingConnectionPool connectionPool = new BlockingConnectionPool(poolConfig, new DefaultConnectionFactory(connectionConfig));
+        connectionPool.setName("gio.am-ldap-" + name);
+        connectionPool.setBlockWaitTime(Duration.ofMillis(configuration.getConnectTimeout()));
+        connectionPool.setValidator(new SearchValidator());
+        connectionPool.setPruneStrategy(new IdlePruneStrategy(
+                Duration.ofMillis(configuration.getPrunePeriod()), Duration.ofMillis(configuration.getIdleTime())));
+        // do not prevent the identity provider from starting if the directory is not reachable yet
+        connectionPool.setFailFastInitialize(false);
+
+        LazyPooledConnectionFactory connectionFactory = new LazyPooledConnectionFactory(connectionPool);
+        connectionFactories.add(connectionFactory);
+        return connectionFactory;
+    }
+
+    /**
+     * Connections are only opened (and the prune timer started) on the first LDAP operation, an identity provider
+     * which is never used, or replaced before being used, holds no connection.
+     */
+    private static class LazyPooledConnectionFactory extends PooledConnectionFactory {
+
+        private final BlockingConnectionPool connectionPool;
+        private volatile boolean initialized;
+        private volatile boolean closed;
+
+        LazyPooledConnectionFactory(BlockingConnectionPool connectionPool) {
+            super(connectionPool);
+            this.connectionPool = connectionPool;
+        }
+
+        @Override
+        public Connection getConnection() throws PoolException {
+            if (!initialized) {
+                initialize();
+            }
+            return connectionPool.getConnection();
+        }
+
+        private synchronized void initialize() {
+            if (closed) {
+                throw new IllegalStateException("LDAP connection pool " + connectionPool.getName() + " is closed");
+            }
+            if (!initialized) {
+                connectionPool.initialize();
+                initialized = true;
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            if (initialized) {
+                try {
+                    connectionPool.close();
+                } catch (Exception e) {
+                    LOGGER.error("Unable to close LDAP connection pool", e);
+                }
+                initialized = false;
+            }
+        }
+    }
 }
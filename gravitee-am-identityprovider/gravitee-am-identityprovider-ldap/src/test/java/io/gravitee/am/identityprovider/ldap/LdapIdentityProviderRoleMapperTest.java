@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.ldap;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class LdapIdentityProviderRoleMapperTest {
+
+    @Test
+    public void shouldCompile_rules() {
+        Map<String, String[]> roles = new HashMap<>();
+        roles.put("admin", new String[] { "memberOf=managers", "uid=bob" });
+        roles.put("dev", new String[] { "memberOf=developers", "memberOf=managers", "ou=cn=people,dc=example" });
+
+        LdapIdentityProviderRoleMapper roleMapper = new LdapIdentityProviderRoleMapper();
+        roleMapper.setRoles(roles);
+
+        Map<String, Map<String, Set<String>>> rules = roleMapper.getRules();
+        assertEquals(new HashSet<>(Arrays.asList("admin", "dev")), rules.get("memberOf").get("managers"));
+        assertEquals(Collections.singleton("dev"), rules.get("memberOf").get("developers"));
+        assertEquals(Collections.singleton("admin"), rules.get("uid").get("bob"));
+        assertEquals(Collections.singleton("dev"), rules.get("ou").get("cn=people,dc=example"));
+    }
+
+    @Test
+    public void shouldCompile_noRoles() {
+        LdapIdentityProviderRoleMapper roleMapper = new LdapIdentityProviderRoleMapper();
+        roleMapper.setRoles(null);
+
+        assertTrue(roleMapper.getRules().isEmpty());
+    }
+}
@@ -35,6 +35,8 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.zapodot.junit.ldap.EmbeddedLdapRule;
 import org.zapodot.junit.ldap.EmbeddedLdapRuleBuilder;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -106,6 +108,7 @@ public class LdapAuthenticationProviderTest {
             }
         }).test();
 
+        testObserver.awaitTerminalEvent();
         testObserver.assertError(BadCredentialsException.class);
     }
 
@@ -129,9 +132,29 @@ public class LdapAuthenticationProviderTest {
             }
         }).test();
 
+        testObserver.awaitTerminalEvent();
         testObserver.assertError(BadCredentialsException.class);
     }
 
+    @Test
+    public void shouldLoadUserByUsername_concurrentSearches() throws Exception {
+        embeddedLdapRule.ldapConnection();
+        List<TestObserver<User>> bobObservers = new ArrayList<>();
+        List<TestObserver<User>> benObservers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            bobObservers.add(authenticationProvider.loadUserByUsername("bob").test());
+            benObservers.add(authenticationProvider.loadUserByUsername("ben").test());
+        }
+
+        for (TestObserver<User> testObserver : bobObservers) {
+            testObserver.awaitTerminalEvent();
+            testObserver.assertValue(u -> "bob".equals(u.getUsername()));
+        }
+        for (TestObserver<User> testObserver : benObservers) {
+            testObserver.awaitTerminalEvent();
+            testObserver.assertValue(u -> "ben".equals(u.getUsername()));
+        }
+    }
 
     @Configuration
     static class LdapAuthenticationConfiguration {
@@ -152,6 +175,9 @@ public class LdapAuthenticationProviderTest {
             configuration.setGroupSearchFilter("member={0}");
             configuration.setGroupRoleAttribute("cn");
 
+            // the embedded server is restarted for each test, pooled connections must be checked before use
+            configuration.setValidateOnCheckOut(true);
+
             return configuration;
         }
 
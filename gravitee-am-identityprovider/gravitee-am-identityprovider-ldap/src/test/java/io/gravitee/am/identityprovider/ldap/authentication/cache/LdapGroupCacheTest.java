@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.ldap.authentication.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class LdapGroupCacheTest {
+
+    @Test
+    public void shouldGet_cachedGroups() {
+        LdapGroupCache groupCache = new LdapGroupCache(true, 10, 60000);
+        groupCache.put("uid=bob,ou=people,dc=example,dc=org", new String[] { "developers" });
+
+        assertArrayEquals(new String[] { "developers" }, groupCache.get("uid=bob,ou=people,dc=example,dc=org"));
+        assertNull(groupCache.get("uid=ben,ou=people,dc=example,dc=org"));
+        assertEquals(1, groupCache.getHitCount());
+        assertEquals(1, groupCache.getMissCount());
+    }
+
+    @Test
+    public void shouldNotGet_expiredGroups() throws Exception {
+        LdapGroupCache groupCache = new LdapGroupCache(true, 10, 10);
+        groupCache.put("uid=bob,ou=people,dc=example,dc=org", new String[] { "developers" });
+
+        Thread.sleep(20);
+
+        assertNull(groupCache.get("uid=bob,ou=people,dc=example,dc=org"));
+    }
+
+    @Test
+    public void shouldNotExceed_maxSize() {
+        LdapGroupCache groupCache = new LdapGroupCache(true, 2, 60000);
+        groupCache.put("uid=bob,ou=people,dc=example,dc=org", new String[] { "developers" });
+        groupCache.put("uid=ben,ou=people,dc=example,dc=org", new String[] { "managers" });
+        groupCache.put("uid=joe,ou=otherpeople,dc=example,dc=org", new String[] { "managers" });
+
+        assertEquals(2, groupCache.size());
+        assertArrayEquals(new String[] { "managers" }, groupCache.get("uid=joe,ou=otherpeople,dc=example,dc=org"));
+    }
+
+    @Test
+    public void shouldNotCache_disabled() {
+        LdapGroupCache groupCache = new LdapGroupCache(false, 10, 60000);
+        groupCache.put("uid=bob,ou=people,dc=example,dc=org", new String[] { "developers" });
+
+        assertNull(groupCache.get("uid=bob,ou=people,dc=example,dc=org"));
+        assertEquals(0, groupCache.size());
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.ldap.authentication.executor;
+
+import io.gravitee.am.service.exception.authentication.InternalAuthenticationServiceException;
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class LdapWorkerExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private LdapWorkerExecutor workerExecutor;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        workerExecutor.destroy();
+    }
+
+    @Test
+    public void shouldExecute_onWorkerThread() {
+        workerExecutor = new LdapWorkerExecutor(1, 1, 1000);
+
+        TestObserver<String> testObserver = workerExecutor.execute(Maybe.fromCallable(() -> Thread.currentThread().getName())).test();
+
+        testObserver.awaitTerminalEvent();
+        testObserver.assertComplete();
+        testObserver.assertValue(threadName -> threadName.startsWith("gio.am-ldap-"));
+    }
+
+    @Test
+    public void shouldReject_poolExhausted() {
+        workerExecutor = new LdapWorkerExecutor(1, 1, 0);
+
+        // one running, one queued
+        workerExecutor.execute(blockingSource()).test();
+        workerExecutor.execute(blockingSource()).test();
+        TestObserver<String> testObserver = workerExecutor.execute(blockingSource()).test();
+
+        testObserver.assertError(InternalAuthenticationServiceException.class);
+        Assert.assertEquals(1, workerExecutor.getRejectedCount());
+    }
+
+    @Test
+    public void shouldTimeout() {
+        workerExecutor = new LdapWorkerExecutor(1, 1, 50);
+
+        TestObserver<String> testObserver = workerExecutor.execute(blockingSource()).test();
+
+        testObserver.awaitTerminalEvent();
+        testObserver.assertError(InternalAuthenticationServiceException.class);
+        Assert.assertEquals(1, workerExecutor.getTimeoutCount());
+    }
+
+    private Maybe<String> blockingSource() {
+        return Maybe.fromCallable(() -> {
+            release.await();
+            return "done";
+        });
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.identityprovider.ldap.authentication.spring;
+
+import io.gravitee.am.identityprovider.ldap.LdapIdentityProviderConfiguration;
+import io.gravitee.am.identityprovider.ldap.authentication.executor.LdapWorkerExecutor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.ldaptive.ConnectionFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class LdapAuthenticationProviderConfigurationTest {
+
+    @Test
+    public void shouldReleaseResources_onContextClose() throws Exception {
+        // no directory is listening, the pools must not try to connect before the first operation
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                LdapAuthenticationProviderConfiguration.class, LdapConfiguration.class);
+        LdapWorkerExecutor workerExecutor = context.getBean(LdapWorkerExecutor.class);
+        ConnectionFactory connectionFactory = context.getBean(ConnectionFactory.class);
+
+        context.close();
+
+        Assert.assertTrue(workerExecutor.isShutdown());
+        try {
+            connectionFactory.getConnection();
+            Assert.fail("The connection pool must be closed");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+
+    @Configuration
+    static class LdapConfiguration {
+
+        @Bean
+        public LdapIdentityProviderConfiguration configuration() {
+            LdapIdentityProviderConfiguration configuration = new LdapIdentityProviderConfiguration();
+            configuration.setContextSourceUsername("uid=bob,ou=people,dc=example,dc=org");
+            configuration.setContextSourcePassword("bobspassword");
+            configuration.setContextSourceBase("dc=example,dc=org");
+            configuration.setContextSourceUrl("ldap://localhost:61001");
+            configuration.setUserSearchFilter("uid={user}");
+            configuration.setGroupSearchFilter("member={0}");
+            configuration.setGroupRoleAttribute("cn");
+            return configuration;
+        }
+    }
+}
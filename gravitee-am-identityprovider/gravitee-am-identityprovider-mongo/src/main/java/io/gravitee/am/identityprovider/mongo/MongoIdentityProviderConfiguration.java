@@ -33,6 +33,7 @@ public class MongoIdentityProviderConfiguration implements IdentityProviderConfi
     private String usersCollection;
     private String findUserByUsernameQuery;
     private String passwordField;
+    private String passwordEncoder;
 
     public String getUri() {
         return this.uri;
@@ -121,4 +122,12 @@ public class MongoIdentityProviderConfiguration implements IdentityProviderConfi
     public void setPasswordField(String passwordField) {
         this.passwordField = passwordField;
     }
+
+    public String getPasswordEncoder() {
+        return this.passwordEncoder;
+    }
+
+    public void setPasswordEncoder(String passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
+    }
 }
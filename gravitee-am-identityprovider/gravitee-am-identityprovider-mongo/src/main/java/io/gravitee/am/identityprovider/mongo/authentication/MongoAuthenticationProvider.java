@@ -15,6 +15,7 @@
  */
 package io.gravitee.am.identityprovider.mongo.authentication;
 
+import com.mongodb.client.model.Projections;
 import com.mongodb.reactivestreams.client.MongoClient;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.identityprovider.api.Authentication;
@@ -29,15 +30,15 @@ import io.gravitee.am.service.exception.authentication.BadCredentialsException;
 import io.gravitee.am.service.exception.authentication.UsernameNotFoundException;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
-import org.bson.BsonDocument;
-import org.bson.Document;
+import org.bson.*;
+import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -45,10 +46,11 @@ import java.util.Map;
  * @author GraviteeSource Team
  */
 @Import({MongoAuthenticationProviderConfiguration.class})
-public class MongoAuthenticationProvider implements AuthenticationProvider {
+public class MongoAuthenticationProvider implements AuthenticationProvider, InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoAuthenticationProvider.class);
     private static final String CLAIMS_SUB = "sub";
+    private static final String USERNAME_PLACEHOLDER = "?";
 
     @Autowired
     private MongoIdentityProviderMapper mapper;
@@ -62,18 +64,43 @@ public class MongoAuthenticationProvider implements AuthenticationProvider {
     @Autowired
     private MongoClient mongoClient;
 
+    private MongoCollection<Document> usersCollection;
+
+    private BsonDocument findUserByUsernameQuery;
+
+    private Bson projection;
+
+    @Override
+    public void afterPropertiesSet() {
+        usersCollection = mongoClient.getDatabase(configuration.getDatabase()).getCollection(configuration.getUsersCollection());
+
+        // parse the configured query once, the username is bound to the placeholder values on each request
+        findUserByUsernameQuery = BsonDocument.parse(convertToJsonString(configuration.getFindUserByUsernameQuery()));
+
+        // only fetch the fields used to check the password and to build the user claims
+        Set<String> fields = new HashSet<>();
+        fields.add(configuration.getPasswordField());
+        if (mapper.getMappers() != null) {
+            fields.addAll(mapper.getMappers().values());
+        }
+        projection = Projections.include(new ArrayList<>(fields));
+    }
+
     public Maybe<User> loadUserByUsername(Authentication authentication) {
         String username = (String)authentication.getPrincipal();
         return findUserByUsername(username)
                 .switchIfEmpty(Maybe.error(new UsernameNotFoundException(username)))
-                .map(user -> {
+                .flatMap(user -> {
                     String password = user.getString(this.configuration.getPasswordField());
                     String presentedPassword = authentication.getCredentials().toString();
-                    if (!passwordEncoder.matches(presentedPassword, password)) {
-                        LOGGER.debug("Authentication failed: password does not match stored value");
-                        throw new BadCredentialsException("Bad credentials");
-                    }
-                    return createUser(username, user);
+                    return passwordEncoder.matchesAsync(presentedPassword, password)
+                            .flatMapMaybe(matches -> {
+                                if (!matches) {
+                                    LOGGER.debug("Authentication failed: password does not match stored value");
+                                    return Maybe.error(new BadCredentialsException("Bad credentials"));
+                                }
+                                return Maybe.just(createUser(username, user));
+                            });
                 });
     }
 
@@ -83,11 +110,8 @@ public class MongoAuthenticationProvider implements AuthenticationProvider {
     }
 
     private Maybe<Document> findUserByUsername(String username) {
-        MongoCollection<Document> usersCol = this.mongoClient.getDatabase(this.configuration.getDatabase()).getCollection(this.configuration.getUsersCollection());
-        String rawQuery = this.configuration.getFindUserByUsernameQuery().replaceAll("\\?", username);
-        String jsonQuery = convertToJsonString(rawQuery);
-        BsonDocument query = BsonDocument.parse(jsonQuery);
-        return Observable.fromPublisher(usersCol.find(query).first()).firstElement();
+        BsonDocument query = (BsonDocument) bind(findUserByUsernameQuery, username);
+        return Observable.fromPublisher(usersCollection.find(query).projection(projection).first()).firstElement();
     }
 
     private User createUser(String username, Document document) {
@@ -102,6 +126,49 @@ public class MongoAuthenticationProvider implements AuthenticationProvider {
         return user;
     }
 
+    /**
+     * Copy the query template with the username as the value of its placeholders. The username is never parsed,
+     * so it can not change the structure of the query. Parts of the template without placeholder are shared.
+     */
+    private BsonValue bind(BsonValue value, String username) {
+        if (value.isDocument()) {
+            BsonDocument document = value.asDocument();
+            BsonDocument boundDocument = null;
+            for (Map.Entry<String, BsonValue> entry : document.entrySet()) {
+                BsonValue boundValue = bind(entry.getValue(), username);
+                if (boundValue != entry.getValue() && boundDocument == null) {
+                    boundDocument = new BsonDocument();
+                    for (Map.Entry<String, BsonValue> previousEntry : document.entrySet()) {
+                        if (previousEntry.getKey().equals(entry.getKey())) {
+                            break;
+                        }
+                        boundDocument.put(previousEntry.getKey(), previousEntry.getValue());
+                    }
+                }
+                if (boundDocument != null) {
+                    boundDocument.put(entry.getKey(), boundValue);
+                }
+            }
+            return boundDocument != null ? boundDocument : document;
+        } else if (value.isArray()) {
+            BsonArray array = value.asArray();
+            BsonArray boundArray = null;
+            for (int i = 0; i < array.size(); i++) {
+                BsonValue boundValue = bind(array.get(i), username);
+                if (boundValue != array.get(i) && boundArray == null) {
+                    boundArray = new BsonArray(new ArrayList<>(array.getValues().subList(0, i)));
+                }
+                if (boundArray != null) {
+                    boundArray.add(boundValue);
+                }
+            }
+            return boundArray != null ? boundArray : array;
+        } else if (value.isString() && value.asString().getValue().contains(USERNAME_PLACEHOLDER)) {
+            return new BsonString(value.asString().getValue().replace(USERNAME_PLACEHOLDER, username));
+        }
+        return value;
+    }
+
     private String convertToJsonString(String rawString) {
         rawString = rawString.replaceAll("[^\\{\\}\\[\\],:]+", "\"$0\"").replaceAll("\\s+","");
         return rawString;
@@ -24,6 +24,8 @@ import com.mongodb.reactivestreams.client.MongoClients;
 import io.gravitee.am.identityprovider.mongo.MongoIdentityProviderConfiguration;
 import io.gravitee.am.service.authentication.crypto.password.NoOpPasswordEncoder;
 import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderWorker;
+import io.gravitee.am.service.authentication.crypto.password.bcrypt.BCryptPasswordEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -61,8 +63,13 @@ public class MongoAuthenticationProviderConfiguration {
         return mongoClient;
     }
 
+    @Autowired
+    private PasswordEncoderWorker passwordEncoderWorker;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return NoOpPasswordEncoder.getInstance();
+        // BCrypt hashes are checked on the password encoder worker, out of the event loop
+        return "BCrypt".equalsIgnoreCase(this.configuration.getPasswordEncoder()) ?
+                new BCryptPasswordEncoder(passwordEncoderWorker) : NoOpPasswordEncoder.getInstance();
     }
 }
@@ -113,4 +113,26 @@ public class MongoAuthenticationProviderTest {
         testObserver.assertError(UsernameNotFoundException.class);
     }
 
+    @Test
+    public void shouldNotLoadUserByUsername_queryInjection() {
+        TestObserver<User> testObserver = authenticationProvider.loadUserByUsername(new Authentication() {
+            @Override
+            public Object getCredentials() {
+                return "bobspassword";
+            }
+
+            @Override
+            public Object getPrincipal() {
+                return "{$ne: unknownUsername}";
+            }
+
+            @Override
+            public Map<String, Object> getAdditionalInformation() {
+                return null;
+            }
+        }).test();
+
+        testObserver.awaitTerminalEvent();
+        testObserver.assertError(UsernameNotFoundException.class);
+    }
 }
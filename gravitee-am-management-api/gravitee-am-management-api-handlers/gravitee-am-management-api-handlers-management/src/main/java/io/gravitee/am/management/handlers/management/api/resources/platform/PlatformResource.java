@@ -33,4 +33,9 @@ public class PlatformResource {
     public PluginsResource getPluginsResource() {
         return resourceContext.getResource(PluginsResource.class);
     }
+
+    @Path("metrics/repositories")
+    public RepositoriesMetricsResource getRepositoriesMetricsResource() {
+        return resourceContext.getResource(RepositoriesMetricsResource.class);
+    }
 }
@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.management.handlers.management.api.resources.platform;
+
+import io.gravitee.am.repository.metrics.RepositoryMetrics;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Api(tags = {"Platform"})
+public class RepositoriesMetricsResource {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get the commands latency and connection pools usage of the repositories",
+            notes = "Metrics are collected for the repository scopes with metrics enabled")
+    public List<Map<String, Object>> list() {
+        return BeanFactoryUtils.beansOfTypeIncludingAncestors(applicationContext, RepositoryMetrics.class)
+                .values()
+                .stream()
+                .map(RepositoryMetrics::snapshot)
+                .collect(Collectors.toList());
+    }
+}
@@ -18,6 +18,7 @@ package io.gravitee.am.management.repository.plugin;
 import io.gravitee.am.management.repository.proxy.AbstractProxy;
 import io.gravitee.am.repository.Repository;
 import io.gravitee.am.repository.Scope;
+import io.gravitee.am.repository.metrics.RepositoryMetrics;
 import io.gravitee.plugin.core.api.*;
 import io.gravitee.plugin.core.internal.AnnotationBasedPluginContextConfigurer;
 import org.slf4j.Logger;
@@ -96,7 +97,7 @@ public class RepositoryPluginHandler implements PluginHandler, InitializingBean
                                     }
                                 });
 
-                        registerRepositoryDefinitions(repository, applicationContext);
+                        registerRepositoryDefinitions(scope, repository, applicationContext);
                         repositories.put(scope, repository);
                     } catch (Exception iae) {
                         LOGGER.error("Unexpected error while creating context for repository instance", iae);
@@ -113,7 +114,7 @@ public class RepositoryPluginHandler implements PluginHandler, InitializingBean
         }
     }
 
-    private void registerRepositoryDefinitions(Repository repository, ApplicationContext repoApplicationContext) {
+    private void registerRepositoryDefinitions(Scope scope, Repository repository, ApplicationContext repoApplicationContext) {
         DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory)
                 ((ConfigurableApplicationContext) applicationContext).getBeanFactory();
 
@@ -139,6 +140,11 @@ public class RepositoryPluginHandler implements PluginHandler, InitializingBean
                 }
             } else if (beanName.endsWith("TransactionManager")) {
                 beanFactory.registerSingleton(beanName, repositoryClassInstance);
+            } else if (repositoryClassInstance instanceof RepositoryMetrics) {
+                // one metrics bean per scope, registered by scope to not collide with the other scopes
+                LOGGER.debug("Register {} metrics [{}]", scope, beanName);
+                beanFactory.registerSingleton(scope.getName() + RepositoryMetrics.class.getSimpleName(),
+                        repositoryClassInstance);
             }
         }
     }
@@ -60,4 +60,14 @@ public class AccessTokenRepositoryProxy extends AbstractProxy<AccessTokenReposit
     public Maybe<AccessToken> findByCriteria(AccessTokenCriteria accessTokenCriteria) {
         return target.findByCriteria(accessTokenCriteria);
     }
+
+    @Override
+    public Single<AccessToken> findOrCreate(AccessTokenCriteria accessTokenCriteria, Single<AccessToken> accessTokenCandidate) {
+        return target.findOrCreate(accessTokenCriteria, accessTokenCandidate);
+    }
+
+    @Override
+    public Single<Long> upgrade(int batchSize) {
+        return target.upgrade(batchSize);
+    }
 }
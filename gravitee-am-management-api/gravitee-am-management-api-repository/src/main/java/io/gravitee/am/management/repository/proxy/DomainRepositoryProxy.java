@@ -23,6 +23,7 @@ import io.reactivex.Single;
 import org.springframework.stereotype.Component;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.Set;
 
 /**
@@ -42,6 +43,16 @@ public class DomainRepositoryProxy extends AbstractProxy<DomainRepository> imple
         return target.findByIdIn(ids);
     }
 
+    @Override
+    public Single<Set<Domain>> findUpdatedSince(Date since) {
+        return target.findUpdatedSince(since);
+    }
+
+    @Override
+    public Single<Set<String>> findDeletedSince(Date since) {
+        return target.findDeletedSince(since);
+    }
+
     @Override
     public Maybe<Domain> findById(String id) {
         return target.findById(id);
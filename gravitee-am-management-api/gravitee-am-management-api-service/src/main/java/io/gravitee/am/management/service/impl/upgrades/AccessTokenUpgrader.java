@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.management.service.impl.upgrades;
+
+import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+/**
+ * Move the stored access tokens to the current storage layout. The migration runs in background, by batches,
+ * access tokens remain readable by the gateways while it is in progress.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class AccessTokenUpgrader implements Upgrader, Ordered {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(AccessTokenUpgrader.class);
+
+    @Autowired
+    private AccessTokenRepository accessTokenRepository;
+
+    @Value("${oauth2.upgrade.batchSize:500}")
+    private int batchSize;
+
+    @Override
+    public boolean upgrade() {
+        logger.info("Applying access token storage upgrade");
+        accessTokenRepository.upgrade(batchSize)
+                .subscribe(
+                        migrated -> logger.info("Access token storage upgrade done, {} access tokens moved", migrated),
+                        error -> logger.error("An error occurs while upgrading the access token storage", error));
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        return 170;
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.management.service;
+
+import io.gravitee.am.management.service.impl.upgrades.AccessTokenUpgrader;
+import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
+import io.reactivex.Single;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AccessTokenUpgraderTest {
+
+    @InjectMocks
+    private AccessTokenUpgrader accessTokenUpgrader = new AccessTokenUpgrader();
+
+    @Mock
+    private AccessTokenRepository accessTokenRepository;
+
+    @Test
+    public void shouldUpgradeAccessTokens() {
+        when(accessTokenRepository.upgrade(anyInt())).thenReturn(Single.just(10L));
+
+        assertTrue(accessTokenUpgrader.upgrade());
+
+        verify(accessTokenRepository, times(1)).upgrade(anyInt());
+    }
+
+    @Test
+    public void shouldNotFail_upgradeError() {
+        when(accessTokenRepository.upgrade(anyInt())).thenReturn(Single.error(new IllegalStateException()));
+
+        assertTrue(accessTokenUpgrader.upgrade());
+
+        verify(accessTokenRepository, times(1)).upgrade(anyInt());
+    }
+}
@@ -17,12 +17,19 @@ package io.gravitee.am.management.services.sync;
 
 import io.gravitee.am.management.core.event.DomainEvent;
 import io.gravitee.am.model.Domain;
+import io.gravitee.am.model.common.event.Event;
 import io.gravitee.am.service.DomainService;
+import io.gravitee.am.service.EventService;
 import io.gravitee.common.event.EventManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
@@ -31,6 +38,8 @@ public class SyncManager {
 
     private final Logger logger = LoggerFactory.getLogger(SyncManager.class);
     private final String ADMIN_DOMAIN = "admin";
+    // events created while the previous refresh was running are caught by the next one
+    private final long EVENTS_OVERLAP = 10000;
 
     @Autowired
     private DomainService domainService;
@@ -38,10 +47,18 @@ public class SyncManager {
     @Autowired
     private EventManager eventManager;
 
+    @Autowired
+    private EventService eventService;
+
     private Domain deployedAdminDomain;
 
+    private long lastRefreshAt = -1;
+
+    private Set<String> processedEvents = Collections.emptySet();
+
     public void refresh() {
         logger.debug("Refreshing sync state...");
+        long now = System.currentTimeMillis();
 
         // For AM Management API only admin domain is used
         Domain adminDomain = domainService.findById(ADMIN_DOMAIN).blockingGet();
@@ -51,11 +68,22 @@ public class SyncManager {
             eventManager.publishEvent(DomainEvent.DEPLOY, adminDomain);
             deployedAdminDomain = adminDomain;
         } else {
-            // Check last update date
-            if (adminDomain.getUpdatedAt().after(deployedAdminDomain.getUpdatedAt())) {
+            // Check last update date and the changes of the admin domain identity providers, clients...
+            boolean adminDomainEvents = hasAdminDomainEvents(lastRefreshAt - EVENTS_OVERLAP, now);
+            if (adminDomain.getUpdatedAt().after(deployedAdminDomain.getUpdatedAt()) || adminDomainEvents) {
                 eventManager.publishEvent(DomainEvent.UPDATE, adminDomain);
                 deployedAdminDomain = adminDomain;
             }
         }
+        lastRefreshAt = now;
+    }
+
+    private boolean hasAdminDomainEvents(long from, long to) {
+        List<Event> events = eventService.findByTimeFrame(from, to).blockingGet();
+        boolean adminDomainEvents = events.stream()
+                .filter(event -> !processedEvents.contains(event.getId()))
+                .anyMatch(event -> ADMIN_DOMAIN.equals(event.getPayload().getDomain()));
+        processedEvents = events.stream().map(Event::getId).collect(Collectors.toSet());
+        return adminDomainEvents;
     }
 }
\ No newline at end of file
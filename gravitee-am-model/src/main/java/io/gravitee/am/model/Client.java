@@ -83,6 +83,11 @@ public class Client {
 
     private boolean generateNewTokenPerRequest;
 
+    /**
+     * Issue self-contained signed JWT access tokens which are not persisted and are validated locally
+     */
+    private boolean statelessAccessToken;
+
     public String getId() {
         return id;
     }
@@ -243,6 +248,14 @@ public class Client {
         this.generateNewTokenPerRequest = generateNewTokenPerRequest;
     }
 
+    public boolean isStatelessAccessToken() {
+        return statelessAccessToken;
+    }
+
+    public void setStatelessAccessToken(boolean statelessAccessToken) {
+        this.statelessAccessToken = statelessAccessToken;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
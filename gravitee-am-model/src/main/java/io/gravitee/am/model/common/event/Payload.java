@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.model.common.event;
+
+/**
+ * Identifies the domain component an {@link Event} is about.
+ *
+ * @author GraviteeSource Team
+ */
+public class Payload {
+
+    /**
+     * Technical identifier of the created, updated or deleted component
+     */
+    private String id;
+
+    /**
+     * Security domain of the component
+     */
+    private String domain;
+
+    private Action action;
+
+    public Payload() {
+    }
+
+    public Payload(String id, String domain, Action action) {
+        this.id = id;
+        this.domain = domain;
+        this.action = action;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(String domain) {
+        this.domain = domain;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    @Override
+    public String toString() {
+        return "{id=" + id + ", domain=" + domain + ", action=" + action + "}";
+    }
+}
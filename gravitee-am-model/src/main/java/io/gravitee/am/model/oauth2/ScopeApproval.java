@@ -23,6 +23,8 @@ import java.util.Date;
  */
 public class ScopeApproval {
 
+    private String id;
+
     private String userId;
 
     private String clientId;
@@ -56,6 +58,14 @@ public class ScopeApproval {
         this.domain = domain;
     }
 
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
     public String getUserId() {
         return userId;
     }
@@ -38,5 +38,11 @@ public interface IdentityProviderPluginManager {
 
     AuthenticationProvider create(String type, String configuration, Map<String, String> mappers, Map<String, String[]> roleMapper);
 
+    /**
+     * Close the plugin context of an authentication provider previously returned by
+     * {@link #create(String, String, Map, Map)} and destroy its beans.
+     */
+    void release(AuthenticationProvider authenticationProvider);
+
     String getSchema(String identityProviderId) throws IOException;
 }
@@ -18,6 +18,7 @@ package io.gravitee.am.plugins.idp.core.impl;
 import io.gravitee.am.identityprovider.api.*;
 import io.gravitee.am.identityprovider.api.oauth2.OAuth2IdentityProvider;
 import io.gravitee.am.plugins.idp.core.*;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderWorker;
 import io.gravitee.plugin.core.api.Plugin;
 import io.gravitee.plugin.core.api.PluginContextFactory;
 import io.gravitee.plugin.core.internal.AnnotationBasedPluginContextConfigurer;
@@ -51,6 +52,7 @@ public class IdentityProviderPluginManagerImpl implements IdentityProviderPlugin
     private final Map<String, IdentityProvider> identityProviders = new HashMap<>();
     private final Map<IdentityProvider, Plugin> identityProviderPlugins = new HashMap<>();
     private final Map<IdentityProvider, Plugin> oauth2IdentityProviderPlugins = new HashMap<>();
+    private final Map<Object, ApplicationContext> identityProviderContexts = Collections.synchronizedMap(new IdentityHashMap<>());
 
     @Autowired
     private PluginContextFactory pluginContextFactory;
@@ -71,6 +73,9 @@ public class IdentityProviderPluginManagerImpl implements IdentityProviderPlugin
     @Autowired
     private Vertx vertx;
 
+    @Autowired
+    private PasswordEncoderWorker passwordEncoderWorker;
+
     @Override
     public void register(IdentityProviderDefinition identityProviderPluginDefinition, boolean oauth2Provider) {
         identityProviders.putIfAbsent(identityProviderPluginDefinition.getPlugin().id(),
@@ -130,6 +135,18 @@ public class IdentityProviderPluginManagerImpl implements IdentityProviderPlugin
         }
     }
 
+    @Override
+    public void release(AuthenticationProvider authenticationProvider) {
+        if (authenticationProvider == null) {
+            return;
+        }
+
+        ApplicationContext idpApplicationContext = identityProviderContexts.remove(authenticationProvider);
+        if (idpApplicationContext != null) {
+            close(idpApplicationContext);
+        }
+    }
+
     @Override
     public String getSchema(String identityProviderId) throws IOException {
         IdentityProvider identityProvider = identityProviders.get(identityProviderId);
@@ -155,13 +172,14 @@ public class IdentityProviderPluginManagerImpl implements IdentityProviderPlugin
             return null;
         }
 
+        ApplicationContext idpApplicationContext = null;
         try {
             T identityObj = createInstance(identityClass);
             final Import annImport = identityClass.getAnnotation(Import.class);
             Set<Class<?>> configurations = (annImport != null) ?
                     new HashSet<>(Arrays.asList(annImport.value())) : Collections.emptySet();
 
-            ApplicationContext idpApplicationContext = pluginContextFactory.create(new AnnotationBasedPluginContextConfigurer(plugin) {
+            idpApplicationContext = pluginContextFactory.create(new AnnotationBasedPluginContextConfigurer(plugin) {
                 @Override
                 public Set<Class<?>> configurations() {
                     return configurations;
@@ -179,6 +197,10 @@ public class IdentityProviderPluginManagerImpl implements IdentityProviderPlugin
                     configurableApplicationContext.addBeanFactoryPostProcessor(
                             new VertxBeanFactoryPostProcessor(vertx));
 
+                    // Add password encoder worker
+                    configurableApplicationContext.addBeanFactoryPostProcessor(
+                            new PasswordEncoderWorkerBeanFactoryPostProcessor(passwordEncoderWorker));
+
                     // Add identity provider configuration bean
                     configurableApplicationContext.addBeanFactoryPostProcessor(
                             new IdentityProviderConfigurationBeanFactoryPostProcessor(identityProviderConfiguration));
@@ -201,13 +223,29 @@ public class IdentityProviderPluginManagerImpl implements IdentityProviderPlugin
                 ((InitializingBean) identityObj).afterPropertiesSet();
             }
 
+            identityProviderContexts.put(identityObj, idpApplicationContext);
             return identityObj;
         } catch (Exception ex) {
             logger.error("An unexpected error occurs while loading identity provider", ex);
+            if (idpApplicationContext != null) {
+                close(idpApplicationContext);
+            }
             return null;
         }
     }
 
+    private void close(ApplicationContext idpApplicationContext) {
+        if (!(idpApplicationContext instanceof ConfigurableApplicationContext)) {
+            return;
+        }
+
+        try {
+            ((ConfigurableApplicationContext) idpApplicationContext).close();
+        } catch (Exception ex) {
+            logger.error("Unable to close identity provider context", ex);
+        }
+    }
+
     private <T> T createInstance(Class<T> clazz) throws Exception {
         try {
             return clazz.newInstance();
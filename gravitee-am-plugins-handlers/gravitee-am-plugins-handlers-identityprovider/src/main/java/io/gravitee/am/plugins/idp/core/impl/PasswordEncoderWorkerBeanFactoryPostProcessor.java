@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.plugins.idp.core.impl;
+
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderWorker;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class PasswordEncoderWorkerBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+    private final PasswordEncoderWorker passwordEncoderWorker;
+
+    PasswordEncoderWorkerBeanFactoryPostProcessor(PasswordEncoderWorker passwordEncoderWorker) {
+        this.passwordEncoderWorker = passwordEncoderWorker;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory configurableListableBeanFactory) throws BeansException {
+        DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory) configurableListableBeanFactory;
+        // registered as an external singleton: closing the identity provider context does not stop the shared worker
+        beanFactory.registerSingleton("passwordEncoderWorker", passwordEncoderWorker);
+    }
+}
@@ -23,8 +23,14 @@ import io.gravitee.am.plugins.idp.core.impl.IdentityProviderConfigurationFactory
 import io.gravitee.am.plugins.idp.core.impl.IdentityProviderMapperFactoryImpl;
 import io.gravitee.am.plugins.idp.core.impl.IdentityProviderPluginManagerImpl;
 import io.gravitee.am.plugins.idp.core.impl.IdentityProviderRoleMapperFactoryImpl;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderWorker;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.Executor;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -52,4 +58,18 @@ public class IdentityProviderConfiguration {
     public IdentityProviderRoleMapperFactory identityProviderRoleMapperFactory() {
         return new IdentityProviderRoleMapperFactoryImpl();
     }
+
+    /**
+     * Pool shared by the identity providers hashing passwords (ie. BCrypt) out of the event loop, the results are
+     * emitted back on the Vert.x context of the caller.
+     */
+    @Bean
+    public PasswordEncoderWorker passwordEncoderWorker(Environment environment) {
+        int poolSize = environment.getProperty("authentication.passwordEncoder.poolSize", Integer.class, Runtime.getRuntime().availableProcessors());
+        int queueCapacity = environment.getProperty("authentication.passwordEncoder.queueCapacity", Integer.class, -1);
+        return new PasswordEncoderWorker(poolSize, queueCapacity, () -> {
+            Context context = Vertx.currentContext();
+            return context == null ? null : (Executor) command -> context.runOnContext(v -> command.run());
+        });
+    }
 }
@@ -21,6 +21,7 @@ import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.reactivex.Single;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
@@ -33,4 +34,15 @@ public interface DomainRepository extends CrudRepository<Domain, String> {
     Single<Set<Domain>> findAll();
 
     Single<Set<Domain>> findByIdIn(Collection<String> ids);
+
+    /**
+     * Find the domains created or updated since the given date (inclusive).
+     */
+    Single<Set<Domain>> findUpdatedSince(Date since);
+
+    /**
+     * Find the identifiers of the domains deleted since the given date (inclusive).
+     * Deletions are only kept for a limited time, callers must still reconcile with {@link #findAll()} from time to time.
+     */
+    Single<Set<String>> findDeletedSince(Date since);
 }
@@ -0,0 +1,38 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.metrics;
+
+import java.util.Map;
+
+/**
+ * Runtime metrics of a repository (commands latency, connection pool usage...) exposed by the node.
+ *
+ * A repository plugin registers one instance per scope.
+ *
+ * @author GraviteeSource Team
+ */
+public interface RepositoryMetrics {
+
+    /**
+     * @return <code>true</code> if the repository collects its metrics
+     */
+    boolean isEnabled();
+
+    /**
+     * @return a point in time view of the metrics, made of maps, lists and numbers so it can be serialized as JSON
+     */
+    Map<String, Object> snapshot();
+}
@@ -22,6 +22,7 @@ import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -66,4 +67,24 @@ public interface AccessTokenRepository {
      * @return an access token or empty
      */
     Maybe<AccessToken> findByCriteria(AccessTokenCriteria accessTokenCriteria);
+
+    /**
+     * Atomically return the non-expired access token matching the criteria or store the candidate one.
+     * At most one active access token is kept for a given criteria, even under concurrent requests.
+     *
+     * @param accessTokenCriteria the criteria (client, subject, requested scopes, grant type) of the access token
+     * @param accessTokenCandidate the access token to store if there is no active access token for the criteria,
+     *                             it may be subscribed to even if an active one is returned (ie. to store it with a
+     *                             single atomic upsert)
+     * @return the existing access token or the newly stored one
+     */
+    Single<AccessToken> findOrCreate(AccessTokenCriteria accessTokenCriteria, Single<AccessToken> accessTokenCandidate);
+
+    /**
+     * Rewrite, by batches, the access tokens stored in a previous storage layout into the current one.
+     *
+     * @param batchSize the number of access tokens rewritten at once
+     * @return the number of access tokens rewritten
+     */
+    Single<Long> upgrade(int batchSize);
 }
@@ -15,6 +15,7 @@
  */
 package io.gravitee.am.repository.oauth2.model;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +27,12 @@ import java.util.Set;
  */
 public class AccessToken {
 
+    /**
+     * Additional information only sent in the token response (the signed id_token). Repositories do not persist it:
+     * a token read back from a repository never holds it and callers re-using that token must issue it again.
+     */
+    public static final Set<String> RESPONSE_ONLY_INFORMATION = Collections.singleton("id_token");
+
     /**
      * Technical ID
      */
@@ -77,7 +84,7 @@ public class AccessToken {
     private String grantType;
 
     /**
-     * Additional information such as the id_token
+     * Additional information such as the id_token, see {@link #RESPONSE_ONLY_INFORMATION} for the information not persisted
      */
     private Map<String, Object> additionalInformation = new HashMap<>();
 
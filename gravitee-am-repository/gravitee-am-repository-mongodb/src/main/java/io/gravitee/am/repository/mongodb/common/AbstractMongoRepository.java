@@ -0,0 +1,317 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.common;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Updates.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public abstract class AbstractMongoRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractMongoRepository.class);
+
+    /**
+     * Indexes built by the nodes in <code>create</code> mode, with their status (building, created or failed).
+     */
+    private static final String INDEXES_METADATA_COLLECTION = "repository_indexes";
+
+    /**
+     * Delay (in milliseconds) after which an index still building without any update is considered interrupted.
+     */
+    private static final long DEFAULT_BUILD_TIMEOUT = 60 * 60 * 1000L;
+
+    @Autowired
+    private Environment environment;
+
+    private final String propertyPrefix;
+
+    /**
+     * Re-read documents after an insert or a replace instead of returning the written entity.
+     * Disabled by default, an acknowledged write already guarantees the document has been stored as it is.
+     */
+    protected boolean readAfterWrite;
+
+    protected AbstractMongoRepository(String propertyPrefix) {
+        this.propertyPrefix = propertyPrefix + ".mongodb.";
+    }
+
+    @PostConstruct
+    public void initRepository() {
+        readAfterWrite = environment.getProperty(propertyPrefix + "readAfterWrite", Boolean.class, false);
+    }
+
+    /**
+     * Get a collection, applying the write concern, read preference and read concern configured for it
+     * (<code>collections.{name}.writeConcern|readPreference|readConcern</code>) if any.
+     */
+    protected <T> MongoCollection<T> getCollection(MongoDatabase database, String collectionName, Class<T> documentClass) {
+        MongoCollection<T> collection = database.getCollection(collectionName, documentClass);
+        String collectionPrefix = propertyPrefix + "collections." + collectionName + ".";
+        String writeConcern = environment.getProperty(collectionPrefix + "writeConcern");
+        if (writeConcern != null) {
+            collection = collection.withWriteConcern(MongoFactory.parseWriteConcern(writeConcern));
+        }
+        String readPreference = environment.getProperty(collectionPrefix + "readPreference");
+        if (readPreference != null) {
+            collection = collection.withReadPreference(ReadPreference.valueOf(readPreference));
+        }
+        String readConcern = environment.getProperty(collectionPrefix + "readConcern");
+        if (readConcern != null) {
+            collection = collection.withReadConcern(MongoFactory.parseReadConcern(readConcern));
+        }
+        if (writeConcern != null || readPreference != null || readConcern != null) {
+            logger.info("MongoDB collection [{}]: readPreference={}, readConcern={}, writeConcern={}", collectionName,
+                    collection.getReadPreference().getName(),
+                    collection.getReadConcern().isServerDefault() ? "default" : collection.getReadConcern().getLevel().getValue(),
+                    collection.getWriteConcern().asDocument().toJson());
+        }
+        return collection;
+    }
+
+    /**
+     * Ensure the indexes of a collection according to <code>repository.indexes.mode</code>:
+     * <ul>
+     *     <li>create: build the missing indexes in the background and track them in the metadata collection</li>
+     *     <li>verify: only warn about the missing indexes, they are expected to be created by the management API</li>
+     *     <li>none: indexes are managed outside of the platform</li>
+     * </ul>
+     * In create and verify modes, existing indexes whose keys or options differ from the expected ones are reported.
+     */
+    protected void ensureIndexes(MongoDatabase database, MongoCollection<?> collection, IndexModel... indexes) {
+        String collectionName = collection.getNamespace().getCollectionName();
+        checkIndexes(database, collection, indexes)
+                .subscribe(
+                        () -> logger.debug("Indexes of collection [{}] checked", collectionName),
+                        error -> logger.error("Unable to check indexes of collection [{}]", collectionName, error));
+    }
+
+    Completable checkIndexes(MongoDatabase database, MongoCollection<?> collection, IndexModel... indexes) {
+        IndexesMode mode = indexesMode();
+        String collectionName = collection.getNamespace().getCollectionName();
+        if (mode == IndexesMode.NONE) {
+            logger.debug("Skip indexes of collection [{}]", collectionName);
+            return Completable.complete();
+        }
+
+        long buildTimeout = environment.getProperty("repository.indexes.buildTimeout", Long.class, DEFAULT_BUILD_TIMEOUT);
+        MongoCollection<Document> metadata = database.getCollection(INDEXES_METADATA_COLLECTION);
+        Map<String, IndexModel> expectedIndexes = new LinkedHashMap<>();
+        for (IndexModel index : indexes) {
+            expectedIndexes.put(indexName(collection, index), index);
+        }
+
+        return Observable.fromPublisher(collection.listIndexes())
+                .toMap(index -> index.getString("name"))
+                .flatMapCompletable(existingIndexes -> Observable.fromIterable(expectedIndexes.entrySet())
+                        .flatMapCompletable(index -> {
+                            String name = index.getKey();
+                            Document existingIndex = existingIndexes.get(name);
+                            if (existingIndex != null) {
+                                List<String> differences = differences(collection, index.getValue(), existingIndex);
+                                if (!differences.isEmpty()) {
+                                    logger.warn("Index [{}] of collection [{}] differs from the expected one {}, " +
+                                            "drop it to have it re-created (repository.indexes.mode: create)", name, collectionName, differences);
+                                }
+                                return mode == IndexesMode.CREATE ? indexExists(metadata, collectionName + "." + name, differences) : Completable.complete();
+                            }
+                            return mode == IndexesMode.CREATE ?
+                                    createIndex(metadata, collection, name, index.getValue(), buildTimeout) :
+                                    verifyIndex(metadata, collectionName, name, buildTimeout);
+                        }));
+    }
+
+    private IndexesMode indexesMode() {
+        String mode = environment.getProperty("repository.indexes.mode", "create");
+        for (IndexesMode indexesMode : IndexesMode.values()) {
+            if (indexesMode.name().equalsIgnoreCase(mode.trim())) {
+                return indexesMode;
+            }
+        }
+        throw new IllegalArgumentException("Invalid repository.indexes.mode [" + mode + "], expected one of: create, verify, none");
+    }
+
+    private Completable createIndex(MongoCollection<Document> metadata, MongoCollection<?> collection, String name, IndexModel index, long buildTimeout) {
+        String collectionName = collection.getNamespace().getCollectionName();
+        String id = collectionName + "." + name;
+        IndexOptions options = index.getOptions().name(name).background(true);
+        logger.info("Create index [{}] of collection [{}]", name, collectionName);
+
+        // refresh the entry while the index is built, a node dying mid-build leaves an entry other nodes see as interrupted
+        long heartbeat = Math.max(buildTimeout / 3, 1);
+        Completable build = Completable.fromPublisher(collection.createIndex(index.getKeys(), options));
+        Completable heartbeats = Observable.interval(heartbeat, heartbeat, TimeUnit.MILLISECONDS)
+                .flatMapCompletable(tick -> updateIndexStatus(metadata, id, set("status", "building")).onErrorComplete());
+
+        return Completable.fromPublisher(metadata.updateOne(eq("_id", id), combine(
+                        setOnInsert("collection", collectionName),
+                        setOnInsert("index", name),
+                        set("keys", keys(collection, index)),
+                        set("status", "building"),
+                        set("updatedAt", new Date()),
+                        unset("error")), new UpdateOptions().upsert(true)))
+                .andThen(Completable.ambArray(build, heartbeats))
+                .andThen(Completable.defer(() -> {
+                    logger.info("Index [{}] of collection [{}] created", name, collectionName);
+                    return updateIndexStatus(metadata, id, set("status", "created"));
+                }))
+                .onErrorResumeNext(error -> {
+                    logger.error("Unable to create index [{}] of collection [{}]", name, collectionName, error);
+                    return updateIndexStatus(metadata, id, combine(set("status", "failed"), set("error", String.valueOf(error.getMessage()))))
+                            .onErrorComplete();
+                });
+    }
+
+    /**
+     * Align the tracked status of an existing index, e.g. an index whose build completed on the server
+     * after the node that started it died.
+     */
+    private Completable indexExists(MongoCollection<Document> metadata, String id, List<String> differences) {
+        Bson update = differences.isEmpty() ?
+                combine(set("status", "created"), unset("error")) :
+                combine(set("status", "mismatch"), set("error", differences.toString()));
+        String status = differences.isEmpty() ? "created" : "mismatch";
+        return Completable.fromPublisher(metadata.updateOne(and(eq("_id", id), ne("status", status)), combine(update, set("updatedAt", new Date()))))
+                .onErrorComplete();
+    }
+
+    private Completable updateIndexStatus(MongoCollection<Document> metadata, String id, Bson update) {
+        return Completable.fromPublisher(metadata.updateOne(eq("_id", id), combine(update, set("updatedAt", new Date()))));
+    }
+
+    private Completable verifyIndex(MongoCollection<Document> metadata, String collectionName, String name, long buildTimeout) {
+        return Observable.fromPublisher(metadata.find(eq("_id", collectionName + "." + name)).first())
+                .firstElement()
+                .map(index -> {
+                    String status = index.getString("status");
+                    Date updatedAt = index.getDate("updatedAt");
+                    if ("building".equals(status) && updatedAt != null && updatedAt.getTime() + buildTimeout < System.currentTimeMillis()) {
+                        return "interrupted, last update at " + updatedAt;
+                    }
+                    return status;
+                })
+                .defaultIfEmpty("missing")
+                .doOnSuccess(status -> logger.warn("Index [{}] of collection [{}] is not available (status: {}), " +
+                        "indexes are created by the management API (repository.indexes.mode: create)", name, collectionName, status))
+                .ignoreElement()
+                .onErrorComplete();
+    }
+
+    /**
+     * Differences between the keys and the options (unique, sparse, TTL, partial filter) of an expected index
+     * and the ones of the existing index with the same name.
+     */
+    private static List<String> differences(MongoCollection<?> collection, IndexModel expected, Document existing) {
+        List<String> differences = new ArrayList<>();
+        IndexOptions options = expected.getOptions();
+
+        BsonDocument expectedKeys = keys(collection, expected);
+        BsonDocument existingKeys = toBsonDocument(collection, existing.get("key", Document.class));
+        if (!sameKeys(expectedKeys, existingKeys)) {
+            differences.add("key: expected " + expectedKeys.toJson() + ", found " + (existingKeys != null ? existingKeys.toJson() : null));
+        }
+        if (options.isUnique() != existing.getBoolean("unique", false)) {
+            differences.add("unique: expected " + options.isUnique() + ", found " + !options.isUnique());
+        }
+        if (options.isSparse() != existing.getBoolean("sparse", false)) {
+            differences.add("sparse: expected " + options.isSparse() + ", found " + !options.isSparse());
+        }
+        Long expectedExpireAfter = options.getExpireAfter(TimeUnit.SECONDS);
+        Number existingExpireAfter = (Number) existing.get("expireAfterSeconds");
+        if (!Objects.equals(expectedExpireAfter, existingExpireAfter != null ? existingExpireAfter.longValue() : null)) {
+            differences.add("expireAfterSeconds: expected " + expectedExpireAfter + ", found " + existingExpireAfter);
+        }
+        BsonDocument expectedFilter = options.getPartialFilterExpression() != null ?
+                options.getPartialFilterExpression().toBsonDocument(BsonDocument.class, collection.getCodecRegistry()) : null;
+        BsonDocument existingFilter = toBsonDocument(collection, existing.get("partialFilterExpression", Document.class));
+        if (!Objects.equals(expectedFilter, existingFilter)) {
+            differences.add("partialFilterExpression: expected " + (expectedFilter != null ? expectedFilter.toJson() : null) +
+                    ", found " + (existingFilter != null ? existingFilter.toJson() : null));
+        }
+        return differences;
+    }
+
+    /**
+     * Same fields in the same order and the same directions, whatever the numeric type sent back by the server (1, 1L or 1.0).
+     */
+    private static boolean sameKeys(BsonDocument expected, BsonDocument existing) {
+        if (existing == null || !new ArrayList<>(expected.keySet()).equals(new ArrayList<>(existing.keySet()))) {
+            return false;
+        }
+        for (Map.Entry<String, BsonValue> key : expected.entrySet()) {
+            BsonValue expectedDirection = key.getValue();
+            BsonValue existingDirection = existing.get(key.getKey());
+            boolean same = expectedDirection.isNumber() && existingDirection.isNumber() ?
+                    expectedDirection.asNumber().doubleValue() == existingDirection.asNumber().doubleValue() :
+                    expectedDirection.equals(existingDirection);
+            if (!same) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BsonDocument toBsonDocument(MongoCollection<?> collection, Document document) {
+        return document != null ? document.toBsonDocument(BsonDocument.class, collection.getCodecRegistry()) : null;
+    }
+
+    /**
+     * Name of an index, the one given by the options or the one the server would generate from its keys.
+     */
+    private static String indexName(MongoCollection<?> collection, IndexModel index) {
+        if (index.getOptions().getName() != null) {
+            return index.getOptions().getName();
+        }
+        StringJoiner name = new StringJoiner("_");
+        for (Map.Entry<String, BsonValue> key : keys(collection, index).entrySet()) {
+            BsonValue direction = key.getValue();
+            name.add(key.getKey()).add(direction.isNumber() ? Integer.toString(direction.asNumber().intValue()) : direction.asString().getValue());
+        }
+        return name.toString();
+    }
+
+    private static BsonDocument keys(MongoCollection<?> collection, IndexModel index) {
+        return index.getKeys().toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
+    }
+
+    private enum IndexesMode {
+        CREATE, VERIFY, NONE
+    }
+}
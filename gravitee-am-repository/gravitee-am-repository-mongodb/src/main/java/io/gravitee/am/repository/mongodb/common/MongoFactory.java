@@ -19,6 +19,8 @@ import com.mongodb.*;
 import com.mongodb.connection.*;
 import com.mongodb.reactivestreams.client.MongoClient;
 import com.mongodb.reactivestreams.client.MongoClients;
+import io.gravitee.am.repository.mongodb.common.codec.ModelCodecProvider;
+import io.gravitee.am.repository.mongodb.common.metrics.MongoMetrics;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.codecs.pojo.PojoCodecProvider;
 import org.slf4j.Logger;
@@ -46,6 +48,9 @@ public class MongoFactory implements FactoryBean<MongoClient> {
     @Autowired
     private Environment environment;
 
+    @Autowired(required = false)
+    private MongoMetrics metrics;
+
     private final String propertyPrefix;
 
     public MongoFactory(String propertyPrefix) {
@@ -56,13 +61,31 @@ public class MongoFactory implements FactoryBean<MongoClient> {
     public MongoClient getObject() throws Exception {
         // Client settings
         MongoClientSettings.Builder builder = MongoClientSettings.builder();
-        builder.writeConcern(WriteConcern.ACKNOWLEDGED);
+        String writeConcern = readPropertyValue(propertyPrefix + "writeConcern");
+        builder.writeConcern(writeConcern != null ? parseWriteConcern(writeConcern) : WriteConcern.ACKNOWLEDGED);
+        String readPreference = readPropertyValue(propertyPrefix + "readPreference");
+        if (readPreference != null) {
+            builder.readPreference(ReadPreference.valueOf(readPreference));
+        }
+        String readConcern = readPropertyValue(propertyPrefix + "readConcern");
+        if (readConcern != null) {
+            builder.readConcern(parseReadConcern(readConcern));
+        }
+        String compressors = readPropertyValue(propertyPrefix + "compressors");
+        if (compressors != null && !compressors.isEmpty()) {
+            builder.compressorList(parseCompressors(compressors));
+        }
 
-        // codec configuration for pojo mapping
+        // codec configuration, hand-written codecs for the hot documents then pojo mapping for the others
         CodecRegistry pojoCodecRegistry = fromRegistries(MongoClients.getDefaultCodecRegistry(),
-                fromProviders(PojoCodecProvider.builder().automatic(true).build()));
+                fromProviders(new ModelCodecProvider(), PojoCodecProvider.builder().automatic(true).build()));
         builder.codecRegistry(pojoCodecRegistry);
 
+        // commands instrumentation
+        if (metrics != null && metrics.isEnabled()) {
+            builder.addCommandListener(metrics);
+        }
+
         // Trying to get the MongoClientURI if uri property is defined
         String uri = readPropertyValue(propertyPrefix + "uri");
         if (uri != null && ! uri.isEmpty()) {
@@ -70,10 +93,13 @@ public class MongoFactory implements FactoryBean<MongoClient> {
             // the URI string.
             MongoClientSettings settings = builder
                     .codecRegistry(pojoCodecRegistry)
+                    .applyToConnectionPoolSettings(this::applyPoolSizing)
+                    .applyToConnectionPoolSettings(this::applyPoolListener)
+                    .applyToServerSettings(this::applyServerListener)
                     .applyConnectionString(new ConnectionString(uri))
                     .build();
 
-            return MongoClients.create(settings);
+            return create(settings);
         } else {
             // Advanced configuration
             SocketSettings.Builder socketBuilder = SocketSettings.builder();
@@ -118,6 +144,9 @@ public class MongoFactory implements FactoryBean<MongoClient> {
                 sslBuilder.enabled(sslEnabled);
             if (serverSelectionTimeout != null)
                 clusterBuilder.serverSelectionTimeout(serverSelectionTimeout, TimeUnit.MILLISECONDS);
+            applyPoolSizing(connectionPoolBuilder);
+            applyPoolListener(connectionPoolBuilder);
+            applyServerListener(serverBuilder);
 
             // credentials option
             String username = readPropertyValue(propertyPrefix + "username");
@@ -157,7 +186,88 @@ public class MongoFactory implements FactoryBean<MongoClient> {
                     .applyToSslSettings(builder1 -> builder1.applySettings(sslSettings))
                     .build();
 
-            return MongoClients.create(settings);
+            return create(settings);
+        }
+    }
+
+    private MongoClient create(MongoClientSettings settings) {
+        ConnectionPoolSettings pool = settings.getConnectionPoolSettings();
+        logger.info("MongoDB client [{}]: readPreference={}, readConcern={}, writeConcern={}, compressors={}, pool[min={}, max={}, maxWaitQueueSize={}], metrics={}",
+                propertyPrefix.substring(0, propertyPrefix.indexOf('.')),
+                settings.getReadPreference().getName(),
+                settings.getReadConcern().isServerDefault() ? "default" : settings.getReadConcern().getLevel().getValue(),
+                settings.getWriteConcern().asDocument().toJson(),
+                settings.getCompressorList(),
+                pool.getMinSize(), pool.getMaxSize(), pool.getMaxWaitQueueSize(),
+                metrics != null && metrics.isEnabled());
+        return MongoClients.create(settings);
+    }
+
+    private void applyPoolSizing(ConnectionPoolSettings.Builder connectionPoolBuilder) {
+        // connectionsPerHost / minConnectionsPerHost are the former names of the pool sizes
+        Integer minPoolSize = readPropertyValue(propertyPrefix + "minPoolSize", Integer.class,
+                readPropertyValue(propertyPrefix + "minConnectionsPerHost", Integer.class));
+        Integer maxPoolSize = readPropertyValue(propertyPrefix + "maxPoolSize", Integer.class,
+                readPropertyValue(propertyPrefix + "connectionsPerHost", Integer.class));
+        Integer maxWaitQueueSize = readPropertyValue(propertyPrefix + "maxWaitQueueSize", Integer.class);
+
+        if (minPoolSize != null)
+            connectionPoolBuilder.minSize(minPoolSize);
+        if (maxPoolSize != null && maxPoolSize > 0)
+            connectionPoolBuilder.maxSize(maxPoolSize);
+        if (maxWaitQueueSize != null)
+            connectionPoolBuilder.maxWaitQueueSize(maxWaitQueueSize);
+    }
+
+    private void applyPoolListener(ConnectionPoolSettings.Builder connectionPoolBuilder) {
+        if (metrics != null && metrics.isEnabled()) {
+            connectionPoolBuilder.addConnectionPoolListener(metrics);
+        }
+    }
+
+    private void applyServerListener(ServerSettings.Builder serverBuilder) {
+        if (metrics != null && metrics.isEnabled()) {
+            serverBuilder.addServerMonitorListener(metrics);
+        }
+    }
+
+    /**
+     * Parse a read concern level: local, majority, linearizable, snapshot or default (server default).
+     */
+    public static ReadConcern parseReadConcern(String value) {
+        return "default".equalsIgnoreCase(value) ? ReadConcern.DEFAULT : new ReadConcern(ReadConcernLevel.fromString(value));
+    }
+
+    private List<MongoCompressor> parseCompressors(String value) {
+        List<MongoCompressor> compressors = new ArrayList<>();
+        for (String compressor : value.split(",")) {
+            switch (compressor.trim().toLowerCase()) {
+                case "zlib":
+                    compressors.add(MongoCompressor.createZlibCompressor());
+                    break;
+                case "snappy":
+                    compressors.add(MongoCompressor.createSnappyCompressor());
+                    break;
+                default:
+                    // zstd requires a 4.x driver
+                    logger.warn("Unsupported MongoDB wire compressor: {}", compressor);
+            }
+        }
+        return compressors;
+    }
+
+    /**
+     * Parse a write concern either from its name (acknowledged, w1, w2, majority, journaled, ...) or from a number of nodes.
+     */
+    public static WriteConcern parseWriteConcern(String value) {
+        WriteConcern writeConcern = WriteConcern.valueOf(value);
+        if (writeConcern != null) {
+            return writeConcern;
+        }
+        try {
+            return new WriteConcern(Integer.parseInt(value));
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Unknown write concern: " + value);
         }
     }
 
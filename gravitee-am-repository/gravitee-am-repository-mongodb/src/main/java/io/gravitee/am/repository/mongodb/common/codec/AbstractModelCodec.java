@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.common.codec;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Base class for hand-written codecs mapping a collection document straight to/from a repository model,
+ * without the intermediate POJO the {@link org.bson.codecs.pojo.PojoCodecProvider} would require.
+ *
+ * Unknown fields are skipped on read and <code>null</code> values are never written, like the POJO codec does.
+ *
+ * @author GraviteeSource Team
+ */
+public abstract class AbstractModelCodec<T> implements Codec<T> {
+
+    protected static final String FIELD_ID = "_id";
+
+    private final Codec<Document> documentCodec;
+
+    protected AbstractModelCodec(CodecRegistry registry) {
+        this.documentCodec = registry.get(Document.class);
+    }
+
+    @Override
+    public T decode(BsonReader reader, DecoderContext decoderContext) {
+        T model = newInstance();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+            } else {
+                decodeField(name, reader, model, decoderContext);
+            }
+        }
+        reader.readEndDocument();
+        return model;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, T model, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        encodeFields(writer, model, encoderContext);
+        writer.writeEndDocument();
+    }
+
+    protected abstract T newInstance();
+
+    /**
+     * Read the current value of the field <code>name</code> into the model, the value must be consumed
+     * (use {@link BsonReader#skipValue()} for unmapped fields).
+     */
+    protected abstract void decodeField(String name, BsonReader reader, T model, DecoderContext decoderContext);
+
+    protected abstract void encodeFields(BsonWriter writer, T model, EncoderContext encoderContext);
+
+    protected String readString(BsonReader reader) {
+        return reader.getCurrentBsonType() == BsonType.OBJECT_ID ? reader.readObjectId().toHexString() : reader.readString();
+    }
+
+    protected Date readDate(BsonReader reader) {
+        return new Date(reader.readDateTime());
+    }
+
+    protected long readLong(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32:
+                return reader.readInt32();
+            case DOUBLE:
+                return (long) reader.readDouble();
+            default:
+                return reader.readInt64();
+        }
+    }
+
+    protected <C extends Collection<String>> C readStrings(BsonReader reader, Supplier<C> collectionFactory) {
+        C values = collectionFactory.get();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            values.add(reader.readString());
+        }
+        reader.readEndArray();
+        return values;
+    }
+
+    protected Document readDocument(BsonReader reader, DecoderContext decoderContext) {
+        return documentCodec.decode(reader, decoderContext);
+    }
+
+    protected void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    protected void writeDate(BsonWriter writer, String name, Date value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.getTime());
+        }
+    }
+
+    protected void writeStrings(BsonWriter writer, String name, Collection<String> values) {
+        if (values != null) {
+            writer.writeStartArray(name);
+            values.forEach(writer::writeString);
+            writer.writeEndArray();
+        }
+    }
+
+    protected void writeDocument(BsonWriter writer, String name, Map<String, Object> value, EncoderContext encoderContext) {
+        if (value != null) {
+            writer.writeName(name);
+            encoderContext.encodeWithChildContext(documentCodec, writer, value instanceof Document ? (Document) value : new Document(value));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.common.codec;
+
+import io.gravitee.am.model.User;
+import io.gravitee.am.model.oauth2.ScopeApproval;
+import io.gravitee.am.repository.mongodb.management.internal.codec.UserCodec;
+import io.gravitee.am.repository.mongodb.oauth2.internal.codec.AccessTokenCodec;
+import io.gravitee.am.repository.mongodb.oauth2.internal.codec.AuthorizationCodeCodec;
+import io.gravitee.am.repository.mongodb.oauth2.internal.codec.RefreshTokenCodec;
+import io.gravitee.am.repository.mongodb.oauth2.internal.codec.ScopeApprovalCodec;
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import io.gravitee.am.repository.oauth2.model.RefreshToken;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Provide the hand-written codecs of the most read documents (tokens, authorization codes, scope approvals and users),
+ * must be registered ahead of the POJO codec provider.
+ *
+ * @author GraviteeSource Team
+ */
+public class ModelCodecProvider implements CodecProvider {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+        if (clazz == AccessToken.class) {
+            return (Codec<T>) new AccessTokenCodec(registry);
+        }
+        if (clazz == RefreshToken.class) {
+            return (Codec<T>) new RefreshTokenCodec(registry);
+        }
+        if (clazz == AuthorizationCode.class) {
+            return (Codec<T>) new AuthorizationCodeCodec(registry);
+        }
+        if (clazz == ScopeApproval.class) {
+            return (Codec<T>) new ScopeApprovalCodec(registry);
+        }
+        if (clazz == User.class) {
+            return (Codec<T>) new UserCodec(registry);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.common.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed buckets (in milliseconds).
+ *
+ * @author GraviteeSource Team
+ */
+class LatencyHistogram {
+
+    private static final long[] BOUNDS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long elapsedMicros) {
+        int idx = 0;
+        while (idx < BOUNDS.length && elapsedMicros > BOUNDS[idx] * 1000) {
+            idx++;
+        }
+        buckets[idx].increment();
+        count.increment();
+        totalMicros.add(elapsedMicros);
+        maxMicros.accumulateAndGet(elapsedMicros, Math::max);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    /**
+     * Each bucket counts the values lower than or equal to its bound and greater than the previous one.
+     */
+    Map<String, Object> snapshot() {
+        long total = count.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", total);
+        snapshot.put("mean", total == 0 ? 0d : totalMicros.sum() / 1000d / total);
+        snapshot.put("max", maxMicros.get() / 1000d);
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS.length; i++) {
+            histogram.put(Long.toString(BOUNDS[i]), buckets[i].sum());
+        }
+        histogram.put("+Inf", buckets[BOUNDS.length].sum());
+        snapshot.put("buckets", histogram);
+        return snapshot;
+    }
+}
@@ -0,0 +1,284 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.common.metrics;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.*;
+import io.gravitee.am.repository.metrics.RepositoryMetrics;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MongoDB driver listeners of a repository scope: latency of the commands by collection and command name,
+ * connection pools size and usage, heartbeats of the monitored servers and logging of the slow commands.
+ *
+ * The listeners are only registered on the client when <code>{scope}.mongodb.metrics.enabled</code> is set.
+ *
+ * @author GraviteeSource Team
+ */
+public class MongoMetrics implements RepositoryMetrics, CommandListener, ConnectionPoolListener, ServerMonitorListener, InitializingBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoMetrics.class);
+    private static final String DATABASE_COMMAND = "$cmd";
+
+    @Autowired
+    private Environment environment;
+
+    private final String scope;
+    private boolean enabled;
+    private long slowCommandThreshold;
+
+    private final ConcurrentMap<Integer, String> inflightCommands = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CommandMetrics> commands = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ServerId, PoolMetrics> pools = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ServerId, ServerMetrics> servers = new ConcurrentHashMap<>();
+    private final LongAdder slowCommands = new LongAdder();
+
+    public MongoMetrics(String scope) {
+        this.scope = scope;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String propertyPrefix = scope + ".mongodb.metrics.";
+        enabled = environment.getProperty(propertyPrefix + "enabled", Boolean.class, false);
+        slowCommandThreshold = environment.getProperty(propertyPrefix + "slowCommandThreshold", Long.class, 500L);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("scope", scope);
+        snapshot.put("type", "mongodb");
+        snapshot.put("enabled", enabled);
+        if (!enabled) {
+            return snapshot;
+        }
+
+        Map<String, Object> commandsSnapshot = new TreeMap<>();
+        commands.forEach((key, metrics) -> commandsSnapshot.put(key, metrics.snapshot()));
+        Map<String, Object> poolsSnapshot = new TreeMap<>();
+        pools.forEach((serverId, metrics) -> poolsSnapshot.put(serverId.getAddress().toString(), metrics.snapshot()));
+        Map<String, Object> serversSnapshot = new TreeMap<>();
+        servers.forEach((serverId, metrics) -> serversSnapshot.put(serverId.getAddress().toString(), metrics.snapshot()));
+
+        snapshot.put("slowCommandThreshold", slowCommandThreshold);
+        snapshot.put("slowCommands", slowCommands.sum());
+        snapshot.put("commands", commandsSnapshot);
+        snapshot.put("pools", poolsSnapshot);
+        snapshot.put("servers", serversSnapshot);
+        return snapshot;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        // the command document is only readable during the callback, keep the collection until the command completes
+        inflightCommands.put(event.getRequestId(), collection(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.MICROSECONDS), false, event);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.MICROSECONDS), true, event);
+    }
+
+    private void record(int requestId, String commandName, long elapsedMicros, boolean failed, CommandEvent event) {
+        String collection = inflightCommands.remove(requestId);
+        String key = (collection != null ? collection : DATABASE_COMMAND) + '.' + commandName;
+        commands.computeIfAbsent(key, k -> new CommandMetrics()).record(elapsedMicros, failed);
+
+        if (slowCommandThreshold >= 0 && elapsedMicros > slowCommandThreshold * 1000) {
+            slowCommands.increment();
+            LOGGER.warn("Slow MongoDB command [{}] {} on {} took {} ms (server: {}{})", scope, commandName, collection,
+                    elapsedMicros / 1000, event.getConnectionDescription().getServerAddress(), failed ? ", failed" : "");
+        }
+    }
+
+    private static String collection(String commandName, BsonDocument command) {
+        if ("getMore".equals(commandName)) {
+            BsonValue collection = command.get("collection");
+            return collection != null && collection.isString() ? collection.asString().getValue() : null;
+        }
+        // CRUD and index commands hold the collection name as the value of the command
+        BsonValue collection = command.get(commandName);
+        return collection != null && collection.isString() ? collection.asString().getValue() : null;
+    }
+
+    @Override
+    public void connectionPoolOpened(ConnectionPoolOpenedEvent event) {
+        pool(event.getServerId());
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        pools.remove(event.getServerId());
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        PoolMetrics pool = pool(event.getConnectionId().getServerId());
+        pool.inUse.incrementAndGet();
+        pool.checkedOut.increment();
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        pool(event.getConnectionId().getServerId()).inUse.decrementAndGet();
+    }
+
+    @Override
+    public void waitQueueEntered(ConnectionPoolWaitQueueEnteredEvent event) {
+        PoolMetrics pool = pool(event.getServerId());
+        pool.waitQueueSize.incrementAndGet();
+        pool.waiters.offer(System.nanoTime());
+    }
+
+    @Override
+    public void waitQueueExited(ConnectionPoolWaitQueueExitedEvent event) {
+        PoolMetrics pool = pool(event.getServerId());
+        pool.waitQueueSize.decrementAndGet();
+        // the events do not identify the waiter, the wait queue being served in order the oldest entry is the one leaving
+        Long enteredAt = pool.waiters.poll();
+        if (enteredAt != null) {
+            pool.checkoutWait.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - enteredAt));
+        }
+    }
+
+    @Override
+    public void connectionAdded(ConnectionAddedEvent event) {
+        pool(event.getConnectionId().getServerId()).size.incrementAndGet();
+    }
+
+    @Override
+    public void connectionRemoved(ConnectionRemovedEvent event) {
+        pool(event.getConnectionId().getServerId()).size.decrementAndGet();
+    }
+
+    private PoolMetrics pool(ServerId serverId) {
+        return pools.computeIfAbsent(serverId, id -> new PoolMetrics());
+    }
+
+    @Override
+    public void serverHearbeatStarted(ServerHeartbeatStartedEvent event) {
+        // the latency is given by the completion events
+    }
+
+    @Override
+    public void serverHeartbeatSucceeded(ServerHeartbeatSucceededEvent event) {
+        server(event.getConnectionId().getServerId()).record(event.getElapsedTime(TimeUnit.MICROSECONDS), null);
+    }
+
+    @Override
+    public void serverHeartbeatFailed(ServerHeartbeatFailedEvent event) {
+        server(event.getConnectionId().getServerId()).record(event.getElapsedTime(TimeUnit.MICROSECONDS), event.getThrowable());
+    }
+
+    private ServerMetrics server(ServerId serverId) {
+        return servers.computeIfAbsent(serverId, id -> new ServerMetrics());
+    }
+
+    private static class CommandMetrics {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+
+        void record(long elapsedMicros, boolean failed) {
+            latency.record(elapsedMicros);
+            if (failed) {
+                failures.increment();
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = latency.snapshot();
+            snapshot.put("failures", failures.sum());
+            return snapshot;
+        }
+    }
+
+    private static class PoolMetrics {
+
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicInteger inUse = new AtomicInteger();
+        private final AtomicInteger waitQueueSize = new AtomicInteger();
+        private final LongAdder checkedOut = new LongAdder();
+        private final Queue<Long> waiters = new ConcurrentLinkedQueue<>();
+        private final LatencyHistogram checkoutWait = new LatencyHistogram();
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("size", size.get());
+            snapshot.put("inUse", inUse.get());
+            snapshot.put("waitQueueSize", waitQueueSize.get());
+            snapshot.put("checkedOut", checkedOut.sum());
+            snapshot.put("checkoutWait", checkoutWait.snapshot());
+            return snapshot;
+        }
+    }
+
+    private static class ServerMetrics {
+
+        private final LatencyHistogram heartbeat = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+        private volatile boolean reachable;
+        private volatile String lastFailure;
+
+        void record(long elapsedMicros, Throwable failure) {
+            heartbeat.record(elapsedMicros);
+            reachable = failure == null;
+            if (failure != null) {
+                failures.increment();
+                lastFailure = failure.getMessage();
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("reachable", reachable);
+            snapshot.put("failures", failures.sum());
+            if (lastFailure != null) {
+                snapshot.put("lastFailure", lastFailure);
+            }
+            snapshot.put("heartbeat", heartbeat.snapshot());
+            return snapshot;
+        }
+    }
+}
@@ -15,7 +15,11 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
+import io.gravitee.am.repository.Scope;
+import io.gravitee.am.repository.mongodb.common.AbstractMongoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
@@ -24,9 +28,21 @@ import org.springframework.beans.factory.annotation.Qualifier;
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public abstract class AbstractManagementMongoRepository {
+public abstract class AbstractManagementMongoRepository extends AbstractMongoRepository {
 
     @Autowired
     @Qualifier("managementMongoTemplate")
     protected MongoDatabase mongoOperations;
+
+    public AbstractManagementMongoRepository() {
+        super(Scope.MANAGEMENT.getName());
+    }
+
+    protected <T> MongoCollection<T> getCollection(String collectionName, Class<T> documentClass) {
+        return getCollection(mongoOperations, collectionName, documentClass);
+    }
+
+    protected void ensureIndexes(MongoCollection<?> collection, IndexModel... indexes) {
+        ensureIndexes(mongoOperations, collection, indexes);
+    }
 }
@@ -22,6 +22,7 @@ import io.gravitee.am.repository.mongodb.common.AbstractRepositoryConfiguration;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
 import io.gravitee.am.repository.mongodb.common.MongoFactory;
 import io.gravitee.am.repository.mongodb.common.UUIDIdGenerator;
+import io.gravitee.am.repository.mongodb.common.metrics.MongoMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
@@ -46,6 +47,11 @@ public class ManagementRepositoryConfiguration extends AbstractRepositoryConfigu
         return new MongoFactory(Scope.MANAGEMENT.getName());
     }
 
+    @Bean(name = "managementMongoMetrics")
+    public static MongoMetrics mongoMetrics() {
+        return new MongoMetrics(Scope.MANAGEMENT.getName());
+    }
+
     @Bean(name = "managementMongoTemplate")
     public MongoDatabase mongoOperations() {
         return mongo.getDatabase(getDatabaseName());
@@ -15,11 +15,11 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.Certificate;
 import io.gravitee.am.repository.management.api.CertificateRepository;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
-import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
 import io.gravitee.am.repository.mongodb.management.internal.model.CertificateMongo;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
@@ -51,8 +51,9 @@ public class MongoCertificateRepository extends AbstractManagementMongoRepositor
 
     @PostConstruct
     public void init() {
-        certificatesCollection = mongoOperations.getCollection("certificates", CertificateMongo.class);
-        certificatesCollection.createIndex(new Document(FIELD_DOMAIN, 1)).subscribe(new LoggableIndexSubscriber());
+        certificatesCollection = getCollection("certificates", CertificateMongo.class);
+        ensureIndexes(certificatesCollection,
+                new IndexModel(new Document(FIELD_DOMAIN, 1)));
     }
 
     @Override
@@ -15,12 +15,12 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.common.Page;
 import io.gravitee.am.repository.management.api.ClientRepository;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
-import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
 import io.gravitee.am.repository.mongodb.management.internal.model.ClientMongo;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
@@ -58,12 +58,13 @@ public class MongoClientRepository extends AbstractManagementMongoRepository imp
 
     @PostConstruct
     public void init() {
-        clientsCollection = mongoOperations.getCollection("clients", ClientMongo.class);
-        clientsCollection.createIndex(new Document(FIELD_DOMAIN, 1)).subscribe(new LoggableIndexSubscriber());
-        clientsCollection.createIndex(new Document(FIELD_DOMAIN, 1).append(FIELD_CLIENT_ID, 1)).subscribe(new LoggableIndexSubscriber());
-        clientsCollection.createIndex(new Document(FIELD_IDENTITIES, 1)).subscribe(new LoggableIndexSubscriber());
-        clientsCollection.createIndex(new Document(FIELD_CERTIFICATE, 1)).subscribe(new LoggableIndexSubscriber());
-        clientsCollection.createIndex(new Document(FIELD_GRANT_TYPES, 1)).subscribe(new LoggableIndexSubscriber());
+        clientsCollection = getCollection("clients", ClientMongo.class);
+        ensureIndexes(clientsCollection,
+                new IndexModel(new Document(FIELD_DOMAIN, 1)),
+                new IndexModel(new Document(FIELD_DOMAIN, 1).append(FIELD_CLIENT_ID, 1)),
+                new IndexModel(new Document(FIELD_IDENTITIES, 1)),
+                new IndexModel(new Document(FIELD_CERTIFICATE, 1)),
+                new IndexModel(new Document(FIELD_GRANT_TYPES, 1)));
     }
 
     @Override
@@ -167,6 +168,7 @@ public class MongoClientRepository extends AbstractManagementMongoRepository imp
         client.setCertificate(clientMongo.getCertificate());
         client.setEnhanceScopesWithUserPermissions(clientMongo.isEnhanceScopesWithUserPermissions());
         client.setGenerateNewTokenPerRequest(clientMongo.isGenerateNewTokenPerRequest());
+        client.setStatelessAccessToken(clientMongo.isStatelessAccessToken());
         client.setCreatedAt(clientMongo.getCreatedAt());
         client.setUpdatedAt(clientMongo.getUpdatedAt());
         return client;
@@ -196,6 +198,7 @@ public class MongoClientRepository extends AbstractManagementMongoRepository imp
         clientMongo.setCertificate(client.getCertificate());
         clientMongo.setEnhanceScopesWithUserPermissions(client.isEnhanceScopesWithUserPermissions());
         clientMongo.setGenerateNewTokenPerRequest(client.isGenerateNewTokenPerRequest());
+        clientMongo.setStatelessAccessToken(client.isStatelessAccessToken());
         clientMongo.setCreatedAt(client.getCreatedAt());
         clientMongo.setUpdatedAt(client.getUpdatedAt());
         return clientMongo;
@@ -15,6 +15,9 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.login.LoginForm;
@@ -26,16 +29,22 @@ import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
 import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.set;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -46,14 +55,24 @@ import static com.mongodb.client.model.Filters.in;
 public class MongoDomainRepository extends AbstractManagementMongoRepository implements DomainRepository {
 
     private static final String FIELD_ID = "_id";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
+    private static final String FIELD_DELETED_AT = "deletedAt";
+    // deleted domains are kept long enough for the gateways to catch up between two full synchronizations
+    private static final long TOMBSTONE_TTL_DAYS = 1;
     private MongoCollection<DomainMongo> domainsCollection;
+    private MongoCollection<Document> tombstonesCollection;
 
     @Autowired
     private IdGenerator idGenerator;
 
     @PostConstruct
     public void init() {
-        domainsCollection = mongoOperations.getCollection("domains", DomainMongo.class);
+        domainsCollection = getCollection("domains", DomainMongo.class);
+        ensureIndexes(domainsCollection,
+                new IndexModel(new Document(FIELD_UPDATED_AT, 1)));
+        tombstonesCollection = getCollection("domain_tombstones", Document.class);
+        ensureIndexes(tombstonesCollection,
+                new IndexModel(new Document(FIELD_DELETED_AT, 1), new IndexOptions().expireAfter(TOMBSTONE_TTL_DAYS, TimeUnit.DAYS)));
     }
 
     @Override
@@ -71,11 +90,29 @@ public class MongoDomainRepository extends AbstractManagementMongoRepository imp
         return Observable.fromPublisher(domainsCollection.find(in(FIELD_ID, ids))).map(this::convert).collect(HashSet::new, Set::add);
     }
 
+    @Override
+    public Single<Set<Domain>> findUpdatedSince(Date since) {
+        return Observable.fromPublisher(domainsCollection.find(gte(FIELD_UPDATED_AT, since))).map(this::convert).collect(HashSet::new, Set::add);
+    }
+
+    @Override
+    public Single<Set<String>> findDeletedSince(Date since) {
+        return Observable.fromPublisher(tombstonesCollection.find(gte(FIELD_DELETED_AT, since)).projection(include(FIELD_ID)))
+                .map(tombstone -> tombstone.getString(FIELD_ID))
+                .collect(HashSet::new, Set::add);
+    }
+
     @Override
     public Single<Domain> create(Domain item) {
         DomainMongo domain = convert(item);
-        domain.setId(domain.getId() == null ? (String) idGenerator.generate() : domain.getId());
-        return Single.fromPublisher(domainsCollection.insertOne(domain)).flatMap(success -> findById(domain.getId()).toSingle());
+        if (domain.getId() == null) {
+            domain.setId((String) idGenerator.generate());
+            return Single.fromPublisher(domainsCollection.insertOne(domain)).flatMap(success -> findById(domain.getId()).toSingle());
+        }
+        // a domain re-created with a known identifier must not be seen as deleted
+        return Completable.fromPublisher(tombstonesCollection.deleteOne(eq(FIELD_ID, domain.getId())))
+                .andThen(Single.fromPublisher(domainsCollection.insertOne(domain)))
+                .flatMap(success -> findById(domain.getId()).toSingle());
     }
 
     @Override
@@ -86,7 +123,8 @@ public class MongoDomainRepository extends AbstractManagementMongoRepository imp
 
     @Override
     public Completable delete(String id) {
-        return Completable.fromPublisher(domainsCollection.deleteOne(eq(FIELD_ID, id)));
+        return Completable.fromPublisher(domainsCollection.deleteOne(eq(FIELD_ID, id)))
+                .andThen(Completable.fromPublisher(tombstonesCollection.updateOne(eq(FIELD_ID, id), set(FIELD_DELETED_AT, new Date()), new UpdateOptions().upsert(true))));
     }
 
     private Domain convert(DomainMongo domainMongo) {
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.management;
+
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.common.event.Type;
+import io.gravitee.am.repository.management.api.EventRepository;
+import io.gravitee.am.repository.mongodb.common.IdGenerator;
+import io.gravitee.am.repository.mongodb.management.internal.model.EventMongo;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lte;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Component
+public class MongoEventRepository extends AbstractManagementMongoRepository implements EventRepository {
+
+    private static final String FIELD_ID = "_id";
+    private static final String FIELD_CREATED_AT = "createdAt";
+    private static final String FIELD_PAYLOAD_ID = "id";
+    private static final String FIELD_PAYLOAD_DOMAIN = "domain";
+    private static final String FIELD_PAYLOAD_ACTION = "action";
+    // events are only read by the gateways' incremental synchronization, they don't need to outlive it
+    private static final long EVENT_TTL_DAYS = 1;
+    private MongoCollection<EventMongo> eventsCollection;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @PostConstruct
+    public void init() {
+        eventsCollection = getCollection("events", EventMongo.class);
+        ensureIndexes(eventsCollection,
+                new IndexModel(new Document(FIELD_CREATED_AT, 1), new IndexOptions().expireAfter(EVENT_TTL_DAYS, TimeUnit.DAYS)));
+    }
+
+    @Override
+    public Single<List<Event>> findByTimeFrame(long from, long to) {
+        return Observable.fromPublisher(eventsCollection.find(and(gte(FIELD_CREATED_AT, new Date(from)), lte(FIELD_CREATED_AT, new Date(to)))).sort(new Document(FIELD_CREATED_AT, 1)))
+                .map(this::convert)
+                .toList();
+    }
+
+    @Override
+    public Maybe<Event> findById(String id) {
+        return Observable.fromPublisher(eventsCollection.find(eq(FIELD_ID, id)).first()).firstElement().map(this::convert);
+    }
+
+    @Override
+    public Single<Event> create(Event item) {
+        EventMongo event = convert(item);
+        event.setId(event.getId() == null ? (String) idGenerator.generate() : event.getId());
+        return Single.fromPublisher(eventsCollection.insertOne(event)).flatMap(success -> findById(event.getId()).toSingle());
+    }
+
+    @Override
+    public Single<Event> update(Event item) {
+        EventMongo event = convert(item);
+        return Single.fromPublisher(eventsCollection.replaceOne(eq(FIELD_ID, event.getId()), event)).flatMap(updateResult -> findById(event.getId()).toSingle());
+    }
+
+    @Override
+    public Completable delete(String id) {
+        return Completable.fromPublisher(eventsCollection.deleteOne(eq(FIELD_ID, id)));
+    }
+
+    private Event convert(EventMongo eventMongo) {
+        if (eventMongo == null) {
+            return null;
+        }
+
+        Event event = new Event();
+        event.setId(eventMongo.getId());
+        event.setType(eventMongo.getType() == null ? null : Type.valueOf(eventMongo.getType()));
+        event.setPayload(convert(eventMongo.getPayload()));
+        event.setCreatedAt(eventMongo.getCreatedAt());
+        event.setUpdatedAt(eventMongo.getUpdatedAt());
+        return event;
+    }
+
+    private EventMongo convert(Event event) {
+        if (event == null) {
+            return null;
+        }
+
+        EventMongo eventMongo = new EventMongo();
+        eventMongo.setId(event.getId());
+        eventMongo.setType(event.getType() == null ? null : event.getType().name());
+        eventMongo.setPayload(convert(event.getPayload()));
+        eventMongo.setCreatedAt(event.getCreatedAt());
+        eventMongo.setUpdatedAt(event.getUpdatedAt());
+        return eventMongo;
+    }
+
+    private Payload convert(Document document) {
+        if (document == null) {
+            return null;
+        }
+
+        String action = document.getString(FIELD_PAYLOAD_ACTION);
+        return new Payload(document.getString(FIELD_PAYLOAD_ID), document.getString(FIELD_PAYLOAD_DOMAIN), action == null ? null : Action.valueOf(action));
+    }
+
+    private Document convert(Payload payload) {
+        if (payload == null) {
+            return null;
+        }
+
+        Document document = new Document();
+        document.put(FIELD_PAYLOAD_ID, payload.getId());
+        document.put(FIELD_PAYLOAD_DOMAIN, payload.getDomain());
+        document.put(FIELD_PAYLOAD_ACTION, payload.getAction() == null ? null : payload.getAction().name());
+        return document;
+    }
+}
@@ -15,11 +15,11 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.ExtensionGrant;
 import io.gravitee.am.repository.management.api.ExtensionGrantRepository;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
-import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
 import io.gravitee.am.repository.mongodb.management.internal.model.ExtensionGrantMongo;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
@@ -53,9 +53,10 @@ public class MongoExtensionGrantRepository extends AbstractManagementMongoReposi
 
     @PostConstruct
     public void init() {
-        extensionGrantsCollection = mongoOperations.getCollection("extension_grants", ExtensionGrantMongo.class);
-        extensionGrantsCollection.createIndex(new Document(FIELD_DOMAIN, 1)).subscribe(new LoggableIndexSubscriber());
-        extensionGrantsCollection.createIndex(new Document(FIELD_DOMAIN, 1).append(FIELD_GRANT_TYPE, 1)).subscribe(new LoggableIndexSubscriber());
+        extensionGrantsCollection = getCollection("extension_grants", ExtensionGrantMongo.class);
+        ensureIndexes(extensionGrantsCollection,
+                new IndexModel(new Document(FIELD_DOMAIN, 1)),
+                new IndexModel(new Document(FIELD_DOMAIN, 1).append(FIELD_GRANT_TYPE, 1)));
     }
 
     @Override
@@ -15,11 +15,11 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.IdentityProvider;
 import io.gravitee.am.repository.management.api.IdentityProviderRepository;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
-import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
 import io.gravitee.am.repository.mongodb.management.internal.model.IdentityProviderMongo;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
@@ -51,8 +51,9 @@ public class MongoIdentityProviderRepository extends AbstractManagementMongoRepo
 
     @PostConstruct
     public void init() {
-        identitiesCollection = mongoOperations.getCollection("identities", IdentityProviderMongo.class);
-        identitiesCollection.createIndex(new Document(FIELD_DOMAIN, 1)).subscribe(new LoggableIndexSubscriber());
+        identitiesCollection = getCollection("identities", IdentityProviderMongo.class);
+        ensureIndexes(identitiesCollection,
+                new IndexModel(new Document(FIELD_DOMAIN, 1)));
     }
 
     @Override
@@ -15,11 +15,11 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.Role;
 import io.gravitee.am.repository.management.api.RoleRepository;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
-import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
 import io.gravitee.am.repository.mongodb.management.internal.model.RoleMongo;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
@@ -53,8 +53,9 @@ public class MongoRoleRepository extends AbstractManagementMongoRepository imple
 
     @PostConstruct
     public void init() {
-        rolesCollection = mongoOperations.getCollection("roles", RoleMongo.class);
-        rolesCollection.createIndex(new Document(FIELD_DOMAIN, 1)).subscribe(new LoggableIndexSubscriber());
+        rolesCollection = getCollection("roles", RoleMongo.class);
+        ensureIndexes(rolesCollection,
+                new IndexModel(new Document(FIELD_DOMAIN, 1)));
     }
 
     @Override
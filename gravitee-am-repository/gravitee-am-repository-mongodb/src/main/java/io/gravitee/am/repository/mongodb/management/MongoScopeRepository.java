@@ -15,11 +15,11 @@
  */
 package io.gravitee.am.repository.mongodb.management;
 
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.oauth2.Scope;
 import io.gravitee.am.repository.management.api.ScopeRepository;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
-import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
 import io.gravitee.am.repository.mongodb.management.internal.model.ScopeMongo;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
@@ -54,9 +54,10 @@ public class MongoScopeRepository extends AbstractManagementMongoRepository impl
 
     @PostConstruct
     public void init() {
-        scopesCollection = mongoOperations.getCollection("scopes", ScopeMongo.class);
-        scopesCollection.createIndex(new Document(FIELD_DOMAIN, 1)).subscribe(new LoggableIndexSubscriber());
-        scopesCollection.createIndex(new Document(FIELD_DOMAIN, 1).append(FIELD_KEY, 1)).subscribe(new LoggableIndexSubscriber());
+        scopesCollection = getCollection("scopes", ScopeMongo.class);
+        ensureIndexes(scopesCollection,
+                new IndexModel(new Document(FIELD_DOMAIN, 1)),
+                new IndexModel(new Document(FIELD_DOMAIN, 1).append(FIELD_KEY, 1)));
     }
 
     @Override
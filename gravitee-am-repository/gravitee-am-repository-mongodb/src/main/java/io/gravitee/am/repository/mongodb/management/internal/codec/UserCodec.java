@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.management.internal.codec;
+
+import io.gravitee.am.model.User;
+import io.gravitee.am.repository.mongodb.common.codec.AbstractModelCodec;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.util.ArrayList;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class UserCodec extends AbstractModelCodec<User> {
+
+    public static final String FIELD_USERNAME = "username";
+    public static final String FIELD_PASSWORD = "password";
+    public static final String FIELD_EMAIL = "email";
+    public static final String FIELD_FIRST_NAME = "firstName";
+    public static final String FIELD_LAST_NAME = "lastName";
+    public static final String FIELD_ACCOUNT_NON_EXPIRED = "accountNonExpired";
+    public static final String FIELD_ACCOUNT_NON_LOCKED = "accountNonLocked";
+    public static final String FIELD_CREDENTIALS_NON_EXPIRED = "credentialsNonExpired";
+    public static final String FIELD_ENABLED = "enabled";
+    public static final String FIELD_DOMAIN = "domain";
+    public static final String FIELD_SOURCE = "source";
+    public static final String FIELD_CLIENT = "client";
+    public static final String FIELD_LOGINS_COUNT = "loginsCount";
+    public static final String FIELD_LOGGED_AT = "loggedAt";
+    public static final String FIELD_ROLES = "roles";
+    public static final String FIELD_ADDITIONAL_INFORMATION = "additionalInformation";
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+
+    public UserCodec(CodecRegistry registry) {
+        super(registry);
+    }
+
+    @Override
+    protected User newInstance() {
+        return new User();
+    }
+
+    @Override
+    protected void decodeField(String name, BsonReader reader, User user, DecoderContext decoderContext) {
+        switch (name) {
+            case FIELD_ID:
+                user.setId(readString(reader));
+                break;
+            case FIELD_USERNAME:
+                user.setUsername(reader.readString());
+                break;
+            case FIELD_PASSWORD:
+                user.setPassword(reader.readString());
+                break;
+            case FIELD_EMAIL:
+                user.setEmail(reader.readString());
+                break;
+            case FIELD_FIRST_NAME:
+                user.setFirstName(reader.readString());
+                break;
+            case FIELD_LAST_NAME:
+                user.setLastName(reader.readString());
+                break;
+            case FIELD_ACCOUNT_NON_EXPIRED:
+                user.setAccountNonExpired(reader.readBoolean());
+                break;
+            case FIELD_ACCOUNT_NON_LOCKED:
+                user.setAccountNonLocked(reader.readBoolean());
+                break;
+            case FIELD_CREDENTIALS_NON_EXPIRED:
+                user.setCredentialsNonExpired(reader.readBoolean());
+                break;
+            case FIELD_ENABLED:
+                user.setEnabled(reader.readBoolean());
+                break;
+            case FIELD_DOMAIN:
+                user.setDomain(reader.readString());
+                break;
+            case FIELD_SOURCE:
+                user.setSource(reader.readString());
+                break;
+            case FIELD_CLIENT:
+                user.setClient(reader.readString());
+                break;
+            case FIELD_LOGINS_COUNT:
+                user.setLoginsCount(readLong(reader));
+                break;
+            case FIELD_LOGGED_AT:
+                user.setLoggedAt(readDate(reader));
+                break;
+            case FIELD_ROLES:
+                user.setRoles(readStrings(reader, ArrayList::new));
+                break;
+            case FIELD_ADDITIONAL_INFORMATION:
+                user.setAdditionalInformation(readDocument(reader, decoderContext));
+                break;
+            case FIELD_CREATED_AT:
+                user.setCreatedAt(readDate(reader));
+                break;
+            case FIELD_UPDATED_AT:
+                user.setUpdatedAt(readDate(reader));
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
+    @Override
+    protected void encodeFields(BsonWriter writer, User user, EncoderContext encoderContext) {
+        writeString(writer, FIELD_ID, user.getId());
+        writeString(writer, FIELD_USERNAME, user.getUsername());
+        writeString(writer, FIELD_PASSWORD, user.getPassword());
+        writeString(writer, FIELD_EMAIL, user.getEmail());
+        writeString(writer, FIELD_FIRST_NAME, user.getFirstName());
+        writeString(writer, FIELD_LAST_NAME, user.getLastName());
+        writer.writeBoolean(FIELD_ACCOUNT_NON_EXPIRED, user.isAccountNonExpired());
+        writer.writeBoolean(FIELD_ACCOUNT_NON_LOCKED, user.isAccountNonLocked());
+        writer.writeBoolean(FIELD_CREDENTIALS_NON_EXPIRED, user.isCredentialsNonExpired());
+        writer.writeBoolean(FIELD_ENABLED, user.isEnabled());
+        writeString(writer, FIELD_DOMAIN, user.getDomain());
+        writeString(writer, FIELD_SOURCE, user.getSource());
+        writeString(writer, FIELD_CLIENT, user.getClient());
+        writer.writeInt64(FIELD_LOGINS_COUNT, user.getLoginsCount());
+        writeDate(writer, FIELD_LOGGED_AT, user.getLoggedAt());
+        writeStrings(writer, FIELD_ROLES, user.getRoles());
+        writeDocument(writer, FIELD_ADDITIONAL_INFORMATION, user.getAdditionalInformation(), encoderContext);
+        writeDate(writer, FIELD_CREATED_AT, user.getCreatedAt());
+        writeDate(writer, FIELD_UPDATED_AT, user.getUpdatedAt());
+    }
+
+    @Override
+    public Class<User> getEncoderClass() {
+        return User.class;
+    }
+}
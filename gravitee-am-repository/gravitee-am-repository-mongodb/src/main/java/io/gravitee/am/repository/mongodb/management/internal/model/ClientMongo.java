@@ -75,6 +75,8 @@ public class ClientMongo extends Auditable {
 
     private boolean generateNewTokenPerRequest;
 
+    private boolean statelessAccessToken;
+
     public String getId() {
         return id;
     }
@@ -219,6 +221,14 @@ public class ClientMongo extends Auditable {
         this.generateNewTokenPerRequest = generateNewTokenPerRequest;
     }
 
+    public boolean isStatelessAccessToken() {
+        return statelessAccessToken;
+    }
+
+    public void setStatelessAccessToken(boolean statelessAccessToken) {
+        this.statelessAccessToken = statelessAccessToken;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
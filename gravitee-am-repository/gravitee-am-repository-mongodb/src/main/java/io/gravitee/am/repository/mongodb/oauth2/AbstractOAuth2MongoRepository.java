@@ -15,7 +15,11 @@
  */
 package io.gravitee.am.repository.mongodb.oauth2;
 
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
+import io.gravitee.am.repository.Scope;
+import io.gravitee.am.repository.mongodb.common.AbstractMongoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
@@ -23,9 +27,21 @@ import org.springframework.beans.factory.annotation.Qualifier;
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
  * @author GraviteeSource Team
  */
-public abstract class AbstractOAuth2MongoRepository {
+public abstract class AbstractOAuth2MongoRepository extends AbstractMongoRepository {
 
     @Autowired
     @Qualifier("oauth2MongoTemplate")
     protected MongoDatabase mongoOperations;
+
+    public AbstractOAuth2MongoRepository() {
+        super(Scope.OAUTH2.getName());
+    }
+
+    protected <T> MongoCollection<T> getCollection(String collectionName, Class<T> documentClass) {
+        return getCollection(mongoOperations, collectionName, documentClass);
+    }
+
+    protected void ensureIndexes(MongoCollection<?> collection, IndexModel... indexes) {
+        ensureIndexes(mongoOperations, collection, indexes);
+    }
 }
@@ -15,10 +15,16 @@
  */
 package io.gravitee.am.repository.mongodb.oauth2;
 
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.reactivestreams.client.MongoCollection;
-import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
-import io.gravitee.am.repository.mongodb.oauth2.internal.model.AccessTokenMongo;
+import io.gravitee.am.repository.mongodb.oauth2.internal.codec.AccessTokenCodec;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.model.AccessToken;
 import io.gravitee.am.repository.oauth2.model.AccessTokenCriteria;
@@ -26,25 +32,37 @@ import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
+import org.bson.BsonBinary;
+import org.bson.BsonDocumentWrapper;
 import org.bson.Document;
 import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static com.mongodb.client.model.Filters.*;
 
 /**
+ * Access tokens are stored in the compact layout described in {@link AccessTokenCodec}. Documents of the previous layout
+ * are still looked up by their <code>token</code> field as long as some remain, see {@link #upgrade(int)}. Nodes not
+ * upgraded yet keep writing such documents during a rolling upgrade, their presence is checked again periodically.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
 public class MongoAccessTokenRepository extends AbstractOAuth2MongoRepository implements AccessTokenRepository {
 
-    private MongoCollection<AccessTokenMongo> accessTokenCollection;
+    private static final Logger logger = LoggerFactory.getLogger(MongoAccessTokenRepository.class);
+
+    private MongoCollection<AccessToken> accessTokenCollection;
 
     private static final String FIELD_RESET_TIME = "expire_at";
     private static final String FIELD_CLIENT_ID = "client_id";
@@ -53,57 +71,80 @@ public class MongoAccessTokenRepository extends AbstractOAuth2MongoRepository im
     private static final String FIELD_ID = "_id";
     private static final String FIELD_REQUESTED_SCOPES = "requested_scopes";
     private static final String FIELD_GRANT_TYPE = "grant_type";
+    private static final String FIELD_SCOPES = "scopes";
+    private static final String FIELD_CRITERIA_KEY = "criteria_key";
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    /**
+     * Documents of the previous layout have a random string id, compact ones a binary hash. Comparisons only match
+     * values of the same type, the range of the string ids is a bounded scan of the primary key index.
+     */
+    private static final Bson LEGACY_LAYOUT = gte(FIELD_ID, "");
+
+    /**
+     * Indexes of the previous layout: the token lookup is now a primary key hit and the client_id prefixes are covered
+     * by the client_id/subject index.
+     */
+    private static final List<String> LEGACY_INDEXES = Arrays.asList("token_1", "client_id_1",
+            "client_id_1_subject_1_requested_scopes_1", "client_id_1_subject_1_requested_scopes_1_grant_type_1");
+
+    private static final long LEGACY_CHECK_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private volatile boolean legacyDocuments = true;
+
+    private volatile long legacyCheckedAt;
 
     @PostConstruct
     public void init() {
-        accessTokenCollection = mongoOperations.getCollection("access_tokens", AccessTokenMongo.class);
-        accessTokenCollection.createIndex(new Document(FIELD_CLIENT_ID, 1)).subscribe(new LoggableIndexSubscriber());
-        accessTokenCollection.createIndex(new Document(FIELD_CLIENT_ID, 1).append(FIELD_SUBJECT, 1)).subscribe(new LoggableIndexSubscriber());
-        accessTokenCollection.createIndex(new Document(FIELD_CLIENT_ID, 1).append(FIELD_SUBJECT, 1).append(FIELD_REQUESTED_SCOPES, 1)).subscribe(new LoggableIndexSubscriber());
-        accessTokenCollection.createIndex(new Document(FIELD_CLIENT_ID, 1).append(FIELD_SUBJECT, 1).append(FIELD_REQUESTED_SCOPES, 1).append(FIELD_GRANT_TYPE, 1)).subscribe(new LoggableIndexSubscriber());
-        accessTokenCollection.createIndex(new Document(FIELD_TOKEN, 1)).subscribe(new LoggableIndexSubscriber());
-        accessTokenCollection.createIndex(new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS)).subscribe(new LoggableIndexSubscriber());
-    }
-
-    private Maybe<AccessToken> findById(String id) {
-        return Observable
-                .fromPublisher(accessTokenCollection.find(eq(FIELD_ID, id)).limit(1).first())
-                .firstElement()
-                .map(this::convert);
+        accessTokenCollection = getCollection("access_tokens", AccessToken.class);
+        ensureIndexes(accessTokenCollection,
+                new IndexModel(new Document(FIELD_CLIENT_ID, 1).append(FIELD_SUBJECT, 1)),
+                new IndexModel(new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS)),
+                new IndexModel(new Document(FIELD_CRITERIA_KEY, 1), new IndexOptions().unique(true).partialFilterExpression(exists(FIELD_CRITERIA_KEY))));
+        checkLegacyDocuments();
     }
 
     @Override
     public Maybe<AccessToken> findByToken(String token) {
-        return Observable
+        Maybe<AccessToken> accessToken = Observable
+                .fromPublisher(accessTokenCollection.find(eq(FIELD_ID, new BsonBinary(AccessTokenCodec.tokenHash(token)))).limit(1).first())
+                .firstElement();
+
+        if (!hasLegacyDocuments()) {
+            return accessToken;
+        }
+
+        return accessToken.switchIfEmpty(Observable
                 .fromPublisher(accessTokenCollection.find(eq(FIELD_TOKEN, token)).limit(1).first())
-                .firstElement()
-                .map(this::convert);
+                .firstElement());
     }
 
     @Override
     public Single<AccessToken> create(AccessToken accessToken) {
+        accessToken.setId(AccessTokenCodec.tokenId(accessToken.getToken()));
         return Single
-                .fromPublisher(accessTokenCollection.insertOne(convert(accessToken)))
-                .flatMap(success -> findById(accessToken.getId()).toSingle());
+                .fromPublisher(accessTokenCollection.insertOne(accessToken))
+                .flatMap(success -> readAfterWrite ? findByToken(accessToken.getToken()).toSingle() : Single.just(accessToken));
     }
 
     @Override
     public Completable delete(String token) {
-        return Completable.fromPublisher(accessTokenCollection.findOneAndDelete(eq(FIELD_TOKEN, token)));
+        Bson filter = eq(FIELD_ID, new BsonBinary(AccessTokenCodec.tokenHash(token)));
+        return hasLegacyDocuments() ?
+                Completable.fromPublisher(accessTokenCollection.deleteMany(or(filter, eq(FIELD_TOKEN, token)))) :
+                Completable.fromPublisher(accessTokenCollection.deleteOne(filter));
     }
 
     @Override
     public Observable<AccessToken> findByClientIdAndSubject(String clientId, String subject) {
         return Observable
-                .fromPublisher(accessTokenCollection.find(and(eq(FIELD_CLIENT_ID, clientId), eq(FIELD_SUBJECT, subject))))
-                .map(this::convert);
+                .fromPublisher(accessTokenCollection.find(and(eq(FIELD_CLIENT_ID, clientId), eq(FIELD_SUBJECT, subject))));
     }
 
     @Override
     public Observable<AccessToken> findByClientId(String clientId) {
         return Observable
-                .fromPublisher(accessTokenCollection.find(eq(FIELD_CLIENT_ID, clientId)))
-                .map(this::convert);
+                .fromPublisher(accessTokenCollection.find(eq(FIELD_CLIENT_ID, clientId)));
     }
 
     @Override
@@ -124,7 +165,9 @@ public class MongoAccessTokenRepository extends AbstractOAuth2MongoRepository im
         }
 
         if (accessTokenCriteria.getScopes() != null && !accessTokenCriteria.getScopes().isEmpty()) {
-            filters.add(eq(FIELD_REQUESTED_SCOPES, accessTokenCriteria.getScopes()));
+            // requested scopes are not stored when they are the granted ones
+            filters.add(or(eq(FIELD_REQUESTED_SCOPES, accessTokenCriteria.getScopes()),
+                    and(exists(FIELD_REQUESTED_SCOPES, false), eq(FIELD_SCOPES, accessTokenCriteria.getScopes()))));
         }
 
         if (accessTokenCriteria.getGrantType() != null) {
@@ -136,48 +179,136 @@ public class MongoAccessTokenRepository extends AbstractOAuth2MongoRepository im
             return Maybe.empty();
         }
 
-        return Observable.fromPublisher(accessTokenCollection.find(and(filters)).first()).firstElement().map(this::convert);
+        return Observable.fromPublisher(accessTokenCollection.find(and(filters)).first()).firstElement();
+    }
+
+    @Override
+    public Single<AccessToken> findOrCreate(AccessTokenCriteria accessTokenCriteria, Single<AccessToken> accessTokenCandidate) {
+        final String criteriaKey = criteriaKey(accessTokenCriteria);
+
+        // a single upsert on the unique criteria key stores the candidate or returns the active access token,
+        // the candidate is therefore built even when the active one is re-used
+        return accessTokenCandidate.flatMap(accessToken -> store(criteriaKey, accessToken));
+    }
+
+    @Override
+    public Single<Long> upgrade(int batchSize) {
+        return migrate(batchSize, 0L)
+                .flatMap(migrated -> dropLegacyIndexes().toSingleDefault(migrated));
     }
 
-    private AccessTokenMongo convert(AccessToken accessToken) {
-        if (accessToken == null) {
-            return null;
+    private Single<AccessToken> store(String criteriaKey, AccessToken accessToken) {
+        accessToken.setId(AccessTokenCodec.tokenId(accessToken.getToken()));
+
+        return upsert(criteriaKey, accessToken)
+                .onErrorResumeNext(ex -> {
+                    if (!(ex instanceof MongoException) || ((MongoException) ex).getCode() != DUPLICATE_KEY_ERROR_CODE) {
+                        return Single.error(ex);
+                    }
+                    // the key is still owned by an expired token not yet removed by the TTL monitor
+                    // or a concurrent request has just stored its own token, clean up and try again
+                    return Completable.fromPublisher(accessTokenCollection.deleteMany(and(eq(FIELD_CRITERIA_KEY, criteriaKey), lte(FIELD_RESET_TIME, new Date()))))
+                            .andThen(upsert(criteriaKey, accessToken));
+                })
+                // the stored document does not hold the response-only information (id_token) of the candidate
+                .map(stored -> Objects.equals(stored.getToken(), accessToken.getToken()) ? accessToken : stored);
+    }
+
+    private Single<AccessToken> upsert(String criteriaKey, AccessToken accessToken) {
+        // the criteria key is copied from the filter into the inserted document
+        return Single
+                .fromPublisher(accessTokenCollection.findOneAndUpdate(
+                        and(eq(FIELD_CRITERIA_KEY, criteriaKey), gt(FIELD_RESET_TIME, new Date())),
+                        new Document("$setOnInsert", BsonDocumentWrapper.asBsonDocument(accessToken, accessTokenCollection.getCodecRegistry())),
+                        new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER)));
+    }
+
+    private Single<Long> migrate(int batchSize, long migrated) {
+        return Observable.fromPublisher(accessTokenCollection.find(LEGACY_LAYOUT).limit(batchSize))
+                .toList()
+                .flatMap(batch -> {
+                    if (batch.isEmpty()) {
+                        logger.info("{} access tokens moved to the compact layout", migrated);
+                        return Single.just(migrated);
+                    }
+                    return migrate(batch).andThen(Single.defer(() -> migrate(batchSize, migrated + batch.size())));
+                });
+    }
+
+    private Completable migrate(List<AccessToken> batch) {
+        // the compact copy is written before the legacy document is removed so the token is always found,
+        // it has no criteria key anymore: the next matching token request issues a new token instead of re-using it
+        Date now = new Date();
+        List<AccessToken> activeTokens = batch.stream()
+                .filter(accessToken -> accessToken.getToken() != null && (accessToken.getExpireAt() == null || accessToken.getExpireAt().after(now)))
+                .collect(Collectors.toList());
+        List<String> legacyIds = batch.stream().map(AccessToken::getId).collect(Collectors.toList());
+
+        Completable insert = activeTokens.isEmpty() ? Completable.complete() :
+                Completable.fromPublisher(accessTokenCollection.insertMany(activeTokens, new InsertManyOptions().ordered(false)))
+                        // already moved by a concurrent upgrade
+                        .onErrorResumeNext(ex -> ex instanceof MongoBulkWriteException &&
+                                ((MongoBulkWriteException) ex).getWriteErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR_CODE) ?
+                                Completable.complete() : Completable.error(ex));
+
+        return insert.andThen(Completable.fromPublisher(accessTokenCollection.deleteMany(in(FIELD_ID, legacyIds))));
+    }
+
+    private Completable dropLegacyIndexes() {
+        return Observable.fromPublisher(accessTokenCollection.listIndexes())
+                .map(index -> index.getString("name"))
+                .filter(LEGACY_INDEXES::contains)
+                .toList()
+                .flatMapCompletable(indexes -> indexes.isEmpty() ? Completable.complete() :
+                        // leave the running nodes the time to notice there is no legacy document anymore
+                        Completable.timer(2 * LEGACY_CHECK_INTERVAL, TimeUnit.MILLISECONDS)
+                                .andThen(countLegacyDocuments())
+                                .flatMapCompletable(count -> {
+                                    if (count > 0) {
+                                        // nodes not upgraded yet are still running, their tokens are looked up by the legacy indexes
+                                        logger.warn("Access tokens are still stored in the previous layout, indexes {} are kept", indexes);
+                                        return Completable.complete();
+                                    }
+                                    return Observable.fromIterable(indexes)
+                                            .doOnNext(index -> logger.info("Drop access token index {}", index))
+                                            .flatMapCompletable(index -> Completable.fromPublisher(accessTokenCollection.dropIndex(index)));
+                                }));
+    }
+
+    private boolean hasLegacyDocuments() {
+        // checked even once there is none left, nodes of the previous version may still be running
+        if (System.currentTimeMillis() - legacyCheckedAt > LEGACY_CHECK_INTERVAL) {
+            checkLegacyDocuments();
         }
+        return legacyDocuments;
+    }
 
-        AccessTokenMongo accessTokenMongo = new AccessTokenMongo();
-        accessTokenMongo.setId(accessToken.getId());
-        accessTokenMongo.setToken(accessToken.getToken());
-        accessTokenMongo.setClientId(accessToken.getClientId());
-        accessTokenMongo.setCreatedAt(accessToken.getCreatedAt());
-        accessTokenMongo.setExpireAt(accessToken.getExpireAt());
-        accessTokenMongo.setRefreshToken(accessToken.getRefreshToken());
-        accessTokenMongo.setSubject(accessToken.getSubject());
-        accessTokenMongo.setRequestedScopes(accessToken.getRequestedScopes());
-        accessTokenMongo.setScopes(accessToken.getScopes());
-        accessTokenMongo.setGrantType(accessToken.getGrantType());
-        accessTokenMongo.setAdditionalInformation(accessToken.getAdditionalInformation() != null ? new Document(accessToken.getAdditionalInformation()) : new Document());
-
-        return accessTokenMongo;
-    }
-
-    private AccessToken convert(AccessTokenMongo accessTokenMongo) {
-        if (accessTokenMongo == null) {
-            return null;
+    private void checkLegacyDocuments() {
+        legacyCheckedAt = System.currentTimeMillis();
+        countLegacyDocuments()
+                .subscribe(
+                        count -> legacyDocuments = count > 0,
+                        error -> logger.warn("Unable to check for access tokens stored in the previous layout", error));
+    }
+
+    private Single<Long> countLegacyDocuments() {
+        return Single.fromPublisher(accessTokenCollection.count(LEGACY_LAYOUT, new CountOptions().limit(1)));
+    }
+
+    private String criteriaKey(AccessTokenCriteria accessTokenCriteria) {
+        StringBuilder key = new StringBuilder()
+                .append(accessTokenCriteria.getClientId()).append('|')
+                .append(accessTokenCriteria.getSubject()).append('|')
+                .append(accessTokenCriteria.getGrantType()).append('|');
+        if (accessTokenCriteria.getScopes() != null) {
+            key.append(String.join(" ", new TreeSet<>(accessTokenCriteria.getScopes())));
         }
 
-        AccessToken accessToken = new AccessToken();
-        accessToken.setId(accessTokenMongo.getId());
-        accessToken.setToken(accessTokenMongo.getToken());
-        accessToken.setClientId(accessTokenMongo.getClientId());
-        accessToken.setCreatedAt(accessTokenMongo.getCreatedAt());
-        accessToken.setExpireAt(accessTokenMongo.getExpireAt());
-        accessToken.setRefreshToken(accessTokenMongo.getRefreshToken());
-        accessToken.setSubject(accessTokenMongo.getSubject());
-        accessToken.setRequestedScopes(accessTokenMongo.getRequestedScopes());
-        accessToken.setScopes(accessTokenMongo.getScopes());
-        accessToken.setGrantType(accessTokenMongo.getGrantType());
-        accessToken.setAdditionalInformation(accessTokenMongo.getAdditionalInformation());
-
-        return accessToken;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(key.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception ex) {
+            throw new IllegalStateException("Unable to compute access token criteria key", ex);
+        }
     }
 }
@@ -15,11 +15,10 @@
  */
 package io.gravitee.am.repository.mongodb.oauth2;
 
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
-import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
-import io.gravitee.am.repository.mongodb.oauth2.internal.model.AuthorizationCodeMongo;
 import io.gravitee.am.repository.oauth2.api.AuthorizationCodeRepository;
 import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
 import io.reactivex.Maybe;
@@ -44,23 +43,23 @@ public class MongoAuthorizationCodeRepository extends AbstractOAuth2MongoReposit
     private static final String FIELD_ID = "_id";
     private static final String FIELD_CODE = "code";
     private static final String FIELD_RESET_TIME = "expire_at";
-    private MongoCollection<AuthorizationCodeMongo> authorizationCodeCollection;
+    private MongoCollection<AuthorizationCode> authorizationCodeCollection;
 
     @Autowired
     private IdGenerator idGenerator;
 
     @PostConstruct
     public void init() {
-        authorizationCodeCollection = mongoOperations.getCollection("authorization_codes", AuthorizationCodeMongo.class);
-        authorizationCodeCollection.createIndex(new Document(FIELD_CODE, 1)).subscribe(new LoggableIndexSubscriber());
-        authorizationCodeCollection.createIndex(new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0l, TimeUnit.SECONDS)).subscribe(new LoggableIndexSubscriber());
+        authorizationCodeCollection = getCollection("authorization_codes", AuthorizationCode.class);
+        ensureIndexes(authorizationCodeCollection,
+                new IndexModel(new Document(FIELD_CODE, 1)),
+                new IndexModel(new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0l, TimeUnit.SECONDS)));
     }
 
     private Maybe<AuthorizationCode> findById(String id) {
         return Observable
                 .fromPublisher(authorizationCodeCollection.find(eq(FIELD_ID, id)).first())
-                .firstElement()
-                .map(this::convert);
+                .firstElement();
     }
 
     @Override
@@ -70,53 +69,17 @@ public class MongoAuthorizationCodeRepository extends AbstractOAuth2MongoReposit
         }
 
         return Single
-                .fromPublisher(authorizationCodeCollection.insertOne(convert(authorizationCode)))
-                .flatMap(success -> findById(authorizationCode.getId()).toSingle());
+                .fromPublisher(authorizationCodeCollection.insertOne(authorizationCode))
+                .flatMap(success -> readAfterWrite ? findById(authorizationCode.getId()).toSingle() : Single.just(authorizationCode));
     }
 
     @Override
     public Maybe<AuthorizationCode> delete(String code) {
-        return Observable.fromPublisher(authorizationCodeCollection.findOneAndDelete(eq(FIELD_ID, code))).firstElement().map(this::convert);
+        return Observable.fromPublisher(authorizationCodeCollection.findOneAndDelete(eq(FIELD_ID, code))).firstElement();
     }
 
     @Override
     public Maybe<AuthorizationCode> findByCode(String code) {
-        return Observable.fromPublisher(authorizationCodeCollection.find(eq(FIELD_CODE, code)).first()).firstElement().map(this::convert);
-    }
-
-    private AuthorizationCode convert(AuthorizationCodeMongo authorizationCodeMongo) {
-        if (authorizationCodeMongo == null) {
-            return null;
-        }
-
-        AuthorizationCode authorizationCode = new AuthorizationCode();
-        authorizationCode.setId(authorizationCodeMongo.getId());
-        authorizationCode.setCode(authorizationCodeMongo.getCode());
-        authorizationCode.setClientId(authorizationCodeMongo.getClientId());
-        authorizationCode.setCreatedAt(authorizationCodeMongo.getCreatedAt());
-        authorizationCode.setExpireAt(authorizationCodeMongo.getExpireAt());
-        authorizationCode.setSubject(authorizationCodeMongo.getSubject());
-        authorizationCode.setRedirectUri(authorizationCodeMongo.getRedirectUri());
-        authorizationCode.setScopes(authorizationCodeMongo.getScopes());
-
-        return authorizationCode;
-    }
-
-    private AuthorizationCodeMongo convert(AuthorizationCode authorizationCode) {
-        if (authorizationCode == null) {
-            return null;
-        }
-
-        AuthorizationCodeMongo authorizationCodeMongo = new AuthorizationCodeMongo();
-        authorizationCodeMongo.setId(authorizationCode.getId());
-        authorizationCodeMongo.setCode(authorizationCode.getCode());
-        authorizationCodeMongo.setClientId(authorizationCode.getClientId());
-        authorizationCodeMongo.setCreatedAt(authorizationCode.getCreatedAt());
-        authorizationCodeMongo.setExpireAt(authorizationCode.getExpireAt());
-        authorizationCodeMongo.setSubject(authorizationCode.getSubject());
-        authorizationCodeMongo.setRedirectUri(authorizationCode.getRedirectUri());
-        authorizationCodeMongo.setScopes(authorizationCode.getScopes());
-
-        return authorizationCodeMongo;
+        return Observable.fromPublisher(authorizationCodeCollection.find(eq(FIELD_CODE, code)).first()).firstElement();
     }
 }
@@ -15,11 +15,10 @@
  */
 package io.gravitee.am.repository.mongodb.oauth2;
 
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
-import io.gravitee.am.repository.mongodb.common.LoggableIndexSubscriber;
-import io.gravitee.am.repository.mongodb.oauth2.internal.model.RefreshTokenMongo;
 import io.gravitee.am.repository.oauth2.api.RefreshTokenRepository;
 import io.gravitee.am.repository.oauth2.model.RefreshToken;
 import io.reactivex.Completable;
@@ -42,7 +41,7 @@ import static com.mongodb.client.model.Filters.eq;
 @Component
 public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository implements RefreshTokenRepository {
 
-    private MongoCollection<RefreshTokenMongo> refreshTokenCollection;
+    private MongoCollection<RefreshToken> refreshTokenCollection;
     private static final String FIELD_ID = "_id";
     private static final String FIELD_RESET_TIME = "expire_at";
     private static final String FIELD_TOKEN = "token";
@@ -52,16 +51,16 @@ public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository i
 
     @PostConstruct
     public void init() {
-        refreshTokenCollection = mongoOperations.getCollection("refresh_tokens", RefreshTokenMongo.class);
-        refreshTokenCollection.createIndex(new Document(FIELD_TOKEN, 1)).subscribe(new LoggableIndexSubscriber());
-        refreshTokenCollection.createIndex(new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS)).subscribe(new LoggableIndexSubscriber());
+        refreshTokenCollection = getCollection("refresh_tokens", RefreshToken.class);
+        ensureIndexes(refreshTokenCollection,
+                new IndexModel(new Document(FIELD_TOKEN, 1)),
+                new IndexModel(new Document(FIELD_RESET_TIME, 1), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS)));
     }
 
     private Maybe<RefreshToken> findById(String id) {
         return Observable
                 .fromPublisher(refreshTokenCollection.find(eq(FIELD_ID, id)).first())
-                .firstElement()
-                .map(this::convert);
+                .firstElement();
     }
 
 
@@ -69,8 +68,7 @@ public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository i
     public Maybe<RefreshToken> findByToken(String token) {
         return Observable
                 .fromPublisher(refreshTokenCollection.find(eq(FIELD_TOKEN, token)).first())
-                .firstElement()
-                .map(this::convert);
+                .firstElement();
     }
 
     @Override
@@ -80,44 +78,12 @@ public class MongoRefreshTokenRepository extends AbstractOAuth2MongoRepository i
         }
 
         return Single
-                .fromPublisher(refreshTokenCollection.insertOne(convert(refreshToken)))
-                .flatMap(success -> findById(refreshToken.getId()).toSingle());
+                .fromPublisher(refreshTokenCollection.insertOne(refreshToken))
+                .flatMap(success -> readAfterWrite ? findById(refreshToken.getId()).toSingle() : Single.just(refreshToken));
     }
 
     @Override
     public Completable delete(String token) {
         return Completable.fromPublisher(refreshTokenCollection.deleteOne(eq(FIELD_TOKEN, token)));
     }
-
-    private RefreshTokenMongo convert(RefreshToken refreshToken) {
-        if (refreshToken == null) {
-            return null;
-        }
-
-        RefreshTokenMongo refreshTokenMongo = new RefreshTokenMongo();
-        refreshTokenMongo.setId(refreshToken.getId());
-        refreshTokenMongo.setToken(refreshToken.getToken());
-        refreshTokenMongo.setClientId(refreshToken.getClientId());
-        refreshTokenMongo.setSubject(refreshToken.getSubject());
-        refreshTokenMongo.setCreatedAt(refreshToken.getCreatedAt());
-        refreshTokenMongo.setExpireAt(refreshToken.getExpireAt());
-
-        return refreshTokenMongo;
-    }
-
-    private RefreshToken convert(RefreshTokenMongo refreshTokenMongo) {
-        if (refreshTokenMongo == null) {
-            return null;
-        }
-
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setId(refreshTokenMongo.getId());
-        refreshToken.setToken(refreshTokenMongo.getToken());
-        refreshToken.setClientId(refreshTokenMongo.getClientId());
-        refreshToken.setSubject(refreshTokenMongo.getSubject());
-        refreshToken.setCreatedAt(refreshTokenMongo.getCreatedAt());
-        refreshToken.setExpireAt(refreshTokenMongo.getExpireAt());
-
-        return refreshToken;
-    }
 }
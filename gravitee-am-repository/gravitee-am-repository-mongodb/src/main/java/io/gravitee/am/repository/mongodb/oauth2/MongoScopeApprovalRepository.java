@@ -15,20 +15,17 @@
  */
 package io.gravitee.am.repository.mongodb.oauth2;
 
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import io.gravitee.am.model.oauth2.ScopeApproval;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
-import io.gravitee.am.repository.mongodb.oauth2.internal.model.ScopeApprovalMongo;
 import io.gravitee.am.repository.oauth2.api.ScopeApprovalRepository;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
-import io.reactivex.subscribers.DefaultSubscriber;
 import org.bson.Document;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -49,24 +46,24 @@ import static com.mongodb.client.model.Filters.eq;
 @Component
 public class MongoScopeApprovalRepository extends AbstractOAuth2MongoRepository implements ScopeApprovalRepository {
 
-    private static final Logger logger = LoggerFactory.getLogger(MongoScopeApprovalRepository.class);
     private static final String FIELD_ID = "_id";
     private static final String FIELD_DOMAIN = "domain";
     private static final String FIELD_USER_ID = "userId";
     private static final String FIELD_CLIENT_ID = "clientId";
     private static final String FIELD_EXPIRES_AT = "expiresAt";
     private static final String FIELD_SCOPE = "scope";
-    private MongoCollection<ScopeApprovalMongo> scopeApprovalsCollection;
+    private MongoCollection<ScopeApproval> scopeApprovalsCollection;
 
     @Autowired
     private IdGenerator idGenerator;
 
     @PostConstruct
     public void init() {
-        scopeApprovalsCollection = mongoOperations.getCollection("scope_approvals", ScopeApprovalMongo.class);
-        scopeApprovalsCollection.createIndex(new Document(FIELD_EXPIRES_AT, 1),  new IndexOptions().expireAfter(0l, TimeUnit.SECONDS)).subscribe(new IndexSubscriber());
-        scopeApprovalsCollection.createIndex(new Document(FIELD_DOMAIN, 1).append(FIELD_CLIENT_ID, 1).append(FIELD_USER_ID, 1)).subscribe(new IndexSubscriber());
-        scopeApprovalsCollection.createIndex(new Document(FIELD_DOMAIN, 1).append(FIELD_CLIENT_ID, 1).append(FIELD_USER_ID, 1).append(FIELD_SCOPE, 1)).subscribe(new IndexSubscriber());
+        scopeApprovalsCollection = getCollection("scope_approvals", ScopeApproval.class);
+        ensureIndexes(scopeApprovalsCollection,
+                new IndexModel(new Document(FIELD_EXPIRES_AT, 1), new IndexOptions().expireAfter(0l, TimeUnit.SECONDS)),
+                new IndexModel(new Document(FIELD_DOMAIN, 1).append(FIELD_CLIENT_ID, 1).append(FIELD_USER_ID, 1)),
+                new IndexModel(new Document(FIELD_DOMAIN, 1).append(FIELD_CLIENT_ID, 1).append(FIELD_USER_ID, 1).append(FIELD_SCOPE, 1)));
     }
 
     @Override
@@ -76,21 +73,18 @@ public class MongoScopeApprovalRepository extends AbstractOAuth2MongoRepository
 
     @Override
     public Single<ScopeApproval> create(ScopeApproval scopeApproval) {
-        ScopeApprovalMongo scopeApprovalMongo = convert(scopeApproval);
-        scopeApprovalMongo.setId(scopeApprovalMongo.getId() == null ? (String) idGenerator.generate() : scopeApprovalMongo.getId());
-        return Single.fromPublisher(scopeApprovalsCollection.insertOne(scopeApprovalMongo)).flatMap(success -> _findById(scopeApprovalMongo.getId()));
+        scopeApproval.setId(scopeApproval.getId() == null ? (String) idGenerator.generate() : scopeApproval.getId());
+        return Single.fromPublisher(scopeApprovalsCollection.insertOne(scopeApproval)).flatMap(success -> _findById(scopeApproval.getId()));
     }
 
     @Override
     public Single<ScopeApproval> update(ScopeApproval scopeApproval) {
-        ScopeApprovalMongo scopeApprovalMongo = convert(scopeApproval);
-
         return Single.fromPublisher(scopeApprovalsCollection.replaceOne(
                 and(eq(FIELD_DOMAIN, scopeApproval.getDomain()),
                         eq(FIELD_CLIENT_ID, scopeApproval.getClientId()),
                         eq(FIELD_USER_ID, scopeApproval.getUserId()),
                         eq(FIELD_SCOPE, scopeApproval.getScope()))
-                , scopeApprovalMongo)).flatMap(updateResult -> Single.just(scopeApproval));
+                , scopeApproval)).flatMap(updateResult -> Single.just(scopeApproval));
     }
 
     @Override
@@ -119,61 +113,10 @@ public class MongoScopeApprovalRepository extends AbstractOAuth2MongoRepository
 
     @Override
     public Single<Set<ScopeApproval>> findByDomainAndUserAndClient(String domain, String userId, String clientId) {
-        return Observable.fromPublisher(scopeApprovalsCollection.find(and(eq(FIELD_DOMAIN, domain), eq(FIELD_CLIENT_ID, clientId), eq(FIELD_USER_ID, userId)))).map(this::convert).collect(HashSet::new, Set::add);
+        return Observable.fromPublisher(scopeApprovalsCollection.find(and(eq(FIELD_DOMAIN, domain), eq(FIELD_CLIENT_ID, clientId), eq(FIELD_USER_ID, userId)))).collect(HashSet::new, Set::add);
     }
 
     private Single<ScopeApproval> _findById(String id) {
-        return Single.fromPublisher(scopeApprovalsCollection.find(eq(FIELD_ID, id)).first()).map(this::convert);
-    }
-
-    private ScopeApproval convert(ScopeApprovalMongo scopeApprovalMongo) {
-        if (scopeApprovalMongo == null) {
-            return null;
-        }
-
-        ScopeApproval scopeApproval = new ScopeApproval();
-        scopeApproval.setClientId(scopeApprovalMongo.getClientId());
-        scopeApproval.setUserId(scopeApprovalMongo.getUserId());
-        scopeApproval.setScope(scopeApprovalMongo.getScope());
-        scopeApproval.setExpiresAt(scopeApprovalMongo.getExpiresAt());
-        scopeApproval.setStatus(ScopeApproval.ApprovalStatus.valueOf(scopeApprovalMongo.getStatus().toUpperCase()));
-        scopeApproval.setDomain(scopeApprovalMongo.getDomain());
-        scopeApproval.setUpdatedAt(scopeApprovalMongo.getUpdatedAt());
-
-        return scopeApproval;
-    }
-
-    private ScopeApprovalMongo convert(ScopeApproval scopeApproval) {
-        if (scopeApproval == null) {
-            return null;
-        }
-
-        ScopeApprovalMongo scopeApprovalMongo = new ScopeApprovalMongo();
-        scopeApprovalMongo.setClientId(scopeApproval.getClientId());
-        scopeApprovalMongo.setUserId(scopeApproval.getUserId());
-        scopeApprovalMongo.setScope(scopeApproval.getScope());
-        scopeApprovalMongo.setExpiresAt(scopeApproval.getExpiresAt());
-        scopeApprovalMongo.setStatus(scopeApproval.getStatus().name().toUpperCase());
-        scopeApprovalMongo.setDomain(scopeApproval.getDomain());
-        scopeApprovalMongo.setUpdatedAt(scopeApproval.getUpdatedAt());
-
-        return scopeApprovalMongo;
-    }
-
-    private class IndexSubscriber extends DefaultSubscriber<String> {
-        @Override
-        public void onNext(String value) {
-            logger.debug("Created an index named : " + value);
-        }
-
-        @Override
-        public void onError(Throwable throwable) {
-            logger.error("Error occurs during indexing", throwable);
-        }
-
-        @Override
-        public void onComplete() {
-            logger.debug("Index creation complete");
-        }
+        return Single.fromPublisher(scopeApprovalsCollection.find(eq(FIELD_ID, id)).first());
     }
 }
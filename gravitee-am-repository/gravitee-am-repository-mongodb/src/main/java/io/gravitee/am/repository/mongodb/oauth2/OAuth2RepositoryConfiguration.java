@@ -22,6 +22,7 @@ import io.gravitee.am.repository.mongodb.common.AbstractRepositoryConfiguration;
 import io.gravitee.am.repository.mongodb.common.IdGenerator;
 import io.gravitee.am.repository.mongodb.common.MongoFactory;
 import io.gravitee.am.repository.mongodb.common.UUIDIdGenerator;
+import io.gravitee.am.repository.mongodb.common.metrics.MongoMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
@@ -46,6 +47,11 @@ public class OAuth2RepositoryConfiguration extends AbstractRepositoryConfigurati
         return new MongoFactory(Scope.OAUTH2.getName());
     }
 
+    @Bean(name = "oauth2MongoMetrics")
+    public static MongoMetrics mongoMetrics() {
+        return new MongoMetrics(Scope.OAUTH2.getName());
+    }
+
     @Bean(name = "oauth2MongoTemplate")
     public MongoDatabase mongoOperations() {
         return mongo.getDatabase(getDatabaseName());
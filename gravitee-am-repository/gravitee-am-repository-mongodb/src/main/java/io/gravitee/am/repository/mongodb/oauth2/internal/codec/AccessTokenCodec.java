@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.oauth2.internal.codec;
+
+import io.gravitee.am.repository.mongodb.common.codec.AbstractModelCodec;
+import io.gravitee.am.repository.oauth2.model.AccessToken;
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Access tokens are stored in a compact layout:
+ * <ul>
+ *     <li>the <code>_id</code> is the SHA-256 hash of the token value (binary), a token lookup is a primary key hit</li>
+ *     <li><code>requested_scopes</code> is only written when it differs from <code>scopes</code></li>
+ *     <li>response-only additional information (the signed id_token, see {@link AccessToken#RESPONSE_ONLY_INFORMATION}) is not persisted</li>
+ * </ul>
+ * Documents written in the previous layout (random string <code>_id</code>) are still decoded, the model id is then the
+ * stored one instead of the base64url encoded hash.
+ *
+ * @author GraviteeSource Team
+ */
+public class AccessTokenCodec extends AbstractModelCodec<AccessToken> {
+
+    public static final String FIELD_TOKEN = "token";
+    public static final String FIELD_CREATED_AT = "created_at";
+    public static final String FIELD_EXPIRE_AT = "expire_at";
+    public static final String FIELD_CLIENT_ID = "client_id";
+    public static final String FIELD_REQUESTED_SCOPES = "requested_scopes";
+    public static final String FIELD_SCOPES = "scopes";
+    public static final String FIELD_REFRESH_TOKEN = "refresh_token";
+    public static final String FIELD_SUBJECT = "subject";
+    public static final String FIELD_GRANT_TYPE = "grant_type";
+    public static final String FIELD_ADDITIONAL_INFORMATION = "additionalInformation";
+
+    public AccessTokenCodec(CodecRegistry registry) {
+        super(registry);
+    }
+
+    /**
+     * The primary key of an access token stored in the compact layout.
+     */
+    public static byte[] tokenHash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to compute access token hash", ex);
+        }
+    }
+
+    /**
+     * The model id of an access token stored in the compact layout.
+     */
+    public static String tokenId(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(tokenHash(token));
+    }
+
+    @Override
+    public AccessToken decode(BsonReader reader, DecoderContext decoderContext) {
+        AccessToken accessToken = super.decode(reader, decoderContext);
+        if (accessToken.getRequestedScopes() == null) {
+            accessToken.setRequestedScopes(accessToken.getScopes());
+        }
+        return accessToken;
+    }
+
+    @Override
+    protected AccessToken newInstance() {
+        return new AccessToken();
+    }
+
+    @Override
+    protected void decodeField(String name, BsonReader reader, AccessToken accessToken, DecoderContext decoderContext) {
+        switch (name) {
+            case FIELD_ID:
+                accessToken.setId(reader.getCurrentBsonType() == BsonType.BINARY ?
+                        Base64.getUrlEncoder().withoutPadding().encodeToString(reader.readBinaryData().getData()) : readString(reader));
+                break;
+            case FIELD_TOKEN:
+                accessToken.setToken(reader.readString());
+                break;
+            case FIELD_CREATED_AT:
+                accessToken.setCreatedAt(readDate(reader));
+                break;
+            case FIELD_EXPIRE_AT:
+                accessToken.setExpireAt(readDate(reader));
+                break;
+            case FIELD_CLIENT_ID:
+                accessToken.setClientId(reader.readString());
+                break;
+            case FIELD_REQUESTED_SCOPES:
+                accessToken.setRequestedScopes(readStrings(reader, HashSet::new));
+                break;
+            case FIELD_SCOPES:
+                accessToken.setScopes(readStrings(reader, HashSet::new));
+                break;
+            case FIELD_REFRESH_TOKEN:
+                accessToken.setRefreshToken(reader.readString());
+                break;
+            case FIELD_SUBJECT:
+                accessToken.setSubject(reader.readString());
+                break;
+            case FIELD_GRANT_TYPE:
+                accessToken.setGrantType(reader.readString());
+                break;
+            case FIELD_ADDITIONAL_INFORMATION:
+                accessToken.setAdditionalInformation(readDocument(reader, decoderContext));
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
+    @Override
+    protected void encodeFields(BsonWriter writer, AccessToken accessToken, EncoderContext encoderContext) {
+        if (accessToken.getToken() != null) {
+            writer.writeBinaryData(FIELD_ID, new BsonBinary(tokenHash(accessToken.getToken())));
+        }
+        writeString(writer, FIELD_TOKEN, accessToken.getToken());
+        writeDate(writer, FIELD_CREATED_AT, accessToken.getCreatedAt());
+        writeDate(writer, FIELD_EXPIRE_AT, accessToken.getExpireAt());
+        writeString(writer, FIELD_CLIENT_ID, accessToken.getClientId());
+        if (accessToken.getRequestedScopes() != null && !accessToken.getRequestedScopes().equals(accessToken.getScopes())) {
+            writeStrings(writer, FIELD_REQUESTED_SCOPES, accessToken.getRequestedScopes());
+        }
+        writeStrings(writer, FIELD_SCOPES, accessToken.getScopes());
+        writeString(writer, FIELD_REFRESH_TOKEN, accessToken.getRefreshToken());
+        writeString(writer, FIELD_SUBJECT, accessToken.getSubject());
+        writeString(writer, FIELD_GRANT_TYPE, accessToken.getGrantType());
+        writeDocument(writer, FIELD_ADDITIONAL_INFORMATION, persistentInformation(accessToken.getAdditionalInformation()), encoderContext);
+    }
+
+    private Map<String, Object> persistentInformation(Map<String, Object> additionalInformation) {
+        if (additionalInformation == null || additionalInformation.isEmpty()) {
+            return null;
+        }
+        if (Collections.disjoint(additionalInformation.keySet(), AccessToken.RESPONSE_ONLY_INFORMATION)) {
+            return additionalInformation;
+        }
+        Document persistentInformation = new Document(additionalInformation);
+        persistentInformation.keySet().removeAll(AccessToken.RESPONSE_ONLY_INFORMATION);
+        return persistentInformation.isEmpty() ? null : persistentInformation;
+    }
+
+    @Override
+    public Class<AccessToken> getEncoderClass() {
+        return AccessToken.class;
+    }
+}
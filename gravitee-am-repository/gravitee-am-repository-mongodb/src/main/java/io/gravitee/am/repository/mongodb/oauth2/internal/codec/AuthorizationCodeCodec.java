@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.oauth2.internal.codec;
+
+import io.gravitee.am.repository.mongodb.common.codec.AbstractModelCodec;
+import io.gravitee.am.repository.oauth2.model.AuthorizationCode;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.util.HashSet;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AuthorizationCodeCodec extends AbstractModelCodec<AuthorizationCode> {
+
+    public static final String FIELD_CODE = "code";
+    public static final String FIELD_CREATED_AT = "created_at";
+    public static final String FIELD_EXPIRE_AT = "expire_at";
+    public static final String FIELD_CLIENT_ID = "client_id";
+    public static final String FIELD_SUBJECT = "subject";
+    public static final String FIELD_REDIRECT_URI = "redirect_uri";
+    public static final String FIELD_SCOPES = "scopes";
+
+    public AuthorizationCodeCodec(CodecRegistry registry) {
+        super(registry);
+    }
+
+    @Override
+    protected AuthorizationCode newInstance() {
+        return new AuthorizationCode();
+    }
+
+    @Override
+    protected void decodeField(String name, BsonReader reader, AuthorizationCode authorizationCode, DecoderContext decoderContext) {
+        switch (name) {
+            case FIELD_ID:
+                authorizationCode.setId(readString(reader));
+                break;
+            case FIELD_CODE:
+                authorizationCode.setCode(reader.readString());
+                break;
+            case FIELD_CREATED_AT:
+                authorizationCode.setCreatedAt(readDate(reader));
+                break;
+            case FIELD_EXPIRE_AT:
+                authorizationCode.setExpireAt(readDate(reader));
+                break;
+            case FIELD_CLIENT_ID:
+                authorizationCode.setClientId(reader.readString());
+                break;
+            case FIELD_SUBJECT:
+                authorizationCode.setSubject(reader.readString());
+                break;
+            case FIELD_REDIRECT_URI:
+                authorizationCode.setRedirectUri(reader.readString());
+                break;
+            case FIELD_SCOPES:
+                authorizationCode.setScopes(readStrings(reader, HashSet::new));
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
+    @Override
+    protected void encodeFields(BsonWriter writer, AuthorizationCode authorizationCode, EncoderContext encoderContext) {
+        writeString(writer, FIELD_ID, authorizationCode.getId());
+        writeString(writer, FIELD_CODE, authorizationCode.getCode());
+        writeDate(writer, FIELD_CREATED_AT, authorizationCode.getCreatedAt());
+        writeDate(writer, FIELD_EXPIRE_AT, authorizationCode.getExpireAt());
+        writeString(writer, FIELD_CLIENT_ID, authorizationCode.getClientId());
+        writeString(writer, FIELD_SUBJECT, authorizationCode.getSubject());
+        writeString(writer, FIELD_REDIRECT_URI, authorizationCode.getRedirectUri());
+        writeStrings(writer, FIELD_SCOPES, authorizationCode.getScopes());
+    }
+
+    @Override
+    public Class<AuthorizationCode> getEncoderClass() {
+        return AuthorizationCode.class;
+    }
+}
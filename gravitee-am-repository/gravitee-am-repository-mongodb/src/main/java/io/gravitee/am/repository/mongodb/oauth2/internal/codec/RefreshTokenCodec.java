@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.oauth2.internal.codec;
+
+import io.gravitee.am.repository.mongodb.common.codec.AbstractModelCodec;
+import io.gravitee.am.repository.oauth2.model.RefreshToken;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RefreshTokenCodec extends AbstractModelCodec<RefreshToken> {
+
+    public static final String FIELD_TOKEN = "token";
+    public static final String FIELD_CLIENT_ID = "client_id";
+    public static final String FIELD_SUBJECT = "subject";
+    public static final String FIELD_CREATED_AT = "created_at";
+    public static final String FIELD_EXPIRE_AT = "expire_at";
+
+    public RefreshTokenCodec(CodecRegistry registry) {
+        super(registry);
+    }
+
+    @Override
+    protected RefreshToken newInstance() {
+        return new RefreshToken();
+    }
+
+    @Override
+    protected void decodeField(String name, BsonReader reader, RefreshToken refreshToken, DecoderContext decoderContext) {
+        switch (name) {
+            case FIELD_ID:
+                refreshToken.setId(readString(reader));
+                break;
+            case FIELD_TOKEN:
+                refreshToken.setToken(reader.readString());
+                break;
+            case FIELD_CLIENT_ID:
+                refreshToken.setClientId(reader.readString());
+                break;
+            case FIELD_SUBJECT:
+                refreshToken.setSubject(reader.readString());
+                break;
+            case FIELD_CREATED_AT:
+                refreshToken.setCreatedAt(readDate(reader));
+                break;
+            case FIELD_EXPIRE_AT:
+                refreshToken.setExpireAt(readDate(reader));
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
+    @Override
+    protected void encodeFields(BsonWriter writer, RefreshToken refreshToken, EncoderContext encoderContext) {
+        writeString(writer, FIELD_ID, refreshToken.getId());
+        writeString(writer, FIELD_TOKEN, refreshToken.getToken());
+        writeString(writer, FIELD_CLIENT_ID, refreshToken.getClientId());
+        writeString(writer, FIELD_SUBJECT, refreshToken.getSubject());
+        writeDate(writer, FIELD_CREATED_AT, refreshToken.getCreatedAt());
+        writeDate(writer, FIELD_EXPIRE_AT, refreshToken.getExpireAt());
+    }
+
+    @Override
+    public Class<RefreshToken> getEncoderClass() {
+        return RefreshToken.class;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.oauth2.internal.codec;
+
+import io.gravitee.am.model.oauth2.ScopeApproval;
+import io.gravitee.am.repository.mongodb.common.codec.AbstractModelCodec;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ScopeApprovalCodec extends AbstractModelCodec<ScopeApproval> {
+
+    public static final String FIELD_USER_ID = "userId";
+    public static final String FIELD_CLIENT_ID = "clientId";
+    public static final String FIELD_SCOPE = "scope";
+    public static final String FIELD_STATUS = "status";
+    public static final String FIELD_EXPIRES_AT = "expiresAt";
+    public static final String FIELD_DOMAIN = "domain";
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+
+    public ScopeApprovalCodec(CodecRegistry registry) {
+        super(registry);
+    }
+
+    @Override
+    protected ScopeApproval newInstance() {
+        return new ScopeApproval();
+    }
+
+    @Override
+    protected void decodeField(String name, BsonReader reader, ScopeApproval scopeApproval, DecoderContext decoderContext) {
+        switch (name) {
+            case FIELD_ID:
+                scopeApproval.setId(readString(reader));
+                break;
+            case FIELD_USER_ID:
+                scopeApproval.setUserId(reader.readString());
+                break;
+            case FIELD_CLIENT_ID:
+                scopeApproval.setClientId(reader.readString());
+                break;
+            case FIELD_SCOPE:
+                scopeApproval.setScope(reader.readString());
+                break;
+            case FIELD_STATUS:
+                scopeApproval.setStatus(ScopeApproval.ApprovalStatus.valueOf(reader.readString().toUpperCase()));
+                break;
+            case FIELD_EXPIRES_AT:
+                scopeApproval.setExpiresAt(readDate(reader));
+                break;
+            case FIELD_DOMAIN:
+                scopeApproval.setDomain(reader.readString());
+                break;
+            case FIELD_UPDATED_AT:
+                scopeApproval.setUpdatedAt(readDate(reader));
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
+    @Override
+    protected void encodeFields(BsonWriter writer, ScopeApproval scopeApproval, EncoderContext encoderContext) {
+        writeString(writer, FIELD_ID, scopeApproval.getId());
+        writeString(writer, FIELD_USER_ID, scopeApproval.getUserId());
+        writeString(writer, FIELD_CLIENT_ID, scopeApproval.getClientId());
+        writeString(writer, FIELD_SCOPE, scopeApproval.getScope());
+        writeString(writer, FIELD_STATUS, scopeApproval.getStatus() != null ? scopeApproval.getStatus().name() : null);
+        writeDate(writer, FIELD_EXPIRES_AT, scopeApproval.getExpiresAt());
+        writeString(writer, FIELD_DOMAIN, scopeApproval.getDomain());
+        writeDate(writer, FIELD_UPDATED_AT, scopeApproval.getUpdatedAt());
+    }
+
+    @Override
+    public Class<ScopeApproval> getEncoderClass() {
+        return ScopeApproval.class;
+    }
+}
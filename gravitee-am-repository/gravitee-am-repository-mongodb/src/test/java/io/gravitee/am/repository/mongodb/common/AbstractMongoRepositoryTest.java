@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.common;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AbstractMongoRepositoryTest {
+
+    private MockEnvironment environment;
+    private TestRepository repository;
+    private MongoDatabase database;
+    private MongoCollection<Document> collection;
+
+    @Before
+    public void setUp() {
+        environment = new MockEnvironment();
+        repository = new TestRepository();
+        ReflectionTestUtils.setField(repository, "environment", environment);
+
+        database = mock(MongoDatabase.class);
+        collection = mock(MongoCollection.class);
+        when(database.getCollection("users", Document.class)).thenReturn(collection);
+    }
+
+    @Test
+    public void shouldUseDefaultSettings() {
+        repository.initRepository();
+
+        Assert.assertSame(collection, repository.getCollection(database, "users", Document.class));
+        Assert.assertFalse(repository.readAfterWrite);
+        verify(collection, never()).withWriteConcern(any(WriteConcern.class));
+        verify(collection, never()).withReadPreference(any(ReadPreference.class));
+        verify(collection, never()).withReadConcern(any(ReadConcern.class));
+    }
+
+    @Test
+    public void shouldReadAfterWrite() {
+        environment.setProperty("management.mongodb.readAfterWrite", "true");
+
+        repository.initRepository();
+
+        Assert.assertTrue(repository.readAfterWrite);
+    }
+
+    @Test
+    public void shouldApplyCollectionSettings() {
+        environment.setProperty("management.mongodb.collections.users.writeConcern", "majority");
+        environment.setProperty("management.mongodb.collections.users.readPreference", "secondaryPreferred");
+        environment.setProperty("management.mongodb.collections.users.readConcern", "local");
+        MongoCollection<Document> configuredCollection = configuredCollection();
+        when(collection.withWriteConcern(WriteConcern.MAJORITY)).thenReturn(configuredCollection);
+        when(configuredCollection.withReadPreference(ReadPreference.secondaryPreferred())).thenReturn(configuredCollection);
+        when(configuredCollection.withReadConcern(ReadConcern.LOCAL)).thenReturn(configuredCollection);
+
+        Assert.assertSame(configuredCollection, repository.getCollection(database, "users", Document.class));
+        verify(collection, times(1)).withWriteConcern(WriteConcern.MAJORITY);
+        verify(configuredCollection, times(1)).withReadPreference(ReadPreference.secondaryPreferred());
+        verify(configuredCollection, times(1)).withReadConcern(ReadConcern.LOCAL);
+    }
+
+    @Test
+    public void shouldApplyWriteConcern_w1() {
+        environment.setProperty("management.mongodb.collections.users.writeConcern", "w1");
+        MongoCollection<Document> configuredCollection = configuredCollection();
+        when(collection.withWriteConcern(WriteConcern.W1)).thenReturn(configuredCollection);
+
+        Assert.assertSame(configuredCollection, repository.getCollection(database, "users", Document.class));
+        verify(configuredCollection, never()).withReadPreference(any(ReadPreference.class));
+    }
+
+    @Test
+    public void shouldNotApplyOtherCollectionSettings() {
+        environment.setProperty("management.mongodb.collections.clients.writeConcern", "majority");
+        // settings of another scope
+        environment.setProperty("oauth2.mongodb.collections.users.writeConcern", "majority");
+
+        Assert.assertSame(collection, repository.getCollection(database, "users", Document.class));
+        verify(collection, never()).withWriteConcern(any(WriteConcern.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownWriteConcern() {
+        environment.setProperty("management.mongodb.collections.users.writeConcern", "unknown");
+
+        repository.getCollection(database, "users", Document.class);
+    }
+
+    @Test
+    public void shouldRejectUnknownIndexesMode() {
+        environment.setProperty("repository.indexes.mode", "crate");
+
+        try {
+            repository.checkIndexes(database, collection, new IndexModel(Indexes.ascending("username")));
+            Assert.fail("An invalid mode must be rejected");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("Invalid repository.indexes.mode [crate], expected one of: create, verify, none", ex.getMessage());
+        }
+        verify(collection, never()).listIndexes();
+    }
+
+    @Test
+    public void shouldSkipIndexes_none() {
+        environment.setProperty("repository.indexes.mode", "none");
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("test", "users"));
+
+        repository.checkIndexes(database, collection, new IndexModel(Indexes.ascending("username"))).test().assertComplete();
+
+        verify(collection, never()).listIndexes();
+        verify(collection, never()).createIndex(any(Bson.class), any(IndexOptions.class));
+    }
+
+    private MongoCollection<Document> configuredCollection() {
+        MongoCollection<Document> configuredCollection = mock(MongoCollection.class);
+        when(configuredCollection.getReadPreference()).thenReturn(ReadPreference.primary());
+        when(configuredCollection.getReadConcern()).thenReturn(ReadConcern.DEFAULT);
+        when(configuredCollection.getWriteConcern()).thenReturn(WriteConcern.MAJORITY);
+        return configuredCollection;
+    }
+
+    private static class TestRepository extends AbstractMongoRepository {
+
+        TestRepository() {
+            super("management");
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.common;
+
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import io.gravitee.am.repository.mongodb.management.AbstractManagementRepositoryTest;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.eq;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MongoIndexesTest extends AbstractManagementRepositoryTest {
+
+    private static final String COLLECTION = "indexes_test";
+    private static final String INDEX_ID = COLLECTION + ".expireAt_1";
+
+    @Autowired
+    @Qualifier("managementMongoTemplate")
+    private MongoDatabase database;
+
+    private MockEnvironment environment;
+    private TestRepository repository;
+    private MongoCollection<Document> collection;
+
+    @Before
+    public void setUp() {
+        environment = new MockEnvironment();
+        repository = new TestRepository();
+        ReflectionTestUtils.setField(repository, "environment", environment);
+
+        collection = database.getCollection(COLLECTION);
+        // the collection must exist to list its indexes
+        Completable.fromPublisher(collection.insertOne(new Document("_id", "document"))).blockingAwait();
+    }
+
+    @After
+    public void tearDown() {
+        Completable.fromPublisher(collection.drop()).blockingAwait();
+        Completable.fromPublisher(database.getCollection("repository_indexes").drop()).blockingAwait();
+    }
+
+    @Test
+    public void shouldCreateIndex() {
+        repository.checkIndexes(database, collection, ttlIndex(3600)).blockingAwait();
+
+        Assert.assertTrue(indexNames().contains("expireAt_1"));
+        Assert.assertEquals("created", metadata().getString("status"));
+    }
+
+    @Test
+    public void shouldNotReportSameIndex() {
+        repository.checkIndexes(database, collection, ttlIndex(3600)).blockingAwait();
+        repository.checkIndexes(database, collection, ttlIndex(3600)).blockingAwait();
+
+        Document metadata = metadata();
+        Assert.assertEquals("created", metadata.getString("status"));
+        Assert.assertNull(metadata.get("error"));
+    }
+
+    @Test
+    public void shouldReportChangedOptions() {
+        repository.checkIndexes(database, collection, ttlIndex(3600)).blockingAwait();
+        repository.checkIndexes(database, collection, ttlIndex(7200)).blockingAwait();
+
+        Document metadata = metadata();
+        Assert.assertEquals("mismatch", metadata.getString("status"));
+        Assert.assertTrue(metadata.getString("error").contains("expireAfterSeconds: expected 7200, found 3600"));
+    }
+
+    @Test
+    public void shouldReportChangedUniqueness() {
+        repository.checkIndexes(database, collection, ttlIndex(3600)).blockingAwait();
+        repository.checkIndexes(database, collection,
+                new IndexModel(Indexes.ascending("expireAt"), new IndexOptions().expireAfter(3600L, TimeUnit.SECONDS).unique(true))).blockingAwait();
+
+        Assert.assertTrue(metadata().getString("error").contains("unique: expected true, found false"));
+    }
+
+    @Test
+    public void shouldMarkIndexCreated_interruptedBuild() {
+        // the node building the index died before reporting its status, the build completed on the server
+        Completable.fromPublisher(collection.createIndex(Indexes.ascending("expireAt"), new IndexOptions().expireAfter(3600L, TimeUnit.SECONDS))).blockingAwait();
+        Completable.fromPublisher(database.getCollection("repository_indexes").insertOne(
+                new Document("_id", INDEX_ID).append("status", "building").append("updatedAt", new Date(0)))).blockingAwait();
+
+        repository.checkIndexes(database, collection, ttlIndex(3600)).blockingAwait();
+
+        Assert.assertEquals("created", metadata().getString("status"));
+    }
+
+    @Test
+    public void shouldOnlyVerifyIndex() {
+        environment.setProperty("repository.indexes.mode", "verify");
+
+        repository.checkIndexes(database, collection, ttlIndex(3600)).blockingAwait();
+
+        Assert.assertFalse(indexNames().contains("expireAt_1"));
+        Assert.assertNull(metadata());
+    }
+
+    @Test
+    public void shouldSkipIndexes() {
+        environment.setProperty("repository.indexes.mode", "NONE");
+
+        repository.checkIndexes(database, collection, ttlIndex(3600)).blockingAwait();
+
+        Assert.assertFalse(indexNames().contains("expireAt_1"));
+        Assert.assertNull(metadata());
+    }
+
+    private IndexModel ttlIndex(long expireAfter) {
+        return new IndexModel(Indexes.ascending("expireAt"), new IndexOptions().expireAfter(expireAfter, TimeUnit.SECONDS));
+    }
+
+    private List<String> indexNames() {
+        return Observable.fromPublisher(collection.listIndexes())
+                .map(index -> index.getString("name"))
+                .toList()
+                .blockingGet();
+    }
+
+    private Document metadata() {
+        return Observable.fromPublisher(database.getCollection("repository_indexes").find(eq("_id", INDEX_ID)).first())
+                .firstElement()
+                .blockingGet();
+    }
+
+    private static class TestRepository extends AbstractMongoRepository {
+
+        TestRepository() {
+            super("management");
+        }
+    }
+}
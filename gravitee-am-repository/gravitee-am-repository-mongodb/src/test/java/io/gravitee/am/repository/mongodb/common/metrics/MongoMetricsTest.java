@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.common.metrics;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.*;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MongoMetricsTest {
+
+    private final ServerId serverId = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+    private final ConnectionDescription connectionDescription = new ConnectionDescription(serverId);
+
+    private MongoMetrics metrics;
+
+    @Before
+    public void init() {
+        metrics = new MongoMetrics("oauth2");
+        ReflectionTestUtils.setField(metrics, "environment", new MockEnvironment()
+                .withProperty("oauth2.mongodb.metrics.enabled", "true")
+                .withProperty("oauth2.mongodb.metrics.slowCommandThreshold", "100"));
+        metrics.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldNotCollect_disabled() {
+        MongoMetrics disabled = new MongoMetrics("management");
+        ReflectionTestUtils.setField(disabled, "environment", new MockEnvironment());
+        disabled.afterPropertiesSet();
+
+        assertFalse(disabled.isEnabled());
+        Map<String, Object> snapshot = disabled.snapshot();
+        assertEquals("management", snapshot.get("scope"));
+        assertFalse(snapshot.containsKey("commands"));
+    }
+
+    @Test
+    public void shouldRecordCommands_byCollection() {
+        execute(1, "find", new BsonDocument("find", new BsonString("access_tokens")), 3);
+        execute(2, "find", new BsonDocument("find", new BsonString("access_tokens")), 30);
+        execute(3, "getMore", new BsonDocument("getMore", new BsonInt32(1)).append("collection", new BsonString("access_tokens")), 1);
+        execute(4, "isMaster", new BsonDocument("isMaster", new BsonInt32(1)), 1);
+        metrics.commandStarted(new CommandStartedEvent(5, connectionDescription, "gravitee-am", "insert",
+                new BsonDocument("insert", new BsonString("refresh_tokens"))));
+        metrics.commandFailed(new CommandFailedEvent(5, connectionDescription, "insert",
+                TimeUnit.MILLISECONDS.toNanos(200), new IllegalStateException()));
+
+        Map<String, Object> snapshot = metrics.snapshot();
+        Map<String, Map<String, Object>> commands = (Map<String, Map<String, Object>>) snapshot.get("commands");
+        assertEquals(2L, commands.get("access_tokens.find").get("count"));
+        assertEquals(30d, commands.get("access_tokens.find").get("max"));
+        assertEquals(1L, ((Map<String, Long>) commands.get("access_tokens.find").get("buckets")).get("5"));
+        assertEquals(1L, ((Map<String, Long>) commands.get("access_tokens.find").get("buckets")).get("50"));
+        assertEquals(1L, commands.get("access_tokens.getMore").get("count"));
+        assertEquals(1L, commands.get("$cmd.isMaster").get("count"));
+        assertEquals(1L, commands.get("refresh_tokens.insert").get("failures"));
+        assertEquals(1L, snapshot.get("slowCommands"));
+    }
+
+    @Test
+    public void shouldRecordConnectionPool() {
+        ConnectionId connectionId = new ConnectionId(serverId);
+        metrics.connectionPoolOpened(new ConnectionPoolOpenedEvent(serverId, ConnectionPoolSettings.builder().build()));
+        metrics.connectionAdded(new ConnectionAddedEvent(connectionId));
+        metrics.connectionAdded(new ConnectionAddedEvent(new ConnectionId(serverId)));
+        metrics.waitQueueEntered(new ConnectionPoolWaitQueueEnteredEvent(serverId));
+        metrics.waitQueueExited(new ConnectionPoolWaitQueueExitedEvent(serverId));
+        metrics.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId));
+
+        Map<String, Map<String, Object>> pools = (Map<String, Map<String, Object>>) metrics.snapshot().get("pools");
+        Map<String, Object> pool = pools.get("localhost:27017");
+        assertEquals(2, pool.get("size"));
+        assertEquals(1, pool.get("inUse"));
+        assertEquals(0, pool.get("waitQueueSize"));
+        assertEquals(1L, ((Map<String, Object>) pool.get("checkoutWait")).get("count"));
+
+        metrics.connectionCheckedIn(new ConnectionCheckedInEvent(connectionId));
+        pool = ((Map<String, Map<String, Object>>) metrics.snapshot().get("pools")).get("localhost:27017");
+        assertEquals(0, pool.get("inUse"));
+        assertEquals(1L, pool.get("checkedOut"));
+    }
+
+    @Test
+    public void shouldRecordServerHeartbeats() {
+        ConnectionId connectionId = new ConnectionId(serverId);
+        metrics.serverHearbeatStarted(new ServerHeartbeatStartedEvent(connectionId));
+        metrics.serverHeartbeatSucceeded(new ServerHeartbeatSucceededEvent(connectionId,
+                new BsonDocument("ok", new BsonInt32(1)), TimeUnit.MILLISECONDS.toNanos(2)));
+        metrics.serverHeartbeatFailed(new ServerHeartbeatFailedEvent(connectionId,
+                TimeUnit.MILLISECONDS.toNanos(1000), new IllegalStateException("timeout")));
+
+        Map<String, Object> server = ((Map<String, Map<String, Object>>) metrics.snapshot().get("servers")).get("localhost:27017");
+        assertEquals(false, server.get("reachable"));
+        assertEquals(1L, server.get("failures"));
+        assertEquals("timeout", server.get("lastFailure"));
+        assertEquals(2L, ((Map<String, Object>) server.get("heartbeat")).get("count"));
+
+        metrics.serverHeartbeatSucceeded(new ServerHeartbeatSucceededEvent(connectionId,
+                new BsonDocument("ok", new BsonInt32(1)), TimeUnit.MILLISECONDS.toNanos(2)));
+        server = ((Map<String, Map<String, Object>>) metrics.snapshot().get("servers")).get("localhost:27017");
+        assertEquals(true, server.get("reachable"));
+    }
+
+    private void execute(int requestId, String commandName, BsonDocument command, long elapsedMillis) {
+        metrics.commandStarted(new CommandStartedEvent(requestId, connectionDescription, "gravitee-am", commandName, command));
+        metrics.commandSucceeded(new CommandSucceededEvent(requestId, connectionDescription, commandName,
+                new BsonDocument("ok", new BsonInt32(1)), TimeUnit.MILLISECONDS.toNanos(elapsedMillis)));
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.Set;
 
 /**
@@ -142,4 +143,45 @@ public class MongoDomainRepositoryTest extends AbstractManagementRepositoryTest
         // fetch domain
         domainRepository.findById(domainCreated.getId()).test().assertEmpty();
     }
+
+    @Test
+    public void testFindUpdatedSince() throws TechnicalException {
+        Date now = new Date();
+
+        Domain oldDomain = new Domain();
+        oldDomain.setName("oldDomain");
+        oldDomain.setUpdatedAt(new Date(now.getTime() - 60000));
+        Domain oldDomainCreated = domainRepository.create(oldDomain).blockingGet();
+
+        Domain newDomain = new Domain();
+        newDomain.setName("newDomain");
+        newDomain.setUpdatedAt(now);
+        Domain newDomainCreated = domainRepository.create(newDomain).blockingGet();
+
+        TestObserver<Set<Domain>> testObserver = domainRepository.findUpdatedSince(now).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(domains -> domains.stream().anyMatch(d -> d.getId().equals(newDomainCreated.getId()))
+                && domains.stream().noneMatch(d -> d.getId().equals(oldDomainCreated.getId())));
+    }
+
+    @Test
+    public void testFindDeletedSince() throws TechnicalException {
+        Date since = new Date();
+
+        Domain domain = new Domain();
+        domain.setName("testName");
+        Domain domainCreated = domainRepository.create(domain).blockingGet();
+
+        domainRepository.delete(domainCreated.getId()).blockingAwait();
+
+        TestObserver<Set<String>> testObserver = domainRepository.findDeletedSince(since).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(domainIds -> domainIds.contains(domainCreated.getId()));
+    }
 }
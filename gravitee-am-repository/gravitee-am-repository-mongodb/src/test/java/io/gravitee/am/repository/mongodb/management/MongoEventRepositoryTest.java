@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.repository.mongodb.management;
+
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.common.event.Type;
+import io.gravitee.am.repository.exceptions.TechnicalException;
+import io.gravitee.am.repository.management.api.EventRepository;
+import io.reactivex.observers.TestObserver;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MongoEventRepositoryTest extends AbstractManagementRepositoryTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Test
+    public void testFindByTimeFrame() throws TechnicalException {
+        long now = System.currentTimeMillis();
+
+        // create events
+        Event oldEvent = new Event(Type.CLIENT, new Payload("client-id", "domain-id", Action.CREATE));
+        oldEvent.setCreatedAt(new Date(now - 60000));
+        eventRepository.create(oldEvent).blockingGet();
+
+        Event event = new Event(Type.CLIENT, new Payload("client-id", "domain-id", Action.UPDATE));
+        event.setCreatedAt(new Date(now));
+        eventRepository.create(event).blockingGet();
+
+        // fetch events
+        TestObserver<List<Event>> testObserver = eventRepository.findByTimeFrame(now - 1000, now + 1000).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(events -> events.size() == 1
+                && events.get(0).getType() == Type.CLIENT
+                && events.get(0).getPayload().getId().equals("client-id")
+                && events.get(0).getPayload().getDomain().equals("domain-id")
+                && events.get(0).getPayload().getAction() == Action.UPDATE);
+    }
+
+    @Test
+    public void testCreate() throws TechnicalException {
+        Event event = new Event(Type.IDENTITY_PROVIDER, new Payload("idp-id", "domain-id", Action.DELETE));
+        event.setCreatedAt(new Date());
+
+        TestObserver<Event> testObserver = eventRepository.create(event).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+        testObserver.assertValue(e -> e.getId() != null && e.getType() == Type.IDENTITY_PROVIDER);
+    }
+}
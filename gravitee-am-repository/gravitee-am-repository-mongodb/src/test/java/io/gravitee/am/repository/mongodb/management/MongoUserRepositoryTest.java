@@ -21,8 +21,10 @@ import io.gravitee.am.repository.management.api.UserRepository;
 import io.reactivex.observers.TestObserver;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
@@ -105,6 +107,60 @@ public class MongoUserRepositoryTest extends AbstractManagementRepositoryTest {
         testObserver.assertValue(u -> u.getUsername().equals(updatedUser.getUsername()));
     }
 
+    @Test
+    public void testUpdate_readAfterWrite() throws TechnicalException {
+        ReflectionTestUtils.setField(userRepository, "readAfterWrite", true);
+        try {
+            User user = new User();
+            user.setUsername("testsUsername");
+            User userCreated = userRepository.create(user).blockingGet();
+
+            User updatedUser = new User();
+            updatedUser.setId(userCreated.getId());
+            updatedUser.setUsername("testUpdatedUsername");
+
+            TestObserver<User> testObserver = userRepository.update(updatedUser).test();
+            testObserver.awaitTerminalEvent();
+
+            testObserver.assertComplete();
+            testObserver.assertNoErrors();
+            // the returned user is the stored one
+            testObserver.assertValue(u -> u != updatedUser && u.getUsername().equals(updatedUser.getUsername()));
+        } finally {
+            ReflectionTestUtils.setField(userRepository, "readAfterWrite", false);
+        }
+    }
+
+    @Test
+    public void testUpdate_notFound() throws TechnicalException {
+        User user = new User();
+        user.setId("unknown-user");
+        user.setUsername("testsUsername");
+
+        TestObserver<User> testObserver = userRepository.update(user).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertError(NoSuchElementException.class);
+        userRepository.findById("unknown-user").test().assertEmpty();
+    }
+
+    @Test
+    public void testUpdate_notFound_readAfterWrite() throws TechnicalException {
+        ReflectionTestUtils.setField(userRepository, "readAfterWrite", true);
+        try {
+            User user = new User();
+            user.setId("unknown-user");
+            user.setUsername("testsUsername");
+
+            TestObserver<User> testObserver = userRepository.update(user).test();
+            testObserver.awaitTerminalEvent();
+
+            testObserver.assertError(NoSuchElementException.class);
+        } finally {
+            ReflectionTestUtils.setField(userRepository, "readAfterWrite", false);
+        }
+    }
+
     @Test
     public void testDelete() throws TechnicalException {
         // create user
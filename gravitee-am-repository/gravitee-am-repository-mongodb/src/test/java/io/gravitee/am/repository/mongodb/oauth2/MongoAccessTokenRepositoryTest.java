@@ -15,14 +15,22 @@
  */
 package io.gravitee.am.repository.mongodb.oauth2;
 
+import com.mongodb.reactivestreams.client.MongoDatabase;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.repository.oauth2.model.AccessToken;
 import io.gravitee.am.repository.oauth2.model.AccessTokenCriteria;
+import io.reactivex.Completable;
+import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
+import org.bson.Document;
+import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.UUID;
 
 /**
@@ -34,6 +42,10 @@ public class MongoAccessTokenRepositoryTest extends AbstractOAuth2RepositoryTest
     @Autowired
     private AccessTokenRepository accessTokenRepository;
 
+    @Autowired
+    @Qualifier("oauth2MongoTemplate")
+    private MongoDatabase mongoDatabase;
+
     @Test
     public void shouldNotFindToken() {
         TestObserver<AccessToken> observer = accessTokenRepository.findByToken("unknown-token").test();
@@ -64,11 +76,33 @@ public class MongoAccessTokenRepositoryTest extends AbstractOAuth2RepositoryTest
         observer.assertNoErrors();
     }
 
+    @Test
+    public void shouldFindToken_withoutTransientInformation() {
+        AccessToken token = new AccessToken();
+        token.setToken("my-token-transient");
+        token.setScopes(Collections.singleton("openid"));
+        token.setRequestedScopes(Collections.singleton("openid"));
+        token.setAdditionalInformation(Collections.singletonMap("id_token", "header.payload.signature"));
+
+        TestObserver<AccessToken> observer = accessTokenRepository
+                .create(token)
+                .toCompletable()
+                .andThen(accessTokenRepository.findByToken("my-token-transient"))
+                .test();
+
+        observer.awaitTerminalEvent();
+
+        observer.assertComplete();
+        observer.assertNoErrors();
+        observer.assertValue(accessToken -> !accessToken.getAdditionalInformation().containsKey("id_token")
+                && accessToken.getRequestedScopes().contains("openid"));
+    }
+
     @Test
     public void shouldFindByClientIdAndSubject() {
         AccessToken token = new AccessToken();
         token.setId(UUID.randomUUID().toString());
-        token.setToken("my-token");
+        token.setToken("my-token-subject");
         token.setClientId("my-client-id");
         token.setSubject("my-subject");
 
@@ -89,7 +123,7 @@ public class MongoAccessTokenRepositoryTest extends AbstractOAuth2RepositoryTest
     public void shouldFindByClientId() {
         AccessToken token = new AccessToken();
         token.setId(UUID.randomUUID().toString());
-        token.setToken("my-token");
+        token.setToken("my-token-client");
         token.setClientId("my-client-id-2");
 
         TestObserver<AccessToken> observer = accessTokenRepository.create(token)
@@ -107,7 +141,7 @@ public class MongoAccessTokenRepositoryTest extends AbstractOAuth2RepositoryTest
     public void shouldCountByClientId() {
         AccessToken token = new AccessToken();
         token.setId(UUID.randomUUID().toString());
-        token.setToken("my-token");
+        token.setToken("my-token-count");
         token.setClientId("my-client-id-count");
 
         TestObserver<Long> observer = accessTokenRepository.create(token)
@@ -125,7 +159,7 @@ public class MongoAccessTokenRepositoryTest extends AbstractOAuth2RepositoryTest
     public void shouldFindByCriteria() {
         AccessToken token = new AccessToken();
         token.setId(UUID.randomUUID().toString());
-        token.setToken("my-token");
+        token.setToken("my-token-criteria");
         token.setClientId("my-client-id-3");
         token.setSubject("my-subject-3");
         token.setRequestedScopes(Collections.singleton("read"));
@@ -144,7 +178,66 @@ public class MongoAccessTokenRepositoryTest extends AbstractOAuth2RepositoryTest
         observer.awaitTerminalEvent();
         observer.assertComplete();
         observer.assertNoErrors();
-        observer.assertValue(accessToken -> accessToken.getToken().equals("my-token") && accessToken.getScopes().contains("read"));
+        observer.assertValue(accessToken -> accessToken.getToken().equals("my-token-criteria") && accessToken.getScopes().contains("read"));
     }
 
+    @Test
+    public void shouldFindOrCreate_reuseToken() {
+        AccessTokenCriteria.Builder builder = new AccessTokenCriteria.Builder();
+        builder.clientId("my-client-id-4");
+        builder.subject("my-subject-4");
+        builder.scopes(Collections.singleton("read"));
+        AccessTokenCriteria criteria = builder.build();
+
+        TestObserver<AccessToken> observer = accessTokenRepository.findOrCreate(criteria, Single.fromCallable(() -> candidate("my-token-4")))
+                .flatMap(accessToken -> accessTokenRepository.findOrCreate(criteria, Single.fromCallable(() -> candidate("my-other-token-4"))))
+                .test();
+
+        observer.awaitTerminalEvent();
+        observer.assertComplete();
+        observer.assertNoErrors();
+        observer.assertValue(accessToken -> accessToken.getToken().equals("my-token-4"));
+        // the discarded candidate is not stored
+        TestObserver<AccessToken> otherObserver = accessTokenRepository.findByToken("my-other-token-4").test();
+        otherObserver.awaitTerminalEvent();
+        otherObserver.assertNoValues();
+    }
+
+    @Test
+    public void shouldFindLegacyToken_writtenAfterCheck() throws Exception {
+        // no legacy document left when the node has checked, then a node of the previous version issues a token
+        ReflectionTestUtils.setField(accessTokenRepository, "legacyDocuments", false);
+        ReflectionTestUtils.setField(accessTokenRepository, "legacyCheckedAt", 0L);
+        Completable.fromPublisher(mongoDatabase.getCollection("access_tokens").insertOne(new Document("_id", "legacy-id")
+                .append("token", "my-legacy-token")
+                .append("client_id", "my-client-id-5")
+                .append("expire_at", new Date(System.currentTimeMillis() + 60000)))).blockingAwait();
+
+        try {
+            AccessToken accessToken = null;
+            for (int i = 0; i < 100 && accessToken == null; i++) {
+                accessToken = accessTokenRepository.findByToken("my-legacy-token").blockingGet();
+                if (accessToken == null) {
+                    Thread.sleep(50);
+                }
+            }
+            Assert.assertNotNull(accessToken);
+            Assert.assertEquals("my-client-id-5", accessToken.getClientId());
+        } finally {
+            accessTokenRepository.delete("my-legacy-token").blockingAwait();
+        }
+    }
+
+    private AccessToken candidate(String token) {
+        AccessToken accessToken = new AccessToken();
+        accessToken.setId(UUID.randomUUID().toString());
+        accessToken.setToken(token);
+        accessToken.setClientId("my-client-id-4");
+        accessToken.setSubject("my-subject-4");
+        accessToken.setRequestedScopes(Collections.singleton("read"));
+        accessToken.setScopes(Collections.singleton("read"));
+        accessToken.setCreatedAt(new Date());
+        accessToken.setExpireAt(new Date(System.currentTimeMillis() + 60000));
+        return accessToken;
+    }
 }
@@ -15,6 +15,8 @@
  */
 package io.gravitee.am.service.authentication.crypto.password;
 
+import io.reactivex.Single;
+
 /**
  * Service interface for encoding passwords.
  *
@@ -42,4 +44,19 @@ public interface PasswordEncoder {
      */
     boolean matches(CharSequence rawPassword, String encodedPassword);
 
+    /**
+     * Non-blocking variant of {@link #encode(CharSequence)}. Encoders doing expensive work must override it to
+     * run out of the subscriber thread, the default implementation encodes on subscription.
+     */
+    default Single<String> encodeAsync(CharSequence rawPassword) {
+        return Single.fromCallable(() -> encode(rawPassword));
+    }
+
+    /**
+     * Non-blocking variant of {@link #matches(CharSequence, String)}. Encoders doing expensive work must override it to
+     * run out of the subscriber thread, the default implementation matches on subscription.
+     */
+    default Single<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        return Single.fromCallable(() -> matches(rawPassword, encodedPassword));
+    }
 }
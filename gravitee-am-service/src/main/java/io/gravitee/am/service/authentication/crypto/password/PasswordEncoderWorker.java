@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password;
+
+import io.gravitee.am.service.exception.authentication.InternalAuthenticationServiceException;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs CPU bound password hashing out of the caller thread (ie. the Vert.x event loop) on a bounded pool, sized
+ * to the number of cores unless configured otherwise. When the queue is full, new tasks are rejected instead of
+ * piling up behind a login burst.
+ *
+ * Results are emitted back on the context captured when subscribing (ie. the Vert.x context of the caller) so the
+ * rest of the authentication chain does not hold the pool threads.
+ *
+ * @author GraviteeSource Team
+ */
+public final class PasswordEncoderWorker implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordEncoderWorker.class);
+
+    private static final int QUEUE_CAPACITY_PER_THREAD = 64;
+
+    private final ThreadPoolExecutor executor;
+    private final Supplier<Executor> callerContext;
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordEncoderWorker(int poolSize, int queueCapacity) {
+        this(poolSize, queueCapacity, () -> null);
+    }
+
+    /**
+     * @param poolSize number of threads hashing passwords
+     * @param queueCapacity number of tasks waiting for a thread, 64 per thread if negative
+     * @param callerContext executor of the subscriber emitting the results, or {@code null} to emit on the pool thread
+     */
+    public PasswordEncoderWorker(int poolSize, int queueCapacity, Supplier<Executor> callerContext) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity < 0 ? poolSize * QUEUE_CAPACITY_PER_THREAD : queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "gio.am-password-encoder-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.callerContext = callerContext;
+        LOGGER.info("Password encoder worker configured with {} thread(s) and a queue of {} task(s)",
+                poolSize, executor.getQueue().remainingCapacity());
+    }
+
+    public <T> Single<T> submit(Callable<T> task) {
+        return Single.defer(() -> {
+            Executor caller = callerContext.get();
+            Single<T> result = execute(task);
+            return caller == null ? result : result.observeOn(Schedulers.from(caller));
+        });
+    }
+
+    private <T> Single<T> execute(Callable<T> task) {
+        return Single.create(emitter -> {
+            try {
+                Future<?> future = executor.submit(() -> {
+                    if (emitter.isDisposed()) {
+                        return;
+                    }
+                    try {
+                        emitter.onSuccess(task.call());
+                    } catch (Throwable t) {
+                        emitter.onError(t);
+                    }
+                });
+                emitter.setDisposable(Disposables.fromFuture(future, false));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                LOGGER.warn("Password encoder queue is full ({} pending task(s)), rejecting request", executor.getQueue().size());
+                emitter.onError(new InternalAuthenticationServiceException("Too many concurrent password verifications", e));
+            }
+        });
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the pool size, the active and queued tasks and the completed and rejected counts of the worker.
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("poolSize", getPoolSize());
+        metrics.put("active", getActiveCount());
+        metrics.put("queued", getQueueSize());
+        metrics.put("completed", getCompletedCount());
+        metrics.put("rejected", getRejectedCount());
+        return metrics;
+    }
+
+    @Override
+    public void destroy() {
+        // let the pending verifications complete, no new task is accepted
+        executor.shutdown();
+    }
+}
@@ -16,6 +16,8 @@
 package io.gravitee.am.service.authentication.crypto.password.bcrypt;
 
 import io.gravitee.am.service.authentication.crypto.password.PasswordEncoder;
+import io.gravitee.am.service.authentication.crypto.password.PasswordEncoderWorker;
+import io.reactivex.Single;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,17 +35,27 @@ import java.util.regex.Pattern;
  */
 public class BCryptPasswordEncoder implements PasswordEncoder {
     private Pattern BCRYPT_PATTERN = Pattern
-            .compile("\\A\\$2a?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+            .compile("\\A\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
     private final Logger logger = LoggerFactory.getLogger(BCryptPasswordEncoder.class);
 
     private final int strength;
 
     private final SecureRandom random;
 
+    private PasswordEncoderWorker worker;
+
     public BCryptPasswordEncoder() {
         this(-1);
     }
 
+    /**
+     * @param worker the pool hashing the passwords of the asynchronous variants, out of the subscriber thread
+     */
+    public BCryptPasswordEncoder(PasswordEncoderWorker worker) {
+        this(-1);
+        this.worker = worker;
+    }
+
     /**
      * @param strength the log rounds to use, between 4 and 31
      */
@@ -77,7 +89,7 @@ public class BCryptPasswordEncoder implements PasswordEncoder {
         else {
             salt = BCrypt.gensalt();
         }
-        return BCrypt.hashpw(rawPassword.toString(), salt);
+        return FastBCrypt.hashpw(rawPassword, salt);
     }
 
     public boolean matches(CharSequence rawPassword, String encodedPassword) {
@@ -91,6 +103,22 @@ public class BCryptPasswordEncoder implements PasswordEncoder {
             return false;
         }
 
-        return BCrypt.checkpw(rawPassword.toString(), encodedPassword);
+        return FastBCrypt.checkpw(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public Single<String> encodeAsync(CharSequence rawPassword) {
+        if (worker == null) {
+            return PasswordEncoder.super.encodeAsync(rawPassword);
+        }
+        return worker.submit(() -> encode(rawPassword));
+    }
+
+    @Override
+    public Single<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        if (worker == null) {
+            return PasswordEncoder.super.matchesAsync(rawPassword, encodedPassword);
+        }
+        return worker.submit(() -> matches(rawPassword, encodedPassword));
     }
 }
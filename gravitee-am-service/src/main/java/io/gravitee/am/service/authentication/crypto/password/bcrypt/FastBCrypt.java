@@ -0,0 +1,415 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password.bcrypt;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free implementation of the {@link BCrypt} hashing scheme, producing the very same hashes.
+ * <p>
+ * The Blowfish key schedule, the working buffers and the output characters are kept per thread and reused for each
+ * hash. Since the key schedule restarts from the beginning of the password and of the salt for each expansion, their
+ * key words are extracted once instead of being streamed byte by byte on each of the 2^rounds iterations.
+ * <p>
+ * Supports the $2$, $2a$, $2b$ and $2y$ revisions, $2b$ and $2y$ only differ from $2a$ in the C implementations.
+ *
+ * @author GraviteeSource Team
+ */
+public final class FastBCrypt {
+
+    private static final int BCRYPT_SALT_LEN = 16;
+    private static final int BLOWFISH_NUM_ROUNDS = 16;
+    private static final int P_LEN = BLOWFISH_NUM_ROUNDS + 2;
+    private static final int S_LEN = 1024;
+    private static final int HASH_LEN = 23;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private FastBCrypt() {
+    }
+
+    /**
+     * Hash a password using the OpenBSD bcrypt scheme
+     * @param password the password to hash
+     * @param salt the salt to hash with (perhaps generated using BCrypt.gensalt)
+     * @return the hashed password
+     * @throws IllegalArgumentException if invalid salt is passed
+     */
+    public static String hashpw(CharSequence password, String salt) throws IllegalArgumentException {
+        State state = STATE.get();
+        int length = crypt(state, password, salt);
+        return new String(state.out, 0, length);
+    }
+
+    /**
+     * Check that a plaintext password matches a previously hashed one
+     * @param plaintext the plaintext password to verify
+     * @param hashed the previously-hashed password
+     * @return true if the passwords match, false otherwise
+     */
+    public static boolean checkpw(CharSequence plaintext, String hashed) {
+        State state = STATE.get();
+        int length = crypt(state, plaintext, hashed);
+        if (length != hashed.length()) {
+            return false;
+        }
+
+        int ret = 0;
+        for (int i = 0; i < length; i++) {
+            ret |= state.out[i] ^ hashed.charAt(i);
+        }
+        return ret == 0;
+    }
+
+    private static int crypt(State state, CharSequence password, String salt) {
+        if (salt == null) {
+            throw new IllegalArgumentException("salt cannot be null");
+        }
+
+        int saltLength = salt.length();
+        if (saltLength < 28) {
+            throw new IllegalArgumentException("Invalid salt");
+        }
+
+        if (salt.charAt(0) != '$' || salt.charAt(1) != '2') {
+            throw new IllegalArgumentException("Invalid salt version");
+        }
+
+        char minor = (char) 0;
+        int off;
+        if (salt.charAt(2) == '$') {
+            off = 3;
+        } else {
+            minor = salt.charAt(2);
+            if ((minor != 'a' && minor != 'b' && minor != 'y') || salt.charAt(3) != '$') {
+                throw new IllegalArgumentException("Invalid salt revision");
+            }
+            off = 4;
+        }
+
+        if (saltLength - off < 25) {
+            throw new IllegalArgumentException("Invalid salt");
+        }
+
+        // Extract number of rounds
+        char r1 = salt.charAt(off), r2 = salt.charAt(off + 1);
+        if (r1 < '0' || r1 > '9' || r2 < '0' || r2 > '9' || salt.charAt(off + 2) != '$') {
+            throw new IllegalArgumentException("Missing salt rounds");
+        }
+        int logRounds = (r1 - '0') * 10 + (r2 - '0');
+        long rounds = BCrypt.roundsForLogRounds(logRounds);
+
+        decodeSalt(salt, off + 3, state.salt);
+
+        int passwordLength = encodePassword(password, minor != 0, state);
+        if (passwordLength == 0) {
+            throw new IllegalArgumentException("Empty password");
+        }
+
+        try {
+            cryptRaw(state, passwordLength, rounds);
+        } finally {
+            Arrays.fill(state.password, 0, passwordLength, (byte) 0);
+            Arrays.fill(state.passwordWords, 0);
+        }
+
+        // $2<minor>$<rounds>$<salt><hash>
+        char[] out = state.out;
+        int pos = 0;
+        out[pos++] = '$';
+        out[pos++] = '2';
+        if (minor != 0) {
+            out[pos++] = minor;
+        }
+        out[pos++] = '$';
+        out[pos++] = r1;
+        out[pos++] = r2;
+        out[pos++] = '$';
+        pos = encodeBase64(state.salt, BCRYPT_SALT_LEN, out, pos);
+        pos = encodeBase64(state.hash, HASH_LEN, out, pos);
+        return pos;
+    }
+
+    private static void cryptRaw(State state, int passwordLength, long rounds) {
+        int[] P = state.P;
+        int[] S = state.S;
+        int[] passwordWords = state.passwordWords;
+        int[] saltWords = state.saltWords;
+
+        // key material restarts from the first byte for each expansion, extract the key words once
+        byte[] password = state.password;
+        int koff = 0;
+        for (int i = 0; i < P_LEN; i++) {
+            int word = 0;
+            for (int j = 0; j < 4; j++) {
+                word = (word << 8) | (password[koff] & 0xff);
+                koff = koff + 1 == passwordLength ? 0 : koff + 1;
+            }
+            passwordWords[i] = word;
+        }
+        byte[] salt = state.salt;
+        for (int i = 0; i < 4; i++) {
+            saltWords[i] = ((salt[i * 4] & 0xff) << 24) | ((salt[i * 4 + 1] & 0xff) << 16)
+                    | ((salt[i * 4 + 2] & 0xff) << 8) | (salt[i * 4 + 3] & 0xff);
+        }
+
+        // initialise the key schedule
+        System.arraycopy(BCrypt.P_orig, 0, P, 0, P_LEN);
+        System.arraycopy(BCrypt.S_orig, 0, S, 0, S_LEN);
+
+        // enhanced key schedule
+        for (int i = 0; i < P_LEN; i++) {
+            P[i] ^= passwordWords[i];
+        }
+        int l = 0, r = 0, doff = 0;
+        for (int i = 0; i < P_LEN; i += 2) {
+            l ^= saltWords[doff];
+            r ^= saltWords[doff + 1];
+            doff = (doff + 2) & 3;
+            long lr = encipher(P, S, l, r);
+            P[i] = l = (int) (lr >>> 32);
+            P[i + 1] = r = (int) lr;
+        }
+        for (int i = 0; i < S_LEN; i += 2) {
+            l ^= saltWords[doff];
+            r ^= saltWords[doff + 1];
+            doff = (doff + 2) & 3;
+            long lr = encipher(P, S, l, r);
+            S[i] = l = (int) (lr >>> 32);
+            S[i + 1] = r = (int) lr;
+        }
+
+        for (long i = 0; i < rounds; i++) {
+            for (int j = 0; j < P_LEN; j++) {
+                P[j] ^= passwordWords[j];
+            }
+            expand(P, S);
+            for (int j = 0; j < P_LEN; j++) {
+                P[j] ^= saltWords[j & 3];
+            }
+            expand(P, S);
+        }
+
+        int[] cdata = state.cdata;
+        System.arraycopy(BCrypt.bf_crypt_ciphertext, 0, cdata, 0, cdata.length);
+        for (int i = 0; i < 64; i++) {
+            for (int j = 0; j < cdata.length; j += 2) {
+                long lr = encipher(P, S, cdata[j], cdata[j + 1]);
+                cdata[j] = (int) (lr >>> 32);
+                cdata[j + 1] = (int) lr;
+            }
+        }
+
+        byte[] hash = state.hash;
+        for (int i = 0, j = 0; i < cdata.length; i++) {
+            hash[j++] = (byte) (cdata[i] >>> 24);
+            hash[j++] = (byte) (cdata[i] >>> 16);
+            hash[j++] = (byte) (cdata[i] >>> 8);
+            hash[j++] = (byte) cdata[i];
+        }
+    }
+
+    /**
+     * Re-key the Blowfish cipher once its P array has been mixed with the key words
+     */
+    private static void expand(int[] P, int[] S) {
+        int l = 0, r = 0;
+        for (int i = 0; i < P_LEN; i += 2) {
+            long lr = encipher(P, S, l, r);
+            P[i] = l = (int) (lr >>> 32);
+            P[i + 1] = r = (int) lr;
+        }
+        // P is stable while the S-boxes are expanded, keep it in registers
+        final int p0 = P[0];
+        final int p1 = P[1];
+        final int p2 = P[2];
+        final int p3 = P[3];
+        final int p4 = P[4];
+        final int p5 = P[5];
+        final int p6 = P[6];
+        final int p7 = P[7];
+        final int p8 = P[8];
+        final int p9 = P[9];
+        final int p10 = P[10];
+        final int p11 = P[11];
+        final int p12 = P[12];
+        final int p13 = P[13];
+        final int p14 = P[14];
+        final int p15 = P[15];
+        final int p16 = P[16];
+        final int p17 = P[17];
+        for (int i = 0; i < S_LEN; i += 2) {
+            l ^= p0;
+            r ^= F(S, l) ^ p1;
+            l ^= F(S, r) ^ p2;
+            r ^= F(S, l) ^ p3;
+            l ^= F(S, r) ^ p4;
+            r ^= F(S, l) ^ p5;
+            l ^= F(S, r) ^ p6;
+            r ^= F(S, l) ^ p7;
+            l ^= F(S, r) ^ p8;
+            r ^= F(S, l) ^ p9;
+            l ^= F(S, r) ^ p10;
+            r ^= F(S, l) ^ p11;
+            l ^= F(S, r) ^ p12;
+            r ^= F(S, l) ^ p13;
+            l ^= F(S, r) ^ p14;
+            r ^= F(S, l) ^ p15;
+            l ^= F(S, r) ^ p16;
+            int t = l;
+            S[i] = l = r ^ p17;
+            S[i + 1] = r = t;
+        }
+    }
+
+    /**
+     * Blowfish encipher a single 64-bit block, the two 32-bit halves are returned as the high and low words of a long
+     */
+    private static long encipher(int[] P, int[] S, int l, int r) {
+        l ^= P[0];
+        r ^= F(S, l) ^ P[1];
+        l ^= F(S, r) ^ P[2];
+        r ^= F(S, l) ^ P[3];
+        l ^= F(S, r) ^ P[4];
+        r ^= F(S, l) ^ P[5];
+        l ^= F(S, r) ^ P[6];
+        r ^= F(S, l) ^ P[7];
+        l ^= F(S, r) ^ P[8];
+        r ^= F(S, l) ^ P[9];
+        l ^= F(S, r) ^ P[10];
+        r ^= F(S, l) ^ P[11];
+        l ^= F(S, r) ^ P[12];
+        r ^= F(S, l) ^ P[13];
+        l ^= F(S, r) ^ P[14];
+        r ^= F(S, l) ^ P[15];
+        l ^= F(S, r) ^ P[16];
+        return ((long) (r ^ P[BLOWFISH_NUM_ROUNDS + 1]) << 32) | (l & 0xffffffffL);
+    }
+
+    /**
+     * Blowfish Feistel function
+     */
+    private static int F(int[] S, int x) {
+        return ((S[x >>> 24] + S[0x100 | ((x >> 16) & 0xff)]) ^ S[0x200 | ((x >> 8) & 0xff)]) + S[0x300 | (x & 0xff)];
+    }
+
+    /**
+     * UTF-8 encode the password into the per-thread buffer, unpaired surrogates are replaced by '?' as
+     * {@link String#getBytes(java.nio.charset.Charset)} does.
+     */
+    private static int encodePassword(CharSequence password, boolean nullTerminated, State state) {
+        int length = password.length();
+        byte[] bytes = state.password;
+        if (bytes.length < length * 3 + 1) {
+            bytes = state.password = new byte[length * 3 + 1];
+        }
+
+        int pos = 0;
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (c < 0x80) {
+                bytes[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[pos++] = (byte) (0xc0 | (c >> 6));
+                bytes[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(password.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, password.charAt(++i));
+                bytes[pos++] = (byte) (0xf0 | (codePoint >> 18));
+                bytes[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                bytes[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                bytes[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                bytes[pos++] = (byte) '?';
+            } else {
+                bytes[pos++] = (byte) (0xe0 | (c >> 12));
+                bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                bytes[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        if (nullTerminated) {
+            bytes[pos++] = 0;
+        }
+        return pos;
+    }
+
+    private static void decodeSalt(String salt, int off, byte[] out) {
+        int olen = 0;
+        while (true) {
+            int c1 = char64(salt.charAt(off++));
+            int c2 = char64(salt.charAt(off++));
+            if (c1 < 0 || c2 < 0) {
+                throw new IllegalArgumentException("Invalid salt");
+            }
+            out[olen++] = (byte) ((c1 << 2) | ((c2 & 0x30) >> 4));
+            if (olen >= BCRYPT_SALT_LEN) {
+                return;
+            }
+            int c3 = char64(salt.charAt(off++));
+            if (c3 < 0) {
+                throw new IllegalArgumentException("Invalid salt");
+            }
+            out[olen++] = (byte) (((c2 & 0x0f) << 4) | ((c3 & 0x3c) >> 2));
+            int c4 = char64(salt.charAt(off++));
+            if (c4 < 0) {
+                throw new IllegalArgumentException("Invalid salt");
+            }
+            out[olen++] = (byte) (((c3 & 0x03) << 6) | c4);
+        }
+    }
+
+    private static int char64(char x) {
+        return x < BCrypt.index_64.length ? BCrypt.index_64[x] : -1;
+    }
+
+    private static int encodeBase64(byte[] d, int len, char[] out, int pos) {
+        char[] base64Code = BCrypt.base64_code;
+        int off = 0;
+        while (off < len) {
+            int c1 = d[off++] & 0xff;
+            out[pos++] = base64Code[(c1 >> 2) & 0x3f];
+            c1 = (c1 & 0x03) << 4;
+            if (off >= len) {
+                out[pos++] = base64Code[c1 & 0x3f];
+                break;
+            }
+            int c2 = d[off++] & 0xff;
+            c1 |= (c2 >> 4) & 0x0f;
+            out[pos++] = base64Code[c1 & 0x3f];
+            c1 = (c2 & 0x0f) << 2;
+            if (off >= len) {
+                out[pos++] = base64Code[c1 & 0x3f];
+                break;
+            }
+            c2 = d[off++] & 0xff;
+            c1 |= (c2 >> 6) & 0x03;
+            out[pos++] = base64Code[c1 & 0x3f];
+            out[pos++] = base64Code[c2 & 0x3f];
+        }
+        return pos;
+    }
+
+    private static final class State {
+        private final int[] P = new int[P_LEN];
+        private final int[] S = new int[S_LEN];
+        private final int[] cdata = new int[BCrypt.bf_crypt_ciphertext.length];
+        private final int[] passwordWords = new int[P_LEN];
+        private final int[] saltWords = new int[4];
+        private final byte[] salt = new byte[BCRYPT_SALT_LEN];
+        private final byte[] hash = new byte[BCrypt.bf_crypt_ciphertext.length * 4];
+        private final char[] out = new char[60];
+        private byte[] password = new byte[64];
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded in-memory map whose entries expire at a given date.
+ *
+ * Once the cache is full, expired entries are dropped first, then arbitrary ones until a tenth of the cache is free:
+ * the cleanup cost is spread over the next inserts instead of scanning the entries on every insert. The cache may
+ * briefly hold a few more entries than its maximum size while another thread cleans it up.
+ *
+ * @author GraviteeSource Team
+ */
+public class ExpiringCache<K, V> {
+
+    private static final int EVICTION_BATCH_RATIO = 10;
+
+    private final int maxSize;
+    private final AtomicBoolean cleaning = new AtomicBoolean();
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the value of the key, or <code>null</code> if it is unknown or has expired. Counted as a hit or a miss.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (entry.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Same as {@link #get(Object)} without updating the statistics.
+     */
+    public V peek(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && !entry.isExpired(System.currentTimeMillis()) ? entry.value : null;
+    }
+
+    /**
+     * Keeps the value until the given date, in milliseconds. Nothing is kept if the date is already passed.
+     */
+    public void put(K key, V value, long expireAt) {
+        long now = System.currentTimeMillis();
+        if (maxSize <= 0 || expireAt <= now) {
+            return;
+        }
+
+        if (entries.size() >= maxSize && cleaning.compareAndSet(false, true)) {
+            try {
+                makeRoom(now);
+            } finally {
+                cleaning.set(false);
+            }
+        }
+        entries.put(key, new Entry<>(value, expireAt));
+    }
+
+    public boolean evict(K key) {
+        if (entries.remove(key) != null) {
+            evictions.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the size and the hit, miss and eviction counts of the cache.
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", size());
+        metrics.put("hits", getHitCount());
+        metrics.put("misses", getMissCount());
+        metrics.put("evictions", getEvictionCount());
+        return metrics;
+    }
+
+    private void makeRoom(long now) {
+        // drop expired entries first, then free a batch of entries for the next inserts
+        int targetSize = maxSize - Math.max(1, maxSize / EVICTION_BATCH_RATIO);
+        entries.values().removeIf(entry -> {
+            boolean expired = entry.isExpired(now);
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+
+        Iterator<K> iterator = entries.keySet().iterator();
+        while (entries.size() > targetSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expireAt;
+
+        Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        boolean isExpired(long now) {
+            return expireAt <= now;
+        }
+    }
+}
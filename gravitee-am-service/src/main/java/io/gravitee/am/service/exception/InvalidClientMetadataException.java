@@ -13,32 +13,28 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package io.gravitee.am.repository.mongodb.common;
+package io.gravitee.am.service.exception;
 
-import io.reactivex.subscribers.DefaultSubscriber;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.gravitee.common.http.HttpStatusCode;
 
 /**
- * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class LoggableIndexSubscriber extends DefaultSubscriber<String> {
+public class InvalidClientMetadataException extends AbstractManagementException {
 
-    private final Logger logger = LoggerFactory.getLogger(LoggableIndexSubscriber.class);
+    private final String message;
 
-    @Override
-    public void onNext(String value) {
-        logger.debug("Created an index named : " + value);
+    public InvalidClientMetadataException(String message) {
+        this.message = message;
     }
 
     @Override
-    public void onError(Throwable throwable) {
-        logger.error("Error occurs during indexing", throwable);
+    public int getHttpStatusCode() {
+        return HttpStatusCode.BAD_REQUEST_400;
     }
 
     @Override
-    public void onComplete() {
-        logger.debug("Index creation complete");
+    public String getMessage() {
+        return message;
     }
 }
@@ -20,12 +20,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.gravitee.am.certificate.api.CertificateProvider;
 import io.gravitee.am.model.Certificate;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.common.event.Type;
 import io.gravitee.am.plugins.certificate.core.CertificateSchema;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.CertificateRepository;
 import io.gravitee.am.service.CertificateService;
 import io.gravitee.am.service.ClientService;
-import io.gravitee.am.service.DomainService;
+import io.gravitee.am.service.EventService;
 import io.gravitee.am.service.exception.CertificateNotFoundException;
 import io.gravitee.am.service.exception.CertificateWithClientsException;
 import io.gravitee.am.service.exception.TechnicalManagementException;
@@ -69,7 +73,7 @@ public class CertificateServiceImpl implements CertificateService {
     private ClientService clientService;
 
     @Autowired
-    private DomainService domainService;
+    private EventService eventService;
 
     private ObjectMapper objectMapper = new ObjectMapper();
 
@@ -171,8 +175,9 @@ public class CertificateServiceImpl implements CertificateService {
         return certificateSingle
                 .flatMap(certificate -> certificateRepository.create(certificate))
                 .flatMap(certificate -> {
-                    // Reload domain to take care about certificate create
-                    return domainService.reload(domain).flatMap(domain1 -> Single.just(certificate));
+                    // create event for sync process
+                    Event event = new Event(Type.CERTIFICATE, new Payload(certificate.getId(), certificate.getDomain(), Action.CREATE));
+                    return eventService.create(event).flatMap(irrelevant -> Single.just(certificate));
                 })
                 .doOnError(ex -> {
                     LOGGER.error("An error occurs while trying to create a certificate", ex);
@@ -245,8 +250,9 @@ public class CertificateServiceImpl implements CertificateService {
                     return certificateSingle
                             .flatMap(certificate -> certificateRepository.update(certificate))
                             .flatMap(certificate1 -> {
-                                // Reload domain to take care about certificate update
-                                return domainService.reload(domain).flatMap(domain1 -> Single.just(certificate1));
+                                // create event for sync process
+                                Event event = new Event(Type.CERTIFICATE, new Payload(certificate1.getId(), certificate1.getDomain(), Action.UPDATE));
+                                return eventService.create(event).flatMap(irrelevant -> Single.just(certificate1));
                             })
                             .doOnError(ex -> {
                                 LOGGER.error("An error occurs while trying to update a certificate", ex);
@@ -281,7 +287,11 @@ public class CertificateServiceImpl implements CertificateService {
                     }
                     return Single.just(certificate2);
                 })
-                .flatMapCompletable(certificate3 -> certificateRepository.delete(certificateId))
+                .flatMapCompletable(certificate3 -> {
+                    // create event for sync process
+                    Event event = new Event(Type.CERTIFICATE, new Payload(certificate3.getId(), certificate3.getDomain(), Action.DELETE));
+                    return certificateRepository.delete(certificateId).andThen(eventService.create(event)).toCompletable();
+                })
                 .onErrorResumeNext(ex -> {
                     LOGGER.error("An error occurs while trying to delete certificate: {}", certificateId, ex);
                     return Completable.error(new TechnicalManagementException(
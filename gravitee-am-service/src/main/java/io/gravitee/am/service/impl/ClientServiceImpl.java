@@ -17,14 +17,21 @@ package io.gravitee.am.service.impl;
 
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.common.Page;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.common.event.Type;
+import io.gravitee.am.repository.management.api.CertificateRepository;
 import io.gravitee.am.repository.management.api.ClientRepository;
 import io.gravitee.am.repository.oauth2.api.AccessTokenRepository;
 import io.gravitee.am.service.ClientService;
-import io.gravitee.am.service.DomainService;
+import io.gravitee.am.service.EventService;
 import io.gravitee.am.service.IdentityProviderService;
 import io.gravitee.am.service.exception.AbstractManagementException;
+import io.gravitee.am.service.exception.CertificateNotFoundException;
 import io.gravitee.am.service.exception.ClientAlreadyExistsException;
 import io.gravitee.am.service.exception.ClientNotFoundException;
+import io.gravitee.am.service.exception.InvalidClientMetadataException;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.am.service.model.NewClient;
 import io.gravitee.am.service.model.TopClient;
@@ -65,7 +72,10 @@ public class ClientServiceImpl implements ClientService {
     private AccessTokenRepository accessTokenRepository;
 
     @Autowired
-    private DomainService domainService;
+    private EventService eventService;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
 
     @Override
     public Maybe<Client> findById(String id) {
@@ -267,8 +277,9 @@ public class ClientServiceImpl implements ClientService {
 
                             return clientRepository.create(client)
                                     .flatMap(client1 -> {
-                                        // Reload domain to take care about client creation
-                                        return domainService.reload(domain).flatMap(domain1 -> Single.just(client1));
+                                        // create event for sync process
+                                        Event event = new Event(Type.CLIENT, new Payload(client1.getId(), client1.getDomain(), Action.CREATE));
+                                        return eventService.create(event).flatMap(irrelevant -> Single.just(client1));
                                     });
                         }
                     })
@@ -298,6 +309,20 @@ public class ClientServiceImpl implements ClientService {
                                 .flatMap(idp -> Single.just(client));
                     }
                 })
+                .flatMap(client -> {
+                    if (!updateClient.isStatelessAccessToken()) {
+                        return Single.just(client);
+                    }
+                    // stateless access tokens are signed and verified with the client certificate only
+                    String certificate = updateClient.getCertificate();
+                    if (certificate == null || certificate.isEmpty()) {
+                        return Single.error(new InvalidClientMetadataException("A certificate is required to issue stateless access tokens"));
+                    }
+                    return certificateRepository.findById(certificate)
+                            .switchIfEmpty(Maybe.error(new CertificateNotFoundException(certificate)))
+                            .map(certificate1 -> client)
+                            .toSingle();
+                })
                 .flatMap(client -> {
                     client.setScopes(updateClient.getScopes());
                     client.setAutoApproveScopes(updateClient.getAutoApproveScopes());
@@ -313,12 +338,14 @@ public class ClientServiceImpl implements ClientService {
                     client.setCertificate(updateClient.getCertificate());
                     client.setEnhanceScopesWithUserPermissions(updateClient.isEnhanceScopesWithUserPermissions());
                     client.setGenerateNewTokenPerRequest(updateClient.isGenerateNewTokenPerRequest());
+                    client.setStatelessAccessToken(updateClient.isStatelessAccessToken());
                     client.setUpdatedAt(new Date());
 
                     return clientRepository.update(client)
-                            .flatMap(irrelevant -> {
-                                // Reload domain to take care about client update
-                                return domainService.reload(domain).flatMap(domain1 -> Single.just(irrelevant));
+                            .flatMap(client1 -> {
+                                // create event for sync process
+                                Event event = new Event(Type.CLIENT, new Payload(client1.getId(), client1.getDomain(), Action.UPDATE));
+                                return eventService.create(event).flatMap(irrelevant -> Single.just(client1));
                             });
                 })
                 .onErrorResumeNext(ex -> {
@@ -336,7 +363,11 @@ public class ClientServiceImpl implements ClientService {
         LOGGER.debug("Delete client {}", clientId);
         return clientRepository.findById(clientId)
                 .switchIfEmpty(Maybe.error(new ClientNotFoundException(clientId)))
-                .flatMapCompletable(client -> clientRepository.delete(clientId).andThen(domainService.reload(client.getDomain()).toCompletable()))
+                .flatMapCompletable(client -> {
+                    // create event for sync process
+                    Event event = new Event(Type.CLIENT, new Payload(client.getId(), client.getDomain(), Action.DELETE));
+                    return clientRepository.delete(clientId).andThen(eventService.create(event)).toCompletable();
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Completable.error(ex);
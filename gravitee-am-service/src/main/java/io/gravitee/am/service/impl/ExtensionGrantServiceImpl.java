@@ -16,9 +16,13 @@
 package io.gravitee.am.service.impl;
 
 import io.gravitee.am.model.ExtensionGrant;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.common.event.Type;
 import io.gravitee.am.repository.management.api.ExtensionGrantRepository;
 import io.gravitee.am.service.ClientService;
-import io.gravitee.am.service.DomainService;
+import io.gravitee.am.service.EventService;
 import io.gravitee.am.service.ExtensionGrantService;
 import io.gravitee.am.service.exception.*;
 import io.gravitee.am.service.model.NewExtensionGrant;
@@ -56,7 +60,7 @@ public class ExtensionGrantServiceImpl implements ExtensionGrantService {
     private ClientService clientService;
 
     @Autowired
-    private DomainService domainService;
+    private EventService eventService;
 
     @Override
     public Maybe<ExtensionGrant> findById(String id) {
@@ -105,8 +109,9 @@ public class ExtensionGrantServiceImpl implements ExtensionGrantService {
 
                             return extensionGrantRepository.create(extensionGrant)
                                     .flatMap(extensionGrant1 -> {
-                                        // Reload domain to take care about extension grant create
-                                        return domainService.reload(domain).flatMap(domain1 -> Single.just(extensionGrant1));
+                                        // create event for sync process
+                                        Event event = new Event(Type.EXTENSION_GRANT, new Payload(extensionGrant1.getId(), extensionGrant1.getDomain(), Action.CREATE));
+                                        return eventService.create(event).flatMap(irrelevant -> Single.just(extensionGrant1));
                                     });
 
                         }
@@ -147,8 +152,9 @@ public class ExtensionGrantServiceImpl implements ExtensionGrantService {
 
                     return extensionGrantRepository.update(oldExtensionGrant)
                             .flatMap(extensionGrant -> {
-                                // Reload domain to take care about extension grant update
-                                return domainService.reload(domain).flatMap(domain1 -> Single.just(extensionGrant));
+                                // create event for sync process
+                                Event event = new Event(Type.EXTENSION_GRANT, new Payload(extensionGrant.getId(), extensionGrant.getDomain(), Action.UPDATE));
+                                return eventService.create(event).flatMap(irrelevant -> Single.just(extensionGrant));
                             });
                 })
                 .onErrorResumeNext(ex -> {
@@ -171,11 +177,13 @@ public class ExtensionGrantServiceImpl implements ExtensionGrantService {
                             if (clients.size() > 0) {
                                 throw new ExtensionGrantWithClientsException();
                             }
-                            return Single.just(clients);
+                            return Single.just(extensionGrant);
                         }))
-                .flatMapCompletable(irrelevant -> extensionGrantRepository.delete(extensionGrantId)
-                        .andThen(domainService.reload(domain).toCompletable())
-                )
+                .flatMapCompletable(extensionGrant -> {
+                    // create event for sync process
+                    Event event = new Event(Type.EXTENSION_GRANT, new Payload(extensionGrant.getId(), domain, Action.DELETE));
+                    return extensionGrantRepository.delete(extensionGrantId).andThen(eventService.create(event)).toCompletable();
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Completable.error(ex);
@@ -16,9 +16,13 @@
 package io.gravitee.am.service.impl;
 
 import io.gravitee.am.model.IdentityProvider;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.common.event.Type;
 import io.gravitee.am.repository.management.api.IdentityProviderRepository;
 import io.gravitee.am.service.ClientService;
-import io.gravitee.am.service.DomainService;
+import io.gravitee.am.service.EventService;
 import io.gravitee.am.service.IdentityProviderService;
 import io.gravitee.am.service.exception.AbstractManagementException;
 import io.gravitee.am.service.exception.IdentityProviderNotFoundException;
@@ -59,7 +63,7 @@ public class IdentityProviderServiceImpl implements IdentityProviderService {
     private ClientService clientService;
 
     @Autowired
-    private DomainService domainService;
+    private EventService eventService;
 
     @Override
     public Maybe<IdentityProvider> findById(String id) {
@@ -99,8 +103,9 @@ public class IdentityProviderServiceImpl implements IdentityProviderService {
 
         return identityProviderRepository.create(identityProvider)
                 .flatMap(identityProvider1 -> {
-                    // Reload domain to take care about identity provider creation
-                    return domainService.reload(domain).flatMap(domain1 -> Single.just(identityProvider1));
+                    // create event for sync process
+                    Event event = new Event(Type.IDENTITY_PROVIDER, new Payload(identityProvider1.getId(), identityProvider1.getDomain(), Action.CREATE));
+                    return eventService.create(event).flatMap(irrelevant -> Single.just(identityProvider1));
                 })
                 .onErrorResumeNext(ex -> {
                     LOGGER.error("An error occurs while trying to create an identity provider", ex);
@@ -123,8 +128,9 @@ public class IdentityProviderServiceImpl implements IdentityProviderService {
 
                     return identityProviderRepository.update(identityProvider)
                             .flatMap(identityProvider1 -> {
-                                // Reload domain to take care about identity provider update
-                                return domainService.reload(domain).flatMap(domain1 -> Single.just(identityProvider1));
+                                // create event for sync process
+                                Event event = new Event(Type.IDENTITY_PROVIDER, new Payload(identityProvider1.getId(), identityProvider1.getDomain(), Action.UPDATE));
+                                return eventService.create(event).flatMap(irrelevant -> Single.just(identityProvider1));
                             });
                 })
                 .onErrorResumeNext(ex -> {
@@ -148,9 +154,13 @@ public class IdentityProviderServiceImpl implements IdentityProviderService {
                             if (clients.size() > 0) {
                                 throw new IdentityProviderWithClientsException();
                             }
-                            return Single.just(clients);
+                            return Single.just(identityProvider);
                         }))
-                .flatMapCompletable(irrelevant -> identityProviderRepository.delete(identityProviderId))
+                .flatMapCompletable(identityProvider -> {
+                    // create event for sync process
+                    Event event = new Event(Type.IDENTITY_PROVIDER, new Payload(identityProvider.getId(), identityProvider.getDomain(), Action.DELETE));
+                    return identityProviderRepository.delete(identityProviderId).andThen(eventService.create(event)).toCompletable();
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Completable.error(ex);
@@ -16,7 +16,12 @@
 package io.gravitee.am.service.impl;
 
 import io.gravitee.am.model.Role;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.common.event.Type;
 import io.gravitee.am.repository.management.api.RoleRepository;
+import io.gravitee.am.service.EventService;
 import io.gravitee.am.service.RoleService;
 import io.gravitee.am.service.exception.AbstractManagementException;
 import io.gravitee.am.service.exception.RoleAlreadyExistsException;
@@ -49,6 +54,9 @@ public class RoleServiceImpl implements RoleService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private EventService eventService;
+
     @Override
     public Single<Set<Role>> findByDomain(String domain) {
         LOGGER.debug("Find roles by domain: {}", domain);
@@ -99,6 +107,11 @@ public class RoleServiceImpl implements RoleService {
                     role.setUpdatedAt(role.getCreatedAt());
                     return roleRepository.create(role);
                 })
+                .flatMap(role -> {
+                    // create event for sync process
+                    Event event = new Event(Type.ROLE, new Payload(role.getId(), role.getDomain(), Action.CREATE));
+                    return eventService.create(event).flatMap(irrelevant -> Single.just(role));
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Single.error(ex);
@@ -126,6 +139,11 @@ public class RoleServiceImpl implements RoleService {
                                 return roleRepository.update(oldRole);
                             });
                 })
+                .flatMap(role -> {
+                    // create event for sync process
+                    Event event = new Event(Type.ROLE, new Payload(role.getId(), role.getDomain(), Action.UPDATE));
+                    return eventService.create(event).flatMap(irrelevant -> Single.just(role));
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Single.error(ex);
@@ -142,7 +160,11 @@ public class RoleServiceImpl implements RoleService {
         LOGGER.debug("Delete role {}", roleId);
         return roleRepository.findById(roleId)
                 .switchIfEmpty(Maybe.error(new RoleNotFoundException(roleId)))
-                .flatMapCompletable(role -> roleRepository.delete(roleId))
+                .flatMapCompletable(role -> {
+                    // create event for sync process
+                    Event event = new Event(Type.ROLE, new Payload(role.getId(), role.getDomain(), Action.DELETE));
+                    return roleRepository.delete(roleId).andThen(eventService.create(event)).toCompletable();
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Completable.error(ex);
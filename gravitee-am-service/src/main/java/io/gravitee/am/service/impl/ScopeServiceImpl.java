@@ -17,9 +17,14 @@ package io.gravitee.am.service.impl;
 
 import io.gravitee.am.model.Client;
 import io.gravitee.am.model.Role;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Payload;
+import io.gravitee.am.model.common.event.Type;
 import io.gravitee.am.model.oauth2.Scope;
 import io.gravitee.am.repository.management.api.ScopeRepository;
 import io.gravitee.am.service.ClientService;
+import io.gravitee.am.service.EventService;
 import io.gravitee.am.service.RoleService;
 import io.gravitee.am.service.ScopeService;
 import io.gravitee.am.service.exception.AbstractManagementException;
@@ -67,6 +72,9 @@ public class ScopeServiceImpl implements ScopeService {
     @Autowired
     private ClientService clientService;
 
+    @Autowired
+    private EventService eventService;
+
     @Override
     public Maybe<Scope> findById(String id) {
         LOGGER.debug("Find scope by ID: {}", id);
@@ -99,6 +107,11 @@ public class ScopeServiceImpl implements ScopeService {
 
                         return scopeRepository.create(scope);
                     })
+                .flatMap(scope -> {
+                    // create event for sync process
+                    Event event = new Event(Type.SCOPE, new Payload(scope.getId(), scope.getDomain(), Action.CREATE));
+                    return eventService.create(event).flatMap(irrelevant -> Single.just(scope));
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Single.error(ex);
@@ -123,6 +136,11 @@ public class ScopeServiceImpl implements ScopeService {
 
                     return scopeRepository.update(scope);
                 })
+                .flatMap(scope -> {
+                    // create event for sync process
+                    Event event = new Event(Type.SCOPE, new Payload(scope.getId(), scope.getDomain(), Action.UPDATE));
+                    return eventService.create(event).flatMap(irrelevant -> Single.just(scope));
+                })
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Single.error(ex);
@@ -173,6 +191,7 @@ public class ScopeServiceImpl implements ScopeService {
                                 updateClient.setEnabled(client.isEnabled());
                                 updateClient.setEnhanceScopesWithUserPermissions(client.isEnhanceScopesWithUserPermissions());
                                 updateClient.setGenerateNewTokenPerRequest(client.isGenerateNewTokenPerRequest());
+                                updateClient.setStatelessAccessToken(client.isStatelessAccessToken());
                                 updateClient.setIdentities(client.getIdentities());
                                 updateClient.setIdTokenCustomClaims(client.getIdTokenCustomClaims());
                                 updateClient.setIdTokenValiditySeconds(client.getIdTokenValiditySeconds());
@@ -181,9 +200,13 @@ public class ScopeServiceImpl implements ScopeService {
                                 return clientService.update(scope.getDomain(), client.getId(), updateClient);
                             }).toList();
 
-                    return Single.merge(removePermissionsFromRole, removeScopesFromClient).toList();
+                    return Single.merge(removePermissionsFromRole, removeScopesFromClient).toList().map(irrelevant -> scope);
+                })
+                .flatMapCompletable(scope -> {
+                    // create event for sync process
+                    Event event = new Event(Type.SCOPE, new Payload(scope.getId(), scope.getDomain(), Action.DELETE));
+                    return scopeRepository.delete(scopeId).andThen(eventService.create(event)).toCompletable();
                 })
-                .flatMapCompletable(irrelevant -> scopeRepository.delete(scopeId))
                 .onErrorResumeNext(ex -> {
                     if (ex instanceof AbstractManagementException) {
                         return Completable.error(ex);
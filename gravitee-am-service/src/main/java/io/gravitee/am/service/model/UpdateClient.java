@@ -53,6 +53,8 @@ public class UpdateClient {
 
     private boolean generateNewTokenPerRequest;
 
+    private boolean statelessAccessToken;
+
     public List<String> getRedirectUris() {
         return redirectUris;
     }
@@ -164,4 +166,12 @@ public class UpdateClient {
     public void setGenerateNewTokenPerRequest(boolean generateNewTokenPerRequest) {
         this.generateNewTokenPerRequest = generateNewTokenPerRequest;
     }
+
+    public boolean isStatelessAccessToken() {
+        return statelessAccessToken;
+    }
+
+    public void setStatelessAccessToken(boolean statelessAccessToken) {
+        this.statelessAccessToken = statelessAccessToken;
+    }
 }
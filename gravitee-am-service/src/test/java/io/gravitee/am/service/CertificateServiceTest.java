@@ -18,18 +18,25 @@ package io.gravitee.am.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.am.model.Certificate;
 import io.gravitee.am.model.Client;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Type;
+import io.gravitee.am.plugins.certificate.core.CertificateSchema;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.CertificateRepository;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.am.service.impl.CertificateServiceImpl;
+import io.gravitee.am.service.model.UpdateCertificate;
 import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -59,7 +66,7 @@ public class CertificateServiceTest {
     private ClientService clientService;
 
     @Mock
-    private DomainService domainService;
+    private EventService eventService;
 
     @Mock
     private ObjectMapper objectMapper;
@@ -121,6 +128,29 @@ public class CertificateServiceTest {
         testObserver.assertNotComplete();
     }
 
+    @Test
+    public void shouldUpdate() throws IOException {
+        CertificateSchema certificateSchema = new CertificateSchema();
+        certificateSchema.setProperties(Collections.emptyMap());
+        UpdateCertificate updateCertificate = new UpdateCertificate();
+        updateCertificate.setName("my-certificate");
+        updateCertificate.setConfiguration("{}");
+
+        when(objectMapper.readValue("{}", CertificateSchema.class)).thenReturn(certificateSchema);
+        when(certificateRepository.findById("my-certificate")).thenReturn(Maybe.just(new Certificate()));
+        when(certificateRepository.update(any(Certificate.class))).thenReturn(Single.just(new Certificate()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
+
+        TestObserver testObserver = certificateService.update(DOMAIN, "my-certificate", updateCertificate, "{}").test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(certificateRepository, times(1)).update(any(Certificate.class));
+        verifyEvent(Action.UPDATE);
+    }
+
     @Test
     public void shouldDelete() throws IOException {
         // prepare file system
@@ -134,6 +164,7 @@ public class CertificateServiceTest {
         when(certificateRepository.findById("my-certificate")).thenReturn(Maybe.just(certificate));
         when(clientService.findByCertificate("my-certificate")).thenReturn(Single.just(Collections.emptySet()));
         when(certificateRepository.delete("my-certificate")).thenReturn(Completable.complete());
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = certificateService.delete("my-certificate").test();
         testObserver.awaitTerminalEvent();
@@ -144,6 +175,7 @@ public class CertificateServiceTest {
         verify(certificateRepository, times(1)).findById("my-certificate");
         verify(clientService, times(1)).findByCertificate("my-certificate");
         verify(certificateRepository, times(1)).delete("my-certificate");
+        verifyEvent(Action.DELETE);
     }
 
     @Test
@@ -188,4 +220,11 @@ public class CertificateServiceTest {
         verify(clientService, times(1)).findByCertificate("my-certificate");
         verify(certificateRepository, never()).delete("my-certificate");
     }
+
+    private void verifyEvent(Action action) {
+        ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        verify(eventService, times(1)).create(eventCaptor.capture());
+        Assert.assertEquals(Type.CERTIFICATE, eventCaptor.getValue().getType());
+        Assert.assertEquals(action, eventCaptor.getValue().getPayload().getAction());
+    }
 }
@@ -15,14 +15,20 @@
  */
 package io.gravitee.am.service;
 
+import io.gravitee.am.model.Certificate;
 import io.gravitee.am.model.Client;
-import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.IdentityProvider;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Type;
 import io.gravitee.am.model.common.Page;
 import io.gravitee.am.repository.exceptions.TechnicalException;
+import io.gravitee.am.repository.management.api.CertificateRepository;
 import io.gravitee.am.repository.management.api.ClientRepository;
+import io.gravitee.am.service.exception.CertificateNotFoundException;
 import io.gravitee.am.service.exception.ClientAlreadyExistsException;
 import io.gravitee.am.service.exception.ClientNotFoundException;
+import io.gravitee.am.service.exception.InvalidClientMetadataException;
 import io.gravitee.am.service.exception.TechnicalManagementException;
 import io.gravitee.am.service.impl.ClientServiceImpl;
 import io.gravitee.am.service.model.NewClient;
@@ -32,8 +38,10 @@ import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -59,7 +67,7 @@ public class ClientServiceTest {
     private ClientService clientService = new ClientServiceImpl();
 
     @Mock
-    private DomainService domainService;
+    private EventService eventService;
 
     @Mock
     private IdentityProviderService identityProviderService;
@@ -67,6 +75,9 @@ public class ClientServiceTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Mock
+    private CertificateRepository certificateRepository;
+
     private final static String DOMAIN = "domain1";
 
     @Test
@@ -337,7 +348,7 @@ public class ClientServiceTest {
         when(newClient.getClientId()).thenReturn("my-client");
         when(clientRepository.findByClientIdAndDomain("my-client", DOMAIN)).thenReturn(Maybe.empty());
         when(clientRepository.create(any(Client.class))).thenReturn(Single.just(new Client()));
-        when(domainService.reload(DOMAIN)).thenReturn(Single.just(new Domain()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = clientService.create(DOMAIN, newClient).test();
         testObserver.awaitTerminalEvent();
@@ -347,6 +358,7 @@ public class ClientServiceTest {
 
         verify(clientRepository, times(1)).findByClientIdAndDomain(anyString(), anyString());
         verify(clientRepository, times(1)).create(any(Client.class));
+        verifyEvent(Action.CREATE);
     }
 
     @Test
@@ -370,6 +382,7 @@ public class ClientServiceTest {
         when(newClient.getClientId()).thenReturn("my-client");
         when(clientRepository.findByClientIdAndDomain("my-client", DOMAIN)).thenReturn(Maybe.empty());
         when(clientRepository.create(any(Client.class))).thenReturn(Single.error(TechnicalException::new));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver<Client> testObserver = new TestObserver<>();
         clientService.create(DOMAIN, newClient).subscribe(testObserver);
@@ -404,7 +417,7 @@ public class ClientServiceTest {
         when(identityProviderService.findById("id1")).thenReturn(Maybe.just(new IdentityProvider()));
         when(identityProviderService.findById("id2")).thenReturn(Maybe.just(new IdentityProvider()));
         when(clientRepository.update(any(Client.class))).thenReturn(Single.just(new Client()));
-        when(domainService.reload(DOMAIN)).thenReturn(Single.just(new Domain()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = clientService.update(DOMAIN, "my-client", updateClient).test();
         testObserver.awaitTerminalEvent();
@@ -415,6 +428,54 @@ public class ClientServiceTest {
         verify(clientRepository, times(1)).findById(anyString());
         verify(identityProviderService, times(2)).findById(anyString());
         verify(clientRepository, times(1)).update(any(Client.class));
+        verifyEvent(Action.UPDATE);
+    }
+
+    @Test
+    public void shouldUpdate_statelessAccessToken() {
+        UpdateClient updateClient = Mockito.mock(UpdateClient.class);
+        when(updateClient.isStatelessAccessToken()).thenReturn(true);
+        when(updateClient.getCertificate()).thenReturn("my-certificate");
+        when(clientRepository.findById("my-client")).thenReturn(Maybe.just(new Client()));
+        when(certificateRepository.findById("my-certificate")).thenReturn(Maybe.just(new Certificate()));
+        when(clientRepository.update(any(Client.class))).thenReturn(Single.just(new Client()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
+
+        TestObserver testObserver = clientService.update(DOMAIN, "my-client", updateClient).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertComplete();
+        testObserver.assertNoErrors();
+
+        verify(clientRepository, times(1)).update(any(Client.class));
+    }
+
+    @Test
+    public void shouldNotUpdate_statelessAccessTokenWithoutCertificate() {
+        UpdateClient updateClient = Mockito.mock(UpdateClient.class);
+        when(updateClient.isStatelessAccessToken()).thenReturn(true);
+        when(clientRepository.findById("my-client")).thenReturn(Maybe.just(new Client()));
+
+        TestObserver testObserver = clientService.update(DOMAIN, "my-client", updateClient).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertError(InvalidClientMetadataException.class);
+        verify(clientRepository, never()).update(any(Client.class));
+    }
+
+    @Test
+    public void shouldNotUpdate_statelessAccessTokenWithUnknownCertificate() {
+        UpdateClient updateClient = Mockito.mock(UpdateClient.class);
+        when(updateClient.isStatelessAccessToken()).thenReturn(true);
+        when(updateClient.getCertificate()).thenReturn("unknown-certificate");
+        when(clientRepository.findById("my-client")).thenReturn(Maybe.just(new Client()));
+        when(certificateRepository.findById("unknown-certificate")).thenReturn(Maybe.empty());
+
+        TestObserver testObserver = clientService.update(DOMAIN, "my-client", updateClient).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertError(CertificateNotFoundException.class);
+        verify(clientRepository, never()).update(any(Client.class));
     }
 
     @Test
@@ -435,6 +496,7 @@ public class ClientServiceTest {
         UpdateClient updateClient = Mockito.mock(UpdateClient.class);
         when(clientRepository.findById("my-client")).thenReturn(Maybe.just(new Client()));
         when(clientRepository.update(any(Client.class))).thenReturn(Single.error(TechnicalException::new));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = clientService.update(DOMAIN, "my-client", updateClient).test();
         testObserver.assertError(TechnicalManagementException.class);
@@ -479,7 +541,7 @@ public class ClientServiceTest {
         when(existingClient.getDomain()).thenReturn("my-domain");
         when(clientRepository.findById("my-client")).thenReturn(Maybe.just(existingClient));
         when(clientRepository.delete("my-client")).thenReturn(Completable.complete());
-        when(domainService.reload("my-domain")).thenReturn(Single.just(new Domain()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = clientService.delete("my-client").test();
         testObserver.awaitTerminalEvent();
@@ -488,12 +550,14 @@ public class ClientServiceTest {
         testObserver.assertNoErrors();
 
         verify(clientRepository, times(1)).delete("my-client");
+        verifyEvent(Action.DELETE);
     }
 
     @Test
     public void shouldDelete_technicalException() {
         when(clientRepository.findById("my-client")).thenReturn(Maybe.just(new Client()));
         when(clientRepository.delete(anyString())).thenReturn(Completable.error(TechnicalException::new));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = clientService.delete("my-client").test();
         testObserver.awaitTerminalEvent();
@@ -525,4 +589,11 @@ public class ClientServiceTest {
 
         verify(clientRepository, never()).delete("my-client");
     }
+
+    private void verifyEvent(Action action) {
+        ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        verify(eventService, times(1)).create(eventCaptor.capture());
+        Assert.assertEquals(Type.CLIENT, eventCaptor.getValue().getType());
+        Assert.assertEquals(action, eventCaptor.getValue().getPayload().getAction());
+    }
 }
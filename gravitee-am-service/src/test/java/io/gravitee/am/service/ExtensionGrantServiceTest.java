@@ -16,8 +16,8 @@
 package io.gravitee.am.service;
 
 import io.gravitee.am.model.Client;
-import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.ExtensionGrant;
+import io.gravitee.am.model.common.event.Event;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.ExtensionGrantRepository;
 import io.gravitee.am.service.exception.ExtensionGrantAlreadyExistsException;
@@ -54,7 +54,7 @@ public class ExtensionGrantServiceTest {
     private ExtensionGrantService extensionGrantService = new ExtensionGrantServiceImpl();
 
     @Mock
-    private DomainService domainService;
+    private EventService eventService;
 
     @Mock
     private ClientService clientService;
@@ -122,7 +122,7 @@ public class ExtensionGrantServiceTest {
         when(newExtensionGrant.getGrantType()).thenReturn("my-extension-grant");
         when(extensionGrantRepository.findByDomainAndGrantType(DOMAIN, "my-extension-grant")).thenReturn(Maybe.empty());
         when(extensionGrantRepository.create(any(ExtensionGrant.class))).thenReturn(Single.just(new ExtensionGrant()));
-        when(domainService.reload(DOMAIN)).thenReturn(Single.just(new Domain()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = extensionGrantService.create(DOMAIN, newExtensionGrant).test();
         testObserver.awaitTerminalEvent();
@@ -155,6 +155,7 @@ public class ExtensionGrantServiceTest {
         when(newExtensionGrant.getGrantType()).thenReturn("my-extension-grant");
         when(extensionGrantRepository.findByDomainAndGrantType(DOMAIN, "my-extension-grant")).thenReturn(Maybe.empty());
         when(extensionGrantRepository.create(any(ExtensionGrant.class))).thenReturn(Single.error(TechnicalException::new));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver<ExtensionGrant> testObserver = new TestObserver<>();
         extensionGrantService.create(DOMAIN, newExtensionGrant).subscribe(testObserver);
@@ -187,7 +188,7 @@ public class ExtensionGrantServiceTest {
         when(extensionGrantRepository.findById("my-extension-grant")).thenReturn(Maybe.just(new ExtensionGrant()));
         when(extensionGrantRepository.findByDomainAndGrantType(DOMAIN, "my-extension-grant")).thenReturn(Maybe.empty());
         when(extensionGrantRepository.update(any(ExtensionGrant.class))).thenReturn(Single.just(new ExtensionGrant()));
-        when(domainService.reload(DOMAIN)).thenReturn(Single.just(new Domain()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = extensionGrantService.update(DOMAIN, "my-extension-grant", updateExtensionGrant).test();
         testObserver.awaitTerminalEvent();
@@ -262,6 +263,7 @@ public class ExtensionGrantServiceTest {
     public void shouldDelete_technicalException() {
         when(extensionGrantRepository.findById("my-extension-grant")).thenReturn(Maybe.just(new ExtensionGrant()));
         when(extensionGrantRepository.delete(anyString())).thenReturn(Completable.error(TechnicalException::new));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = extensionGrantService.delete(DOMAIN, "my-extension-grant").test();
 
@@ -276,8 +278,9 @@ public class ExtensionGrantServiceTest {
         when(extensionGrantRepository.findById("my-extension-grant")).thenReturn(Maybe.just(existingExtensionGrant));
         when(extensionGrantRepository.findByDomainAndGrantType(DOMAIN, "my-extension-grant")).thenReturn(Maybe.empty());
         when(extensionGrantRepository.delete("my-extension-grant")).thenReturn(Completable.complete());
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
         when(clientService.findByExtensionGrant("my-extension-grant")).thenReturn(Single.just(Collections.emptySet()));
-        when(domainService.reload(DOMAIN)).thenReturn(Single.just(new Domain()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = extensionGrantService.delete(DOMAIN, "my-extension-grant").test();
         testObserver.awaitTerminalEvent();
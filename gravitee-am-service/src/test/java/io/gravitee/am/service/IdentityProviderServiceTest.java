@@ -16,8 +16,10 @@
 package io.gravitee.am.service;
 
 import io.gravitee.am.model.Client;
-import io.gravitee.am.model.Domain;
 import io.gravitee.am.model.IdentityProvider;
+import io.gravitee.am.model.common.event.Action;
+import io.gravitee.am.model.common.event.Event;
+import io.gravitee.am.model.common.event.Type;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.IdentityProviderRepository;
 import io.gravitee.am.service.exception.IdentityProviderNotFoundException;
@@ -30,8 +32,10 @@ import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -58,7 +62,7 @@ public class IdentityProviderServiceTest {
     private IdentityProviderRepository identityProviderRepository;
 
     @Mock
-    private DomainService domainService;
+    private EventService eventService;
 
     @Mock
     private ClientService clientService;
@@ -121,7 +125,7 @@ public class IdentityProviderServiceTest {
     public void shouldCreate() {
         NewIdentityProvider newIdentityProvider = Mockito.mock(NewIdentityProvider.class);
         when(identityProviderRepository.create(any(IdentityProvider.class))).thenReturn(Single.just(new IdentityProvider()));
-        when(domainService.reload(DOMAIN)).thenReturn(Single.just(new Domain()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = identityProviderService.create(DOMAIN, newIdentityProvider).test();
         testObserver.awaitTerminalEvent();
@@ -130,12 +134,14 @@ public class IdentityProviderServiceTest {
         testObserver.assertNoErrors();
 
         verify(identityProviderRepository, times(1)).create(any(IdentityProvider.class));
+        verifyEvent(Action.CREATE);
     }
 
     @Test
     public void shouldCreate_technicalException() {
         NewIdentityProvider newIdentityProvider = Mockito.mock(NewIdentityProvider.class);
         when(identityProviderRepository.create(any(IdentityProvider.class))).thenReturn(Single.error(TechnicalException::new));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver<IdentityProvider> testObserver = new TestObserver<>();
         identityProviderService.create(DOMAIN, newIdentityProvider).subscribe(testObserver);
@@ -149,7 +155,7 @@ public class IdentityProviderServiceTest {
         UpdateIdentityProvider updateIdentityProvider = Mockito.mock(UpdateIdentityProvider.class);
         when(identityProviderRepository.findById("my-identity-provider")).thenReturn(Maybe.just(new IdentityProvider()));
         when(identityProviderRepository.update(any(IdentityProvider.class))).thenReturn(Single.just(new IdentityProvider()));
-        when(domainService.reload(DOMAIN)).thenReturn(Single.just(new Domain()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = identityProviderService.update(DOMAIN, "my-identity-provider", updateIdentityProvider).test();
         testObserver.awaitTerminalEvent();
@@ -158,6 +164,7 @@ public class IdentityProviderServiceTest {
         testObserver.assertNoErrors();
 
         verify(identityProviderRepository, times(1)).update(any(IdentityProvider.class));
+        verifyEvent(Action.UPDATE);
     }
 
     @Test
@@ -203,6 +210,7 @@ public class IdentityProviderServiceTest {
     public void shouldDelete_technicalException() {
         when(identityProviderRepository.findById("my-identity-provider")).thenReturn(Maybe.just(new IdentityProvider()));
         when(identityProviderRepository.delete(anyString())).thenReturn(Completable.error(TechnicalException::new));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = identityProviderService.delete("my-identity-provider").test();
 
@@ -215,6 +223,7 @@ public class IdentityProviderServiceTest {
         IdentityProvider existingIdentityProvider = Mockito.mock(IdentityProvider.class);
         when(identityProviderRepository.findById("my-identity-provider")).thenReturn(Maybe.just(existingIdentityProvider));
         when(identityProviderRepository.delete("my-identity-provider")).thenReturn(Completable.complete());
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
         when(clientService.findByIdentityProvider("my-identity-provider")).thenReturn(Single.just(Collections.emptySet()));
 
         TestObserver testObserver = identityProviderService.delete( "my-identity-provider").test();
@@ -224,5 +233,13 @@ public class IdentityProviderServiceTest {
         testObserver.assertNoErrors();
 
         verify(identityProviderRepository, times(1)).delete("my-identity-provider");
+        verifyEvent(Action.DELETE);
+    }
+
+    private void verifyEvent(Action action) {
+        ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        verify(eventService, times(1)).create(eventCaptor.capture());
+        Assert.assertEquals(Type.IDENTITY_PROVIDER, eventCaptor.getValue().getType());
+        Assert.assertEquals(action, eventCaptor.getValue().getPayload().getAction());
     }
 }
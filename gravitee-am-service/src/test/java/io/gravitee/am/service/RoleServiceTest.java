@@ -16,6 +16,7 @@
 package io.gravitee.am.service;
 
 import io.gravitee.am.model.Role;
+import io.gravitee.am.model.common.event.Event;
 import io.gravitee.am.repository.exceptions.TechnicalException;
 import io.gravitee.am.repository.management.api.RoleRepository;
 import io.gravitee.am.service.exception.RoleAlreadyExistsException;
@@ -54,7 +55,7 @@ public class RoleServiceTest {
     private RoleService roleService = new RoleServiceImpl();
 
     @Mock
-    private DomainService domainService;
+    private EventService eventService;
 
     @Mock
     private ClientService clientService;
@@ -143,6 +144,7 @@ public class RoleServiceTest {
         NewRole newRole = Mockito.mock(NewRole.class);
         when(roleRepository.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.emptySet()));
         when(roleRepository.create(any(Role.class))).thenReturn(Single.just(new Role()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = roleService.create(DOMAIN, newRole).test();
         testObserver.awaitTerminalEvent();
@@ -194,6 +196,7 @@ public class RoleServiceTest {
         when(roleRepository.findById("my-role")).thenReturn(Maybe.just(new Role()));
         when(roleRepository.findByDomain(DOMAIN)).thenReturn(Single.just(Collections.emptySet()));
         when(roleRepository.update(any(Role.class))).thenReturn(Single.just(new Role()));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = roleService.update(DOMAIN,"my-role", updateRole).test();
         testObserver.awaitTerminalEvent();
@@ -274,6 +277,7 @@ public class RoleServiceTest {
     public void shouldDelete_technicalException() {
         when(roleRepository.findById("my-role")).thenReturn(Maybe.just(new Role()));
         when(roleRepository.delete(anyString())).thenReturn(Completable.error(TechnicalException::new));
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = roleService.delete("my-role").test();
 
@@ -285,6 +289,7 @@ public class RoleServiceTest {
     public void shouldDelete() {
         when(roleRepository.findById("my-role")).thenReturn(Maybe.just(new Role()));
         when(roleRepository.delete("my-role")).thenReturn(Completable.complete());
+        when(eventService.create(any(Event.class))).thenReturn(Single.just(new Event()));
 
         TestObserver testObserver = roleService.delete( "my-role").test();
         testObserver.awaitTerminalEvent();
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password;
+
+import io.gravitee.am.service.authentication.crypto.password.bcrypt.BCryptPasswordEncoder;
+import io.gravitee.am.service.exception.authentication.InternalAuthenticationServiceException;
+import io.reactivex.observers.TestObserver;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class PasswordEncoderWorkerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private PasswordEncoderWorker worker;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (worker != null) {
+            worker.destroy();
+        }
+    }
+
+    @Test
+    public void shouldSubmit_onWorkerThread() {
+        worker = new PasswordEncoderWorker(1, 1);
+
+        TestObserver<String> testObserver = worker.submit(() -> Thread.currentThread().getName()).test();
+        testObserver.awaitTerminalEvent();
+
+        testObserver.assertValue(threadName -> threadName.startsWith("gio.am-password-encoder-"));
+    }
+
+    @Test
+    public void shouldReject_queueFull() {
+        worker = new PasswordEncoderWorker(1, 1);
+
+        worker.submit(() -> release.await(10, TimeUnit.SECONDS)).test();
+        worker.submit(() -> release.await(10, TimeUnit.SECONDS)).test();
+        TestObserver<Boolean> testObserver = worker.submit(() -> true).test();
+
+        testObserver.assertError(InternalAuthenticationServiceException.class);
+        Assert.assertEquals(1, worker.getRejectedCount());
+    }
+
+    @Test
+    public void shouldEmit_onCallerContext() {
+        ExecutorService callerContext = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "caller-context"));
+        try {
+            worker = new PasswordEncoderWorker(1, 1, () -> callerContext);
+
+            TestObserver<String> testObserver = worker.submit(() -> Thread.currentThread().getName())
+                    .map(threadName -> threadName + "/" + Thread.currentThread().getName())
+                    .test();
+            testObserver.awaitTerminalEvent();
+
+            testObserver.assertValue(threadNames -> threadNames.startsWith("gio.am-password-encoder-") && threadNames.endsWith("/caller-context"));
+        } finally {
+            callerContext.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldMatchAsync_bcrypt() {
+        worker = new PasswordEncoderWorker(1, -1);
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(worker);
+        String encodedPassword = passwordEncoder.encode("password");
+
+        TestObserver<Boolean> testObserver = passwordEncoder.matchesAsync("password", encodedPassword).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertValue(true);
+
+        testObserver = passwordEncoder.matchesAsync("wrongpassword", encodedPassword).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertValue(false);
+    }
+
+    @Test
+    public void shouldMatchAsync_noWorker() {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+        TestObserver<Boolean> testObserver = passwordEncoder.matchesAsync("password", passwordEncoder.encode("password")).test();
+        testObserver.awaitTerminalEvent();
+        testObserver.assertValue(true);
+    }
+
+    @Test
+    public void shouldExpose_metrics() {
+        worker = new PasswordEncoderWorker(1, 1);
+
+        worker.submit(() -> release.await(10, TimeUnit.SECONDS)).test();
+        worker.submit(() -> release.await(10, TimeUnit.SECONDS)).test();
+        worker.submit(() -> true).test();
+
+        Map<String, Object> metrics = worker.metrics();
+        Assert.assertEquals(1, metrics.get("poolSize"));
+        Assert.assertEquals(1, metrics.get("queued"));
+        Assert.assertEquals(1L, metrics.get("rejected"));
+    }
+}
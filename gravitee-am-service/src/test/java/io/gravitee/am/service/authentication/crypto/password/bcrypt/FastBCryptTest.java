@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.authentication.crypto.password.bcrypt;
+
+import org.junit.Test;
+
+import java.security.SecureRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class FastBCryptTest {
+
+    private static final String[] PASSWORDS = {
+            "", "a", "password", "\u00e9t\u00e9", "\ud83d\ude00x", "\ud800alone",
+            "0123456789012345678901234567890123456789012345678901234567890123456789012345678901234567890123456789"
+    };
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Test
+    public void shouldHash_sameAsBCrypt() {
+        for (int i = 0; i < 20; i++) {
+            for (String password : PASSWORDS) {
+                String salt = BCrypt.gensalt(4, random);
+                String candidate = password + i;
+                assertEquals(BCrypt.hashpw(candidate, salt), FastBCrypt.hashpw(candidate, salt));
+            }
+        }
+    }
+
+    @Test
+    public void shouldHash_knownVector() {
+        assertEquals("$2a$06$DCq7YPn5Rq63x1Lad4cll.TV4S6ytwfsfvkgY8jIucDrjc8deX1s.",
+                FastBCrypt.hashpw("", "$2a$06$DCq7YPn5Rq63x1Lad4cll."));
+    }
+
+    @Test
+    public void shouldHash_noMinorRevision() {
+        String salt = "$2$05$" + BCrypt.gensalt(5, random).substring(7);
+        assertEquals(BCrypt.hashpw("password", salt), FastBCrypt.hashpw("password", salt));
+    }
+
+    @Test
+    public void shouldHash_2b2yRevisions() {
+        String salt = BCrypt.gensalt(4, random);
+        String hashed = BCrypt.hashpw("password", salt);
+
+        assertEquals("$2b$" + hashed.substring(4), FastBCrypt.hashpw("password", "$2b$" + salt.substring(4)));
+        assertEquals("$2y$" + hashed.substring(4), FastBCrypt.hashpw("password", "$2y$" + salt.substring(4)));
+        assertTrue(FastBCrypt.checkpw("password", "$2y$" + hashed.substring(4)));
+    }
+
+    @Test
+    public void shouldCheckpw() {
+        for (String password : PASSWORDS) {
+            String hashed = BCrypt.hashpw(password + "!", BCrypt.gensalt(4, random));
+            assertTrue(FastBCrypt.checkpw(password + "!", hashed));
+            assertFalse(FastBCrypt.checkpw(password + "?", hashed));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotHash_invalidRevision() {
+        FastBCrypt.hashpw("password", "$2c$04$DCq7YPn5Rq63x1Lad4cll.");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotHash_invalidSalt() {
+        FastBCrypt.hashpw("password", "$2a$04$DCq7YPn5Rq63x1Lad4cl*.");
+    }
+}
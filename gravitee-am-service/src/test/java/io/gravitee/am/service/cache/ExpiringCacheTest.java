@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.am.service.cache;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ExpiringCacheTest {
+
+    @Test
+    public void shouldGet_cachedValue() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("key", "value", System.currentTimeMillis() + 60000);
+
+        assertEquals("value", cache.get("key"));
+        assertNull(cache.get("unknown"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldPeek_withoutStatistics() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("key", "value", System.currentTimeMillis() + 60000);
+
+        assertEquals("value", cache.peek("key"));
+        assertNull(cache.peek("unknown"));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldNotGet_expiredValue() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("key", "value", System.currentTimeMillis() + 10);
+
+        Thread.sleep(20);
+
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldNotPut_alreadyExpired() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("key", "value", System.currentTimeMillis() - 1);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldNotExceed_maxSize() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2);
+        long expireAt = System.currentTimeMillis() + 60000;
+        cache.put("key1", "value1", expireAt);
+        cache.put("key2", "value2", expireAt);
+        cache.put("key3", "value3", expireAt);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("value3", cache.get("key3"));
+    }
+
+    @Test
+    public void shouldEvictBatch_maxSize() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(100);
+        long expireAt = System.currentTimeMillis() + 60000;
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, "value" + i, expireAt);
+        }
+
+        // a tenth of the cache is freed at once
+        cache.put("key100", "value100", expireAt);
+        assertEquals(91, cache.size());
+        assertEquals(10, cache.getEvictionCount());
+
+        // the next inserts do not evict anything until the cache is full again
+        for (int i = 101; i < 110; i++) {
+            cache.put("key" + i, "value" + i, expireAt);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(10, cache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldDropExpiredEntries_first() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2);
+        cache.put("key1", "value1", System.currentTimeMillis() + 10);
+        cache.put("key2", "value2", System.currentTimeMillis() + 60000);
+
+        Thread.sleep(20);
+        cache.put("key3", "value3", System.currentTimeMillis() + 60000);
+
+        assertEquals(2, cache.size());
+        assertEquals("value2", cache.get("key2"));
+        assertEquals("value3", cache.get("key3"));
+    }
+
+    @Test
+    public void shouldEvict() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("key", "value", System.currentTimeMillis() + 60000);
+
+        assertTrue(cache.evict("key"));
+        assertFalse(cache.evict("key"));
+        assertNull(cache.get("key"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldExpose_metrics() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("key", "value", System.currentTimeMillis() + 60000);
+        cache.get("key");
+        cache.get("unknown");
+
+        Map<String, Object> metrics = cache.metrics();
+        assertEquals(1L, metrics.get("size"));
+        assertEquals(1L, metrics.get("hits"));
+        assertEquals(1L, metrics.get("misses"));
+        assertEquals(0L, metrics.get("evictions"));
+    }
+}
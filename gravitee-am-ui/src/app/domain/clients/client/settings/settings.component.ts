@@ -166,6 +166,11 @@ export class ClientSettingsComponent implements OnInit {
     this.formChanged = true;
   }
 
+  enableStatelessAccessToken(event) {
+    this.client.statelessAccessToken = event.checked;
+    this.formChanged = true;
+  }
+
   update() {
     this.client.authorizedGrantTypes = this.selectedGrantTypes.concat(this.selectedCustomGrantTypes);
     this.client.scopes = _.map(this.selectedScopes, scope => scope.key);
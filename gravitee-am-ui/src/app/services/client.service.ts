@@ -51,7 +51,8 @@ export class ClientService {
       'oauth2Identities': client.oauth2Identities,
       'certificate': client.certificate,
       'enhanceScopesWithUserPermissions' : client.enhanceScopesWithUserPermissions,
-      'generateNewTokenPerRequest' : client.generateNewTokenPerRequest
+      'generateNewTokenPerRequest' : client.generateNewTokenPerRequest,
+      'statelessAccessToken' : client.statelessAccessToken
     });
   }
 